@@ -0,0 +1,99 @@
+/*
+ * MIT License
+ * <p>
+ * Copyright (c) 2019-present Polina Bevad, Sergey Hvatov, Vladislav Marchenko
+ * <p>
+ * Permission is hereby granted, free of charge, to any person obtaining a copy
+ * of this software and associated documentation files (the "Software"), to deal
+ * in the Software without restriction, including without limitation the rights
+ * to use, copy, modify, merge, publish, distribute, sublicense, and/or sell
+ * copies of the Software, and to permit persons to whom the Software is
+ * furnished to do so, subject to the following conditions:
+ * <p>
+ * The above copyright notice and this permission notice shall be included in all
+ * copies or substantial portions of the Software.
+ * <p>
+ * THE SOFTWARE IS PROVIDED "AS IS", WITHOUT WARRANTY OF ANY KIND, EXPRESS OR
+ * IMPLIED, INCLUDING BUT NOT LIMITED TO THE WARRANTIES OF MERCHANTABILITY,
+ * FITNESS FOR A PARTICULAR PURPOSE AND NONINFRINGEMENT. IN NO EVENT SHALL THE
+ * AUTHORS OR COPYRIGHT HOLDERS BE LIABLE FOR ANY CLAIM, DAMAGES OR OTHER
+ * LIABILITY, WHETHER IN AN ACTION OF CONTRACT, TORT OR OTHERWISE, ARISING FROM,
+ * OUT OF OR IN CONNECTION WITH THE SOFTWARE OR THE USE OR OTHER DEALINGS IN THE
+ * SOFTWARE.
+ */
+
+package executors;
+
+import bam.regular.BEDFeature;
+import org.apache.logging.log4j.LogManager;
+import org.apache.logging.log4j.Logger;
+import org.openjdk.jmh.annotations.*;
+
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Measures the cost of logging the start and the end of processing of one feature,
+ * as {@link FeatureCallable} does it, with the layout of the shipped log4j2 configuration
+ * (log4j2-benchmark.xml, it limits the size of the file):
+ * the messages built by the string concatenation and written by the synchronous loggers (as before),
+ * and the parameterized messages written by the synchronous and by the asynchronous loggers.
+ * The allocations per feature are shown by the gc profiler.
+ * Run it with {@code ./gradlew jmh -Pjmh.includes="FeatureLoggingBenchmark -prof gc"}.
+ *
+ * @author Sergey Khvatov
+ */
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.NANOSECONDS)
+@State(Scope.Benchmark)
+@Warmup(iterations = 5, time = 1)
+@Measurement(iterations = 5, time = 1)
+public class FeatureLoggingBenchmark {
+
+    /**
+     * Context selector of the synchronous loggers, it overrides the one from log4j2.component.properties.
+     */
+    private static final String SYNC_LOGGERS = "-DLog4jContextSelector=org.apache.logging.log4j.core.selector.ClassLoaderContextSelector";
+
+    /**
+     * Configuration of the benchmark.
+     */
+    private static final String CONFIGURATION = "-Dlog4j.configurationFile=log4j2-benchmark.xml";
+
+    private Logger logger;
+
+    private BEDFeature feature;
+
+    @Setup
+    public void setUp() {
+        logger = LogManager.getLogger(FeatureCallable.class);
+        feature = new BEDFeature("chr1", 100000, 101000, "GENE");
+    }
+
+    @Benchmark
+    @Fork(value = 1, jvmArgsAppend = {CONFIGURATION, SYNC_LOGGERS})
+    public void concatenatedSync() {
+        logger.info("Processing feature: " + feature.toString());
+        logger.info("End of processing feature: " + feature.toString());
+    }
+
+    @Benchmark
+    @Fork(value = 1, jvmArgsAppend = {CONFIGURATION, SYNC_LOGGERS})
+    public void parameterizedSync() {
+        log();
+    }
+
+    @Benchmark
+    @Fork(value = 1, jvmArgsAppend = CONFIGURATION)
+    public void parameterizedAsync() {
+        log();
+    }
+
+    private void log() {
+        if (logger.isInfoEnabled()) {
+            logger.info("Processing feature: {}", feature);
+        }
+        if (logger.isInfoEnabled()) {
+            logger.info("End of processing feature: {}", feature);
+        }
+    }
+}
@@ -0,0 +1,176 @@
+/*
+ * MIT License
+ * <p>
+ * Copyright (c) 2019-present Polina Bevad, Sergey Hvatov, Vladislav Marchenko
+ * <p>
+ * Permission is hereby granted, free of charge, to any person obtaining a copy
+ * of this software and associated documentation files (the "Software"), to deal
+ * in the Software without restriction, including without limitation the rights
+ * to use, copy, modify, merge, publish, distribute, sublicense, and/or sell
+ * copies of the Software, and to permit persons to whom the Software is
+ * furnished to do so, subject to the following conditions:
+ * <p>
+ * The above copyright notice and this permission notice shall be included in all
+ * copies or substantial portions of the Software.
+ * <p>
+ * THE SOFTWARE IS PROVIDED "AS IS", WITHOUT WARRANTY OF ANY KIND, EXPRESS OR
+ * IMPLIED, INCLUDING BUT NOT LIMITED TO THE WARRANTIES OF MERCHANTABILITY,
+ * FITNESS FOR A PARTICULAR PURPOSE AND NONINFRINGEMENT. IN NO EVENT SHALL THE
+ * AUTHORS OR COPYRIGHT HOLDERS BE LIABLE FOR ANY CLAIM, DAMAGES OR OTHER
+ * LIABILITY, WHETHER IN AN ACTION OF CONTRACT, TORT OR OTHERWISE, ARISING FROM,
+ * OUT OF OR IN CONNECTION WITH THE SOFTWARE OR THE USE OR OTHER DEALINGS IN THE
+ * SOFTWARE.
+ */
+
+package executors;
+
+import genome.compare.common.ComparatorType;
+import htsjdk.samtools.*;
+import org.openjdk.jmh.annotations.*;
+
+import java.io.File;
+import java.io.IOException;
+import java.io.PrintWriter;
+import java.nio.file.Files;
+import java.util.Arrays;
+import java.util.Random;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Measures the number of the features of the BED file, that are processed per second,
+ * when the BAM files are read by the {@code -th} platform threads and by the virtual
+ * threads (see {@link VirtualThreads}), for the different numbers of the platform threads.
+ * The BAM files are generated in the temporary directory, so the benchmark should be
+ * run with the cold page cache (or on the slow disk) to see the effect of the waiting for I/O.
+ * Virtual threads require JDK 21+, on the older JDKs both modes use platform threads.
+ * Run it with {@code ./gradlew jmh -Pjmh.includes=FetchModeBenchmark}.
+ *
+ * @author Sergey Khvatov
+ */
+@BenchmarkMode(Mode.Throughput)
+@OutputTimeUnit(TimeUnit.SECONDS)
+@State(Scope.Benchmark)
+@Warmup(iterations = 3, time = 2)
+@Measurement(iterations = 5, time = 2)
+@Fork(1)
+@OperationsPerInvocation(FetchModeBenchmark.FEATURES_NUMBER)
+public class FetchModeBenchmark {
+
+    /**
+     * Number of the features in the BED file.
+     */
+    static final int FEATURES_NUMBER = 64;
+
+    /**
+     * Length of the feature.
+     */
+    private static final int FEATURE_LENGTH = 400;
+
+    /**
+     * Distance between the starts of the features.
+     */
+    private static final int FEATURE_STEP = 1000;
+
+    /**
+     * Length of the read.
+     */
+    private static final int READ_LENGTH = 100;
+
+    /**
+     * Distance between the starts of the reads.
+     */
+    private static final int READ_STEP = 10;
+
+    /**
+     * Name of the chromosome.
+     */
+    private static final String CHROM = "chr1";
+
+    /**
+     * Nucleotides used to generate sequences.
+     */
+    private static final String NUCLEOTIDES = "ACGT";
+
+    @Param({"1", "2", "4", "8"})
+    public int threadsNum;
+
+    @Param({"false", "true"})
+    public boolean virtualThreads;
+
+    private File directory;
+
+    private GenomeComparatorExecutor executor;
+
+    @Setup
+    public void setUp() throws IOException {
+        directory = Files.createTempDirectory("fetch-benchmark").toFile();
+        Random random = new Random(42);
+        StringBuilder reference = new StringBuilder();
+        for (int i = 0; i < FEATURES_NUMBER * FEATURE_STEP + READ_LENGTH; i++) {
+            reference.append(NUCLEOTIDES.charAt(random.nextInt(NUCLEOTIDES.length())));
+        }
+        File first = writeBAM("first.bam", reference, random);
+        File second = writeBAM("second.bam", reference, random);
+
+        File bed = new File(directory, "features.bed");
+        try (PrintWriter writer = new PrintWriter(bed)) {
+            for (int i = 0; i < FEATURES_NUMBER; i++) {
+                writer.println(CHROM + "\t" + (1 + i * FEATURE_STEP) + "\t" + (1 + i * FEATURE_STEP + FEATURE_LENGTH) + "\tGENE" + i);
+            }
+        }
+        executor = new GenomeComparatorExecutor(first.getPath(), second.getPath(), bed.getPath(), ComparatorType.LEVENSHTEIN);
+    }
+
+    @TearDown
+    public void tearDown() {
+        File[] files = directory.listFiles();
+        if (files != null) {
+            for (File file : files) {
+                file.delete();
+            }
+        }
+        directory.delete();
+    }
+
+    @Benchmark
+    public Object compareGenomes() {
+        return executor.compareGenomes(threadsNum, false, null, virtualThreads);
+    }
+
+    /**
+     * Writes the sorted and indexed BAM file with the reads of the reference,
+     * one nucleotide of about one percent of the reads is substituted.
+     *
+     * @param name      Name of the file.
+     * @param reference Reference sequence.
+     * @param random    Generator of the substitutions.
+     * @return written file.
+     */
+    private File writeBAM(String name, CharSequence reference, Random random) {
+        SAMFileHeader header = new SAMFileHeader();
+        header.setSortOrder(SAMFileHeader.SortOrder.coordinate);
+        header.addSequence(new SAMSequenceRecord(CHROM, reference.length()));
+        byte[] qualities = new byte[READ_LENGTH];
+        Arrays.fill(qualities, (byte) 40);
+
+        File file = new File(directory, name);
+        try (SAMFileWriter writer = new SAMFileWriterFactory().setCreateIndex(true).makeBAMWriter(header, true, file)) {
+            for (int start = 0; start + READ_LENGTH <= reference.length(); start += READ_STEP) {
+                byte[] bases = reference.subSequence(start, start + READ_LENGTH).toString().getBytes();
+                if (random.nextInt(100) == 0) {
+                    bases[random.nextInt(READ_LENGTH)] = (byte) NUCLEOTIDES.charAt(random.nextInt(NUCLEOTIDES.length()));
+                }
+                SAMRecord record = new SAMRecord(header);
+                record.setReadName("read" + start);
+                record.setReferenceName(CHROM);
+                record.setAlignmentStart(start + 1);
+                record.setCigarString(READ_LENGTH + "M");
+                record.setMappingQuality(60);
+                record.setReadBases(bases);
+                record.setBaseQualities(qualities);
+                writer.addAlignment(record);
+            }
+        }
+        return file;
+    }
+}
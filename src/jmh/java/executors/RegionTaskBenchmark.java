@@ -0,0 +1,143 @@
+/*
+ * MIT License
+ * <p>
+ * Copyright (c) 2019-present Polina Bevad, Sergey Hvatov, Vladislav Marchenko
+ * <p>
+ * Permission is hereby granted, free of charge, to any person obtaining a copy
+ * of this software and associated documentation files (the "Software"), to deal
+ * in the Software without restriction, including without limitation the rights
+ * to use, copy, modify, merge, publish, distribute, sublicense, and/or sell
+ * copies of the Software, and to permit persons to whom the Software is
+ * furnished to do so, subject to the following conditions:
+ * <p>
+ * The above copyright notice and this permission notice shall be included in all
+ * copies or substantial portions of the Software.
+ * <p>
+ * THE SOFTWARE IS PROVIDED "AS IS", WITHOUT WARRANTY OF ANY KIND, EXPRESS OR
+ * IMPLIED, INCLUDING BUT NOT LIMITED TO THE WARRANTIES OF MERCHANTABILITY,
+ * FITNESS FOR A PARTICULAR PURPOSE AND NONINFRINGEMENT. IN NO EVENT SHALL THE
+ * AUTHORS OR COPYRIGHT HOLDERS BE LIABLE FOR ANY CLAIM, DAMAGES OR OTHER
+ * LIABILITY, WHETHER IN AN ACTION OF CONTRACT, TORT OR OTHERWISE, ARISING FROM,
+ * OUT OF OR IN CONNECTION WITH THE SOFTWARE OR THE USE OR OTHER DEALINGS IN THE
+ * SOFTWARE.
+ */
+
+package executors;
+
+import bam.regular.BEDFeature;
+import genome.assembly.GenomeRegion;
+import genome.compare.common.ComparatorType;
+import genome.compare.common.ComparisonResult;
+import genome.compare.levenshtein.LevenshteinComparator;
+import org.openjdk.jmh.annotations.*;
+
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.List;
+import java.util.Random;
+import java.util.concurrent.CompletionService;
+import java.util.concurrent.ExecutionException;
+import java.util.concurrent.ExecutorCompletionService;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Measures the ceiling of the number of region comparisons per second
+ * when each pair of regions is submitted as a separate {@link GenomeRegionCallable}
+ * and when the pairs are compared in blocks by {@link RegionBatchCallable}.
+ * Short regions make the overhead of the executor visible.
+ * Run it with {@code ./gradlew jmh -Pjmh.includes=RegionTaskBenchmark}.
+ *
+ * @author Sergey Khvatov
+ */
+@BenchmarkMode(Mode.Throughput)
+@OutputTimeUnit(TimeUnit.SECONDS)
+@State(Scope.Benchmark)
+@Warmup(iterations = 5, time = 1)
+@Measurement(iterations = 5, time = 1)
+@Fork(1)
+@OperationsPerInvocation(RegionTaskBenchmark.REGIONS_NUMBER)
+public class RegionTaskBenchmark {
+
+    /**
+     * Number of regions in one feature.
+     */
+    static final int REGIONS_NUMBER = 1024;
+
+    /**
+     * Size of the block of regions.
+     */
+    private static final int BLOCK_SIZE = 32;
+
+    /**
+     * Nucleotides used to generate sequences.
+     */
+    private static final String NUCLEOTIDES = "ACGT";
+
+    @Param({"16", "256"})
+    public int regionLength;
+
+    private BEDFeature feature;
+
+    private List<GenomeRegion> first;
+
+    private List<GenomeRegion> second;
+
+    private ExecutorService pool;
+
+    @Setup
+    public void setUp() {
+        feature = new BEDFeature("chr1", 1, 1 + REGIONS_NUMBER * regionLength, "GENE");
+        first = new ArrayList<>();
+        second = new ArrayList<>();
+        Random random = new Random(42);
+        byte[] qualities = new byte[regionLength];
+        Arrays.fill(qualities, (byte) 40);
+        for (int i = 0; i < REGIONS_NUMBER; i++) {
+            StringBuilder f = new StringBuilder(), s = new StringBuilder();
+            for (int j = 0; j < regionLength; j++) {
+                char c = NUCLEOTIDES.charAt(random.nextInt(NUCLEOTIDES.length()));
+                f.append(c);
+                s.append(random.nextInt(100) == 0 ? 'A' : c);
+            }
+            first.add(new GenomeRegion("chr1", 1 + i * regionLength, f.toString(), qualities, "GENE"));
+            second.add(new GenomeRegion("chr1", 1 + i * regionLength, s.toString(), qualities, "GENE"));
+        }
+        pool = Executors.newFixedThreadPool(Runtime.getRuntime().availableProcessors());
+    }
+
+    @TearDown
+    public void tearDown() {
+        pool.shutdownNow();
+    }
+
+    @Benchmark
+    public int taskPerRegion() throws InterruptedException, ExecutionException {
+        CompletionService<ComparisonResult> service = new ExecutorCompletionService<>(pool);
+        for (int i = 0; i < REGIONS_NUMBER; i++) {
+            service.submit(new GenomeRegionCallable(new LevenshteinComparator(first.get(i), second.get(i)), false));
+        }
+        int results = 0;
+        for (int i = 0; i < REGIONS_NUMBER; i++) {
+            service.take().get();
+            results++;
+        }
+        return results;
+    }
+
+    @Benchmark
+    public int taskPerBlock() throws InterruptedException, ExecutionException {
+        CompletionService<List<ComparisonResult>> service = new ExecutorCompletionService<>(pool);
+        int tasks = 0;
+        for (int from = 0; from < REGIONS_NUMBER; from += BLOCK_SIZE) {
+            service.submit(new RegionBatchCallable(feature, first, second, from, Math.min(from + BLOCK_SIZE, REGIONS_NUMBER), ComparatorType.LEVENSHTEIN, false));
+            tasks++;
+        }
+        int results = 0;
+        for (int i = 0; i < tasks; i++) {
+            results += service.take().get().size();
+        }
+        return results;
+    }
+}
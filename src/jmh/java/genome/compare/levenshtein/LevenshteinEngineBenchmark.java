@@ -0,0 +1,89 @@
+/*
+ * MIT License
+ * <p>
+ * Copyright (c) 2019-present Polina Bevad, Sergey Hvatov, Vladislav Marchenko
+ * <p>
+ * Permission is hereby granted, free of charge, to any person obtaining a copy
+ * of this software and associated documentation files (the "Software"), to deal
+ * in the Software without restriction, including without limitation the rights
+ * to use, copy, modify, merge, publish, distribute, sublicense, and/or sell
+ * copies of the Software, and to permit persons to whom the Software is
+ * furnished to do so, subject to the following conditions:
+ * <p>
+ * The above copyright notice and this permission notice shall be included in all
+ * copies or substantial portions of the Software.
+ * <p>
+ * THE SOFTWARE IS PROVIDED "AS IS", WITHOUT WARRANTY OF ANY KIND, EXPRESS OR
+ * IMPLIED, INCLUDING BUT NOT LIMITED TO THE WARRANTIES OF MERCHANTABILITY,
+ * FITNESS FOR A PARTICULAR PURPOSE AND NONINFRINGEMENT. IN NO EVENT SHALL THE
+ * AUTHORS OR COPYRIGHT HOLDERS BE LIABLE FOR ANY CLAIM, DAMAGES OR OTHER
+ * LIABILITY, WHETHER IN AN ACTION OF CONTRACT, TORT OR OTHERWISE, ARISING FROM,
+ * OUT OF OR IN CONNECTION WITH THE SOFTWARE OR THE USE OR OTHER DEALINGS IN THE
+ * SOFTWARE.
+ */
+
+package genome.compare.levenshtein;
+
+import org.openjdk.jmh.annotations.*;
+
+import java.util.Random;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Compares the throughput of all the {@link LevenshteinEngine} implementations
+ * on random nucleotide sequences, which differ in ~1% of the positions
+ * (as the regions of relatives do).
+ * Run it with {@code ./gradlew jmh -Pjmh.includes=LevenshteinEngineBenchmark}.
+ * The vectorized engine falls back to the scalar one if the JDK doesn't support it.
+ *
+ * @author Sergey Khvatov
+ */
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.MICROSECONDS)
+@State(Scope.Benchmark)
+@Warmup(iterations = 5, time = 1)
+@Measurement(iterations = 5, time = 1)
+@Fork(1)
+public class LevenshteinEngineBenchmark {
+
+    /**
+     * Nucleotides used to generate sequences.
+     */
+    private static final String NUCLEOTIDES = "ACGT";
+
+    /**
+     * Percentage of the mutated positions.
+     */
+    private static final double MUTATION_RATE = 0.01;
+
+    @Param({ScalarLevenshteinEngine.NAME, AntiDiagonalLevenshteinEngine.NAME, LevenshteinEngines.VECTOR})
+    public String engineName;
+
+    @Param({"256", "1024"})
+    public int length;
+
+    private LevenshteinEngine engine;
+
+    private String first;
+
+    private String second;
+
+    @Setup
+    public void setUp() {
+        engine = LevenshteinEngines.forName(engineName);
+        Random random = new Random(42);
+        StringBuilder f = new StringBuilder(), s = new StringBuilder();
+        for (int i = 0; i < length; i++) {
+            char c = NUCLEOTIDES.charAt(random.nextInt(NUCLEOTIDES.length()));
+            f.append(c);
+            s.append(random.nextDouble() < MUTATION_RATE ? NUCLEOTIDES.charAt(random.nextInt(NUCLEOTIDES.length())) : c);
+        }
+        first = f.toString();
+        second = s.toString();
+    }
+
+    @Benchmark
+    public int distance() {
+        return engine.distance(first, second);
+    }
+}
@@ -28,6 +28,7 @@ import cmd.Operation;
 import org.apache.logging.log4j.Level;
 import org.apache.logging.log4j.LogManager;
 import org.apache.logging.log4j.Logger;
+import util.ResultSink;
 
 /**
  * BioRelatives class of the program.
@@ -41,7 +42,9 @@ public class BioRelatives {
     public static void main(String... args) {
         try {
             Configuration config = new CmdParser().parseCommandLine(args);
-            System.out.println(new Operation().start(config));
+            String result = new Operation().start(config);
+            // with "-o -" the standard output contains only the records
+            (ResultSink.STDOUT.equals(config.pathToOutput) ? System.err : System.out).println(result);
         } catch (Exception ex) {
             rootLogger.info(Level.ERROR, ex);
         }
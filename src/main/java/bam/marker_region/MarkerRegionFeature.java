@@ -58,6 +58,12 @@ public class MarkerRegionFeature extends BEDFeature {
      */
     private Pattern repeatMotif;
 
+    /**
+     * Compiled automaton of the repeat motif, or null,
+     * if the motif is not a plain nucleotide sequence.
+     */
+    private MotifAutomaton motifAutomaton;
+
     /**
      * Creates an instance of the marker region record.
      *
@@ -69,9 +75,25 @@ public class MarkerRegionFeature extends BEDFeature {
      * @throws GenomeFileException if invalid input occurs.
      */
     public MarkerRegionFeature(String chrom, int start, int end, String markerName, Pattern motif) {
+        this(chrom, start, end, markerName, motif, null);
+    }
+
+    /**
+     * Creates an instance of the marker region record.
+     *
+     * @param chrom      Name of the chromosome.
+     * @param start      Start position of the region.
+     * @param end        End position.
+     * @param markerName Name of the marker.
+     * @param motif      Nucleotide sequence which represents this marker.
+     * @param automaton  Compiled automaton of the motif, or null if motif can not be compiled.
+     * @throws GenomeFileException if invalid input occurs.
+     */
+    public MarkerRegionFeature(String chrom, int start, int end, String markerName, Pattern motif, MotifAutomaton automaton) {
         super(chrom, start, end, chrom.contains("Y") ? Y_STR : X_STR);
         this.markerName = markerName;
         this.repeatMotif = motif;
+        this.motifAutomaton = automaton;
     }
 
     /**
@@ -87,4 +109,12 @@ public class MarkerRegionFeature extends BEDFeature {
     public Pattern getRepeatMotif() {
         return repeatMotif;
     }
+
+    /**
+     * @return compiled automaton of the repeat motif, or null,
+     * if the motif is not a plain nucleotide sequence.
+     */
+    public MotifAutomaton getMotifAutomaton() {
+        return motifAutomaton;
+    }
 }
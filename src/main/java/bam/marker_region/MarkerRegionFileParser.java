@@ -71,6 +71,8 @@ public class MarkerRegionFileParser extends BEDParser {
             Map<String, List<BEDFeature>> exons = new HashMap<>();
             // map with all the pre-compiled motif strings
             Map<String, Pattern> compiledPatterns = new HashMap<>();
+            // map with the automatons of the motifs, that are plain nucleotide sequences
+            Map<String, MotifAutomaton> automatons = new HashMap<>();
             // open reader
             BufferedReader reader = new BufferedReader(input);
             String temp;
@@ -96,11 +98,14 @@ public class MarkerRegionFileParser extends BEDParser {
                     if (!chrom.contains("Y") && !chrom.contains("X")) {
                         throw new GenomeFileException("Error occurred during reading from the file [" + this.bedFile.getName() + "]: " + "incorrect chromosome name, expected X or Y, found: " + chrom);
                     }
-                    exons.get(markerName).add(new MarkerRegionFeature(chrom, start, end, markerName, compiledPatterns.get(markerName)));
+                    exons.get(markerName).add(new MarkerRegionFeature(chrom, start, end, markerName, compiledPatterns.get(markerName), automatons.get(markerName)));
                 } else {
                     List<BEDFeature> buffer = new ArrayList<>();
                     compiledPatterns.put(markerName, Pattern.compile(markerMotif));
-                    buffer.add(new MarkerRegionFeature(chrom, start, end, markerName, compiledPatterns.get(markerName)));
+                    if (MotifAutomaton.isSupported(markerMotif)) {
+                        automatons.put(markerName, MotifAutomaton.compile(markerMotif));
+                    }
+                    buffer.add(new MarkerRegionFeature(chrom, start, end, markerName, compiledPatterns.get(markerName), automatons.get(markerName)));
                     exons.put(markerName, buffer);
                 }
             }
@@ -0,0 +1,174 @@
+/*
+ * MIT License
+ * <p>
+ * Copyright (c) 2019-present Polina Bevad, Sergey Hvatov, Vladislav Marchenko
+ * <p>
+ * Permission is hereby granted, free of charge, to any person obtaining a copy
+ * of this software and associated documentation files (the "Software"), to deal
+ * in the Software without restriction, including without limitation the rights
+ * to use, copy, modify, merge, publish, distribute, sublicense, and/or sell
+ * copies of the Software, and to permit persons to whom the Software is
+ * furnished to do so, subject to the following conditions:
+ * <p>
+ * The above copyright notice and this permission notice shall be included in all
+ * copies or substantial portions of the Software.
+ * <p>
+ * THE SOFTWARE IS PROVIDED "AS IS", WITHOUT WARRANTY OF ANY KIND, EXPRESS OR
+ * IMPLIED, INCLUDING BUT NOT LIMITED TO THE WARRANTIES OF MERCHANTABILITY,
+ * FITNESS FOR A PARTICULAR PURPOSE AND NONINFRINGEMENT. IN NO EVENT SHALL THE
+ * AUTHORS OR COPYRIGHT HOLDERS BE LIABLE FOR ANY CLAIM, DAMAGES OR OTHER
+ * LIABILITY, WHETHER IN AN ACTION OF CONTRACT, TORT OR OTHERWISE, ARISING FROM,
+ * OUT OF OR IN CONNECTION WITH THE SOFTWARE OR THE USE OR OTHER DEALINGS IN THE
+ * SOFTWARE.
+ */
+
+package bam.marker_region;
+
+import exception.GenomeFileException;
+
+import java.util.Arrays;
+
+/**
+ * Deterministic finite automaton, that counts the non-overlapping
+ * occurrences of the nucleotide motif in the sequence. It is built
+ * with the Knuth-Morris-Pratt algorithm, so each nucleotide of the
+ * sequence is processed with one table lookup. The counts are the
+ * same as the number of the {@link java.util.regex.Matcher#find()}
+ * calls, that succeed for the literal motif.
+ *
+ * @author Sergey Khvatov
+ */
+public class MotifAutomaton {
+
+    /**
+     * Nucleotides, that can be used in the motif.
+     */
+    private static final String NUCLEOTIDES = "ACGT";
+
+    /**
+     * Number of the symbol classes: four nucleotides and any other symbol.
+     */
+    private static final int ALPHABET = NUCLEOTIDES.length() + 1;
+
+    /**
+     * Codes of the symbols: index of the nucleotide or {@link #ALPHABET} - 1.
+     */
+    private static final byte[] CODES = new byte[128];
+
+    static {
+        Arrays.fill(CODES, (byte) (ALPHABET - 1));
+        for (int i = 0; i < NUCLEOTIDES.length(); i++) {
+            CODES[NUCLEOTIDES.charAt(i)] = (byte) i;
+        }
+    }
+
+    /**
+     * Motif of the automaton.
+     */
+    private String motif;
+
+    /**
+     * Transition table: next state = table[state * ALPHABET + code].
+     * State motif.length() is the accepting one, its transitions are the
+     * same as of the initial state, so the search is restarted after each match.
+     */
+    private int[] table;
+
+    /**
+     * Creates the automaton.
+     *
+     * @param motif Motif, that consists of the upper case nucleotides.
+     */
+    private MotifAutomaton(String motif) {
+        this.motif = motif;
+        int m = motif.length();
+        this.table = new int[(m + 1) * ALPHABET];
+        table[CODES[motif.charAt(0)]] = 1;
+        // state, that the automaton would be in after the motif without the first symbol
+        int restart = 0;
+        for (int j = 1; j < m; j++) {
+            int code = CODES[motif.charAt(j)];
+            System.arraycopy(table, restart * ALPHABET, table, j * ALPHABET, ALPHABET);
+            table[j * ALPHABET + code] = j + 1;
+            restart = table[restart * ALPHABET + code];
+        }
+        // accepting state behaves as the initial one
+        System.arraycopy(table, 0, table, m * ALPHABET, ALPHABET);
+    }
+
+    /**
+     * Checks whether the motif can be compiled into the automaton.
+     *
+     * @param motif Motif of the marker.
+     * @return true, if motif is a non empty string of the upper case nucleotides.
+     */
+    public static boolean isSupported(String motif) {
+        if (motif.isEmpty()) {
+            return false;
+        }
+        for (int i = 0; i < motif.length(); i++) {
+            if (NUCLEOTIDES.indexOf(motif.charAt(i)) < 0) {
+                return false;
+            }
+        }
+        return true;
+    }
+
+    /**
+     * Compiles the motif into the automaton.
+     *
+     * @param motif Motif of the marker.
+     * @return Compiled automaton.
+     * @throws GenomeFileException if motif is not supported (see {@link #isSupported(String)}).
+     */
+    public static MotifAutomaton compile(String motif) {
+        if (!isSupported(motif)) {
+            throw new GenomeFileException("Error occurred during compilation of the motif [" + motif + "]: only upper case nucleotides are supported");
+        }
+        return new MotifAutomaton(motif);
+    }
+
+    /**
+     * Counts the non-overlapping occurrences of the motif in the sequence.
+     *
+     * @param sequence Nucleotide sequence.
+     * @return Number of the occurrences.
+     */
+    public int count(CharSequence sequence) {
+        int[] table = this.table;
+        int accepting = motif.length();
+        int state = 0, count = 0;
+        for (int i = 0; i < sequence.length(); i++) {
+            char c = sequence.charAt(i);
+            state = table[state * ALPHABET + (c < CODES.length ? CODES[c] : ALPHABET - 1)];
+            count += state == accepting ? 1 : 0;
+        }
+        return count;
+    }
+
+    /**
+     * Returns the next state of the automaton. The initial state is 0.
+     *
+     * @param state Current state.
+     * @param c     Next symbol of the sequence.
+     * @return Next state.
+     */
+    public int next(int state, char c) {
+        return table[state * ALPHABET + (c < CODES.length ? CODES[c] : ALPHABET - 1)];
+    }
+
+    /**
+     * @param state State of the automaton.
+     * @return true, if the motif has just occurred in this state.
+     */
+    public boolean isAccepting(int state) {
+        return state == motif.length();
+    }
+
+    /**
+     * @return motif of the automaton.
+     */
+    public String getMotif() {
+        return motif;
+    }
+}
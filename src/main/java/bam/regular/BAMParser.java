@@ -33,6 +33,7 @@ import java.io.File;
 import java.io.IOException;
 import java.util.ArrayList;
 import java.util.List;
+import java.util.function.Consumer;
 
 
 /**
@@ -72,6 +73,13 @@ public class BAMParser {
 
     }
 
+    /**
+     * @return BAM file, that is parsed.
+     */
+    public File getBAMFile() {
+        return BAMFile;
+    }
+
     /**
      * Validates the input BAM file.
      *
@@ -175,6 +183,94 @@ public class BAMParser {
         }
     }
 
+    /**
+     * Estimates the number of the bytes of the compressed records, that overlap each feature,
+     * using the BAM index, without reading the records. Index is binned, so the estimate
+     * of the short feature is the size of the records of the whole bin, that contains it.
+     *
+     * @param features Features to estimate.
+     * @return estimated sizes in the order of the features, 0 for the features of the
+     * unknown chromosomes, or null, if the BAM file has no index.
+     * @throws GenomeException if error occurs while reading the index.
+     */
+    public long[] estimateSizes(List<BEDFeature> features) {
+        try (SamReader samReader = SamReaderFactory.makeDefault().validationStringency(ValidationStringency.STRICT).open(BAMFile)) {
+            if (!samReader.hasIndex()) {
+                return null;
+            }
+            SAMFileHeader header = samReader.getFileHeader();
+            BAMIndex index = samReader.indexing().getIndex();
+            long[] sizes = new long[features.size()];
+            for (int i = 0; i < sizes.length; i++) {
+                BEDFeature feature = features.get(i);
+                // check if bam file contains this chromosome, if it doesn't then change it
+                if (header.getSequenceIndex(feature.getChromosomeName()) < 0) {
+                    feature.changeChromosomeName();
+                }
+                int reference = header.getSequenceIndex(feature.getChromosomeName());
+                if (reference < 0) {
+                    continue;
+                }
+                BAMFileSpan span = index.getSpanOverlapping(reference, feature.getStartPos(), feature.getEndPos());
+                if (span == null) {
+                    continue;
+                }
+                for (Chunk chunk : span.getChunks()) {
+                    // virtual offset: offset of the compressed block in the high bits
+                    sizes[i] += Math.max((chunk.getChunkEnd() >>> 16) - (chunk.getChunkStart() >>> 16), 1);
+                }
+            }
+            return sizes;
+        } catch (NullPointerException | IllegalArgumentException | SAMException | IOException ioex) {
+            GenomeException ibfex = new GenomeException(this.getClass().getName(), "estimateSizes", ioex.getMessage());
+            ibfex.initCause(ioex);
+            throw ibfex;
+        }
+    }
+
+    /**
+     * Passes all the records, that overlap any of the features, to the consumer.
+     * All the features are queried in one pass through the BAM file, each record
+     * is passed only once, even if it overlaps several features.
+     *
+     * @param features Features to query, they may belong to the different chromosomes.
+     * @param consumer Consumer of the records.
+     * @throws GenomeException if error occurs while parsing.
+     */
+    public void forEachRecord(List<BEDFeature> features, Consumer<SAMRecord> consumer) {
+        try (SamReader samReader = SamReaderFactory.makeDefault().validationStringency(ValidationStringency.STRICT).open(BAMFile)) {
+            SAMFileHeader header = samReader.getFileHeader();
+            List<QueryInterval> intervals = new ArrayList<>(features.size());
+            for (BEDFeature feature : features) {
+                // check if bam file contains this chromosome, if it doesn't then change it
+                if (header.getSequenceIndex(feature.getChromosomeName()) < 0) {
+                    feature.changeChromosomeName();
+                }
+                int index = header.getSequenceIndex(feature.getChromosomeName());
+                if (index >= 0) {
+                    intervals.add(new QueryInterval(index, feature.getStartPos(), feature.getEndPos()));
+                }
+            }
+            if (intervals.isEmpty()) {
+                return;
+            }
+
+            QueryInterval[] query = QueryInterval.optimizeIntervals(intervals.toArray(new QueryInterval[0]));
+            try (SAMRecordIterator iter = samReader.query(query, false)) {
+                while (iter.hasNext()) {
+                    SAMRecord samRecord = iter.next();
+                    if (samRecord.getEnd() != 0) {
+                        consumer.accept(samRecord);
+                    }
+                }
+            }
+        } catch (NullPointerException | IllegalArgumentException | SAMException | IOException ioex) {
+            GenomeException ibfex = new GenomeException(this.getClass().getName(), "forEachRecord", ioex.getMessage());
+            ibfex.initCause(ioex);
+            throw ibfex;
+        }
+    }
+
     /**
      * Adds an exon to the resulting list. If the length of the input
      * region is more than MAX_REGION_LENGTH, then splits
@@ -25,6 +25,7 @@
 package bam.regular;
 
 import exception.GenomeFileException;
+import org.apache.logging.log4j.util.StringBuilderFormattable;
 
 import java.util.HashMap;
 import java.util.Map;
@@ -34,7 +35,7 @@ import java.util.Map;
  *
  * @author Sergey Khvatov
  */
-public class BEDFeature {
+public class BEDFeature implements StringBuilderFormattable {
 
     /**
      * Regular expression that contains all
@@ -105,7 +106,21 @@ public class BEDFeature {
 
     @Override
     public String toString() {
-        return "gene: [" + gene + "]; chrom: [" + chrom + "]; (start; end): (" + start + "; " + end + ");\n";
+        StringBuilder buffer = new StringBuilder();
+        formatTo(buffer);
+        return buffer.toString();
+    }
+
+    /**
+     * Appends the description of the feature to the buffer, the loggers
+     * use it instead of {@link #toString()}, so that no strings are created.
+     *
+     * @param buffer Buffer.
+     */
+    @Override
+    public void formatTo(StringBuilder buffer) {
+        buffer.append("gene: [").append(gene).append("]; chrom: [").append(chrom).append("]; (start; end): (")
+            .append(start).append("; ").append(end).append(");\n");
     }
 
     /**
@@ -0,0 +1,104 @@
+/*
+ * MIT License
+ * <p>
+ * Copyright (c) 2019-present Polina Bevad, Sergey Hvatov, Vladislav Marchenko
+ * <p>
+ * Permission is hereby granted, free of charge, to any person obtaining a copy
+ * of this software and associated documentation files (the "Software"), to deal
+ * in the Software without restriction, including without limitation the rights
+ * to use, copy, modify, merge, publish, distribute, sublicense, and/or sell
+ * copies of the Software, and to permit persons to whom the Software is
+ * furnished to do so, subject to the following conditions:
+ * <p>
+ * The above copyright notice and this permission notice shall be included in all
+ * copies or substantial portions of the Software.
+ * <p>
+ * THE SOFTWARE IS PROVIDED "AS IS", WITHOUT WARRANTY OF ANY KIND, EXPRESS OR
+ * IMPLIED, INCLUDING BUT NOT LIMITED TO THE WARRANTIES OF MERCHANTABILITY,
+ * FITNESS FOR A PARTICULAR PURPOSE AND NONINFRINGEMENT. IN NO EVENT SHALL THE
+ * AUTHORS OR COPYRIGHT HOLDERS BE LIABLE FOR ANY CLAIM, DAMAGES OR OTHER
+ * LIABILITY, WHETHER IN AN ACTION OF CONTRACT, TORT OR OTHERWISE, ARISING FROM,
+ * OUT OF OR IN CONNECTION WITH THE SOFTWARE OR THE USE OR OTHER DEALINGS IN THE
+ * SOFTWARE.
+ */
+
+package bam.sample;
+
+import exception.GenomeFileException;
+
+import java.io.BufferedReader;
+import java.io.File;
+import java.io.FileReader;
+import java.io.IOException;
+import java.util.LinkedHashMap;
+import java.util.Map;
+
+/**
+ * Parses the sample sheet of the cohort: each line contains the name of the sample
+ * and the path to its BAM file, separated by the tab, or only the path to the BAM file,
+ * then the name of the file is used as the name of the sample. Relative paths are
+ * resolved against the directory of the sample sheet.
+ *
+ * @author Sergey Khvatov
+ */
+public class SampleSheetParser {
+
+    /**
+     * Start of the comment and header lines.
+     */
+    private static final String COMMENT_LINE = "#";
+
+    /**
+     * Input file.
+     */
+    private File sampleSheet;
+
+    /**
+     * Default class constructor from the name of the sample sheet.
+     *
+     * @param sampleSheetName Name of the sample sheet.
+     * @throws GenomeFileException if file is incorrect.
+     */
+    public SampleSheetParser(String sampleSheetName) {
+        this.sampleSheet = new File(sampleSheetName);
+        if (!this.sampleSheet.isFile()) {
+            throw new GenomeFileException(this.getClass().getName(), "SampleSheetParser", this.sampleSheet.getName(), "error occurred during file validation");
+        }
+    }
+
+    /**
+     * Parses the file line by line.
+     *
+     * @return Map, where key - name of the sample, value - path to its BAM file,
+     * in the order of the sample sheet.
+     * @throws GenomeFileException if the line is incorrect or the name of the sample is duplicated.
+     */
+    public Map<String, String> parse() {
+        try (BufferedReader reader = new BufferedReader(new FileReader(this.sampleSheet))) {
+            Map<String, String> samples = new LinkedHashMap<>();
+            String line;
+            while ((line = reader.readLine()) != null) {
+                if (line.trim().isEmpty() || line.startsWith(COMMENT_LINE)) {
+                    continue;
+                }
+                String[] columns = line.trim().split("\t");
+                if (columns.length > 2) {
+                    throw new GenomeFileException(this.getClass().getName(), "parse", this.sampleSheet.getName(), "incorrect number of columns: " + line);
+                }
+                File bam = new File(columns[columns.length - 1].trim());
+                if (!bam.isAbsolute()) {
+                    bam = new File(this.sampleSheet.getAbsoluteFile().getParentFile(), bam.getPath());
+                }
+                String name = columns.length == 2 ? columns[0].trim() : bam.getName();
+                if (samples.put(name, bam.getPath()) != null) {
+                    throw new GenomeFileException(this.getClass().getName(), "parse", this.sampleSheet.getName(), "duplicated sample: " + name);
+                }
+            }
+            return samples;
+        } catch (IOException ioex) {
+            GenomeFileException gfex = new GenomeFileException(this.getClass().getName(), "parse", this.sampleSheet.getName(), ioex.getMessage());
+            gfex.initCause(ioex);
+            throw gfex;
+        }
+    }
+}
@@ -0,0 +1,101 @@
+/*
+ * MIT License
+ * <p>
+ * Copyright (c) 2019-present Polina Bevad, Sergey Hvatov, Vladislav Marchenko
+ * <p>
+ * Permission is hereby granted, free of charge, to any person obtaining a copy
+ * of this software and associated documentation files (the "Software"), to deal
+ * in the Software without restriction, including without limitation the rights
+ * to use, copy, modify, merge, publish, distribute, sublicense, and/or sell
+ * copies of the Software, and to permit persons to whom the Software is
+ * furnished to do so, subject to the following conditions:
+ * <p>
+ * The above copyright notice and this permission notice shall be included in all
+ * copies or substantial portions of the Software.
+ * <p>
+ * THE SOFTWARE IS PROVIDED "AS IS", WITHOUT WARRANTY OF ANY KIND, EXPRESS OR
+ * IMPLIED, INCLUDING BUT NOT LIMITED TO THE WARRANTIES OF MERCHANTABILITY,
+ * FITNESS FOR A PARTICULAR PURPOSE AND NONINFRINGEMENT. IN NO EVENT SHALL THE
+ * AUTHORS OR COPYRIGHT HOLDERS BE LIABLE FOR ANY CLAIM, DAMAGES OR OTHER
+ * LIABILITY, WHETHER IN AN ACTION OF CONTRACT, TORT OR OTHERWISE, ARISING FROM,
+ * OUT OF OR IN CONNECTION WITH THE SOFTWARE OR THE USE OR OTHER DEALINGS IN THE
+ * SOFTWARE.
+ */
+
+package bam.site;
+
+/**
+ * Biallelic SNP site from the site list.
+ *
+ * @author Sergey Khvatov
+ */
+public class Site {
+
+    /**
+     * Name of the chromosome.
+     */
+    private String chrom;
+
+    /**
+     * 1-based position of the site in the chromosome.
+     */
+    private int position;
+
+    /**
+     * Reference allele.
+     */
+    private char ref;
+
+    /**
+     * Alternative allele.
+     */
+    private char alt;
+
+    /**
+     * Default class constructor.
+     *
+     * @param chrom    Name of the chromosome.
+     * @param position 1-based position of the site.
+     * @param ref      Reference allele.
+     * @param alt      Alternative allele.
+     */
+    public Site(String chrom, int position, char ref, char alt) {
+        this.chrom = chrom;
+        this.position = position;
+        this.ref = Character.toUpperCase(ref);
+        this.alt = Character.toUpperCase(alt);
+    }
+
+    /**
+     * @return name of the chromosome.
+     */
+    public String getChromosomeName() {
+        return chrom;
+    }
+
+    /**
+     * @return 1-based position of the site.
+     */
+    public int getPosition() {
+        return position;
+    }
+
+    /**
+     * @return reference allele.
+     */
+    public char getRef() {
+        return ref;
+    }
+
+    /**
+     * @return alternative allele.
+     */
+    public char getAlt() {
+        return alt;
+    }
+
+    @Override
+    public String toString() {
+        return "chrom: [" + chrom + "]; position: " + position + "; " + ref + "/" + alt + ";\n";
+    }
+}
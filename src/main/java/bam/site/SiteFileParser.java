@@ -0,0 +1,192 @@
+/*
+ * MIT License
+ * <p>
+ * Copyright (c) 2019-present Polina Bevad, Sergey Hvatov, Vladislav Marchenko
+ * <p>
+ * Permission is hereby granted, free of charge, to any person obtaining a copy
+ * of this software and associated documentation files (the "Software"), to deal
+ * in the Software without restriction, including without limitation the rights
+ * to use, copy, modify, merge, publish, distribute, sublicense, and/or sell
+ * copies of the Software, and to permit persons to whom the Software is
+ * furnished to do so, subject to the following conditions:
+ * <p>
+ * The above copyright notice and this permission notice shall be included in all
+ * copies or substantial portions of the Software.
+ * <p>
+ * THE SOFTWARE IS PROVIDED "AS IS", WITHOUT WARRANTY OF ANY KIND, EXPRESS OR
+ * IMPLIED, INCLUDING BUT NOT LIMITED TO THE WARRANTIES OF MERCHANTABILITY,
+ * FITNESS FOR A PARTICULAR PURPOSE AND NONINFRINGEMENT. IN NO EVENT SHALL THE
+ * AUTHORS OR COPYRIGHT HOLDERS BE LIABLE FOR ANY CLAIM, DAMAGES OR OTHER
+ * LIABILITY, WHETHER IN AN ACTION OF CONTRACT, TORT OR OTHERWISE, ARISING FROM,
+ * OUT OF OR IN CONNECTION WITH THE SOFTWARE OR THE USE OR OTHER DEALINGS IN THE
+ * SOFTWARE.
+ */
+
+package bam.site;
+
+import exception.GenomeFileException;
+
+import java.io.BufferedReader;
+import java.io.File;
+import java.io.FileReader;
+import java.io.IOException;
+import java.util.*;
+
+/**
+ * Parses the list of the SNP sites from the VCF file
+ * or from the BED file with the (chrom, start, end, name, ref, alt) records.
+ * In the BED file the end position of the record is used as the
+ * 1-based position of the site. Only biallelic single nucleotide
+ * sites are kept, other records are skipped.
+ *
+ * @author Sergey Khvatov
+ */
+public class SiteFileParser {
+
+    /**
+     * Extension of the VCF file.
+     */
+    private static final String VCF_EXTENSION = "vcf";
+
+    /**
+     * Extension of the BED file.
+     */
+    private static final String BED_EXTENSION = "bed";
+
+    /**
+     * Start of the comment and header lines.
+     */
+    private static final String COMMENT_LINE = "#";
+
+    /**
+     * Number of columns in the BED file.
+     */
+    private static final int BED_COLUMNS = 6;
+
+    /**
+     * Minimum number of columns in the VCF file.
+     */
+    private static final int VCF_COLUMNS = 5;
+
+    /**
+     * Allowed alleles of the site.
+     */
+    private static final String NUCLEOTIDES = "ACGT";
+
+    /**
+     * Input file.
+     */
+    private File siteFile;
+
+    /**
+     * True, if input file is the VCF file.
+     */
+    private boolean vcf;
+
+    /**
+     * Default class constructor from the name of the site file.
+     *
+     * @param siteFileName Name of the VCF or BED file.
+     * @throws GenomeFileException if file is incorrect.
+     */
+    public SiteFileParser(String siteFileName) {
+        this.siteFile = new File(siteFileName);
+        String[] filename = this.siteFile.getName().split("\\.");
+        String extension = filename[filename.length - 1].toLowerCase();
+        this.vcf = extension.equals(VCF_EXTENSION);
+        if (!this.siteFile.isFile() || !(vcf || extension.equals(BED_EXTENSION))) {
+            throw new GenomeFileException(this.getClass().getName(), "SiteFileParser", this.siteFile.getName(), "error occurred during file validation");
+        }
+    }
+
+    /**
+     * Parses the file line by line.
+     *
+     * @return Map, where key - name of the chromosome, value - list of the sites
+     * in this chromosome, sorted by their positions.
+     * @throws GenomeFileException if any kind of exception occurs in the method.
+     */
+    public Map<String, List<Site>> parse() {
+        try (BufferedReader reader = new BufferedReader(new FileReader(this.siteFile))) {
+            Map<String, List<Site>> sites = new LinkedHashMap<>();
+            String line;
+            while ((line = reader.readLine()) != null) {
+                if (line.isEmpty() || line.startsWith(COMMENT_LINE)) {
+                    continue;
+                }
+                Site site = vcf ? parseVCFLine(line) : parseBEDLine(line);
+                if (site != null) {
+                    sites.computeIfAbsent(site.getChromosomeName(), c -> new ArrayList<>()).add(site);
+                }
+            }
+
+            // sort the sites and remove the duplicated positions
+            for (Map.Entry<String, List<Site>> entry : sites.entrySet()) {
+                List<Site> chromSites = entry.getValue();
+                chromSites.sort(Comparator.comparingInt(Site::getPosition));
+                List<Site> unique = new ArrayList<>(chromSites.size());
+                for (Site site : chromSites) {
+                    if (unique.isEmpty() || unique.get(unique.size() - 1).getPosition() != site.getPosition()) {
+                        unique.add(site);
+                    }
+                }
+                entry.setValue(unique);
+            }
+            return sites;
+        } catch (IOException | NumberFormatException ex) {
+            GenomeFileException gfex = new GenomeFileException(this.getClass().getName(), "parse", this.siteFile.getName(), ex.getMessage());
+            gfex.initCause(ex);
+            throw gfex;
+        }
+    }
+
+    /**
+     * Parses the record of the VCF file.
+     *
+     * @param line Line of the file.
+     * @return Parsed site or null, if it is not a biallelic SNP.
+     * @throws GenomeFileException if record is incorrect.
+     */
+    private Site parseVCFLine(String line) {
+        String[] rows = line.split("\t");
+        if (rows.length < VCF_COLUMNS) {
+            throw new GenomeFileException("Error occurred during reading from the file [" + this.siteFile.getName() + "]: " + "incorrect number of columns. Expected at least 5 (chrom, pos, id, ref, alt), got " + rows.length);
+        }
+        return createSite(rows[0], Integer.parseInt(rows[1]), rows[3], rows[4]);
+    }
+
+    /**
+     * Parses the record of the BED file.
+     *
+     * @param line Line of the file.
+     * @return Parsed site or null, if it is not a biallelic SNP.
+     * @throws GenomeFileException if record is incorrect.
+     */
+    private Site parseBEDLine(String line) {
+        String[] rows = line.split("\\s+");
+        if (rows.length != BED_COLUMNS) {
+            throw new GenomeFileException("Error occurred during reading from the file [" + this.siteFile.getName() + "]: " + "incorrect number of columns. Expected 6 (chrom, start, end, name, ref, alt), got " + rows.length);
+        }
+        return createSite(rows[0], Integer.parseInt(rows[2]), rows[4], rows[5]);
+    }
+
+    /**
+     * Creates the site if it is a biallelic SNP.
+     *
+     * @param chrom    Name of the chromosome.
+     * @param position Position of the site.
+     * @param ref      Reference allele.
+     * @param alt      Alternative allele.
+     * @return Site or null, if it is not a biallelic SNP.
+     * @throws GenomeFileException if position is incorrect.
+     */
+    private Site createSite(String chrom, int position, String ref, String alt) {
+        if (position < 1) {
+            throw new GenomeFileException("Error occurred during reading from the file [" + this.siteFile.getName() + "]: " + "incorrect position of the site " + chrom + ":" + position);
+        }
+        if (ref.length() != 1 || alt.length() != 1 || !NUCLEOTIDES.contains(ref.toUpperCase()) || !NUCLEOTIDES.contains(alt.toUpperCase()) || ref.equalsIgnoreCase(alt)) {
+            return null;
+        }
+        return new Site(chrom, position, ref.charAt(0), alt.charAt(0));
+    }
+}
@@ -88,6 +88,21 @@ public class CmdParser {
             config.pathToSecondRecipient = paths[1];
             config.pathToThirdRecipient = paths[2];
             config.pathToBed = paths[3];
+        } else if (cmd.hasOption("co")) {
+            String[] paths = cmd.getOptionValues("co");
+            if (paths == null || paths.length != 2) {
+                throw new CommandLineException(INCORRECT_INPUT_MESSAGE);
+            }
+            config.pathToSampleSheet = paths[0];
+            config.pathToBed = paths[1];
+        } else if (cmd.hasOption("bhdb")) {
+            String[] paths = cmd.getOptionValues("bhdb");
+            if (paths == null || paths.length != 2) {
+                throw new CommandLineException(INCORRECT_INPUT_MESSAGE);
+            }
+            config.pathToHaplotypeTable = paths[0];
+            config.pathToHaplotypeDatabase = paths[1];
+            return config;
         } else {
             throw new CommandLineException(INCORRECT_INPUT_MESSAGE);
         }
@@ -97,6 +112,11 @@ public class CmdParser {
             config.intermediateOutput = true;
         }
 
+        // check if virtual threads are requested
+        if (cmd.hasOption("vt")) {
+            config.virtualThreads = true;
+        }
+
         // check if advanced output is requested
         if (cmd.hasOption("m")) {
             String mode = cmd.getOptionValue("m").toUpperCase();
@@ -104,22 +124,47 @@ public class CmdParser {
                 case "XY":
                     config.type = ComparatorType.XY_STR;
                     break;
+                case "XYR":
+                    config.type = ComparatorType.XY_STR_READS;
+                    break;
                 case "L":
                     config.type = ComparatorType.LEVENSHTEIN;
                     break;
+                case "WL":
+                    config.type = ComparatorType.WEIGHTED_LEVENSHTEIN;
+                    break;
+                case "MH":
+                    config.type = ComparatorType.MINHASH;
+                    break;
+                case "IBS":
+                    config.type = ComparatorType.IBS;
+                    break;
                 default:
                     throw new CommandLineException(INCORRECT_INPUT_MESSAGE);
             }
         }
 
+        // cohort is compared only by the Levenshtein comparators, or its kinship is estimated in the sites
+        if (config.pathToSampleSheet != null && !config.type.isLevenshtein() && config.type != ComparatorType.IBS) {
+            throw new CommandLineException(INCORRECT_INPUT_MESSAGE);
+        }
+
         if (cmd.hasOption("g")) {
-            if (config.type == ComparatorType.XY_STR) {
+            if (config.type.isSTR()) {
                 config.path = cmd.getOptionValue("g");
             } else {
                 throw new CommandLineException(INCORRECT_INPUT_MESSAGE);
             }
         }
 
+        if (cmd.hasOption("hdb")) {
+            if (config.type.isSTR()) {
+                config.pathToHaplotypeDatabase = cmd.getOptionValue("hdb");
+            } else {
+                throw new CommandLineException(INCORRECT_INPUT_MESSAGE);
+            }
+        }
+
         // check if number of threads was changed
         if (cmd.hasOption("th")) {
             int threadsNum = Integer.parseInt(cmd.getOptionValue("th"));
@@ -129,6 +174,58 @@ public class CmdParser {
             config.threadsNumber = threadsNum;
         }
 
+        // check if pipeline is requested
+        if (cmd.hasOption("pl")) {
+            if (!config.type.isLevenshtein()) {
+                throw new CommandLineException(INCORRECT_INPUT_MESSAGE);
+            }
+            String[] workers = cmd.getOptionValue("pl").split(":");
+            if (workers.length != 3) {
+                throw new CommandLineException(INCORRECT_INPUT_MESSAGE);
+            }
+            config.pipelineWorkers = new int[workers.length];
+            for (int i = 0; i < workers.length; i++) {
+                config.pipelineWorkers[i] = Integer.parseInt(workers[i]);
+                if (config.pipelineWorkers[i] < 1) {
+                    throw new CommandLineException(INCORRECT_INPUT_MESSAGE);
+                }
+            }
+        }
+
+        // check if Mendelian errors are requested
+        if (cmd.hasOption("me")) {
+            if (config.numberOfRecipients != 3 || !config.type.isLevenshtein() || config.pipelineWorkers != null) {
+                throw new CommandLineException(INCORRECT_INPUT_MESSAGE);
+            }
+            config.mendelian = true;
+        }
+
+        // check if pre-screen of the pairs of the cohort is requested
+        if (cmd.hasOption("ps")) {
+            if (config.pathToSampleSheet == null || !config.type.isLevenshtein()) {
+                throw new CommandLineException(INCORRECT_INPUT_MESSAGE);
+            }
+            double threshold = Double.parseDouble(cmd.getOptionValue("ps"));
+            if (!(threshold > 0 && threshold <= 1)) {
+                throw new CommandLineException(INCORRECT_INPUT_MESSAGE);
+            }
+            config.preScreenThreshold = threshold;
+        }
+
+        // check if number of features processed at once was changed
+        if (cmd.hasOption("if")) {
+            int maxInFlight = Integer.parseInt(cmd.getOptionValue("if"));
+            if (maxInFlight < 1) {
+                throw new CommandLineException(INCORRECT_INPUT_MESSAGE);
+            }
+            config.maxInFlight = maxInFlight;
+        }
+
+        // check if records of the results are requested
+        if (cmd.hasOption("o")) {
+            config.pathToOutput = cmd.getOptionValue("o");
+        }
+
         return config;
     }
 
@@ -172,13 +269,24 @@ public class CmdParser {
                 .build()
         );
 
+        options.addOption(
+            Option.builder("co")
+                .longOpt("cohort")
+                .desc("Compares all the pairs of the genomes of the cohort.")
+                .hasArg()
+                .numberOfArgs(2)
+                .argName("samples> <bed")
+                .type(String.class)
+                .build()
+        );
+
         options.addOption(
             Option.builder("m")
                 .longOpt("mode")
                 .desc("Defines, which comparator will be used.")
                 .hasArg()
                 .numberOfArgs(1)
-                .argName("L> <XY")
+                .argName("L> <WL> <MH> <IBS> <XY> <XYR")
                 .type(String.class)
                 .build()
         );
@@ -191,6 +299,14 @@ public class CmdParser {
                 .build()
         );
 
+        options.addOption(
+            Option.builder("vt")
+                .longOpt("virtualThreads")
+                .desc("Defines, whether BAM files should be read by the virtual threads (JDK 21+) or not.")
+                .hasArg(false)
+                .build()
+        );
+
         options.addOption(
             Option.builder("g")
                 .longOpt("graph")
@@ -202,6 +318,28 @@ public class CmdParser {
                 .build()
         );
 
+        options.addOption(
+            Option.builder("hdb")
+                .longOpt("haplotypeDatabase")
+                .desc("Defines the haplotype database, where the nearest haplotypes of the persons are searched.")
+                .hasArg(true)
+                .numberOfArgs(1)
+                .argName("database")
+                .type(String.class)
+                .build()
+        );
+
+        options.addOption(
+            Option.builder("bhdb")
+                .longOpt("buildHaplotypeDatabase")
+                .desc("Converts the table of the haplotypes into the haplotype database.")
+                .hasArg()
+                .numberOfArgs(2)
+                .argName("table> <database")
+                .type(String.class)
+                .build()
+        );
+
         options.addOption(
             Option.builder("th")
                 .longOpt("threadsNumber")
@@ -212,6 +350,55 @@ public class CmdParser {
                 .build()
         );
 
+        options.addOption(
+            Option.builder("pl")
+                .longOpt("pipeline")
+                .desc("Defines numbers of the workers of the reading, assembling and comparison stages of the pipeline.")
+                .argName("read:assemble:compare")
+                .hasArg()
+                .type(String.class)
+                .build()
+        );
+
+        options.addOption(
+            Option.builder("if")
+                .longOpt("inFlight")
+                .desc("Defines maximum number of the features, that are processed at once.")
+                .argName("number")
+                .hasArg()
+                .type(Integer.class)
+                .build()
+        );
+
+        options.addOption(
+            Option.builder("me")
+                .longOpt("mendelian")
+                .desc("Defines, whether the Mendelian errors of the trio should be counted or not.")
+                .hasArg(false)
+                .build()
+        );
+
+        options.addOption(
+            Option.builder("ps")
+                .longOpt("preScreen")
+                .desc("Defines minimum average Jaccard similarity of the k-mer sketches of the pairs of the cohort, that are compared.")
+                .argName("threshold")
+                .hasArg()
+                .type(Double.class)
+                .build()
+        );
+
+        options.addOption(
+            Option.builder("o")
+                .longOpt("output")
+                .desc("Defines the file, where the records of the results are written.")
+                .hasArg()
+                .numberOfArgs(1)
+                .argName("file")
+                .type(String.class)
+                .build()
+        );
+
         return options;
     }
 }
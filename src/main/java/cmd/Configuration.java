@@ -78,6 +78,36 @@ public class Configuration {
      */
     public int threadsNumber = 1;
 
+    /**
+     * Defines, whether the BAM files should be
+     * read by the virtual threads or not.
+     */
+    public boolean virtualThreads = false;
+
+    /**
+     * Maximum number of the features, that are
+     * processed at once - default 0 (4 per thread, or 64 with virtual threads).
+     */
+    public int maxInFlight = 0;
+
+    /**
+     * Numbers of the workers of the reading, assembling and comparison
+     * stages of the pipeline - default null (pipeline is not used)
+     */
+    public int[] pipelineWorkers = null;
+
+    /**
+     * Defines, whether the Mendelian errors of the
+     * trio should be counted or not.
+     */
+    public boolean mendelian = false;
+
+    /**
+     * Minimum average Jaccard similarity of the k-mer sketches of
+     * the pairs of the cohort, that are compared - default 0 (all the pairs are compared)
+     */
+    public double preScreenThreshold = 0;
+
     /**
      * Defines the type of the comparator that will be used.
      */
@@ -87,4 +117,28 @@ public class Configuration {
      * Path to the file with graph - default null
      */
     public String path = null;
+
+    /**
+     * Path to the haplotype database, that is searched
+     * for the nearest haplotypes - default null
+     */
+    public String pathToHaplotypeDatabase = null;
+
+    /**
+     * Path to the table of the haplotypes, that
+     * should be converted into the haplotype database - default null
+     */
+    public String pathToHaplotypeTable = null;
+
+    /**
+     * Path to the sample sheet of the cohort,
+     * that should be compared - default null
+     */
+    public String pathToSampleSheet = null;
+
+    /**
+     * Path to the file, where the records of the results
+     * are written, or "-" for the standard output - default null
+     */
+    public String pathToOutput = null;
 }
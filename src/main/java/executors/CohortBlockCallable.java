@@ -0,0 +1,188 @@
+/*
+ * MIT License
+ * <p>
+ * Copyright (c) 2019-present Polina Bevad, Sergey Hvatov, Vladislav Marchenko
+ * <p>
+ * Permission is hereby granted, free of charge, to any person obtaining a copy
+ * of this software and associated documentation files (the "Software"), to deal
+ * in the Software without restriction, including without limitation the rights
+ * to use, copy, modify, merge, publish, distribute, sublicense, and/or sell
+ * copies of the Software, and to permit persons to whom the Software is
+ * furnished to do so, subject to the following conditions:
+ * <p>
+ * The above copyright notice and this permission notice shall be included in all
+ * copies or substantial portions of the Software.
+ * <p>
+ * THE SOFTWARE IS PROVIDED "AS IS", WITHOUT WARRANTY OF ANY KIND, EXPRESS OR
+ * IMPLIED, INCLUDING BUT NOT LIMITED TO THE WARRANTIES OF MERCHANTABILITY,
+ * FITNESS FOR A PARTICULAR PURPOSE AND NONINFRINGEMENT. IN NO EVENT SHALL THE
+ * AUTHORS OR COPYRIGHT HOLDERS BE LIABLE FOR ANY CLAIM, DAMAGES OR OTHER
+ * LIABILITY, WHETHER IN AN ACTION OF CONTRACT, TORT OR OTHERWISE, ARISING FROM,
+ * OUT OF OR IN CONNECTION WITH THE SOFTWARE OR THE USE OR OTHER DEALINGS IN THE
+ * SOFTWARE.
+ */
+
+package executors;
+
+import bam.regular.BEDFeature;
+import exception.GenomeException;
+import genome.assembly.GenomeRegion;
+import genome.assembly.SampleConsensus;
+import genome.compare.cohort.CohortComparisonResult;
+import genome.compare.common.ComparatorType;
+import genome.compare.levenshtein.LevenshteinComparisonResult;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.Callable;
+
+/**
+ * {@link CohortBlockCallable} class implements a {@link Callable} interface.
+ * Compares all the pairs of the samples from two blocks of the cohort (each pair once, the first
+ * sample of the pair has the lesser index). Features are processed in the outer loop, so the
+ * regions of one feature of all the samples of both blocks are compared, while they are in the cache.
+ * The pairs, that did not pass the pre-screen, are skipped.
+ *
+ * @author Sergey Khvatov
+ */
+public class CohortBlockCallable implements Callable<List<CohortComparisonResult>> {
+
+    /**
+     * Features of the BED file in the order of the consensus.
+     */
+    private List<BEDFeature> features;
+
+    /**
+     * Consensus of all the samples, they are memory-mapped.
+     */
+    private List<SampleConsensus> samples;
+
+    /**
+     * Index of the first sample of the row block.
+     */
+    private int rowFrom;
+
+    /**
+     * Index of the sample after the last one of the row block.
+     */
+    private int rowTo;
+
+    /**
+     * Index of the first sample of the column block.
+     */
+    private int columnFrom;
+
+    /**
+     * Index of the sample after the last one of the column block.
+     */
+    private int columnTo;
+
+    /**
+     * Pairs of the samples, that passed the pre-screen, or null, if all the pairs are compared.
+     */
+    private boolean[][] passed;
+
+    /**
+     * Type of the comparator that is used.
+     */
+    private ComparatorType mode;
+
+    /**
+     * Creates a task, that compares the samples with indexes in range [rowFrom, rowTo)
+     * with the samples with greater indexes in range [columnFrom, columnTo).
+     *
+     * @param features   Features of the BED file in the order of the consensus.
+     * @param samples    Consensus of all the samples.
+     * @param rowFrom    Index of the first sample of the row block.
+     * @param rowTo      Index of the sample after the last one of the row block.
+     * @param columnFrom Index of the first sample of the column block.
+     * @param columnTo   Index of the sample after the last one of the column block.
+     * @param passed     Pairs of the samples, that passed the pre-screen (the first index is lesser), or null, if all the pairs are compared.
+     * @param type       Type of the comparator, that will be used to compare genomes.
+     */
+    public CohortBlockCallable(List<BEDFeature> features, List<SampleConsensus> samples, int rowFrom, int rowTo, int columnFrom, int columnTo, boolean[][] passed, ComparatorType type) {
+        this.features = features;
+        this.samples = samples;
+        this.rowFrom = rowFrom;
+        this.rowTo = rowTo;
+        this.columnFrom = columnFrom;
+        this.columnTo = columnTo;
+        this.passed = passed;
+        this.mode = type;
+    }
+
+    /**
+     * {@link Callable} interface method call() override.
+     * Compares all the pairs of the samples of the blocks.
+     *
+     * @return Results of the comparison of the pairs.
+     * @throws GenomeException if regions don't pass the validation.
+     */
+    @Override
+    public List<CohortComparisonResult> call() {
+        int columns = columnTo - columnFrom;
+        long[] differences = new long[(rowTo - rowFrom) * columns];
+        long[] lengths = new long[differences.length];
+        for (int f = 0; f < features.size(); f++) {
+            // regions of the feature are decoded once for the block
+            List<List<GenomeRegion>> rowRegions = decode(f, rowFrom, rowTo);
+            List<List<GenomeRegion>> columnRegions = rowFrom == columnFrom ? rowRegions : decode(f, columnFrom, columnTo);
+            for (int i = rowFrom; i < rowTo; i++) {
+                List<GenomeRegion> first = rowRegions.get(i - rowFrom);
+                for (int j = Math.max(columnFrom, i + 1); j < columnTo; j++) {
+                    if (!isCompared(i, j)) {
+                        continue;
+                    }
+                    List<GenomeRegion> second = columnRegions.get(j - columnFrom);
+                    // feature without records in one of the samples is not compared
+                    if (first.size() != second.size()) {
+                        continue;
+                    }
+                    int cell = (i - rowFrom) * columns + j - columnFrom;
+                    for (int k = 0; k < first.size(); k++) {
+                        LevenshteinComparisonResult result = (LevenshteinComparisonResult) RegionBatchCallable.createComparator(mode, features.get(f), first.get(k), second.get(k)).compare();
+                        differences[cell] += result.getDifference();
+                        lengths[cell] += result.getSequenceLen();
+                    }
+                }
+            }
+        }
+
+        List<CohortComparisonResult> results = new ArrayList<>();
+        for (int i = rowFrom; i < rowTo; i++) {
+            for (int j = Math.max(columnFrom, i + 1); j < columnTo; j++) {
+                if (!isCompared(i, j)) {
+                    continue;
+                }
+                int cell = (i - rowFrom) * columns + j - columnFrom;
+                results.add(new CohortComparisonResult(i, j, differences[cell], lengths[cell]));
+            }
+        }
+        return results;
+    }
+
+    /**
+     * @param first  Index of the first sample.
+     * @param second Index of the second sample, greater than the first one.
+     * @return true, if the pair of the samples should be compared.
+     */
+    private boolean isCompared(int first, int second) {
+        return passed == null || passed[first][second];
+    }
+
+    /**
+     * Returns the regions of the feature of the samples.
+     *
+     * @param feature Index of the feature.
+     * @param from    Index of the first sample.
+     * @param to      Index after the last sample.
+     * @return Regions of the feature of each sample.
+     */
+    private List<List<GenomeRegion>> decode(int feature, int from, int to) {
+        List<List<GenomeRegion>> regions = new ArrayList<>(to - from);
+        for (int i = from; i < to; i++) {
+            regions.add(samples.get(i).get(feature));
+        }
+        return regions;
+    }
+}
@@ -0,0 +1,273 @@
+/*
+ * MIT License
+ * <p>
+ * Copyright (c) 2019-present Polina Bevad, Sergey Hvatov, Vladislav Marchenko
+ * <p>
+ * Permission is hereby granted, free of charge, to any person obtaining a copy
+ * of this software and associated documentation files (the "Software"), to deal
+ * in the Software without restriction, including without limitation the rights
+ * to use, copy, modify, merge, publish, distribute, sublicense, and/or sell
+ * copies of the Software, and to permit persons to whom the Software is
+ * furnished to do so, subject to the following conditions:
+ * <p>
+ * The above copyright notice and this permission notice shall be included in all
+ * copies or substantial portions of the Software.
+ * <p>
+ * THE SOFTWARE IS PROVIDED "AS IS", WITHOUT WARRANTY OF ANY KIND, EXPRESS OR
+ * IMPLIED, INCLUDING BUT NOT LIMITED TO THE WARRANTIES OF MERCHANTABILITY,
+ * FITNESS FOR A PARTICULAR PURPOSE AND NONINFRINGEMENT. IN NO EVENT SHALL THE
+ * AUTHORS OR COPYRIGHT HOLDERS BE LIABLE FOR ANY CLAIM, DAMAGES OR OTHER
+ * LIABILITY, WHETHER IN AN ACTION OF CONTRACT, TORT OR OTHERWISE, ARISING FROM,
+ * OUT OF OR IN CONNECTION WITH THE SOFTWARE OR THE USE OR OTHER DEALINGS IN THE
+ * SOFTWARE.
+ */
+
+package executors;
+
+import bam.regular.BAMParser;
+import bam.regular.BEDFeature;
+import bam.regular.BEDParser;
+import bam.sample.SampleSheetParser;
+import exception.GenomeException;
+import exception.GenomeFileException;
+import genome.assembly.SampleConsensus;
+import genome.compare.cohort.CohortComparisonResult;
+import genome.compare.cohort.CohortComparisonResultAnalyzer;
+import genome.compare.common.ComparatorType;
+import genome.compare.sketch.SampleSketch;
+import genome.compare.sketch.SketchComparisonResult;
+import genome.compare.sketch.SketchComparisonResultAnalyzer;
+import org.apache.logging.log4j.LogManager;
+import org.apache.logging.log4j.Logger;
+import util.IntermediateOutput;
+import util.ResultRecord;
+import util.ResultSink;
+
+import java.util.ArrayList;
+import java.util.Comparator;
+import java.util.List;
+import java.util.Map;
+import java.util.Set;
+import java.util.TreeSet;
+import java.util.concurrent.CompletionService;
+import java.util.concurrent.ExecutionException;
+import java.util.concurrent.ExecutorCompletionService;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.ForkJoinPool;
+
+/**
+ * Compares all the pairs of the samples of the cohort. The regions of each sample are
+ * assembled once and memory-mapped (see {@link ConsensusBuilder}), so the heap holds only the
+ * features, that are compared at the moment, not the consensus of all the samples; then the upper triangle of the similarity
+ * matrix is split into the blocks of {@link #BLOCK_SIZE} x {@link #BLOCK_SIZE} samples,
+ * that are compared in parallel. If the pre-screen is enabled, the pairs, which average
+ * Jaccard similarity of the k-mer sketches is lesser than the threshold, are not compared.
+ * Is used for the {@link ComparatorType#LEVENSHTEIN} and {@link ComparatorType#WEIGHTED_LEVENSHTEIN} comparators.
+ *
+ * @author Sergey Khvatov
+ */
+public class CohortComparatorExecutor {
+
+    /**
+     * Number of the samples in one block of the similarity matrix.
+     */
+    static final int BLOCK_SIZE = 8;
+
+    /**
+     * Logger that is used to write down the information about the execution.
+     */
+    private static final Logger executorLogger = LogManager.getLogger(CohortComparatorExecutor.class);
+
+    /**
+     * Names of the samples.
+     */
+    private List<String> names = new ArrayList<>();
+
+    /**
+     * Parsers of the BAM files of the samples.
+     */
+    private List<BAMParser> parsers = new ArrayList<>();
+
+    /**
+     * Features of the BED file, sorted by their positions.
+     */
+    private List<BEDFeature> features = new ArrayList<>();
+
+    /**
+     * Type of the comparator that will be used to compare genomes.
+     */
+    private ComparatorType type;
+
+    /**
+     * Sink, the results of the pairs are written to as soon as they are produced, or null.
+     */
+    private ResultSink sink;
+
+    /**
+     * Minimum average Jaccard similarity of the k-mer sketches of the compared pairs, or 0, if all the pairs are compared.
+     */
+    private double preScreenThreshold = 0;
+
+    /**
+     * Creates the executor from the sample sheet and the BED file.
+     *
+     * @param pathToSampleSheet Path to the sample sheet (see {@link SampleSheetParser}).
+     * @param pathToBED         Path to the BED file.
+     * @param type              Type of the comparator, that will be used to compare genomes.
+     * @throws GenomeException     if type of the comparator is not Levenshtein.
+     * @throws GenomeFileException if incorrect sample sheet, BED or BAM file is passed, or there are less than two samples.
+     */
+    public CohortComparatorExecutor(String pathToSampleSheet, String pathToBED, ComparatorType type) {
+        if (!type.isLevenshtein()) {
+            throw new GenomeException(this.getClass().getName(), "CohortComparatorExecutor", "type", "unsupported comparator type: " + type);
+        }
+        for (Map.Entry<String, String> sample : new SampleSheetParser(pathToSampleSheet).parse().entrySet()) {
+            names.add(sample.getKey());
+            parsers.add(new BAMParser(sample.getValue()));
+        }
+        if (names.size() < 2) {
+            throw new GenomeFileException(this.getClass().getName(), "CohortComparatorExecutor", pathToSampleSheet, "less than two samples");
+        }
+        for (List<BEDFeature> exons : new BEDParser(pathToBED).parse().values()) {
+            features.addAll(exons);
+        }
+        // the order of the features should not depend on the order of the map
+        features.sort(Comparator.comparing(BEDFeature::getChromosomeName).thenComparingInt(BEDFeature::getStartPos).thenComparingInt(BEDFeature::getEndPos).thenComparing(BEDFeature::getGene));
+        this.type = type;
+    }
+
+    /**
+     * Sets the sink, the records of the pairs of the samples are written to.
+     *
+     * @param sink Sink, or null, if records are not written.
+     */
+    public void setResultSink(ResultSink sink) {
+        this.sink = sink;
+    }
+
+    /**
+     * Enables the pre-screen of the pairs by the k-mer sketches of the samples.
+     *
+     * @param threshold Minimum average Jaccard similarity of the compared pairs, or 0, if all the pairs are compared.
+     */
+    public void setPreScreenThreshold(double threshold) {
+        this.preScreenThreshold = threshold;
+    }
+
+    /**
+     * Compares all the pairs of the samples of the cohort.
+     *
+     * @param threadsNum     Number of threads that will be used to assemble and compare the samples.
+     * @param advancedOutput if this flag is true , then results for each pair will be displayed.
+     * @return Object CohortComparisonResultAnalyzer which contains the similarity matrix.
+     * @throws GenomeException if exception occurs while assembling or comparing the samples.
+     */
+    public CohortComparisonResultAnalyzer compareGenomes(int threadsNum, boolean advancedOutput) throws GenomeException {
+        // each sample is assembled once, only the mapped files are kept
+        ConsensusBuilder builder = new ConsensusBuilder(features, threadsNum);
+        List<SampleConsensus> samples = new ArrayList<>(parsers.size());
+        for (int i = 0; i < parsers.size(); i++) {
+            samples.add(builder.build(parsers.get(i)));
+            executorLogger.info("Sample assembled: {}", names.get(i));
+        }
+
+        CohortComparisonResultAnalyzer comparisonResults = new CohortComparisonResultAnalyzer(names);
+        boolean[][] passed = preScreenThreshold > 0 ? preScreen(samples, advancedOutput) : null;
+        ExecutorService executorPool = new ForkJoinPool(threadsNum);
+        CompletionService<List<CohortComparisonResult>> executorService = new ExecutorCompletionService<>(executorPool);
+        try {
+            int tasksNumber = 0;
+            for (int row = 0; row < samples.size(); row += BLOCK_SIZE) {
+                for (int column = row; column < samples.size(); column += BLOCK_SIZE) {
+                    int rowTo = Math.min(row + BLOCK_SIZE, samples.size()), columnTo = Math.min(column + BLOCK_SIZE, samples.size());
+                    // blocks without the pairs, that passed the pre-screen, are not submitted
+                    if (passed == null || hasPassedPairs(passed, row, rowTo, column, columnTo)) {
+                        executorService.submit(new CohortBlockCallable(features, samples, row, rowTo, column, columnTo, passed, type));
+                        tasksNumber++;
+                    }
+                }
+            }
+            for (int i = 0; i < tasksNumber; i++) {
+                for (CohortComparisonResult result : executorService.take().get()) {
+                    if (advancedOutput) {
+                        IntermediateOutput.println("Comparison result of samples " + names.get(result.getFirst()) + " and " + names.get(result.getSecond()) + ": similarity percentage - " + result.getSimilarity() + "%");
+                    }
+                    if (sink != null) {
+                        sink.write(names.get(result.getFirst()) + "-" + names.get(result.getSecond()), new ResultRecord("pair")
+                            .add("first", names.get(result.getFirst())).add("second", names.get(result.getSecond()))
+                            .add("difference", result.getDifference()).add("length", result.getSequenceLen()).add("similarity", result.getSimilarity()));
+                    }
+                    comparisonResults.add(result);
+                }
+            }
+            return comparisonResults;
+        } catch (InterruptedException iex) {
+            Thread.currentThread().interrupt();
+            throw new GenomeException(this.getClass().getName(), "compareGenomes", "interrupted");
+        } catch (ExecutionException eex) {
+            Throwable t = eex.getCause() != null ? eex.getCause() : eex;
+            GenomeException gex = new GenomeException(this.getClass().getName(), "compareGenomes", t.getMessage());
+            gex.initCause(t);
+            throw gex;
+        } finally {
+            executorPool.shutdownNow();
+        }
+    }
+
+    /**
+     * Estimates the Jaccard similarities of the k-mer sketches of all the pairs of the samples
+     * and selects the pairs, which average similarity is not lesser than the threshold.
+     *
+     * @param samples        Consensus of all the samples.
+     * @param advancedOutput if this flag is true , then the skipped pairs will be displayed.
+     * @return Pairs, that passed the pre-screen: passed[i][j] for the first index lesser than the second one.
+     */
+    private boolean[][] preScreen(List<SampleConsensus> samples, boolean advancedOutput) {
+        List<SampleSketch> sketches = new ArrayList<>(samples.size());
+        for (SampleConsensus sample : samples) {
+            sketches.add(SketchBuilder.build(sample));
+        }
+        boolean[][] passed = new boolean[samples.size()][samples.size()];
+        int skipped = 0;
+        for (int i = 0; i < sketches.size(); i++) {
+            for (int j = i + 1; j < sketches.size(); j++) {
+                Set<String> chromosomes = new TreeSet<>(sketches.get(i).getChromosomes());
+                chromosomes.addAll(sketches.get(j).getChromosomes());
+                SketchComparisonResultAnalyzer sketchResults = new SketchComparisonResultAnalyzer();
+                for (String chrom : chromosomes) {
+                    sketchResults.add(new SketchComparisonResult(chrom, sketches.get(i).get(chrom).jaccard(sketches.get(j).get(chrom))));
+                }
+                passed[i][j] = sketchResults.isPassed(preScreenThreshold);
+                if (!passed[i][j]) {
+                    skipped++;
+                    if (advancedOutput) {
+                        IntermediateOutput.println("Samples " + names.get(i) + " and " + names.get(j) + " are not compared, average Jaccard similarity - " + sketchResults.getAverageSimilarity());
+                    }
+                }
+            }
+        }
+        executorLogger.info("Pairs of the samples, that did not pass the pre-screen: {}", skipped);
+        return passed;
+    }
+
+    /**
+     * Checks, whether the block of the similarity matrix contains the pairs, that passed the pre-screen.
+     *
+     * @param passed     Pairs, that passed the pre-screen.
+     * @param rowFrom    Index of the first sample of the row block.
+     * @param rowTo      Index of the sample after the last one of the row block.
+     * @param columnFrom Index of the first sample of the column block.
+     * @param columnTo   Index of the sample after the last one of the column block.
+     * @return true, if at least one pair of the block passed the pre-screen.
+     */
+    private static boolean hasPassedPairs(boolean[][] passed, int rowFrom, int rowTo, int columnFrom, int columnTo) {
+        for (int i = rowFrom; i < rowTo; i++) {
+            for (int j = Math.max(columnFrom, i + 1); j < columnTo; j++) {
+                if (passed[i][j]) {
+                    return true;
+                }
+            }
+        }
+        return false;
+    }
+}
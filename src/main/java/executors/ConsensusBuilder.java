@@ -0,0 +1,179 @@
+/*
+ * MIT License
+ * <p>
+ * Copyright (c) 2019-present Polina Bevad, Sergey Hvatov, Vladislav Marchenko
+ * <p>
+ * Permission is hereby granted, free of charge, to any person obtaining a copy
+ * of this software and associated documentation files (the "Software"), to deal
+ * in the Software without restriction, including without limitation the rights
+ * to use, copy, modify, merge, publish, distribute, sublicense, and/or sell
+ * copies of the Software, and to permit persons to whom the Software is
+ * furnished to do so, subject to the following conditions:
+ * <p>
+ * The above copyright notice and this permission notice shall be included in all
+ * copies or substantial portions of the Software.
+ * <p>
+ * THE SOFTWARE IS PROVIDED "AS IS", WITHOUT WARRANTY OF ANY KIND, EXPRESS OR
+ * IMPLIED, INCLUDING BUT NOT LIMITED TO THE WARRANTIES OF MERCHANTABILITY,
+ * FITNESS FOR A PARTICULAR PURPOSE AND NONINFRINGEMENT. IN NO EVENT SHALL THE
+ * AUTHORS OR COPYRIGHT HOLDERS BE LIABLE FOR ANY CLAIM, DAMAGES OR OTHER
+ * LIABILITY, WHETHER IN AN ACTION OF CONTRACT, TORT OR OTHERWISE, ARISING FROM,
+ * OUT OF OR IN CONNECTION WITH THE SOFTWARE OR THE USE OR OTHER DEALINGS IN THE
+ * SOFTWARE.
+ */
+
+package executors;
+
+import bam.regular.BAMParser;
+import bam.regular.BEDFeature;
+import exception.GenomeException;
+import exception.GenomeFileException;
+import genome.assembly.GenomeRegion;
+import genome.assembly.SampleConsensus;
+import org.apache.logging.log4j.LogManager;
+import org.apache.logging.log4j.Logger;
+import util.SampleCache;
+
+import java.io.File;
+import java.io.IOException;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.*;
+
+/**
+ * Assembles the regions of all the features of the sample and saves the consensus
+ * to the file, that is memory-mapped, so that only the assembled sample is kept in the heap.
+ * The file is kept in the directory of the {@link SampleCache}, if it is set, and reused
+ * for the same BAM file and features; otherwise the temporary file is used.
+ *
+ * @author Sergey Khvatov
+ */
+public class ConsensusBuilder {
+
+    /**
+     * Logger that is used to write down the information about assembling.
+     */
+    private static final Logger consensusLogger = LogManager.getLogger(ConsensusBuilder.class);
+
+    /**
+     * Features of the BED file in the fixed order.
+     */
+    private List<BEDFeature> features;
+
+    /**
+     * Number of threads that assemble the regions.
+     */
+    private int threadsNum;
+
+    /**
+     * Creates the consensus builder.
+     *
+     * @param features   Features of the BED file in the fixed order.
+     * @param threadsNum Number of threads that assemble the regions.
+     */
+    public ConsensusBuilder(List<BEDFeature> features, int threadsNum) {
+        this.features = features;
+        this.threadsNum = threadsNum;
+    }
+
+    /**
+     * Returns the memory-mapped consensus of the sample. If caching is enabled and there is
+     * a saved consensus file for the same features and the same BAM file, it is mapped,
+     * otherwise regions are assembled, saved and mapped.
+     *
+     * @param parser BAM file parser of the sample.
+     * @return Consensus of the sample.
+     * @throws GenomeException     if error occurs while assembling the regions.
+     * @throws GenomeFileException if the consensus file can not be written.
+     */
+    public SampleConsensus build(BAMParser parser) {
+        long fingerprint = SampleConsensus.fingerprint(features);
+        long source = SampleCache.stamp(parser.getBAMFile());
+        File directory = SampleCache.getDirectory();
+        if (directory == null) {
+            return mapTemporary(assemble(parser, fingerprint, source));
+        }
+        File cache = SampleCache.getFile(directory, parser.getBAMFile(), SampleConsensus.EXTENSION);
+        if (cache.isFile()) {
+            try {
+                SampleConsensus consensus = SampleConsensus.load(cache);
+                if (consensus.getFingerprint() == fingerprint && consensus.getSource() == source && consensus.size() == features.size()) {
+                    return consensus;
+                }
+            } catch (GenomeFileException gfex) {
+                consensusLogger.warn("Can not load the consensus file, it will be rebuilt: " + gfex.getMessage());
+            }
+        }
+
+        SampleConsensus consensus = assemble(parser, fingerprint, source);
+        try {
+            directory.mkdirs();
+            consensus.save(cache);
+            return SampleConsensus.load(cache);
+        } catch (GenomeFileException gfex) {
+            consensusLogger.warn("Can not save the consensus file, the temporary file is used: " + gfex.getMessage());
+        }
+        return mapTemporary(consensus);
+    }
+
+    /**
+     * Saves the consensus to the temporary file and maps it. The file is deleted at once,
+     * the mapping stays valid (on the systems, that do not allow it, the file is deleted on exit).
+     *
+     * @param consensus Consensus in the heap.
+     * @return Mapped consensus.
+     * @throws GenomeFileException if the temporary file can not be written.
+     */
+    private SampleConsensus mapTemporary(SampleConsensus consensus) {
+        File file;
+        try {
+            file = File.createTempFile("bio_relatives", SampleConsensus.EXTENSION);
+        } catch (IOException ioex) {
+            GenomeFileException gfex = new GenomeFileException(this.getClass().getName(), "mapTemporary", "temporary file", ioex.getMessage());
+            gfex.initCause(ioex);
+            throw gfex;
+        }
+        try {
+            consensus.save(file);
+            return SampleConsensus.load(file);
+        } finally {
+            if (!file.delete()) {
+                file.deleteOnExit();
+            }
+        }
+    }
+
+    /**
+     * Assembles all the features of the sample.
+     *
+     * @param parser      BAM file parser of the sample.
+     * @param fingerprint Fingerprint of the features.
+     * @param source      Stamp of the BAM file.
+     * @return Consensus of the sample.
+     * @throws GenomeException if error occurs while assembling the regions.
+     */
+    private SampleConsensus assemble(BAMParser parser, long fingerprint, long source) {
+        ExecutorService executorPool = Executors.newFixedThreadPool(threadsNum);
+        try {
+            List<Future<List<GenomeRegion>>> futures = new ArrayList<>(features.size());
+            for (BEDFeature feature : features) {
+                futures.add(executorPool.submit(new GenomeAssemblyCallable(parser, feature)));
+            }
+            List<List<GenomeRegion>> regions = new ArrayList<>(features.size());
+            for (Future<List<GenomeRegion>> future : futures) {
+                regions.add(future.get());
+            }
+            return new SampleConsensus(regions, fingerprint, source);
+        } catch (InterruptedException iex) {
+            Thread.currentThread().interrupt();
+            throw new GenomeException(this.getClass().getName(), "assemble", "interrupted");
+        } catch (ExecutionException eex) {
+            Throwable t = eex.getCause();
+            GenomeException gex = new GenomeException(this.getClass().getName(), "assemble", t.getMessage());
+            gex.initCause(t);
+            throw gex;
+        } finally {
+            executorPool.shutdownNow();
+        }
+    }
+}
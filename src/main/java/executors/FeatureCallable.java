@@ -28,42 +28,35 @@ import bam.regular.BAMParser;
 import bam.regular.BEDFeature;
 import exception.GenomeException;
 import genome.assembly.GenomeRegion;
+import genome.assembly.SAMRecordList;
 import genome.compare.common.ComparatorType;
 import genome.compare.common.ComparisonResult;
-import genome.compare.common.GenomeComparator;
-import genome.compare.levenshtein.LevenshteinComparator;
-import genome.compare.str.STRComparator;
 import org.apache.logging.log4j.LogManager;
 import org.apache.logging.log4j.Logger;
 
 import java.util.ArrayList;
 import java.util.Collections;
 import java.util.List;
-import java.util.concurrent.*;
+import java.util.concurrent.Callable;
+import java.util.concurrent.ForkJoinPool;
+import java.util.concurrent.ForkJoinTask;
 
 /**
  * {@link GenomeAssemblyCallable} class implements a {@link Callable} interface.
  * Overrides the call() method, so that it assemblies the genome region nucleotide sequence
  * that represents this region in the BED file and compares the resulting sequences.
+ * Assembling and comparison are forked as the subtasks of the {@link ForkJoinPool},
+ * this task is running in, so the task should be submitted to the {@link ForkJoinPool},
+ * that is shared by all the features.
  *
  * @author Sergey Khvatov
  */
 public class FeatureCallable implements Callable<List<ComparisonResult>> {
 
     /**
-     * Default number of assembling threads
+     * Number of pairs of regions, that are compared by one task.
      */
-    private static final int ASSEMBLY_THREADS_NUM = 2;
-
-    /**
-     * Index of the genome of the first person in the list.
-     */
-    private static final int FIRST_PERSON = 0;
-
-    /**
-     * Index of the genome of the second person in the list.
-     */
-    private static final int SECOND_PERSON = 1;
+    private static final int REGIONS_PER_TASK = 32;
 
     /**
      * Logger that is used to write down the information about feature processing.
@@ -86,9 +79,14 @@ public class FeatureCallable implements Callable<List<ComparisonResult>> {
     private BAMParser secondBAMFile;
 
     /**
-     * Number of assembling threads.
+     * First person's records of the feature, that were fetched in advance, or null.
      */
-    private int compareThreadsNumber;
+    private SAMRecordList firstRecords;
+
+    /**
+     * Second person's records of the feature, that were fetched in advance, or null.
+     */
+    private SAMRecordList secondRecords;
 
     /**
      * Defines whether the some additional information
@@ -109,17 +107,34 @@ public class FeatureCallable implements Callable<List<ComparisonResult>> {
      * @param firstParser      First person's BAM file parser.
      * @param secondParser     Second person's BAM file parser.
      * @param type             Type of the comparator, that will be used to compare genomes.
-     * @param threadsNumber    Number of threads that are used in {@link GenomeComparatorExecutor}.
      * @param additionalOutput if this flag is true, then advanced region comparison results will be displayed,
      *                         else - only the main chromosome results will be obtained
      */
-    public FeatureCallable(BEDFeature feature, BAMParser firstParser, BAMParser secondParser, ComparatorType type, int threadsNumber, boolean additionalOutput) {
+    public FeatureCallable(BEDFeature feature, BAMParser firstParser, BAMParser secondParser, ComparatorType type, boolean additionalOutput) {
         this.mode = type;
         this.feature = feature;
         this.firstBAMFile = firstParser;
         this.secondBAMFile = secondParser;
         this.additionalOutput = additionalOutput;
-        this.compareThreadsNumber = Runtime.getRuntime().availableProcessors() / threadsNumber > 0 ? Runtime.getRuntime().availableProcessors() / threadsNumber : 1;
+    }
+
+    /**
+     * Creates a feature thread from the records, that were fetched in advance
+     * (see {@link FeatureFetchCallable}), using the following arguments.
+     *
+     * @param feature          Corresponding BED file feature.
+     * @param firstRecords     First person's records of the feature.
+     * @param secondRecords    Second person's records of the feature.
+     * @param type             Type of the comparator, that will be used to compare genomes.
+     * @param additionalOutput if this flag is true, then advanced region comparison results will be displayed,
+     *                         else - only the main chromosome results will be obtained
+     */
+    public FeatureCallable(BEDFeature feature, SAMRecordList firstRecords, SAMRecordList secondRecords, ComparatorType type, boolean additionalOutput) {
+        this.mode = type;
+        this.feature = feature;
+        this.firstRecords = firstRecords;
+        this.secondRecords = secondRecords;
+        this.additionalOutput = additionalOutput;
     }
 
     /**
@@ -129,84 +144,52 @@ public class FeatureCallable implements Callable<List<ComparisonResult>> {
      * these two regions.
      *
      * @return Results of the comparison of two regions.
-     * @throws GenomeException      if regions don't pass the validation.
-     * @throws InterruptedException if thread was interrupted.
+     * @throws GenomeException if regions don't pass the validation.
      */
     @Override
-    public List<ComparisonResult> call() throws InterruptedException {
-        // executor services that will be used in the method
-        ExecutorService assemblyService = Executors.newFixedThreadPool(ASSEMBLY_THREADS_NUM);
-        ExecutorService comparePool = Executors.newFixedThreadPool(compareThreadsNumber);
-        CompletionService<ComparisonResult> compareService = new ExecutorCompletionService<>(comparePool);
-
-        try {
-            // log the start of the processing
-            featureLogger.info("Processing feature: " + feature.toString());
-
-            List<GenomeAssemblyCallable> assemblyTasks = new ArrayList<>();
-            // add the tasks to the list
-            assemblyTasks.add(new GenomeAssemblyCallable(firstBAMFile, feature));
-            assemblyTasks.add(new GenomeAssemblyCallable(secondBAMFile, feature));
-
-            // getSAMRecordList the results of the assembling as a list of Future objects
-            List<Future<List<GenomeRegion>>> assembledRegions = assemblyService.invokeAll(assemblyTasks);
-
-            // save the results of the comparison
-            List<GenomeRegion> firstGenome = assembledRegions.get(FIRST_PERSON).get();
-            List<GenomeRegion> secondGenome = assembledRegions.get(SECOND_PERSON).get();
-
-            // shutdown the assembling executor
-            assemblyService.shutdown();
-
-            // check the results
-            if (firstGenome.size() != secondGenome.size()) {
-                //throw new GenomeException("Error occurred while assembling: " + feature);
-                featureLogger.error("Error occurred while assembling: " + feature);
-                return Collections.synchronizedList(new ArrayList<>());
-            }
-
-            // submit the tasks to the executor for the further comparison
-            for (int i = 0; i < firstGenome.size(); i++) {
-                GenomeComparator comparator = null;
-                switch (mode) {
-                    case XY_STR:
-                        comparator = new STRComparator(feature, firstGenome.get(i), secondGenome.get(i));
-                        break;
-                    case LEVENSHTEIN:
-                        comparator = new LevenshteinComparator(firstGenome.get(i), secondGenome.get(i));
-                        break;
-                }
-                compareService.submit(new GenomeRegionCallable(comparator, additionalOutput));
-            }
-
-            // save the results of the comparison
-            List<ComparisonResult> results = Collections.synchronizedList(new ArrayList<>());
-            for (int i = 0; i < firstGenome.size(); i++) {
-                results.add(compareService.take().get());
-            }
-
-            // shutdown the comparing executor
-            comparePool.shutdown();
-
-            // log the end of the processing
-            featureLogger.info("End of processing feature: " + feature.toString());
-
-            // return the results
-            return results;
-        } catch (InterruptedException iex) {
-            Thread.currentThread().interrupt();
-            throw iex;
-        } catch (ExecutionException eex) {
-            // if exception has occurred during the call
-            // then getSAMRecordList the cause and init our own exception
-            Throwable t = eex.getCause();
-            GenomeException gex = new GenomeException(this.getClass().getName(), "call", t.getMessage());
-            gex.initCause(t);
-            throw gex;
-        } finally {
-            // shutdown the executors
-            assemblyService.shutdownNow();
-            comparePool.shutdownNow();
+    public List<ComparisonResult> call() {
+        // log the start of the processing
+        if (featureLogger.isInfoEnabled()) {
+            featureLogger.info("Processing feature: {}", feature);
+        }
+
+        // assemble the genomes of both persons, current thread
+        // assembles one of them or helps with the other tasks while waiting
+        ForkJoinTask<List<GenomeRegion>> firstAssembly = ForkJoinTask.adapt(firstRecords != null ? new GenomeAssemblyCallable(firstRecords, feature) : new GenomeAssemblyCallable(firstBAMFile, feature));
+        ForkJoinTask<List<GenomeRegion>> secondAssembly = ForkJoinTask.adapt(secondRecords != null ? new GenomeAssemblyCallable(secondRecords, feature) : new GenomeAssemblyCallable(secondBAMFile, feature));
+        ForkJoinTask.invokeAll(firstAssembly, secondAssembly);
+        List<GenomeRegion> firstGenome = firstAssembly.join();
+        List<GenomeRegion> secondGenome = secondAssembly.join();
+
+        // check the results
+        if (firstGenome.size() != secondGenome.size()) {
+            //throw new GenomeException("Error occurred while assembling: " + feature);
+            featureLogger.error("Error occurred while assembling: {}", feature);
+            return Collections.synchronizedList(new ArrayList<>());
         }
+
+        // fork the tasks for the further comparison,
+        // each task compares a block of regions, STR markers are compared in one task
+        int regionsPerTask = mode == ComparatorType.XY_STR ? Math.max(firstGenome.size(), 1) : REGIONS_PER_TASK;
+        List<ForkJoinTask<List<ComparisonResult>>> compareTasks = new ArrayList<>();
+        for (int from = 0; from < firstGenome.size(); from += regionsPerTask) {
+            int to = Math.min(from + regionsPerTask, firstGenome.size());
+            compareTasks.add(ForkJoinTask.adapt(new RegionBatchCallable(feature, firstGenome, secondGenome, from, to, mode, additionalOutput)));
+        }
+        ForkJoinTask.invokeAll(compareTasks);
+
+        // save the results of the comparison
+        List<ComparisonResult> results = Collections.synchronizedList(new ArrayList<>(firstGenome.size()));
+        for (ForkJoinTask<List<ComparisonResult>> task : compareTasks) {
+            results.addAll(task.join());
+        }
+
+        // log the end of the processing
+        if (featureLogger.isInfoEnabled()) {
+            featureLogger.info("End of processing feature: {}", feature);
+        }
+
+        // return the results
+        return results;
     }
 }
@@ -0,0 +1,123 @@
+/*
+ * MIT License
+ * <p>
+ * Copyright (c) 2019-present Polina Bevad, Sergey Hvatov, Vladislav Marchenko
+ * <p>
+ * Permission is hereby granted, free of charge, to any person obtaining a copy
+ * of this software and associated documentation files (the "Software"), to deal
+ * in the Software without restriction, including without limitation the rights
+ * to use, copy, modify, merge, publish, distribute, sublicense, and/or sell
+ * copies of the Software, and to permit persons to whom the Software is
+ * furnished to do so, subject to the following conditions:
+ * <p>
+ * The above copyright notice and this permission notice shall be included in all
+ * copies or substantial portions of the Software.
+ * <p>
+ * THE SOFTWARE IS PROVIDED "AS IS", WITHOUT WARRANTY OF ANY KIND, EXPRESS OR
+ * IMPLIED, INCLUDING BUT NOT LIMITED TO THE WARRANTIES OF MERCHANTABILITY,
+ * FITNESS FOR A PARTICULAR PURPOSE AND NONINFRINGEMENT. IN NO EVENT SHALL THE
+ * AUTHORS OR COPYRIGHT HOLDERS BE LIABLE FOR ANY CLAIM, DAMAGES OR OTHER
+ * LIABILITY, WHETHER IN AN ACTION OF CONTRACT, TORT OR OTHERWISE, ARISING FROM,
+ * OUT OF OR IN CONNECTION WITH THE SOFTWARE OR THE USE OR OTHER DEALINGS IN THE
+ * SOFTWARE.
+ */
+
+package executors;
+
+import bam.regular.BAMParser;
+import bam.regular.BEDFeature;
+import exception.GenomeException;
+import genome.assembly.SAMRecordList;
+import genome.compare.common.ComparatorType;
+import genome.compare.common.ComparisonResult;
+
+import java.util.List;
+import java.util.concurrent.Callable;
+import java.util.concurrent.ExecutionException;
+import java.util.concurrent.ExecutorService;
+
+/**
+ * {@link FeatureFetchCallable} class implements a {@link Callable} interface.
+ * It is intended to be run by the virtual thread: it reads the records of the feature
+ * from both BAM files, blocking on the disk I/O, and then passes the assembling and
+ * the comparison of the feature to the bounded pool of the platform threads and waits for the results.
+ *
+ * @author Sergey Khvatov
+ */
+public class FeatureFetchCallable implements Callable<List<ComparisonResult>> {
+
+    /**
+     * Corresponding BED file feature.
+     */
+    private BEDFeature feature;
+
+    /**
+     * First person's BAM file parser.
+     */
+    private BAMParser firstBAMFile;
+
+    /**
+     * Second person's BAM file parser.
+     */
+    private BAMParser secondBAMFile;
+
+    /**
+     * Pool, that assembles and compares the features.
+     */
+    private ExecutorService computePool;
+
+    /**
+     * Type of the comparator that is used.
+     */
+    private ComparatorType mode;
+
+    /**
+     * Defines whether the some additional information
+     * about the results of the comparison of two genome
+     * regions will be printed.
+     */
+    private boolean additionalOutput;
+
+    /**
+     * Creates a fetching task using the following arguments.
+     *
+     * @param feature          Corresponding BED file feature.
+     * @param firstParser      First person's BAM file parser.
+     * @param secondParser     Second person's BAM file parser.
+     * @param computePool      Pool, that assembles and compares the features.
+     * @param type             Type of the comparator, that will be used to compare genomes.
+     * @param additionalOutput if this flag is true, then advanced region comparison results will be displayed,
+     *                         else - only the main chromosome results will be obtained
+     */
+    public FeatureFetchCallable(BEDFeature feature, BAMParser firstParser, BAMParser secondParser, ExecutorService computePool, ComparatorType type, boolean additionalOutput) {
+        this.feature = feature;
+        this.firstBAMFile = firstParser;
+        this.secondBAMFile = secondParser;
+        this.computePool = computePool;
+        this.mode = type;
+        this.additionalOutput = additionalOutput;
+    }
+
+    /**
+     * {@link Callable} interface method call() override.
+     * Reads the records of the feature and then waits, while they
+     * are assembled and compared by the pool of the platform threads.
+     *
+     * @return Results of the comparison of two regions.
+     * @throws GenomeException      if regions don't pass the validation.
+     * @throws InterruptedException if thread was interrupted.
+     */
+    @Override
+    public List<ComparisonResult> call() throws InterruptedException {
+        try {
+            SAMRecordList firstRecords = firstBAMFile.parse(feature);
+            SAMRecordList secondRecords = secondBAMFile.parse(feature);
+            return computePool.submit(new FeatureCallable(feature, firstRecords, secondRecords, mode, additionalOutput)).get();
+        } catch (ExecutionException eex) {
+            Throwable t = eex.getCause();
+            GenomeException gex = new GenomeException(this.getClass().getName(), "call", t.getMessage());
+            gex.initCause(t);
+            throw gex;
+        }
+    }
+}
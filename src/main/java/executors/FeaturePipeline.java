@@ -0,0 +1,260 @@
+/*
+ * MIT License
+ * <p>
+ * Copyright (c) 2019-present Polina Bevad, Sergey Hvatov, Vladislav Marchenko
+ * <p>
+ * Permission is hereby granted, free of charge, to any person obtaining a copy
+ * of this software and associated documentation files (the "Software"), to deal
+ * in the Software without restriction, including without limitation the rights
+ * to use, copy, modify, merge, publish, distribute, sublicense, and/or sell
+ * copies of the Software, and to permit persons to whom the Software is
+ * furnished to do so, subject to the following conditions:
+ * <p>
+ * The above copyright notice and this permission notice shall be included in all
+ * copies or substantial portions of the Software.
+ * <p>
+ * THE SOFTWARE IS PROVIDED "AS IS", WITHOUT WARRANTY OF ANY KIND, EXPRESS OR
+ * IMPLIED, INCLUDING BUT NOT LIMITED TO THE WARRANTIES OF MERCHANTABILITY,
+ * FITNESS FOR A PARTICULAR PURPOSE AND NONINFRINGEMENT. IN NO EVENT SHALL THE
+ * AUTHORS OR COPYRIGHT HOLDERS BE LIABLE FOR ANY CLAIM, DAMAGES OR OTHER
+ * LIABILITY, WHETHER IN AN ACTION OF CONTRACT, TORT OR OTHERWISE, ARISING FROM,
+ * OUT OF OR IN CONNECTION WITH THE SOFTWARE OR THE USE OR OTHER DEALINGS IN THE
+ * SOFTWARE.
+ */
+
+package executors;
+
+import bam.regular.BAMParser;
+import bam.regular.BEDFeature;
+import exception.GenomeException;
+import genome.assembly.GenomeConstructor;
+import genome.assembly.GenomeRegion;
+import genome.assembly.SAMRecordList;
+import genome.compare.common.ComparatorType;
+import genome.compare.common.ComparisonResult;
+import genome.compare.common.ComparisonResultAnalyzer;
+import genome.compare.levenshtein.LevenshteinComparisonResultAnalyzer;
+import org.apache.logging.log4j.LogManager;
+import org.apache.logging.log4j.Logger;
+import util.ResultSink;
+
+import java.util.Arrays;
+import java.util.List;
+import java.util.concurrent.CopyOnWriteArrayList;
+import java.util.concurrent.atomic.AtomicReference;
+
+/**
+ * Processes the features of the BED file by the pipeline of three stages:
+ * reading of the records from the BAM files, assembling of the genomes and
+ * comparison of the assembled regions. Each worker of the comparison stage adds the
+ * results to its own partial analyzer, the partials are merged into the analyzer at the end.
+ * Each stage has its own bounded queue and its own number of the workers
+ * (see {@link PipelineStage}), so the stages can be sized according to the
+ * statistics of the previous runs: the stage with the high utilization and the
+ * long queue is the bottleneck, the stages before it wait for its queue.
+ *
+ * @author Sergey Khvatov
+ */
+public class FeaturePipeline {
+
+    /**
+     * Capacity of the queue of the stage per worker of the stage.
+     */
+    private static final int QUEUE_PER_WORKER = 2;
+
+    /**
+     * Logger that is used to write down the information about feature processing.
+     */
+    private static final Logger pipelineLogger = LogManager.getLogger(FeaturePipeline.class);
+
+    /**
+     * Records of both persons for the feature.
+     */
+    private static final class FeatureRecords {
+
+        private final BEDFeature feature;
+
+        private final SAMRecordList first;
+
+        private final SAMRecordList second;
+
+        private FeatureRecords(BEDFeature feature, SAMRecordList first, SAMRecordList second) {
+            this.feature = feature;
+            this.first = first;
+            this.second = second;
+        }
+    }
+
+    /**
+     * Assembled genomes of both persons for the feature.
+     */
+    private static final class FeatureGenomes {
+
+        private final BEDFeature feature;
+
+        private final List<GenomeRegion> first;
+
+        private final List<GenomeRegion> second;
+
+        private FeatureGenomes(BEDFeature feature, List<GenomeRegion> first, List<GenomeRegion> second) {
+            this.feature = feature;
+            this.first = first;
+            this.second = second;
+        }
+    }
+
+    /**
+     * First error, that occurred in any stage.
+     */
+    private final AtomicReference<Throwable> failure = new AtomicReference<>();
+
+    /**
+     * Stage, that reads the records from the BAM files.
+     */
+    private final PipelineStage<BEDFeature, FeatureRecords> readStage;
+
+    /**
+     * Stage, that assembles the genomes.
+     */
+    private final PipelineStage<FeatureRecords, FeatureGenomes> assemblyStage;
+
+    /**
+     * Stage, that compares the assembled regions.
+     */
+    private final PipelineStage<FeatureGenomes, Void> compareStage;
+
+    /**
+     * Analyzer, the results are merged into.
+     */
+    private final ComparisonResultAnalyzer analyzer;
+
+    /**
+     * Sink, the records of the features are written to by the workers of the comparison stage, or null.
+     */
+    private ResultSink sink;
+
+    /**
+     * Name of the compared pair of the persons in the records of the sink.
+     */
+    private String pair;
+
+    /**
+     * Partial analyzers of the workers of the comparison stage.
+     */
+    private final List<LevenshteinComparisonResultAnalyzer> partials = new CopyOnWriteArrayList<>();
+
+    /**
+     * Partial analyzer of the current worker, it is created on the first result of the worker.
+     */
+    private final ThreadLocal<LevenshteinComparisonResultAnalyzer> partial = ThreadLocal.withInitial(() -> {
+        LevenshteinComparisonResultAnalyzer workerAnalyzer = new LevenshteinComparisonResultAnalyzer();
+        partials.add(workerAnalyzer);
+        return workerAnalyzer;
+    });
+
+    /**
+     * Creates the pipeline.
+     *
+     * @param firstParser      First person's BAM file parser.
+     * @param secondParser     Second person's BAM file parser.
+     * @param type             Type of the comparator, that will be used to compare genomes.
+     * @param additionalOutput if this flag is true, then advanced region comparison results will be displayed.
+     * @param analyzer         Analyzer, the results are merged into.
+     * @param readers          Number of the workers, that read the BAM files.
+     * @param assemblers       Number of the workers, that assemble the genomes.
+     * @param comparators      Number of the workers, that compare the regions.
+     * @throws GenomeException if number of the workers is not positive.
+     */
+    public FeaturePipeline(BAMParser firstParser, BAMParser secondParser, ComparatorType type, boolean additionalOutput, ComparisonResultAnalyzer analyzer, int readers, int assemblers, int comparators) {
+        if (readers < 1 || assemblers < 1 || comparators < 1) {
+            throw new GenomeException(this.getClass().getName(), "FeaturePipeline", "number of workers", "is not positive");
+        }
+        this.analyzer = analyzer;
+        // stages are created from the last one, as each stage needs the next one
+        compareStage = new PipelineStage<>("compare", comparators, comparators * QUEUE_PER_WORKER, genomes -> {
+            List<ComparisonResult> results = new RegionBatchCallable(genomes.feature, genomes.first, genomes.second, 0, genomes.first.size(), type, additionalOutput).call();
+            if (sink != null) {
+                sink.writeFeature(pair, genomes.feature, results);
+            }
+            partial.get().add(results);
+            return null;
+        }, null, failure);
+        assemblyStage = new PipelineStage<>("assemble", assemblers, assemblers * QUEUE_PER_WORKER, records -> {
+            List<GenomeRegion> first = GenomeConstructor.assembly(records.first, records.feature);
+            List<GenomeRegion> second = GenomeConstructor.assembly(records.second, records.feature);
+            if (first.size() != second.size()) {
+                pipelineLogger.error("Error occurred while assembling: {}", records.feature);
+                return null;
+            }
+            return new FeatureGenomes(records.feature, first, second);
+        }, compareStage, failure);
+        readStage = new PipelineStage<>("read", readers, readers * QUEUE_PER_WORKER, feature ->
+            new FeatureRecords(feature, firstParser.parse(feature), secondParser.parse(feature)),
+            assemblyStage, failure);
+    }
+
+    /**
+     * Sets the sink, the records of the features are written to.
+     * Must be called before {@link #run(List)}.
+     *
+     * @param sink Sink, or null, if records are not written.
+     * @param pair Name of the compared pair of the persons in the records.
+     */
+    public void setResultSink(ResultSink sink, String pair) {
+        this.sink = sink;
+        this.pair = pair;
+    }
+
+    /**
+     * Processes the features and waits, until all the results are merged into the analyzer.
+     *
+     * @param features Features of the BED file.
+     * @throws GenomeException      if error occurs in any stage.
+     * @throws InterruptedException if thread was interrupted.
+     */
+    public void run(List<BEDFeature> features) throws InterruptedException {
+        List<PipelineStage<?, ?>> stages = getStages();
+        for (PipelineStage<?, ?> stage : stages) {
+            stage.start();
+        }
+        for (BEDFeature feature : features) {
+            if (failure.get() != null) {
+                break;
+            }
+            readStage.put(feature);
+        }
+        for (PipelineStage<?, ?> stage : stages) {
+            stage.finish();
+        }
+
+        Throwable t = failure.get();
+        if (t != null) {
+            GenomeException gex = new GenomeException(this.getClass().getName(), "run", t.getMessage());
+            gex.initCause(t);
+            throw gex;
+        }
+        if (!partials.isEmpty()) {
+            analyzer.merge(ComparisonResultAnalyzer.reduce(partials));
+        }
+    }
+
+    /**
+     * @return stages of the pipeline in the order of processing.
+     */
+    public List<PipelineStage<?, ?>> getStages() {
+        return Arrays.asList(readStage, assemblyStage, compareStage);
+    }
+
+    /**
+     * @return statistics of all the stages, one stage per line.
+     */
+    public String getStatistics() {
+        StringBuilder result = new StringBuilder("Pipeline statistics:\n");
+        for (PipelineStage<?, ?> stage : getStages()) {
+            result.append("\t");
+            result.append(stage);
+            result.append(";\n");
+        }
+        return result.toString();
+    }
+}
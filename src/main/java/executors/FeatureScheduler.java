@@ -0,0 +1,142 @@
+/*
+ * MIT License
+ * <p>
+ * Copyright (c) 2019-present Polina Bevad, Sergey Hvatov, Vladislav Marchenko
+ * <p>
+ * Permission is hereby granted, free of charge, to any person obtaining a copy
+ * of this software and associated documentation files (the "Software"), to deal
+ * in the Software without restriction, including without limitation the rights
+ * to use, copy, modify, merge, publish, distribute, sublicense, and/or sell
+ * copies of the Software, and to permit persons to whom the Software is
+ * furnished to do so, subject to the following conditions:
+ * <p>
+ * The above copyright notice and this permission notice shall be included in all
+ * copies or substantial portions of the Software.
+ * <p>
+ * THE SOFTWARE IS PROVIDED "AS IS", WITHOUT WARRANTY OF ANY KIND, EXPRESS OR
+ * IMPLIED, INCLUDING BUT NOT LIMITED TO THE WARRANTIES OF MERCHANTABILITY,
+ * FITNESS FOR A PARTICULAR PURPOSE AND NONINFRINGEMENT. IN NO EVENT SHALL THE
+ * AUTHORS OR COPYRIGHT HOLDERS BE LIABLE FOR ANY CLAIM, DAMAGES OR OTHER
+ * LIABILITY, WHETHER IN AN ACTION OF CONTRACT, TORT OR OTHERWISE, ARISING FROM,
+ * OUT OF OR IN CONNECTION WITH THE SOFTWARE OR THE USE OR OTHER DEALINGS IN THE
+ * SOFTWARE.
+ */
+
+package executors;
+
+import bam.regular.BAMParser;
+import bam.regular.BEDFeature;
+import exception.GenomeException;
+import org.apache.logging.log4j.LogManager;
+import org.apache.logging.log4j.Logger;
+
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.Comparator;
+import java.util.List;
+
+/**
+ * Defines the order, in which the features of the BED file are processed.
+ * The cost of each feature is estimated as its length multiplied by the depth of
+ * the coverage, that is estimated from the BAM indexes; the features are processed
+ * from the most expensive one, so that the threads finish at the same time.
+ * The features are not split: the checks of the assembly are applied to the whole feature,
+ * so the parts could be assembled differently; the long features are assembled and compared
+ * in parts by the forked tasks instead (see {@link GenomeAssemblyCallable} and {@link FeatureCallable}).
+ *
+ * @author Sergey Khvatov
+ */
+public class FeatureScheduler {
+
+    /**
+     * Length of the genome, that is covered by one bin of the linear BAM index.
+     * The size of the records of the shorter feature is estimated by the whole bin.
+     */
+    static final int INDEX_WINDOW = 16384;
+
+    /**
+     * Logger that is used to write down the information about the scheduling.
+     */
+    private static final Logger schedulerLogger = LogManager.getLogger(FeatureScheduler.class);
+
+    /**
+     * Parsers of the BAM files, that are compared.
+     */
+    private final List<BAMParser> parsers;
+
+    /**
+     * Creates the scheduler for the BAM files.
+     *
+     * @param parsers Parsers of the BAM files, that are compared.
+     */
+    public FeatureScheduler(BAMParser... parsers) {
+        this.parsers = Arrays.asList(parsers);
+    }
+
+    /**
+     * Estimates the costs of the features and orders them from the most expensive one.
+     *
+     * @param features Features of the BED file.
+     * @return Features in the order of processing.
+     * @throws GenomeException if error occurs while reading the BAM indexes.
+     */
+    public List<BEDFeature> schedule(List<BEDFeature> features) {
+        List<BEDFeature> scheduled = order(features, estimateCosts(features));
+        schedulerLogger.info("Features scheduled: " + scheduled.size());
+        return scheduled;
+    }
+
+    /**
+     * Estimates the costs of processing of the features: length of the feature
+     * multiplied by the number of the bytes of the records of all the BAM files per position
+     * (plus one for the assembling of the position without any records).
+     * If any BAM file has no index, then the cost is the length of the feature.
+     *
+     * @param features Features of the BED file.
+     * @return costs of the features.
+     * @throws GenomeException if error occurs while reading the BAM indexes.
+     */
+    public double[] estimateCosts(List<BEDFeature> features) {
+        double[] costs = new double[features.size()];
+        long[] sizes = new long[features.size()];
+        boolean indexed = true;
+        for (BAMParser parser : parsers) {
+            long[] parserSizes = parser.estimateSizes(features);
+            if (parserSizes == null) {
+                indexed = false;
+                break;
+            }
+            for (int i = 0; i < sizes.length; i++) {
+                sizes[i] += parserSizes[i];
+            }
+        }
+        for (int i = 0; i < costs.length; i++) {
+            int length = features.get(i).getEndPos() - features.get(i).getStartPos();
+            double depth = indexed ? (double) sizes[i] / Math.max(length, INDEX_WINDOW) : 0d;
+            costs[i] = length * (depth + 1);
+        }
+        return costs;
+    }
+
+    /**
+     * Orders the features from the most expensive one, the features
+     * with the same cost keep their order.
+     *
+     * @param features Features of the BED file.
+     * @param costs    Costs of the features.
+     * @return Features in the order of processing.
+     */
+    static List<BEDFeature> order(List<BEDFeature> features, double[] costs) {
+        // stable sort of the indexes by the cost, the most expensive first
+        Integer[] order = new Integer[features.size()];
+        for (int i = 0; i < order.length; i++) {
+            order[i] = i;
+        }
+        Arrays.sort(order, Comparator.comparing((Integer i) -> costs[i]).reversed());
+        List<BEDFeature> result = new ArrayList<>(order.length);
+        for (int i : order) {
+            result.add(features.get(i));
+        }
+        return result;
+    }
+}
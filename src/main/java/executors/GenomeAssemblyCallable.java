@@ -31,23 +31,40 @@ import genome.assembly.GenomeConstructor;
 import genome.assembly.GenomeRegion;
 import genome.assembly.SAMRecordList;
 
+import java.util.ArrayList;
 import java.util.List;
 import java.util.concurrent.Callable;
+import java.util.concurrent.ForkJoinTask;
 
 /**
  * {@link GenomeAssemblyCallable} class implements a {@link Callable} interface.
  * Overrides the call() method, so that it assemblies the genome region nucleotide sequence
  * that represents this region in the BED file.x`
+ * Records of the region can be read from the BAM file by this task
+ * or fetched in advance, so that reading and assembling can be done by different threads.
+ * Long regions are assembled in parts by the forked tasks, if the task runs in the fork join pool;
+ * the checks of the assembly are applied to the whole region, so the result is the same.
  *
  * @author Sergey Khvatov
  */
 public class GenomeAssemblyCallable implements Callable<List<GenomeRegion>> {
 
+    /**
+     * Length of the part of the region, that is assembled by one forked task,
+     * it is a multiple of the length of the assembled regions.
+     */
+    static final int PART_LENGTH = 64 * GenomeConstructor.MAX_NUCLEOTIDE_SEQ_LEN;
+
     /**
      * Corresponding BAM file parser.
      */
     private BAMParser bamFile;
 
+    /**
+     * Records of the region, that were fetched in advance, or null.
+     */
+    private SAMRecordList samRecords;
+
     /**
      * BED file feature.
      */
@@ -65,6 +82,18 @@ public class GenomeAssemblyCallable implements Callable<List<GenomeRegion>> {
         this.feature = feature;
     }
 
+    /**
+     * Creates the {@link GenomeAssemblyCallable} from the records of the region,
+     * that were fetched in advance, and bed file feature that represents this region.
+     *
+     * @param samRecords Records of the region.
+     * @param feature    BED file feature.
+     */
+    public GenomeAssemblyCallable(SAMRecordList samRecords, BEDFeature feature) {
+        this.samRecords = samRecords;
+        this.feature = feature;
+    }
+
     /**
      * {@link Callable} interface method call() override.
      * Assemblies the genome region nucleotide sequence
@@ -78,8 +107,34 @@ public class GenomeAssemblyCallable implements Callable<List<GenomeRegion>> {
     public List<GenomeRegion> call() {
         // getSAMRecordList the list of sam records for each person
         //SAMRecordList samRecords = new BAMParser(this.bamFile.getBAMFileName()).parse(feature);
-        SAMRecordList samRecords = this.bamFile.parse(feature);
+        SAMRecordList samRecords = this.samRecords != null ? this.samRecords : this.bamFile.parse(feature);
         // assembly the nucleotides and return the result
-        return GenomeConstructor.assembly(samRecords, feature);
+        if (samRecords.isEmpty() || feature.getEndPos() - feature.getStartPos() <= PART_LENGTH || !ForkJoinTask.inForkJoinPool()) {
+            return GenomeConstructor.assembly(samRecords, feature);
+        }
+        return assemblyInParts(samRecords);
+    }
+
+    /**
+     * Assemblies the parts of the long region by the forked tasks
+     * and checks the regions of all the parts together.
+     *
+     * @param samRecords Records of the region, not empty.
+     * @return List of the assembled {@link GenomeRegion} objects.
+     * @throws GenomeException if regions don't pass the validation.
+     */
+    private List<GenomeRegion> assemblyInParts(SAMRecordList samRecords) {
+        List<ForkJoinTask<List<GenomeRegion>>> parts = new ArrayList<>();
+        for (long from = feature.getStartPos(); from < feature.getEndPos(); from += PART_LENGTH) {
+            int partFrom = (int) from, partTo = (int) Math.min(from + PART_LENGTH, feature.getEndPos());
+            parts.add(ForkJoinTask.adapt(() -> GenomeConstructor.assembly(samRecords, feature, partFrom, partTo)));
+        }
+        ForkJoinTask.invokeAll(parts);
+        List<GenomeRegion> genomeRegions = new ArrayList<>();
+        for (ForkJoinTask<List<GenomeRegion>> part : parts) {
+            genomeRegions.addAll(part.join());
+        }
+        GenomeConstructor.checkUnknownNucleotides(genomeRegions);
+        return genomeRegions;
     }
 }
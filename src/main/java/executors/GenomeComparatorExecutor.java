@@ -28,24 +28,61 @@ import bam.marker_region.MarkerRegionFileParser;
 import bam.regular.BAMParser;
 import bam.regular.BEDFeature;
 import bam.regular.BEDParser;
+import bam.site.Site;
+import bam.site.SiteFileParser;
 import exception.GenomeException;
 import exception.GenomeFileException;
+import genome.assembly.GenotypeVector;
+import genome.assembly.SAMRecordList;
 import genome.compare.common.ComparatorType;
 import genome.compare.common.ComparisonResult;
 import genome.compare.common.ComparisonResultAnalyzer;
+import genome.compare.ibs.IBSComparator;
+import genome.compare.ibs.IBSComparisonResult;
+import genome.compare.ibs.IBSComparisonResultAnalyzer;
 import genome.compare.levenshtein.LevenshteinComparisonResultAnalyzer;
+import genome.compare.sketch.SampleSketch;
+import genome.compare.sketch.SketchComparisonResult;
+import genome.compare.sketch.SketchComparisonResultAnalyzer;
 import genome.compare.str.STRComparisonResultAnalyzer;
+import org.apache.logging.log4j.LogManager;
+import org.apache.logging.log4j.Logger;
+import util.IntermediateOutput;
+import util.ResultSink;
 
 import java.util.ArrayList;
+import java.util.HashMap;
+import java.util.Iterator;
 import java.util.List;
 import java.util.Map;
+import java.util.Set;
+import java.util.TreeMap;
+import java.util.TreeSet;
 import java.util.concurrent.CompletionService;
 import java.util.concurrent.ExecutorCompletionService;
 import java.util.concurrent.ExecutorService;
+import java.util.concurrent.ExecutionException;
 import java.util.concurrent.Executors;
+import java.util.concurrent.ForkJoinPool;
+import java.util.concurrent.Future;
 
 public class GenomeComparatorExecutor {
 
+    /**
+     * Default number of the features, that are processed at once, per thread.
+     */
+    static final int IN_FLIGHT_PER_THREAD = 4;
+
+    /**
+     * Default number of the features, that are processed at once, if virtual threads are used.
+     */
+    static final int IN_FLIGHT_VIRTUAL = 64;
+
+    /**
+     * Logger that is used to write down the information about the execution.
+     */
+    private static final Logger executorLogger = LogManager.getLogger(GenomeComparatorExecutor.class);
+
     /**
      * Path to the first person's BAM file.
      */
@@ -62,18 +99,34 @@ public class GenomeComparatorExecutor {
      */
     private Map<String, List<BEDFeature>> exons;
 
+    /**
+     * Map with the SNP sites: key - chromosome name, value - sorted list of sites.
+     * Is used only by the {@link ComparatorType#IBS} comparator.
+     */
+    private Map<String, List<Site>> sites;
+
     /**
      * Type of the comparator that will be used to compare genomes.
      */
     private ComparatorType type;
 
+    /**
+     * Sink, the results are written to as soon as they are produced, or null.
+     */
+    private ResultSink sink;
+
+    /**
+     * Name of the compared pair of the persons in the records of the sink.
+     */
+    private String pair;
+
     /**
      * Default class constructor from paths to the BAM files and corresponding to them BED file
      * and number of threads that will process the exons.
      *
      * @param pathToFirstBAM  Path to the BAM file where first person's genome is stored.
      * @param pathToSecondBAM Path to the BAM file where first person's genome is stored.
-     * @param pathToBED       Path to the BED file.
+     * @param pathToBED       Path to the BED file (or to the VCF / BED file with the sites for the {@link ComparatorType#IBS} comparator).
      * @param type            Type of the comparator, that will be used to compare genomes.
      * @throws GenomeException     if exception occurs file parsing the BED file.
      * @throws GenomeFileException if incorrect BED or BAM file is passed.
@@ -83,7 +136,11 @@ public class GenomeComparatorExecutor {
         this.secondBAMFile = new BAMParser(pathToSecondBAM);
         this.type = type;
         // depending on the type of the comparator we are going to use
-        this.exons = type == ComparatorType.LEVENSHTEIN ? new BEDParser(pathToBED).parse() : new MarkerRegionFileParser(pathToBED).parse();
+        if (type == ComparatorType.IBS) {
+            this.sites = new SiteFileParser(pathToBED).parse();
+            return;
+        }
+        this.exons = type.isSTR() ? new MarkerRegionFileParser(pathToBED).parse() : new BEDParser(pathToBED).parse();
     }
 
     /**
@@ -97,33 +154,134 @@ public class GenomeComparatorExecutor {
      * @throws GenomeException if exception occurs while parsing the input files.
      */
     public ComparisonResultAnalyzer compareGenomes(int threadsNum, boolean advancedOutput, String path) throws GenomeException {
+        return compareGenomes(threadsNum, advancedOutput, path, false, 0);
+    }
+
+    /**
+     * Compares two genomes parsing regions for each gene from the input files.
+     *
+     * @param threadsNum     Number of threads that will be used to process exons.
+     * @param advancedOutput if this flag is true , then interim genome comparison results will be displayed,
+     *                       else - only the main chromosome results will be obtained
+     * @param path           Path to the file with graph.
+     * @param virtualThreads if this flag is true, then the records of each feature are read by the virtual thread
+     * @return Object ComparisonResultAnalyzer which contains results of the comparison of two genomes
+     * @throws GenomeException if exception occurs while parsing the input files.
+     */
+    public ComparisonResultAnalyzer compareGenomes(int threadsNum, boolean advancedOutput, String path, boolean virtualThreads) throws GenomeException {
+        return compareGenomes(threadsNum, advancedOutput, path, virtualThreads, 0);
+    }
+
+    /**
+     * Compares two genomes parsing regions for each gene from the input files.
+     *
+     * @param threadsNum     Number of threads that will be used to process exons.
+     * @param advancedOutput if this flag is true , then interim genome comparison results will be displayed,
+     *                       else - only the main chromosome results will be obtained
+     * @param path           Path to the file with graph.
+     * @param virtualThreads if this flag is true, then the records of each feature are read by the virtual thread,
+     *                       and only assembling and comparison are done by threadsNum platform threads
+     *                       (requires JDK 21+, otherwise platform threads are used for everything)
+     * @param maxInFlight    Maximum number of the features, that are processed at once, the next feature is submitted,
+     *                       when the results of the previous one are added to the analyzer, so the memory used does not depend
+     *                       on the number of the features; if it is not positive, then 4 features per thread
+     *                       (64 features, if virtual threads are used) are processed.
+     * @return Object ComparisonResultAnalyzer which contains results of the comparison of two genomes
+     * @throws GenomeException if exception occurs while parsing the input files.
+     */
+    public ComparisonResultAnalyzer compareGenomes(int threadsNum, boolean advancedOutput, String path, boolean virtualThreads, int maxInFlight) throws GenomeException {
+        return compareGenomes(threadsNum, advancedOutput, path, virtualThreads, maxInFlight, null);
+    }
+
+    /**
+     * Compares two genomes parsing regions for each gene from the input files.
+     *
+     * @param threadsNum      Number of threads that will be used to process exons.
+     * @param advancedOutput  if this flag is true , then interim genome comparison results will be displayed,
+     *                        else - only the main chromosome results will be obtained
+     * @param path            Path to the file with graph.
+     * @param virtualThreads  if this flag is true, then the records of each feature are read by the virtual thread
+     * @param maxInFlight     Maximum number of the features, that are processed at once.
+     * @param pipelineWorkers Numbers of the workers of the reading, assembling and comparison stages of the {@link FeaturePipeline},
+     *                        that is used instead of the thread pools for the {@link ComparatorType#LEVENSHTEIN} and
+     *                        {@link ComparatorType#WEIGHTED_LEVENSHTEIN} comparators, or null, if the pipeline is not used.
+     * @return Object ComparisonResultAnalyzer which contains results of the comparison of two genomes
+     * @throws GenomeException if exception occurs while parsing the input files.
+     */
+    public ComparisonResultAnalyzer compareGenomes(int threadsNum, boolean advancedOutput, String path, boolean virtualThreads, int maxInFlight, int[] pipelineWorkers) throws GenomeException {
+        if (pipelineWorkers != null && type.isLevenshtein()) {
+            return comparePipelined(advancedOutput, pipelineWorkers);
+        }
+        if (type == ComparatorType.MINHASH) {
+            return compareSketches(threadsNum, advancedOutput);
+        }
+        if (type == ComparatorType.IBS) {
+            return compareGenotypes(threadsNum, advancedOutput);
+        }
         // results of the comparison
         ComparisonResultAnalyzer comparisonResults;
-        // executors that will be used in the method
-        ExecutorService executorPool = Executors.newFixedThreadPool(threadsNum);
-        CompletionService<List<ComparisonResult>> executorService = new ExecutorCompletionService<>(executorPool);
+        // executor, that is shared by all the features and their subtasks,
+        // so the number of the threads is bounded by threadsNum
+        ExecutorService executorPool = new ForkJoinPool(threadsNum);
+        // executor, that reads the records of the features, if virtual threads are used
+        ExecutorService fetchPool = virtualThreads && type.isLevenshtein() ? VirtualThreads.newExecutor() : null;
+        if (virtualThreads && type.isLevenshtein() && fetchPool == null) {
+            executorLogger.warn("Virtual threads are not supported by this JVM, platform threads are used");
+        }
+        CompletionService<List<ComparisonResult>> executorService = new ExecutorCompletionService<>(fetchPool != null ? fetchPool : executorPool);
+        int inFlightLimit = maxInFlight > 0 ? maxInFlight : fetchPool != null ? IN_FLIGHT_VIRTUAL : threadsNum * IN_FLIGHT_PER_THREAD;
         try {
-            if (type == ComparatorType.LEVENSHTEIN) {
+            List<BEDFeature> features = new ArrayList<>();
+            for (String gene : exons.keySet()) {
+                features.addAll(exons.get(gene));
+            }
+            if (type.isLevenshtein()) {
                 comparisonResults = new LevenshteinComparisonResultAnalyzer();
             } else {
-                List<BEDFeature> features = new ArrayList<>();
-                for (String gene : exons.keySet()) {
-                    features.addAll(exons.get(gene));
-                }
                 comparisonResults = new STRComparisonResultAnalyzer(path, features);
             }
 
-            int tasksNumber = 0;
-            for (String gene : exons.keySet()) {
-                // add tasks to the executor and wait for the results
-                for (BEDFeature feature : exons.get(gene)) {
-                    executorService.submit(new FeatureCallable(feature, firstBAMFile, secondBAMFile, type, threadsNum, advancedOutput));
-                    tasksNumber++;
+            if (type.isSTR()) {
+                int tasksNumber = submitMarkerPanels(executorPool, executorService, advancedOutput);
+                for (int i = 0; i < tasksNumber; i++) {
+                    List<ComparisonResult> results = executorService.take().get();
+                    if (sink != null) {
+                        sink.write(pair, results);
+                    }
+                    comparisonResults.add(results);
+                }
+            } else {
+                // the most expensive features first, so that no thread waits for the last one
+                features = new FeatureScheduler(firstBAMFile, secondBAMFile).schedule(features);
+                // keep at most inFlightLimit features submitted, the next one is
+                // submitted as soon as the results of the previous one are taken
+                Iterator<BEDFeature> iterator = features.iterator();
+                // features of the submitted tasks, the completion service returns the same futures
+                Map<Future<List<ComparisonResult>>, BEDFeature> submitted = new HashMap<>();
+                int inFlight = 0;
+                while (iterator.hasNext() || inFlight > 0) {
+                    if (iterator.hasNext() && inFlight < inFlightLimit) {
+                        BEDFeature feature = iterator.next();
+                        Future<List<ComparisonResult>> future;
+                        if (fetchPool != null) {
+                            future = executorService.submit(new FeatureFetchCallable(feature, firstBAMFile, secondBAMFile, executorPool, type, advancedOutput));
+                        } else {
+                            future = executorService.submit(new FeatureCallable(feature, firstBAMFile, secondBAMFile, type, advancedOutput));
+                        }
+                        if (sink != null) {
+                            submitted.put(future, feature);
+                        }
+                        inFlight++;
+                    } else {
+                        Future<List<ComparisonResult>> future = executorService.take();
+                        List<ComparisonResult> results = future.get();
+                        if (sink != null) {
+                            sink.writeFeature(pair, submitted.remove(future), results);
+                        }
+                        comparisonResults.add(results);
+                        inFlight--;
+                    }
                 }
-            }
-
-            for (int i = 0; i < tasksNumber; i++) {
-                comparisonResults.add(executorService.take().get());
             }
 
             executorPool.shutdown();
@@ -131,10 +289,174 @@ public class GenomeComparatorExecutor {
         } catch (Exception ex) {
             // if exception has occurred during the call
             // then get the cause and init our own exception
-            Throwable t = ex.getCause();
+            Throwable t = ex.getCause() != null ? ex.getCause() : ex;
             GenomeException gex = new GenomeException(this.getClass().getName(), "call", t.getMessage());
             gex.initCause(t);
             throw gex;
+        } finally {
+            if (fetchPool != null) {
+                fetchPool.shutdownNow();
+            }
+            executorPool.shutdownNow();
+        }
+    }
+
+    /**
+     * Sets the sink, the records of the regions, features and markers are written to.
+     *
+     * @param sink Sink, or null, if records are not written.
+     * @param pair Name of the compared pair of the persons in the records.
+     */
+    public void setResultSink(ResultSink sink, String pair) {
+        this.sink = sink;
+        this.pair = pair;
+    }
+
+    /**
+     * Compares two genomes by the {@link FeaturePipeline}.
+     *
+     * @param advancedOutput  if this flag is true , then interim genome comparison results and the statistics
+     *                        of the stages of the pipeline will be displayed.
+     * @param pipelineWorkers Numbers of the workers of the reading, assembling and comparison stages.
+     * @return Object LevenshteinComparisonResultAnalyzer which contains results of the comparison of two genomes
+     * @throws GenomeException if exception occurs while parsing the input files.
+     */
+    private ComparisonResultAnalyzer comparePipelined(boolean advancedOutput, int[] pipelineWorkers) throws GenomeException {
+        List<BEDFeature> features = new ArrayList<>();
+        for (String gene : exons.keySet()) {
+            features.addAll(exons.get(gene));
+        }
+        features = new FeatureScheduler(firstBAMFile, secondBAMFile).schedule(features);
+        ComparisonResultAnalyzer comparisonResults = new LevenshteinComparisonResultAnalyzer();
+        FeaturePipeline pipeline = new FeaturePipeline(firstBAMFile, secondBAMFile, type, advancedOutput, comparisonResults, pipelineWorkers[0], pipelineWorkers[1], pipelineWorkers[2]);
+        pipeline.setResultSink(sink, pair);
+        try {
+            pipeline.run(features);
+            return comparisonResults;
+        } catch (InterruptedException iex) {
+            Thread.currentThread().interrupt();
+            GenomeException gex = new GenomeException(this.getClass().getName(), "comparePipelined", iex.getMessage());
+            gex.initCause(iex);
+            throw gex;
+        } finally {
+            // statistics are useful even if the run has failed
+            String statistics = pipeline.getStatistics();
+            executorLogger.info(statistics);
+            if (advancedOutput) {
+                IntermediateOutput.println(statistics);
+            }
+        }
+    }
+
+    /**
+     * Reads the records of all the STR markers of each chromosome in a single pass
+     * through each BAM file and submits the comparison task for each marker.
+     *
+     * @param executorPool    Executor, that reads the BAM files.
+     * @param executorService Executor, that compares the markers.
+     * @param advancedOutput  if this flag is true , then results for each marker will be displayed.
+     * @return Number of the submitted comparison tasks.
+     * @throws InterruptedException if thread was interrupted.
+     * @throws ExecutionException   if error occurs while reading the BAM files.
+     */
+    private int submitMarkerPanels(ExecutorService executorPool, CompletionService<List<ComparisonResult>> executorService, boolean advancedOutput) throws InterruptedException, ExecutionException {
+        // group the markers by the chromosomes
+        Map<String, List<BEDFeature>> panels = new TreeMap<>();
+        for (List<BEDFeature> features : exons.values()) {
+            for (BEDFeature feature : features) {
+                panels.computeIfAbsent(feature.getChromosomeName(), chrom -> new ArrayList<>()).add(feature);
+            }
+        }
+
+        List<List<BEDFeature>> markers = new ArrayList<>();
+        List<Future<List<SAMRecordList>>> firstRecords = new ArrayList<>();
+        List<Future<List<SAMRecordList>>> secondRecords = new ArrayList<>();
+        for (List<BEDFeature> panel : panels.values()) {
+            List<BEDFeature> sorted = MarkerPanelCallable.sort(panel);
+            markers.add(sorted);
+            firstRecords.add(executorPool.submit(new MarkerPanelCallable(firstBAMFile, sorted)));
+            secondRecords.add(executorPool.submit(new MarkerPanelCallable(secondBAMFile, sorted)));
+        }
+
+        int tasksNumber = 0;
+        for (int i = 0; i < markers.size(); i++) {
+            List<SAMRecordList> first = firstRecords.get(i).get();
+            List<SAMRecordList> second = secondRecords.get(i).get();
+            for (int j = 0; j < markers.get(i).size(); j++) {
+                executorService.submit(new STRMarkerCallable(markers.get(i).get(j), first.get(j), second.get(j), type, advancedOutput));
+                tasksNumber++;
+            }
+        }
+        return tasksNumber;
+    }
+
+    /**
+     * Compares the k-mer sketches of two genomes for each chromosome.
+     * Sketches are built from the assembled regions or loaded from the
+     * sketch files, if they were built earlier for the same regions.
+     *
+     * @param threadsNum     Number of threads that will be used to assemble the regions.
+     * @param advancedOutput if this flag is true , then results for each chromosome will be displayed.
+     * @return Object SketchComparisonResultAnalyzer which contains results of the comparison of two genomes
+     * @throws GenomeException if exception occurs while parsing the input files.
+     */
+    private ComparisonResultAnalyzer compareSketches(int threadsNum, boolean advancedOutput) throws GenomeException {
+        SketchBuilder builder = new SketchBuilder(exons, threadsNum);
+        SampleSketch firstSketch = builder.build(firstBAMFile);
+        SampleSketch secondSketch = builder.build(secondBAMFile);
+
+        Set<String> chromosomes = new TreeSet<>(firstSketch.getChromosomes());
+        chromosomes.addAll(secondSketch.getChromosomes());
+        SketchComparisonResultAnalyzer comparisonResults = new SketchComparisonResultAnalyzer();
+        for (String chrom : chromosomes) {
+            SketchComparisonResult result = new SketchComparisonResult(chrom, firstSketch.get(chrom).jaccard(secondSketch.get(chrom)));
+            if (advancedOutput) {
+                IntermediateOutput.println(result.getResults());
+            }
+            if (sink != null) {
+                sink.write(pair, result.toRecord());
+            }
+            comparisonResults.add(result);
+        }
+        return comparisonResults;
+    }
+
+    /**
+     * Calls the genotypes of both persons in the SNP sites of each chromosome
+     * and counts the sites, that are identical by state.
+     *
+     * @param threadsNum     Number of threads that will be used to call the genotypes.
+     * @param advancedOutput if this flag is true , then results for each chromosome will be displayed.
+     * @return Object IBSComparisonResultAnalyzer which contains results of the comparison of two genomes
+     * @throws GenomeException if exception occurs while parsing the input files.
+     */
+    private ComparisonResultAnalyzer compareGenotypes(int threadsNum, boolean advancedOutput) throws GenomeException {
+        ExecutorService executorPool = Executors.newFixedThreadPool(threadsNum);
+        try {
+            List<Future<GenotypeVector>> firstGenotypes = new ArrayList<>();
+            List<Future<GenotypeVector>> secondGenotypes = new ArrayList<>();
+            for (Map.Entry<String, List<Site>> entry : sites.entrySet()) {
+                firstGenotypes.add(executorPool.submit(new GenotypeCallable(firstBAMFile, entry.getKey(), entry.getValue())));
+                secondGenotypes.add(executorPool.submit(new GenotypeCallable(secondBAMFile, entry.getKey(), entry.getValue())));
+            }
+
+            IBSComparisonResultAnalyzer comparisonResults = new IBSComparisonResultAnalyzer();
+            for (int i = 0; i < firstGenotypes.size(); i++) {
+                IBSComparisonResult result = new IBSComparator(firstGenotypes.get(i).get(), secondGenotypes.get(i).get()).compare();
+                if (advancedOutput) {
+                    IntermediateOutput.println(result.getResults());
+                }
+                if (sink != null) {
+                    sink.write(pair, result.toRecord());
+                }
+                comparisonResults.add(result);
+            }
+            return comparisonResults;
+        } catch (Exception ex) {
+            Throwable t = ex.getCause() != null ? ex.getCause() : ex;
+            GenomeException gex = new GenomeException(this.getClass().getName(), "compareGenotypes", t.getMessage());
+            gex.initCause(t);
+            throw gex;
         } finally {
             executorPool.shutdownNow();
         }
@@ -28,6 +28,7 @@ import exception.GenomeException;
 import genome.compare.common.ComparisonResult;
 import genome.compare.levenshtein.LevenshteinComparisonResult;
 import genome.compare.common.GenomeComparator;
+import util.IntermediateOutput;
 
 import java.util.concurrent.Callable;
 
@@ -78,7 +79,7 @@ public class GenomeRegionCallable implements Callable<ComparisonResult> {
         ComparisonResult geneComparisonResult = comparator.compare();
         // print additional output if it is necessary
         if (additionalOutput) {
-            System.out.println(geneComparisonResult.getResults());
+            IntermediateOutput.println(geneComparisonResult.getResults());
         }
         return geneComparisonResult;
     }
@@ -0,0 +1,97 @@
+/*
+ * MIT License
+ * <p>
+ * Copyright (c) 2019-present Polina Bevad, Sergey Hvatov, Vladislav Marchenko
+ * <p>
+ * Permission is hereby granted, free of charge, to any person obtaining a copy
+ * of this software and associated documentation files (the "Software"), to deal
+ * in the Software without restriction, including without limitation the rights
+ * to use, copy, modify, merge, publish, distribute, sublicense, and/or sell
+ * copies of the Software, and to permit persons to whom the Software is
+ * furnished to do so, subject to the following conditions:
+ * <p>
+ * The above copyright notice and this permission notice shall be included in all
+ * copies or substantial portions of the Software.
+ * <p>
+ * THE SOFTWARE IS PROVIDED "AS IS", WITHOUT WARRANTY OF ANY KIND, EXPRESS OR
+ * IMPLIED, INCLUDING BUT NOT LIMITED TO THE WARRANTIES OF MERCHANTABILITY,
+ * FITNESS FOR A PARTICULAR PURPOSE AND NONINFRINGEMENT. IN NO EVENT SHALL THE
+ * AUTHORS OR COPYRIGHT HOLDERS BE LIABLE FOR ANY CLAIM, DAMAGES OR OTHER
+ * LIABILITY, WHETHER IN AN ACTION OF CONTRACT, TORT OR OTHERWISE, ARISING FROM,
+ * OUT OF OR IN CONNECTION WITH THE SOFTWARE OR THE USE OR OTHER DEALINGS IN THE
+ * SOFTWARE.
+ */
+
+package executors;
+
+import bam.regular.BAMParser;
+import bam.regular.BEDFeature;
+import bam.site.Site;
+import exception.GenomeException;
+import genome.assembly.GenotypeVector;
+import genome.assembly.SitePileup;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.Callable;
+
+/**
+ * {@link GenotypeCallable} class implements a {@link Callable} interface.
+ * Overrides the call() method, so that it calls the genotypes of one person
+ * in the sites of one chromosome.
+ *
+ * @author Sergey Khvatov
+ */
+public class GenotypeCallable implements Callable<GenotypeVector> {
+
+    /**
+     * Name of the gene of the queried features.
+     */
+    private static final String SITES_GENE = "sites";
+
+    /**
+     * Corresponding BAM file parser.
+     */
+    private BAMParser bamFile;
+
+    /**
+     * Name of the chromosome.
+     */
+    private String chrom;
+
+    /**
+     * Sites of the chromosome, sorted by their positions.
+     */
+    private List<Site> sites;
+
+    /**
+     * Creates the task.
+     *
+     * @param parser Corresponding BAM file parser.
+     * @param chrom  Name of the chromosome.
+     * @param sites  Sites of the chromosome, sorted by their positions.
+     */
+    public GenotypeCallable(BAMParser parser, String chrom, List<Site> sites) {
+        this.bamFile = parser;
+        this.chrom = chrom;
+        this.sites = sites;
+    }
+
+    /**
+     * {@link Callable} interface method call() override.
+     * Reads only the records, that cover the sites, and calls the genotypes.
+     *
+     * @return Genotypes of the sites.
+     * @throws GenomeException if error occurs while parsing the BAM file.
+     */
+    @Override
+    public GenotypeVector call() {
+        List<BEDFeature> features = new ArrayList<>(sites.size());
+        for (Site site : sites) {
+            features.add(new BEDFeature(chrom, site.getPosition(), site.getPosition() + 1, SITES_GENE));
+        }
+        SitePileup pileup = new SitePileup(chrom, sites);
+        bamFile.forEachRecord(features, pileup::add);
+        return pileup.call();
+    }
+}
@@ -0,0 +1,120 @@
+/*
+ * MIT License
+ * <p>
+ * Copyright (c) 2019-present Polina Bevad, Sergey Hvatov, Vladislav Marchenko
+ * <p>
+ * Permission is hereby granted, free of charge, to any person obtaining a copy
+ * of this software and associated documentation files (the "Software"), to deal
+ * in the Software without restriction, including without limitation the rights
+ * to use, copy, modify, merge, publish, distribute, sublicense, and/or sell
+ * copies of the Software, and to permit persons to whom the Software is
+ * furnished to do so, subject to the following conditions:
+ * <p>
+ * The above copyright notice and this permission notice shall be included in all
+ * copies or substantial portions of the Software.
+ * <p>
+ * THE SOFTWARE IS PROVIDED "AS IS", WITHOUT WARRANTY OF ANY KIND, EXPRESS OR
+ * IMPLIED, INCLUDING BUT NOT LIMITED TO THE WARRANTIES OF MERCHANTABILITY,
+ * FITNESS FOR A PARTICULAR PURPOSE AND NONINFRINGEMENT. IN NO EVENT SHALL THE
+ * AUTHORS OR COPYRIGHT HOLDERS BE LIABLE FOR ANY CLAIM, DAMAGES OR OTHER
+ * LIABILITY, WHETHER IN AN ACTION OF CONTRACT, TORT OR OTHERWISE, ARISING FROM,
+ * OUT OF OR IN CONNECTION WITH THE SOFTWARE OR THE USE OR OTHER DEALINGS IN THE
+ * SOFTWARE.
+ */
+
+package executors;
+
+import genome.assembly.GenotypeMatrix;
+import genome.compare.kinship.KinshipComparisonResult;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.Callable;
+
+/**
+ * {@link KinshipBlockCallable} class implements a {@link Callable} interface.
+ * Counts the sites of all the pairs of the samples from two blocks of the cohort (each pair once,
+ * the first sample of the pair has the lesser index), that are used by the KING-robust estimator.
+ * Sites are processed by the chunks of {@link #CHUNK_WORDS} words in the outer loop, so the words
+ * of the chunk of all the samples of both blocks are compared, while they are in the cache.
+ *
+ * @author Sergey Khvatov
+ */
+public class KinshipBlockCallable implements Callable<List<KinshipComparisonResult>> {
+
+    /**
+     * Number of the words of one sample, that are compared with all the samples of the block at once.
+     */
+    static final int CHUNK_WORDS = 256;
+
+    /**
+     * Genotypes of the cohort.
+     */
+    private GenotypeMatrix genotypes;
+
+    /**
+     * Index of the first sample of the row block.
+     */
+    private int rowFrom;
+
+    /**
+     * Index of the sample after the last one of the row block.
+     */
+    private int rowTo;
+
+    /**
+     * Index of the first sample of the column block.
+     */
+    private int columnFrom;
+
+    /**
+     * Index of the sample after the last one of the column block.
+     */
+    private int columnTo;
+
+    /**
+     * Creates a task, that compares the samples with indexes in range [rowFrom, rowTo)
+     * with the samples with greater indexes in range [columnFrom, columnTo).
+     *
+     * @param genotypes  Genotypes of the cohort.
+     * @param rowFrom    Index of the first sample of the row block.
+     * @param rowTo      Index of the sample after the last one of the row block.
+     * @param columnFrom Index of the first sample of the column block.
+     * @param columnTo   Index of the sample after the last one of the column block.
+     */
+    public KinshipBlockCallable(GenotypeMatrix genotypes, int rowFrom, int rowTo, int columnFrom, int columnTo) {
+        this.genotypes = genotypes;
+        this.rowFrom = rowFrom;
+        this.rowTo = rowTo;
+        this.columnFrom = columnFrom;
+        this.columnTo = columnTo;
+    }
+
+    /**
+     * {@link Callable} interface method call() override.
+     * Counts the sites of all the pairs of the samples of the blocks.
+     *
+     * @return Results of the comparison of the pairs.
+     */
+    @Override
+    public List<KinshipComparisonResult> call() {
+        int columns = columnTo - columnFrom;
+        long[][] counts = new long[(rowTo - rowFrom) * columns][GenotypeMatrix.COUNTS_NUM];
+        for (int from = 0; from < genotypes.getWordsNum(); from += CHUNK_WORDS) {
+            int to = Math.min(from + CHUNK_WORDS, genotypes.getWordsNum());
+            for (int i = rowFrom; i < rowTo; i++) {
+                for (int j = Math.max(columnFrom, i + 1); j < columnTo; j++) {
+                    genotypes.count(i, j, from, to, counts[(i - rowFrom) * columns + j - columnFrom]);
+                }
+            }
+        }
+
+        List<KinshipComparisonResult> results = new ArrayList<>();
+        for (int i = rowFrom; i < rowTo; i++) {
+            for (int j = Math.max(columnFrom, i + 1); j < columnTo; j++) {
+                results.add(new KinshipComparisonResult(i, j, counts[(i - rowFrom) * columns + j - columnFrom]));
+            }
+        }
+        return results;
+    }
+}
@@ -0,0 +1,205 @@
+/*
+ * MIT License
+ * <p>
+ * Copyright (c) 2019-present Polina Bevad, Sergey Hvatov, Vladislav Marchenko
+ * <p>
+ * Permission is hereby granted, free of charge, to any person obtaining a copy
+ * of this software and associated documentation files (the "Software"), to deal
+ * in the Software without restriction, including without limitation the rights
+ * to use, copy, modify, merge, publish, distribute, sublicense, and/or sell
+ * copies of the Software, and to permit persons to whom the Software is
+ * furnished to do so, subject to the following conditions:
+ * <p>
+ * The above copyright notice and this permission notice shall be included in all
+ * copies or substantial portions of the Software.
+ * <p>
+ * THE SOFTWARE IS PROVIDED "AS IS", WITHOUT WARRANTY OF ANY KIND, EXPRESS OR
+ * IMPLIED, INCLUDING BUT NOT LIMITED TO THE WARRANTIES OF MERCHANTABILITY,
+ * FITNESS FOR A PARTICULAR PURPOSE AND NONINFRINGEMENT. IN NO EVENT SHALL THE
+ * AUTHORS OR COPYRIGHT HOLDERS BE LIABLE FOR ANY CLAIM, DAMAGES OR OTHER
+ * LIABILITY, WHETHER IN AN ACTION OF CONTRACT, TORT OR OTHERWISE, ARISING FROM,
+ * OUT OF OR IN CONNECTION WITH THE SOFTWARE OR THE USE OR OTHER DEALINGS IN THE
+ * SOFTWARE.
+ */
+
+package executors;
+
+import bam.regular.BAMParser;
+import bam.sample.SampleSheetParser;
+import bam.site.Site;
+import bam.site.SiteFileParser;
+import exception.GenomeException;
+import exception.GenomeFileException;
+import genome.assembly.GenotypeMatrix;
+import genome.assembly.GenotypeVector;
+import genome.compare.kinship.KinshipComparisonResult;
+import genome.compare.kinship.KinshipComparisonResultAnalyzer;
+import org.apache.logging.log4j.LogManager;
+import org.apache.logging.log4j.Logger;
+import util.IntermediateOutput;
+import util.ResultRecord;
+import util.ResultSink;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.CompletionService;
+import java.util.concurrent.ExecutionException;
+import java.util.concurrent.ExecutorCompletionService;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Future;
+
+/**
+ * Estimates the kinship of all the pairs of the samples of the cohort. The genotypes of each sample
+ * in the SNP sites are called once (see {@link GenotypeCallable}) and packed into the {@link GenotypeMatrix},
+ * then the upper triangle of the kinship matrix is split into the blocks of {@link #BLOCK_SIZE} x {@link #BLOCK_SIZE}
+ * samples, that are counted in parallel.
+ *
+ * @author Sergey Khvatov
+ */
+public class KinshipComparatorExecutor {
+
+    /**
+     * Number of the samples in one block of the kinship matrix.
+     */
+    static final int BLOCK_SIZE = 16;
+
+    /**
+     * Logger that is used to write down the information about the execution.
+     */
+    private static final Logger executorLogger = LogManager.getLogger(KinshipComparatorExecutor.class);
+
+    /**
+     * Names of the samples.
+     */
+    private List<String> names = new ArrayList<>();
+
+    /**
+     * Parsers of the BAM files of the samples.
+     */
+    private List<BAMParser> parsers = new ArrayList<>();
+
+    /**
+     * Map with the SNP sites: key - chromosome name, value - sorted list of sites.
+     */
+    private Map<String, List<Site>> sites;
+
+    /**
+     * Sink, the results of the pairs are written to as soon as they are produced, or null.
+     */
+    private ResultSink sink;
+
+    /**
+     * Creates the executor from the sample sheet and the site file.
+     *
+     * @param pathToSampleSheet Path to the sample sheet (see {@link SampleSheetParser}).
+     * @param pathToSites       Path to the VCF / BED file with the sites (see {@link SiteFileParser}).
+     * @throws GenomeFileException if incorrect sample sheet, site or BAM file is passed, or there are less than two samples.
+     */
+    public KinshipComparatorExecutor(String pathToSampleSheet, String pathToSites) {
+        for (Map.Entry<String, String> sample : new SampleSheetParser(pathToSampleSheet).parse().entrySet()) {
+            names.add(sample.getKey());
+            parsers.add(new BAMParser(sample.getValue()));
+        }
+        if (names.size() < 2) {
+            throw new GenomeFileException(this.getClass().getName(), "KinshipComparatorExecutor", pathToSampleSheet, "less than two samples");
+        }
+        this.sites = new SiteFileParser(pathToSites).parse();
+    }
+
+    /**
+     * Sets the sink, the records of the pairs of the samples are written to.
+     *
+     * @param sink Sink, or null, if records are not written.
+     */
+    public void setResultSink(ResultSink sink) {
+        this.sink = sink;
+    }
+
+    /**
+     * Estimates the kinship of all the pairs of the samples of the cohort.
+     *
+     * @param threadsNum     Number of threads that will be used to call the genotypes and to count the sites.
+     * @param advancedOutput if this flag is true , then results for each pair will be displayed.
+     * @return Object KinshipComparisonResultAnalyzer which contains the kinship matrix.
+     * @throws GenomeException if exception occurs while calling the genotypes.
+     */
+    public KinshipComparisonResultAnalyzer compareGenomes(int threadsNum, boolean advancedOutput) throws GenomeException {
+        ExecutorService executorPool = Executors.newFixedThreadPool(threadsNum);
+        try {
+            GenotypeMatrix genotypes = callGenotypes(executorPool);
+            executorLogger.info("Genotypes called: " + genotypes.getSamplesNum() + " samples, " + genotypes.getSitesNum() + " sites");
+
+            KinshipComparisonResultAnalyzer comparisonResults = new KinshipComparisonResultAnalyzer(names);
+            CompletionService<List<KinshipComparisonResult>> executorService = new ExecutorCompletionService<>(executorPool);
+            int tasksNumber = 0;
+            for (int row = 0; row < names.size(); row += BLOCK_SIZE) {
+                for (int column = row; column < names.size(); column += BLOCK_SIZE) {
+                    executorService.submit(new KinshipBlockCallable(genotypes, row, Math.min(row + BLOCK_SIZE, names.size()), column, Math.min(column + BLOCK_SIZE, names.size())));
+                    tasksNumber++;
+                }
+            }
+            for (int i = 0; i < tasksNumber; i++) {
+                for (KinshipComparisonResult result : executorService.take().get()) {
+                    if (advancedOutput) {
+                        IntermediateOutput.println("Comparison result of samples " + names.get(result.getFirst()) + " and " + names.get(result.getSecond()) + ": kinship - " + result.getKinship() + ", IBS0 - " + result.getIBS0() + " of " + result.getCalled() + " sites");
+                    }
+                    if (sink != null) {
+                        sink.write(names.get(result.getFirst()) + "-" + names.get(result.getSecond()), new ResultRecord("kinship")
+                            .add("first", names.get(result.getFirst())).add("second", names.get(result.getSecond()))
+                            .add("kinship", result.getKinship()).add("ibs0", result.getIBS0()).add("called", result.getCalled()));
+                    }
+                    comparisonResults.add(result);
+                }
+            }
+            return comparisonResults;
+        } catch (InterruptedException iex) {
+            Thread.currentThread().interrupt();
+            throw new GenomeException(this.getClass().getName(), "compareGenomes", "interrupted");
+        } catch (ExecutionException eex) {
+            Throwable t = eex.getCause();
+            GenomeException gex = new GenomeException(this.getClass().getName(), "compareGenomes", t.getMessage());
+            gex.initCause(t);
+            throw gex;
+        } finally {
+            executorPool.shutdownNow();
+        }
+    }
+
+    /**
+     * Calls the genotypes of all the samples in all the sites,
+     * the sites of the chromosomes follow each other in the matrix.
+     *
+     * @param executorPool Executor, that calls the genotypes.
+     * @return Genotypes of the cohort.
+     * @throws InterruptedException if thread was interrupted.
+     * @throws ExecutionException   if error occurs while reading the BAM files.
+     */
+    private GenotypeMatrix callGenotypes(ExecutorService executorPool) throws InterruptedException, ExecutionException {
+        int sitesNum = 0;
+        for (List<Site> chromSites : sites.values()) {
+            sitesNum += chromSites.size();
+        }
+        List<List<Future<GenotypeVector>>> futures = new ArrayList<>(parsers.size());
+        for (BAMParser parser : parsers) {
+            List<Future<GenotypeVector>> sample = new ArrayList<>(sites.size());
+            for (Map.Entry<String, List<Site>> entry : sites.entrySet()) {
+                sample.add(executorPool.submit(new GenotypeCallable(parser, entry.getKey(), entry.getValue())));
+            }
+            futures.add(sample);
+        }
+
+        // vectors are copied by this thread only, the chromosomes of one sample may share the words
+        GenotypeMatrix genotypes = new GenotypeMatrix(parsers.size(), sitesNum);
+        for (int i = 0; i < futures.size(); i++) {
+            int offset = 0;
+            for (Future<GenotypeVector> future : futures.get(i)) {
+                GenotypeVector vector = future.get();
+                genotypes.set(i, offset, vector);
+                offset += vector.size();
+            }
+        }
+        return genotypes;
+    }
+}
@@ -0,0 +1,133 @@
+/*
+ * MIT License
+ * <p>
+ * Copyright (c) 2019-present Polina Bevad, Sergey Hvatov, Vladislav Marchenko
+ * <p>
+ * Permission is hereby granted, free of charge, to any person obtaining a copy
+ * of this software and associated documentation files (the "Software"), to deal
+ * in the Software without restriction, including without limitation the rights
+ * to use, copy, modify, merge, publish, distribute, sublicense, and/or sell
+ * copies of the Software, and to permit persons to whom the Software is
+ * furnished to do so, subject to the following conditions:
+ * <p>
+ * The above copyright notice and this permission notice shall be included in all
+ * copies or substantial portions of the Software.
+ * <p>
+ * THE SOFTWARE IS PROVIDED "AS IS", WITHOUT WARRANTY OF ANY KIND, EXPRESS OR
+ * IMPLIED, INCLUDING BUT NOT LIMITED TO THE WARRANTIES OF MERCHANTABILITY,
+ * FITNESS FOR A PARTICULAR PURPOSE AND NONINFRINGEMENT. IN NO EVENT SHALL THE
+ * AUTHORS OR COPYRIGHT HOLDERS BE LIABLE FOR ANY CLAIM, DAMAGES OR OTHER
+ * LIABILITY, WHETHER IN AN ACTION OF CONTRACT, TORT OR OTHERWISE, ARISING FROM,
+ * OUT OF OR IN CONNECTION WITH THE SOFTWARE OR THE USE OR OTHER DEALINGS IN THE
+ * SOFTWARE.
+ */
+
+package executors;
+
+import bam.regular.BAMParser;
+import bam.regular.BEDFeature;
+import exception.GenomeException;
+import genome.assembly.SAMRecordList;
+import htsjdk.samtools.SAMRecord;
+
+import java.util.ArrayList;
+import java.util.Comparator;
+import java.util.List;
+import java.util.concurrent.Callable;
+
+/**
+ * {@link MarkerPanelCallable} class implements a {@link Callable} interface.
+ * Overrides the call() method, so that it reads the records of all the markers
+ * of one chromosome in a single pass through the BAM file and distributes
+ * each record to all the markers, that it overlaps.
+ *
+ * @author Sergey Khvatov
+ */
+public class MarkerPanelCallable implements Callable<List<SAMRecordList>> {
+
+    /**
+     * Corresponding BAM file parser.
+     */
+    private BAMParser bamFile;
+
+    /**
+     * Markers of one chromosome.
+     */
+    private List<BEDFeature> markers;
+
+    /**
+     * Creates the task.
+     *
+     * @param parser  Corresponding BAM file parser.
+     * @param markers Markers of one chromosome, sorted by their start positions.
+     * @throws GenomeException if markers are not sorted.
+     */
+    public MarkerPanelCallable(BAMParser parser, List<BEDFeature> markers) {
+        for (int i = 1; i < markers.size(); i++) {
+            if (markers.get(i - 1).getStartPos() > markers.get(i).getStartPos()) {
+                throw new GenomeException(getClass().getName(), "MarkerPanelCallable", "markers", "not sorted");
+            }
+        }
+        this.bamFile = parser;
+        this.markers = markers;
+    }
+
+    /**
+     * Sorts the markers of one chromosome by their start positions.
+     *
+     * @param markers Markers of one chromosome.
+     * @return Sorted list of the markers.
+     */
+    public static List<BEDFeature> sort(List<BEDFeature> markers) {
+        List<BEDFeature> sorted = new ArrayList<>(markers);
+        sorted.sort(Comparator.comparingInt(BEDFeature::getStartPos));
+        return sorted;
+    }
+
+    /**
+     * {@link Callable} interface method call() override.
+     *
+     * @return List with the records of each marker, in the same order as the markers.
+     * @throws GenomeException if error occurs while parsing the BAM file.
+     */
+    @Override
+    public List<SAMRecordList> call() {
+        int size = markers.size();
+        int[] starts = new int[size];
+        // maximum end position among the markers [0; i], it does not decrease
+        int[] maxEnds = new int[size];
+        List<SAMRecordList> records = new ArrayList<>(size);
+        for (int i = 0; i < size; i++) {
+            starts[i] = markers.get(i).getStartPos();
+            maxEnds[i] = Math.max(i > 0 ? maxEnds[i - 1] : Integer.MIN_VALUE, markers.get(i).getEndPos());
+            records.add(new SAMRecordList());
+        }
+
+        // records are sorted by their start positions, so the
+        // markers, that end before the current record, can be skipped forever
+        int[] first = {0};
+        bamFile.forEachRecord(markers, record -> dispatch(record, starts, maxEnds, first, records));
+        return records;
+    }
+
+    /**
+     * Adds the record to the lists of all the markers, that it overlaps.
+     *
+     * @param record  Record from the BAM file.
+     * @param starts  Start positions of the markers.
+     * @param maxEnds Maximum end positions of the markers.
+     * @param first   Index of the first marker, that may overlap the record.
+     * @param records Lists of the records of each marker.
+     */
+    private void dispatch(SAMRecord record, int[] starts, int[] maxEnds, int[] first, List<SAMRecordList> records) {
+        int start = record.getStart(), end = record.getEnd();
+        while (first[0] < starts.length && maxEnds[first[0]] < start) {
+            first[0]++;
+        }
+        for (int i = first[0]; i < starts.length && starts[i] <= end; i++) {
+            if (markers.get(i).getEndPos() >= start) {
+                records.get(i).add(record);
+            }
+        }
+    }
+}
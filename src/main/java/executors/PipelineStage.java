@@ -0,0 +1,312 @@
+/*
+ * MIT License
+ * <p>
+ * Copyright (c) 2019-present Polina Bevad, Sergey Hvatov, Vladislav Marchenko
+ * <p>
+ * Permission is hereby granted, free of charge, to any person obtaining a copy
+ * of this software and associated documentation files (the "Software"), to deal
+ * in the Software without restriction, including without limitation the rights
+ * to use, copy, modify, merge, publish, distribute, sublicense, and/or sell
+ * copies of the Software, and to permit persons to whom the Software is
+ * furnished to do so, subject to the following conditions:
+ * <p>
+ * The above copyright notice and this permission notice shall be included in all
+ * copies or substantial portions of the Software.
+ * <p>
+ * THE SOFTWARE IS PROVIDED "AS IS", WITHOUT WARRANTY OF ANY KIND, EXPRESS OR
+ * IMPLIED, INCLUDING BUT NOT LIMITED TO THE WARRANTIES OF MERCHANTABILITY,
+ * FITNESS FOR A PARTICULAR PURPOSE AND NONINFRINGEMENT. IN NO EVENT SHALL THE
+ * AUTHORS OR COPYRIGHT HOLDERS BE LIABLE FOR ANY CLAIM, DAMAGES OR OTHER
+ * LIABILITY, WHETHER IN AN ACTION OF CONTRACT, TORT OR OTHERWISE, ARISING FROM,
+ * OUT OF OR IN CONNECTION WITH THE SOFTWARE OR THE USE OR OTHER DEALINGS IN THE
+ * SOFTWARE.
+ */
+
+package executors;
+
+import java.util.Locale;
+import java.util.concurrent.ArrayBlockingQueue;
+import java.util.concurrent.BlockingQueue;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.concurrent.atomic.AtomicLong;
+import java.util.concurrent.atomic.AtomicReference;
+import java.util.function.Function;
+
+/**
+ * One stage of the pipeline: bounded queue of the input items and the set of
+ * the workers, that take the items from the queue, process them and put the
+ * results into the queue of the next stage. If the queue of the next stage is full,
+ * the workers wait, so the slow stage slows down all the previous ones.
+ * The stage collects the statistics, that show whether it is the bottleneck of the pipeline:
+ * the depth of the queue and the fractions of the time, the workers were busy
+ * and were waiting for the next stage.
+ *
+ * @param <I> Type of the input items.
+ * @param <O> Type of the output items.
+ * @author Sergey Khvatov
+ */
+public class PipelineStage<I, O> {
+
+    /**
+     * Item, that tells the worker to stop.
+     */
+    private static final Object END = new Object();
+
+    /**
+     * Name of the stage.
+     */
+    private final String name;
+
+    /**
+     * Queue of the input items.
+     */
+    private final BlockingQueue<Object> queue;
+
+    /**
+     * Function, that processes the item; if it returns null,
+     * then nothing is passed to the next stage.
+     */
+    private final Function<I, O> function;
+
+    /**
+     * Next stage, or null, if this stage is the last one.
+     */
+    private final PipelineStage<O, ?> next;
+
+    /**
+     * First error of the pipeline, the items are skipped after it.
+     */
+    private final AtomicReference<Throwable> failure;
+
+    /**
+     * Workers of the stage.
+     */
+    private final Thread[] workers;
+
+    /**
+     * Number of the processed items.
+     */
+    private final AtomicLong processed = new AtomicLong();
+
+    /**
+     * Total time, the workers spent processing the items.
+     */
+    private final AtomicLong busyNanos = new AtomicLong();
+
+    /**
+     * Total time, the workers spent waiting for the queue of the next stage.
+     */
+    private final AtomicLong blockedNanos = new AtomicLong();
+
+    /**
+     * Sum of the depths of the queue, observed when the items were put.
+     */
+    private final AtomicLong depthSum = new AtomicLong();
+
+    /**
+     * Number of the items put into the queue.
+     */
+    private final AtomicLong puts = new AtomicLong();
+
+    /**
+     * Maximum observed depth of the queue.
+     */
+    private final AtomicInteger maxDepth = new AtomicInteger();
+
+    /**
+     * Time, when the stage was started.
+     */
+    private volatile long startNanos;
+
+    /**
+     * Time, when all the workers of the stage have stopped.
+     */
+    private volatile long endNanos;
+
+    /**
+     * Creates the stage.
+     *
+     * @param name     Name of the stage.
+     * @param workers  Number of the workers.
+     * @param capacity Capacity of the queue of the input items.
+     * @param function Function, that processes the item; if it returns null, then nothing is passed to the next stage.
+     * @param next     Next stage, or null, if this stage is the last one.
+     * @param failure  Reference to the first error of the pipeline, shared by all the stages.
+     */
+    public PipelineStage(String name, int workers, int capacity, Function<I, O> function, PipelineStage<O, ?> next, AtomicReference<Throwable> failure) {
+        this.name = name;
+        this.queue = new ArrayBlockingQueue<>(capacity);
+        this.function = function;
+        this.next = next;
+        this.failure = failure;
+        this.workers = new Thread[workers];
+        for (int i = 0; i < workers; i++) {
+            this.workers[i] = new Thread(this::work, name + "-" + i);
+            this.workers[i].setDaemon(true);
+        }
+    }
+
+    /**
+     * Starts the workers of the stage.
+     */
+    public void start() {
+        startNanos = System.nanoTime();
+        for (Thread worker : workers) {
+            worker.start();
+        }
+    }
+
+    /**
+     * Puts the item into the queue, waiting if it is full.
+     *
+     * @param item Input item.
+     * @throws InterruptedException if thread was interrupted.
+     */
+    public void put(I item) throws InterruptedException {
+        int depth = queue.size();
+        depthSum.addAndGet(depth);
+        puts.incrementAndGet();
+        maxDepth.accumulateAndGet(depth, Math::max);
+        queue.put(item);
+    }
+
+    /**
+     * Stops the workers, when all the items of the queue are processed, and waits for them.
+     * Next stage should be finished after this one.
+     *
+     * @throws InterruptedException if thread was interrupted.
+     */
+    public void finish() throws InterruptedException {
+        for (int i = 0; i < workers.length; i++) {
+            queue.put(END);
+        }
+        for (Thread worker : workers) {
+            worker.join();
+        }
+        endNanos = System.nanoTime();
+    }
+
+    /**
+     * Main loop of the worker. Any error of the item, including {@link Error}, is recorded
+     * and the worker keeps draining the queue, so that the previous stages and {@link #finish()} do not block.
+     */
+    @SuppressWarnings("unchecked")
+    private void work() {
+        try {
+            Object item;
+            while ((item = queue.take()) != END) {
+                // after an error the items are only drained, so that the previous stages do not stop
+                if (failure.get() != null) {
+                    continue;
+                }
+                try {
+                    process((I) item);
+                } catch (InterruptedException iex) {
+                    throw iex;
+                } catch (Throwable t) {
+                    failure.compareAndSet(null, t);
+                }
+            }
+        } catch (InterruptedException iex) {
+            failure.compareAndSet(null, iex);
+            Thread.currentThread().interrupt();
+        }
+    }
+
+    /**
+     * Processes the item and puts the result into the queue of the next stage.
+     *
+     * @param item Input item.
+     * @throws InterruptedException if thread was interrupted.
+     */
+    private void process(I item) throws InterruptedException {
+        long start = System.nanoTime();
+        O result;
+        try {
+            result = function.apply(item);
+        } finally {
+            busyNanos.addAndGet(System.nanoTime() - start);
+        }
+        processed.incrementAndGet();
+        if (result != null && next != null) {
+            start = System.nanoTime();
+            next.put(result);
+            blockedNanos.addAndGet(System.nanoTime() - start);
+        }
+    }
+
+    /**
+     * @return name of the stage.
+     */
+    public String getName() {
+        return name;
+    }
+
+    /**
+     * @return number of the workers of the stage.
+     */
+    public int getWorkersNumber() {
+        return workers.length;
+    }
+
+    /**
+     * @return number of the processed items.
+     */
+    public long getProcessed() {
+        return processed.get();
+    }
+
+    /**
+     * @return current depth of the queue.
+     */
+    public int getQueueDepth() {
+        return queue.size();
+    }
+
+    /**
+     * @return maximum observed depth of the queue.
+     */
+    public int getMaxQueueDepth() {
+        return maxDepth.get();
+    }
+
+    /**
+     * @return average depth of the queue, observed when the items were put.
+     */
+    public double getAverageQueueDepth() {
+        long count = puts.get();
+        return count == 0 ? 0d : (double) depthSum.get() / count;
+    }
+
+    /**
+     * @return fraction of the time, the workers were processing the items.
+     */
+    public double getUtilization() {
+        return fractionOfTime(busyNanos.get());
+    }
+
+    /**
+     * @return fraction of the time, the workers were waiting for the queue of the next stage.
+     */
+    public double getBlockedFraction() {
+        return fractionOfTime(blockedNanos.get());
+    }
+
+    /**
+     * Calculates the fraction of the total time of all the workers since the start of the stage.
+     *
+     * @param nanos Time of all the workers.
+     * @return fraction of the time.
+     */
+    private double fractionOfTime(long nanos) {
+        long end = endNanos != 0 ? endNanos : System.nanoTime();
+        long total = (end - startNanos) * workers.length;
+        return total <= 0 ? 0d : (double) nanos / total;
+    }
+
+    @Override
+    public String toString() {
+        return String.format(Locale.ROOT, "Stage %s: workers - %d, processed - %d, utilization - %.1f%%, waiting for the next stage - %.1f%%, queue depth: average - %.1f, maximum - %d",
+            name, workers.length, getProcessed(), getUtilization() * 100, getBlockedFraction() * 100, getAverageQueueDepth(), getMaxQueueDepth());
+    }
+}
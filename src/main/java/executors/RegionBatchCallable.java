@@ -0,0 +1,156 @@
+/*
+ * MIT License
+ * <p>
+ * Copyright (c) 2019-present Polina Bevad, Sergey Hvatov, Vladislav Marchenko
+ * <p>
+ * Permission is hereby granted, free of charge, to any person obtaining a copy
+ * of this software and associated documentation files (the "Software"), to deal
+ * in the Software without restriction, including without limitation the rights
+ * to use, copy, modify, merge, publish, distribute, sublicense, and/or sell
+ * copies of the Software, and to permit persons to whom the Software is
+ * furnished to do so, subject to the following conditions:
+ * <p>
+ * The above copyright notice and this permission notice shall be included in all
+ * copies or substantial portions of the Software.
+ * <p>
+ * THE SOFTWARE IS PROVIDED "AS IS", WITHOUT WARRANTY OF ANY KIND, EXPRESS OR
+ * IMPLIED, INCLUDING BUT NOT LIMITED TO THE WARRANTIES OF MERCHANTABILITY,
+ * FITNESS FOR A PARTICULAR PURPOSE AND NONINFRINGEMENT. IN NO EVENT SHALL THE
+ * AUTHORS OR COPYRIGHT HOLDERS BE LIABLE FOR ANY CLAIM, DAMAGES OR OTHER
+ * LIABILITY, WHETHER IN AN ACTION OF CONTRACT, TORT OR OTHERWISE, ARISING FROM,
+ * OUT OF OR IN CONNECTION WITH THE SOFTWARE OR THE USE OR OTHER DEALINGS IN THE
+ * SOFTWARE.
+ */
+
+package executors;
+
+import bam.regular.BEDFeature;
+import exception.GenomeException;
+import genome.assembly.GenomeRegion;
+import genome.compare.common.ComparatorType;
+import genome.compare.common.ComparisonResult;
+import genome.compare.common.GenomeComparator;
+import genome.compare.levenshtein.LevenshteinComparator;
+import genome.compare.levenshtein.WeightedLevenshteinComparator;
+import genome.compare.str.STRComparator;
+
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.List;
+import java.util.concurrent.Callable;
+
+/**
+ * {@link RegionBatchCallable} class implements a {@link Callable} interface.
+ * Compares a block of pairs of {@link GenomeRegion} objects of one feature in a single
+ * task. The comparison of one region takes only microseconds, so creating
+ * a separate task for each pair makes the overhead of the executor dominate.
+ * In the {@link ComparatorType#XY_STR} mode all the regions of the block are
+ * the regions of one marker and they are compared as one sequence.
+ *
+ * @author Sergey Khvatov
+ */
+public class RegionBatchCallable implements Callable<List<ComparisonResult>> {
+
+    /**
+     * Corresponding BED file feature.
+     */
+    private BEDFeature feature;
+
+    /**
+     * Regions of the first person.
+     */
+    private List<GenomeRegion> firstGenome;
+
+    /**
+     * Regions of the second person.
+     */
+    private List<GenomeRegion> secondGenome;
+
+    /**
+     * Index of the first pair of regions in the block.
+     */
+    private int from;
+
+    /**
+     * Index of the pair of regions after the last one in the block.
+     */
+    private int to;
+
+    /**
+     * Type of the comparator that is used.
+     */
+    private ComparatorType mode;
+
+    /**
+     * Defines whether the some additional information
+     * about the results of the comparison of two genome
+     * regions will be printed.
+     */
+    private boolean additionalOutput;
+
+    /**
+     * Creates a task, that compares regions with indexes in range [from, to).
+     *
+     * @param feature          Corresponding BED file or Marker file feature.
+     * @param firstGenome      Regions of the first person.
+     * @param secondGenome     Regions of the second person.
+     * @param from             Index of the first pair of regions in the block.
+     * @param to               Index of the pair of regions after the last one in the block.
+     * @param type             Type of the comparator, that will be used to compare genomes.
+     * @param additionalOutput Flag for additional output.
+     */
+    public RegionBatchCallable(BEDFeature feature, List<GenomeRegion> firstGenome, List<GenomeRegion> secondGenome, int from, int to, ComparatorType type, boolean additionalOutput) {
+        this.feature = feature;
+        this.firstGenome = firstGenome;
+        this.secondGenome = secondGenome;
+        this.from = from;
+        this.to = to;
+        this.mode = type;
+        this.additionalOutput = additionalOutput;
+    }
+
+    /**
+     * {@link Callable} interface method call() override.
+     * Compares all the pairs of regions from the block.
+     *
+     * @return Results of the comparison of the regions.
+     * @throws GenomeException if regions don't pass the validation.
+     */
+    @Override
+    public List<ComparisonResult> call() {
+        if (mode == ComparatorType.XY_STR) {
+            // all the regions of the marker are compared at once
+            STRComparator comparator = new STRComparator(feature, firstGenome.subList(from, to), secondGenome.subList(from, to));
+            return Collections.singletonList(new GenomeRegionCallable(comparator, additionalOutput).call());
+        }
+        List<ComparisonResult> results = new ArrayList<>(to - from);
+        for (int i = from; i < to; i++) {
+            GenomeComparator comparator = createComparator(mode, feature, firstGenome.get(i), secondGenome.get(i));
+            results.add(new GenomeRegionCallable(comparator, additionalOutput).call());
+        }
+        return results;
+    }
+
+    /**
+     * Creates the comparator of the requested type.
+     *
+     * @param mode    Type of the comparator.
+     * @param feature Corresponding BED file or Marker file feature.
+     * @param first   Region of the first person.
+     * @param second  Region of the second person.
+     * @return comparator object.
+     * @throws GenomeException if regions don't pass the validation or unsupported type was passed.
+     */
+    static GenomeComparator createComparator(ComparatorType mode, BEDFeature feature, GenomeRegion first, GenomeRegion second) {
+        switch (mode) {
+            case XY_STR:
+                return new STRComparator(feature, first, second);
+            case LEVENSHTEIN:
+                return new LevenshteinComparator(first, second);
+            case WEIGHTED_LEVENSHTEIN:
+                return new WeightedLevenshteinComparator(first, second);
+            default:
+                throw new GenomeException(RegionBatchCallable.class.getName(), "createComparator", "mode", "unsupported comparator type: " + mode);
+        }
+    }
+}
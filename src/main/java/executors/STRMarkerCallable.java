@@ -0,0 +1,167 @@
+/*
+ * MIT License
+ * <p>
+ * Copyright (c) 2019-present Polina Bevad, Sergey Hvatov, Vladislav Marchenko
+ * <p>
+ * Permission is hereby granted, free of charge, to any person obtaining a copy
+ * of this software and associated documentation files (the "Software"), to deal
+ * in the Software without restriction, including without limitation the rights
+ * to use, copy, modify, merge, publish, distribute, sublicense, and/or sell
+ * copies of the Software, and to permit persons to whom the Software is
+ * furnished to do so, subject to the following conditions:
+ * <p>
+ * The above copyright notice and this permission notice shall be included in all
+ * copies or substantial portions of the Software.
+ * <p>
+ * THE SOFTWARE IS PROVIDED "AS IS", WITHOUT WARRANTY OF ANY KIND, EXPRESS OR
+ * IMPLIED, INCLUDING BUT NOT LIMITED TO THE WARRANTIES OF MERCHANTABILITY,
+ * FITNESS FOR A PARTICULAR PURPOSE AND NONINFRINGEMENT. IN NO EVENT SHALL THE
+ * AUTHORS OR COPYRIGHT HOLDERS BE LIABLE FOR ANY CLAIM, DAMAGES OR OTHER
+ * LIABILITY, WHETHER IN AN ACTION OF CONTRACT, TORT OR OTHERWISE, ARISING FROM,
+ * OUT OF OR IN CONNECTION WITH THE SOFTWARE OR THE USE OR OTHER DEALINGS IN THE
+ * SOFTWARE.
+ */
+
+package executors;
+
+import bam.marker_region.MarkerRegionFeature;
+import bam.regular.BEDFeature;
+import exception.GenomeException;
+import genome.assembly.GenomeConstructor;
+import genome.assembly.GenomeRegion;
+import genome.assembly.SAMRecordList;
+import genome.compare.common.ComparatorType;
+import genome.compare.common.ComparisonResult;
+import genome.compare.str.STRAlleleComparator;
+import genome.compare.str.STRAlleleHistogram;
+import genome.compare.str.STRComparator;
+import genome.compare.str.STRComparisonResult;
+import htsjdk.samtools.SAMRecord;
+import org.apache.logging.log4j.LogManager;
+import org.apache.logging.log4j.Logger;
+import util.IntermediateOutput;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.Callable;
+
+/**
+ * {@link STRMarkerCallable} class implements a {@link Callable} interface.
+ * Overrides the call() method, so that it compares one STR marker of two
+ * persons from the records, that were read by {@link MarkerPanelCallable}.
+ * In the {@link ComparatorType#XY_STR} mode the consensus sequences of the marker
+ * are assembled and compared, in the {@link ComparatorType#XY_STR_READS} mode
+ * the alleles are called directly from the reads.
+ *
+ * @author Sergey Khvatov
+ */
+public class STRMarkerCallable implements Callable<List<ComparisonResult>> {
+
+    /**
+     * Logger that is used to write down the information about marker processing.
+     */
+    private static final Logger markerLogger = LogManager.getLogger(STRMarkerCallable.class);
+
+    /**
+     * Marker region feature.
+     */
+    private MarkerRegionFeature marker;
+
+    /**
+     * Records of the marker of the first person.
+     */
+    private SAMRecordList firstRecords;
+
+    /**
+     * Records of the marker of the second person.
+     */
+    private SAMRecordList secondRecords;
+
+    /**
+     * Type of the comparator that is used.
+     */
+    private ComparatorType mode;
+
+    /**
+     * Defines whether the results of the comparison of the marker will be printed.
+     */
+    private boolean additionalOutput;
+
+    /**
+     * Creates a marker task using the following arguments.
+     *
+     * @param feature          Marker region feature.
+     * @param firstRecords     Records of the marker of the first person.
+     * @param secondRecords    Records of the marker of the second person.
+     * @param type             Type of the comparator, one of the STR types.
+     * @param additionalOutput if this flag is true, then results of the comparison of the marker will be displayed.
+     * @throws GenomeException if feature is not an instance of {@link MarkerRegionFeature}.
+     */
+    public STRMarkerCallable(BEDFeature feature, SAMRecordList firstRecords, SAMRecordList secondRecords, ComparatorType type, boolean additionalOutput) {
+        if (!(feature instanceof MarkerRegionFeature)) {
+            throw new GenomeException(getClass().getName(), "STRMarkerCallable", "expected marker region feature.");
+        }
+        this.marker = (MarkerRegionFeature) feature;
+        this.firstRecords = firstRecords;
+        this.secondRecords = secondRecords;
+        this.mode = type;
+        this.additionalOutput = additionalOutput;
+    }
+
+    /**
+     * {@link Callable} interface method call() override.
+     *
+     * @return List with the result of the comparison, or empty list,
+     * if the marker can not be compared.
+     * @throws GenomeException if regions don't pass the validation.
+     */
+    @Override
+    public List<ComparisonResult> call() {
+        STRComparisonResult result = mode == ComparatorType.XY_STR_READS ? compareAlleles() : compareConsensus();
+        List<ComparisonResult> results = new ArrayList<>();
+        if (result == null) {
+            return results;
+        }
+        if (additionalOutput) {
+            IntermediateOutput.println(result.getResults());
+        }
+        results.add(result);
+        return results;
+    }
+
+    /**
+     * Assembles the consensus sequences of the marker and compares them.
+     *
+     * @return Result of the comparison or null, if marker was not assembled.
+     */
+    private STRComparisonResult compareConsensus() {
+        List<GenomeRegion> first = GenomeConstructor.assembly(firstRecords, marker);
+        List<GenomeRegion> second = GenomeConstructor.assembly(secondRecords, marker);
+        if (first.isEmpty() || first.size() != second.size()) {
+            markerLogger.error("Error occurred while assembling: {}", marker);
+            return null;
+        }
+        return new STRComparator(marker, first, second).compare();
+    }
+
+    /**
+     * Calls the alleles of the marker from the reads and compares them.
+     *
+     * @return Result of the comparison or null, if there are not enough spanning reads.
+     */
+    private STRComparisonResult compareAlleles() {
+        STRAlleleHistogram first = new STRAlleleHistogram(marker);
+        for (SAMRecord record : firstRecords) {
+            first.add(record);
+        }
+        STRAlleleHistogram second = new STRAlleleHistogram(marker);
+        for (SAMRecord record : secondRecords) {
+            second.add(record);
+        }
+        STRComparisonResult result = new STRAlleleComparator(first, second).compare();
+        if (result == null) {
+            markerLogger.warn("Not enough spanning reads for the marker {}: {} and {}", marker.getMarkerName(), first.getSpanningReads(), second.getSpanningReads());
+        }
+        return result;
+    }
+}
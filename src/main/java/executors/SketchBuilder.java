@@ -0,0 +1,172 @@
+/*
+ * MIT License
+ * <p>
+ * Copyright (c) 2019-present Polina Bevad, Sergey Hvatov, Vladislav Marchenko
+ * <p>
+ * Permission is hereby granted, free of charge, to any person obtaining a copy
+ * of this software and associated documentation files (the "Software"), to deal
+ * in the Software without restriction, including without limitation the rights
+ * to use, copy, modify, merge, publish, distribute, sublicense, and/or sell
+ * copies of the Software, and to permit persons to whom the Software is
+ * furnished to do so, subject to the following conditions:
+ * <p>
+ * The above copyright notice and this permission notice shall be included in all
+ * copies or substantial portions of the Software.
+ * <p>
+ * THE SOFTWARE IS PROVIDED "AS IS", WITHOUT WARRANTY OF ANY KIND, EXPRESS OR
+ * IMPLIED, INCLUDING BUT NOT LIMITED TO THE WARRANTIES OF MERCHANTABILITY,
+ * FITNESS FOR A PARTICULAR PURPOSE AND NONINFRINGEMENT. IN NO EVENT SHALL THE
+ * AUTHORS OR COPYRIGHT HOLDERS BE LIABLE FOR ANY CLAIM, DAMAGES OR OTHER
+ * LIABILITY, WHETHER IN AN ACTION OF CONTRACT, TORT OR OTHERWISE, ARISING FROM,
+ * OUT OF OR IN CONNECTION WITH THE SOFTWARE OR THE USE OR OTHER DEALINGS IN THE
+ * SOFTWARE.
+ */
+
+package executors;
+
+import bam.regular.BAMParser;
+import bam.regular.BEDFeature;
+import exception.GenomeException;
+import exception.GenomeFileException;
+import genome.assembly.GenomeRegion;
+import genome.assembly.SampleConsensus;
+import genome.compare.sketch.KmerSketch;
+import genome.compare.sketch.SampleSketch;
+import org.apache.logging.log4j.LogManager;
+import org.apache.logging.log4j.Logger;
+import util.SampleCache;
+
+import java.io.File;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.*;
+
+/**
+ * Builds the k-mer sketches of the sample from the consensus sequences
+ * of the regions and caches them in the directory of the {@link SampleCache}, if it is set.
+ *
+ * @author Sergey Khvatov
+ */
+public class SketchBuilder {
+
+    /**
+     * Logger that is used to write down the information about sketching.
+     */
+    private static final Logger sketchLogger = LogManager.getLogger(SketchBuilder.class);
+
+    /**
+     * Regions from the BED file: key - gene name, value - list of regions.
+     */
+    private Map<String, List<BEDFeature>> regions;
+
+    /**
+     * Number of threads that assemble the regions.
+     */
+    private int threadsNum;
+
+    /**
+     * Creates the sketch builder.
+     *
+     * @param regions    Regions from the BED file.
+     * @param threadsNum Number of threads that assemble the regions.
+     */
+    public SketchBuilder(Map<String, List<BEDFeature>> regions, int threadsNum) {
+        this.regions = regions;
+        this.threadsNum = threadsNum;
+    }
+
+    /**
+     * Returns the sketches of the sample. If caching is enabled and there is a saved sketch file
+     * for the same regions and the same BAM file, it is loaded, otherwise sketches are built
+     * and saved, if caching is enabled.
+     *
+     * @param parser BAM file parser of the sample.
+     * @return Sketches of the sample.
+     * @throws GenomeException if error occurs while assembling the regions.
+     */
+    public SampleSketch build(BAMParser parser) {
+        long fingerprint = SampleSketch.fingerprint(regions);
+        long source = SampleCache.stamp(parser.getBAMFile());
+        File directory = SampleCache.getDirectory();
+        if (directory == null) {
+            return assemble(parser, fingerprint, source);
+        }
+        File cache = SampleCache.getFile(directory, parser.getBAMFile(), SampleSketch.EXTENSION);
+        if (cache.isFile()) {
+            try {
+                SampleSketch sketch = SampleSketch.load(cache);
+                if (sketch.matches(KmerSketch.DEFAULT_K, KmerSketch.DEFAULT_SIZE, fingerprint, source)) {
+                    return sketch;
+                }
+            } catch (GenomeFileException gfex) {
+                sketchLogger.warn("Can not load the sketch file, it will be rebuilt: " + gfex.getMessage());
+            }
+        }
+
+        SampleSketch sketch = assemble(parser, fingerprint, source);
+        try {
+            directory.mkdirs();
+            sketch.save(cache);
+        } catch (GenomeFileException gfex) {
+            sketchLogger.warn("Can not save the sketch file: " + gfex.getMessage());
+        }
+        return sketch;
+    }
+
+    /**
+     * Builds the sketches of the sample from its consensus, that is already assembled.
+     *
+     * @param consensus Consensus of the sample.
+     * @return Sketches of the sample.
+     */
+    public static SampleSketch build(SampleConsensus consensus) {
+        SampleSketch sketch = new SampleSketch(KmerSketch.DEFAULT_K, KmerSketch.DEFAULT_SIZE, consensus.getFingerprint(), consensus.getSource());
+        for (int i = 0; i < consensus.size(); i++) {
+            for (GenomeRegion region : consensus.get(i)) {
+                sketch.update(region.getChromName(), region.getNucleotideSequence());
+            }
+        }
+        return sketch;
+    }
+
+    /**
+     * Assembles all the regions of the sample and adds them to the sketches.
+     *
+     * @param parser      BAM file parser of the sample.
+     * @param fingerprint Fingerprint of the regions.
+     * @param source      Stamp of the BAM file.
+     * @return Sketches of the sample.
+     * @throws GenomeException if error occurs while assembling the regions.
+     */
+    private SampleSketch assemble(BAMParser parser, long fingerprint, long source) {
+        SampleSketch sketch = new SampleSketch(KmerSketch.DEFAULT_K, KmerSketch.DEFAULT_SIZE, fingerprint, source);
+        ExecutorService executorPool = Executors.newFixedThreadPool(threadsNum);
+        CompletionService<List<GenomeRegion>> executorService = new ExecutorCompletionService<>(executorPool);
+        try {
+            int tasksNumber = 0;
+            for (List<BEDFeature> features : regions.values()) {
+                for (BEDFeature feature : features) {
+                    executorService.submit(new GenomeAssemblyCallable(parser, feature));
+                    tasksNumber++;
+                }
+            }
+            // sketches are updated only from this thread
+            for (int i = 0; i < tasksNumber; i++) {
+                for (GenomeRegion region : executorService.take().get()) {
+                    sketch.update(region.getChromName(), region.getNucleotideSequence());
+                }
+            }
+            return sketch;
+        } catch (InterruptedException iex) {
+            Thread.currentThread().interrupt();
+            throw new GenomeException(this.getClass().getName(), "assemble", "interrupted");
+        } catch (ExecutionException eex) {
+            Throwable t = eex.getCause();
+            GenomeException gex = new GenomeException(this.getClass().getName(), "assemble", t.getMessage());
+            gex.initCause(t);
+            throw gex;
+        } finally {
+            executorPool.shutdownNow();
+        }
+    }
+}
@@ -0,0 +1,250 @@
+/*
+ * MIT License
+ * <p>
+ * Copyright (c) 2019-present Polina Bevad, Sergey Hvatov, Vladislav Marchenko
+ * <p>
+ * Permission is hereby granted, free of charge, to any person obtaining a copy
+ * of this software and associated documentation files (the "Software"), to deal
+ * in the Software without restriction, including without limitation the rights
+ * to use, copy, modify, merge, publish, distribute, sublicense, and/or sell
+ * copies of the Software, and to permit persons to whom the Software is
+ * furnished to do so, subject to the following conditions:
+ * <p>
+ * The above copyright notice and this permission notice shall be included in all
+ * copies or substantial portions of the Software.
+ * <p>
+ * THE SOFTWARE IS PROVIDED "AS IS", WITHOUT WARRANTY OF ANY KIND, EXPRESS OR
+ * IMPLIED, INCLUDING BUT NOT LIMITED TO THE WARRANTIES OF MERCHANTABILITY,
+ * FITNESS FOR A PARTICULAR PURPOSE AND NONINFRINGEMENT. IN NO EVENT SHALL THE
+ * AUTHORS OR COPYRIGHT HOLDERS BE LIABLE FOR ANY CLAIM, DAMAGES OR OTHER
+ * LIABILITY, WHETHER IN AN ACTION OF CONTRACT, TORT OR OTHERWISE, ARISING FROM,
+ * OUT OF OR IN CONNECTION WITH THE SOFTWARE OR THE USE OR OTHER DEALINGS IN THE
+ * SOFTWARE.
+ */
+
+package executors;
+
+import bam.regular.BAMParser;
+import bam.regular.BEDFeature;
+import bam.regular.BEDParser;
+import exception.GenomeException;
+import exception.GenomeFileException;
+import genome.assembly.SAMRecordList;
+import genome.compare.common.ComparatorType;
+import genome.compare.common.ComparisonResult;
+import genome.compare.common.ComparisonResultAnalyzer;
+import genome.compare.levenshtein.LevenshteinComparisonResultAnalyzer;
+import genome.compare.mendelian.MendelianComparisonResultAnalyzer;
+import org.apache.logging.log4j.LogManager;
+import org.apache.logging.log4j.Logger;
+import util.ResultSink;
+
+import java.util.ArrayList;
+import java.util.HashMap;
+import java.util.Iterator;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.CompletionService;
+import java.util.concurrent.ExecutionException;
+import java.util.concurrent.ExecutorCompletionService;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.ForkJoinPool;
+import java.util.concurrent.Future;
+
+/**
+ * Compares the genome of the son with the genomes of the father and the mother in a single pass:
+ * the region of each feature is read and assembled once for each person, and the son's regions
+ * are compared with the father's and the mother's ones at the same time.
+ * The Mendelian errors of the trio can be counted in the same pass.
+ * Is used for the {@link ComparatorType#LEVENSHTEIN} and {@link ComparatorType#WEIGHTED_LEVENSHTEIN} comparators.
+ *
+ * @author Sergey Khvatov
+ */
+public class TrioComparatorExecutor {
+
+    /**
+     * Names of the compared pairs and of the trio in the records of the sink,
+     * in the order of {@link TrioFeatureCallable#FATHER}, {@link TrioFeatureCallable#MOTHER}, {@link TrioFeatureCallable#MENDELIAN}.
+     */
+    private static final String[] PAIRS = {"father-son", "mother-son", "trio"};
+
+    /**
+     * Logger that is used to write down the information about the execution.
+     */
+    private static final Logger executorLogger = LogManager.getLogger(TrioComparatorExecutor.class);
+
+    /**
+     * Father's BAM file parser.
+     */
+    private BAMParser fatherBAMFile;
+
+    /**
+     * Mother's BAM file parser.
+     */
+    private BAMParser motherBAMFile;
+
+    /**
+     * Son's BAM file parser.
+     */
+    private BAMParser sonBAMFile;
+
+    /**
+     * Map with the exons that
+     * are parsed from the input BED file.
+     */
+    private Map<String, List<BEDFeature>> exons;
+
+    /**
+     * Type of the comparator that will be used to compare genomes.
+     */
+    private ComparatorType type;
+
+    /**
+     * Sink, the results are written to as soon as they are produced, or null.
+     */
+    private ResultSink sink;
+
+    /**
+     * Creates the executor from paths to the BAM files and corresponding to them BED file.
+     *
+     * @param pathToFatherBAM Path to the BAM file where father's genome is stored.
+     * @param pathToMotherBAM Path to the BAM file where mother's genome is stored.
+     * @param pathToSonBAM    Path to the BAM file where son's genome is stored.
+     * @param pathToBED       Path to the BED file.
+     * @param type            Type of the comparator, that will be used to compare genomes.
+     * @throws GenomeException     if type of the comparator is not Levenshtein or exception occurs file parsing the BED file.
+     * @throws GenomeFileException if incorrect BED or BAM file is passed.
+     */
+    public TrioComparatorExecutor(String pathToFatherBAM, String pathToMotherBAM, String pathToSonBAM, String pathToBED, ComparatorType type) {
+        if (!type.isLevenshtein()) {
+            throw new GenomeException(this.getClass().getName(), "TrioComparatorExecutor", "type", "unsupported comparator type: " + type);
+        }
+        this.fatherBAMFile = new BAMParser(pathToFatherBAM);
+        this.motherBAMFile = new BAMParser(pathToMotherBAM);
+        this.sonBAMFile = new BAMParser(pathToSonBAM);
+        this.type = type;
+        this.exons = new BEDParser(pathToBED).parse();
+    }
+
+    /**
+     * Sets the sink, the records of the regions and features of both pairs
+     * and the Mendelian errors of the trio are written to.
+     *
+     * @param sink Sink, or null, if records are not written.
+     */
+    public void setResultSink(ResultSink sink) {
+        this.sink = sink;
+    }
+
+    /**
+     * Compares the genome of the son with the genomes of the father and the mother.
+     *
+     * @param threadsNum     Number of threads that will be used to process exons.
+     * @param advancedOutput if this flag is true , then interim genome comparison results will be displayed,
+     *                       else - only the main chromosome results will be obtained
+     * @param virtualThreads if this flag is true, then the records of each feature are read by the virtual thread,
+     *                       and only assembling and comparison are done by threadsNum platform threads
+     *                       (requires JDK 21+, otherwise platform threads are used for everything)
+     * @param maxInFlight    Maximum number of the features, that are processed at once; if it is not positive,
+     *                       then 4 features per thread (64 features, if virtual threads are used) are processed.
+     * @param mendelian      if this flag is true, then the Mendelian errors of the trio are counted.
+     * @return Results of the comparison of the son and father ({@link TrioFeatureCallable#FATHER}), of the son and mother
+     * ({@link TrioFeatureCallable#MOTHER}) and, if requested, the Mendelian errors ({@link TrioFeatureCallable#MENDELIAN}).
+     * @throws GenomeException if exception occurs while parsing the input files.
+     */
+    public List<ComparisonResultAnalyzer> compareGenomes(int threadsNum, boolean advancedOutput, boolean virtualThreads, int maxInFlight, boolean mendelian) throws GenomeException {
+        // executor, that is shared by all the features and their subtasks
+        ExecutorService executorPool = new ForkJoinPool(threadsNum);
+        // executor, that reads the records of the features, if virtual threads are used
+        ExecutorService fetchPool = virtualThreads ? VirtualThreads.newExecutor() : null;
+        if (virtualThreads && fetchPool == null) {
+            executorLogger.warn("Virtual threads are not supported by this JVM, platform threads are used");
+        }
+        CompletionService<List<List<ComparisonResult>>> executorService = new ExecutorCompletionService<>(fetchPool != null ? fetchPool : executorPool);
+        int inFlightLimit = maxInFlight > 0 ? maxInFlight : fetchPool != null ? GenomeComparatorExecutor.IN_FLIGHT_VIRTUAL : threadsNum * GenomeComparatorExecutor.IN_FLIGHT_PER_THREAD;
+        try {
+            List<BEDFeature> features = new ArrayList<>();
+            for (String gene : exons.keySet()) {
+                features.addAll(exons.get(gene));
+            }
+            features = new FeatureScheduler(sonBAMFile, fatherBAMFile, motherBAMFile).schedule(features);
+
+            List<ComparisonResultAnalyzer> analyzers = new ArrayList<>(3);
+            analyzers.add(new LevenshteinComparisonResultAnalyzer());
+            analyzers.add(new LevenshteinComparisonResultAnalyzer());
+            if (mendelian) {
+                analyzers.add(new MendelianComparisonResultAnalyzer());
+            }
+            // keep at most inFlightLimit features submitted, the next one is
+            // submitted as soon as the results of the previous one are taken
+            Iterator<BEDFeature> iterator = features.iterator();
+            // features of the submitted tasks, the completion service returns the same futures
+            Map<Future<List<List<ComparisonResult>>>, BEDFeature> submitted = new HashMap<>();
+            int inFlight = 0;
+            while (iterator.hasNext() || inFlight > 0) {
+                if (iterator.hasNext() && inFlight < inFlightLimit) {
+                    BEDFeature feature = iterator.next();
+                    Future<List<List<ComparisonResult>>> future;
+                    if (fetchPool != null) {
+                        future = executorService.submit(() -> fetch(feature, executorPool, advancedOutput, mendelian));
+                    } else {
+                        future = executorService.submit(new TrioFeatureCallable(feature, sonBAMFile, fatherBAMFile, motherBAMFile, type, advancedOutput, mendelian));
+                    }
+                    if (sink != null) {
+                        submitted.put(future, feature);
+                    }
+                    inFlight++;
+                } else {
+                    Future<List<List<ComparisonResult>>> future = executorService.take();
+                    List<List<ComparisonResult>> results = future.get();
+                    BEDFeature feature = submitted.remove(future);
+                    for (int i = 0; i < results.size(); i++) {
+                        if (sink != null && i == TrioFeatureCallable.MENDELIAN) {
+                            sink.write(PAIRS[i], results.get(i));
+                        } else if (sink != null) {
+                            sink.writeFeature(PAIRS[i], feature, results.get(i));
+                        }
+                        analyzers.get(i).add(results.get(i));
+                    }
+                    inFlight--;
+                }
+            }
+            return analyzers;
+        } catch (Exception ex) {
+            // if exception has occurred during the call
+            // then get the cause and init our own exception
+            Throwable t = ex;
+            while (t instanceof ExecutionException && t.getCause() != null) {
+                t = t.getCause();
+            }
+            GenomeException gex = new GenomeException(this.getClass().getName(), "compareGenomes", t.getMessage());
+            gex.initCause(t);
+            throw gex;
+        } finally {
+            if (fetchPool != null) {
+                fetchPool.shutdownNow();
+            }
+            executorPool.shutdownNow();
+        }
+    }
+
+    /**
+     * Reads the records of the feature of all the persons, blocking on the disk I/O,
+     * and waits, while they are assembled and compared by the pool of the platform threads.
+     * Is run by the virtual thread.
+     *
+     * @param feature        Corresponding BED file feature.
+     * @param computePool    Pool, that assembles and compares the features.
+     * @param advancedOutput Flag for additional output.
+     * @param mendelian      Flag for the counting of the Mendelian errors.
+     * @return Results of the comparison of the feature.
+     * @throws InterruptedException if thread was interrupted.
+     * @throws ExecutionException   if error occurs while assembling or comparing the regions.
+     */
+    private List<List<ComparisonResult>> fetch(BEDFeature feature, ExecutorService computePool, boolean advancedOutput, boolean mendelian) throws InterruptedException, ExecutionException {
+        SAMRecordList sonRecords = sonBAMFile.parse(feature);
+        SAMRecordList fatherRecords = fatherBAMFile.parse(feature);
+        SAMRecordList motherRecords = motherBAMFile.parse(feature);
+        return computePool.submit(new TrioFeatureCallable(feature, sonRecords, fatherRecords, motherRecords, type, advancedOutput, mendelian)).get();
+    }
+}
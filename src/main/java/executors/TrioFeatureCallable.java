@@ -0,0 +1,258 @@
+/*
+ * MIT License
+ * <p>
+ * Copyright (c) 2019-present Polina Bevad, Sergey Hvatov, Vladislav Marchenko
+ * <p>
+ * Permission is hereby granted, free of charge, to any person obtaining a copy
+ * of this software and associated documentation files (the "Software"), to deal
+ * in the Software without restriction, including without limitation the rights
+ * to use, copy, modify, merge, publish, distribute, sublicense, and/or sell
+ * copies of the Software, and to permit persons to whom the Software is
+ * furnished to do so, subject to the following conditions:
+ * <p>
+ * The above copyright notice and this permission notice shall be included in all
+ * copies or substantial portions of the Software.
+ * <p>
+ * THE SOFTWARE IS PROVIDED "AS IS", WITHOUT WARRANTY OF ANY KIND, EXPRESS OR
+ * IMPLIED, INCLUDING BUT NOT LIMITED TO THE WARRANTIES OF MERCHANTABILITY,
+ * FITNESS FOR A PARTICULAR PURPOSE AND NONINFRINGEMENT. IN NO EVENT SHALL THE
+ * AUTHORS OR COPYRIGHT HOLDERS BE LIABLE FOR ANY CLAIM, DAMAGES OR OTHER
+ * LIABILITY, WHETHER IN AN ACTION OF CONTRACT, TORT OR OTHERWISE, ARISING FROM,
+ * OUT OF OR IN CONNECTION WITH THE SOFTWARE OR THE USE OR OTHER DEALINGS IN THE
+ * SOFTWARE.
+ */
+
+package executors;
+
+import bam.regular.BAMParser;
+import bam.regular.BEDFeature;
+import exception.GenomeException;
+import genome.assembly.GenomeRegion;
+import genome.assembly.RegionPileup;
+import genome.assembly.SAMRecordList;
+import genome.compare.common.ComparatorType;
+import genome.compare.common.ComparisonResult;
+import genome.compare.mendelian.MendelianComparator;
+import org.apache.logging.log4j.LogManager;
+import org.apache.logging.log4j.Logger;
+
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.List;
+import java.util.concurrent.Callable;
+import java.util.concurrent.ForkJoinPool;
+import java.util.concurrent.ForkJoinTask;
+
+/**
+ * {@link TrioFeatureCallable} class implements a {@link Callable} interface.
+ * Assembles the region of the feature of the son, father and mother once
+ * and compares the son's regions with the father's and the mother's ones,
+ * both comparisons are forked at the same time as the subtasks of the {@link ForkJoinPool},
+ * this task is running in. If the Mendelian errors are requested, then the records
+ * of the feature are read once and are used both for the assembling and for the
+ * pileups, that are compared by the {@link MendelianComparator}.
+ *
+ * @author Sergey Khvatov
+ */
+public class TrioFeatureCallable implements Callable<List<List<ComparisonResult>>> {
+
+    /**
+     * Index of the results of the comparison of the son and father.
+     */
+    public static final int FATHER = 0;
+
+    /**
+     * Index of the results of the comparison of the son and mother.
+     */
+    public static final int MOTHER = 1;
+
+    /**
+     * Index of the results of the search of the Mendelian errors.
+     */
+    public static final int MENDELIAN = 2;
+
+    /**
+     * Number of pairs of regions, that are compared by one task.
+     */
+    private static final int REGIONS_PER_TASK = 32;
+
+    /**
+     * Logger that is used to write down the information about feature processing.
+     */
+    private static final Logger featureLogger = LogManager.getLogger(TrioFeatureCallable.class);
+
+    /**
+     * Corresponding BED file feature.
+     */
+    private BEDFeature feature;
+
+    /**
+     * Parsers of the BAM files of the son, father and mother, or null.
+     */
+    private BAMParser[] parsers;
+
+    /**
+     * Records of the feature of the son, father and mother, that were fetched in advance, or null.
+     */
+    private SAMRecordList[] records;
+
+    /**
+     * Type of the comparator that is used.
+     */
+    private ComparatorType mode;
+
+    /**
+     * Defines whether the some additional information
+     * about the results of the comparison of two genome
+     * regions will be printed.
+     */
+    private boolean additionalOutput;
+
+    /**
+     * Defines whether the Mendelian errors are counted.
+     */
+    private boolean mendelian;
+
+    /**
+     * Creates a feature thread using the following arguments.
+     *
+     * @param feature          Corresponding BED file feature.
+     * @param sonParser        Son's BAM file parser.
+     * @param fatherParser     Father's BAM file parser.
+     * @param motherParser     Mother's BAM file parser.
+     * @param type             Type of the comparator, that will be used to compare genomes.
+     * @param additionalOutput if this flag is true, then advanced region comparison results will be displayed,
+     *                         else - only the main chromosome results will be obtained
+     * @param mendelian        if this flag is true, then the Mendelian errors are counted
+     */
+    public TrioFeatureCallable(BEDFeature feature, BAMParser sonParser, BAMParser fatherParser, BAMParser motherParser, ComparatorType type, boolean additionalOutput, boolean mendelian) {
+        this.feature = feature;
+        this.parsers = new BAMParser[]{sonParser, fatherParser, motherParser};
+        this.mode = type;
+        this.additionalOutput = additionalOutput;
+        this.mendelian = mendelian;
+    }
+
+    /**
+     * Creates a feature thread from the records, that were fetched in advance, using the following arguments.
+     *
+     * @param feature          Corresponding BED file feature.
+     * @param sonRecords       Son's records of the feature.
+     * @param fatherRecords    Father's records of the feature.
+     * @param motherRecords    Mother's records of the feature.
+     * @param type             Type of the comparator, that will be used to compare genomes.
+     * @param additionalOutput if this flag is true, then advanced region comparison results will be displayed,
+     *                         else - only the main chromosome results will be obtained
+     * @param mendelian        if this flag is true, then the Mendelian errors are counted
+     */
+    public TrioFeatureCallable(BEDFeature feature, SAMRecordList sonRecords, SAMRecordList fatherRecords, SAMRecordList motherRecords, ComparatorType type, boolean additionalOutput, boolean mendelian) {
+        this.feature = feature;
+        this.records = new SAMRecordList[]{sonRecords, fatherRecords, motherRecords};
+        this.mode = type;
+        this.additionalOutput = additionalOutput;
+        this.mendelian = mendelian;
+    }
+
+    /**
+     * {@link Callable} interface method call() override.
+     * Assembles three persons' genomes according to the bed file
+     * feature that is passed through constructor and then compares
+     * the son's regions with the father's and the mother's ones.
+     *
+     * @return Results of the comparison of the son and father ({@link #FATHER}), of the son and mother ({@link #MOTHER})
+     * and, if requested, the Mendelian errors ({@link #MENDELIAN}).
+     * @throws GenomeException if regions don't pass the validation.
+     */
+    @Override
+    public List<List<ComparisonResult>> call() {
+        // log the start of the processing
+        if (featureLogger.isInfoEnabled()) {
+            featureLogger.info("Processing feature: {}", feature);
+        }
+
+        // the records are needed both for the assembling and for the pileups
+        if (mendelian && records == null) {
+            List<ForkJoinTask<SAMRecordList>> reads = new ArrayList<>(3);
+            for (BAMParser parser : parsers) {
+                reads.add(ForkJoinTask.adapt(() -> parser.parse(feature)));
+            }
+            ForkJoinTask.invokeAll(reads);
+            records = new SAMRecordList[3];
+            for (int i = 0; i < 3; i++) {
+                records[i] = reads.get(i).join();
+            }
+        }
+
+        // assemble the genomes of all the persons once
+        List<ForkJoinTask<List<GenomeRegion>>> assemblies = new ArrayList<>(3);
+        for (int i = 0; i < 3; i++) {
+            assemblies.add(ForkJoinTask.adapt(records != null ? new GenomeAssemblyCallable(records[i], feature) : new GenomeAssemblyCallable(parsers[i], feature)));
+        }
+        ForkJoinTask.invokeAll(assemblies);
+        List<GenomeRegion> sonGenome = assemblies.get(0).join();
+        List<GenomeRegion> fatherGenome = assemblies.get(1).join();
+        List<GenomeRegion> motherGenome = assemblies.get(2).join();
+
+        // fork the comparisons with both parents at the same time
+        List<ForkJoinTask<List<ComparisonResult>>> fatherTasks = createTasks(sonGenome, fatherGenome);
+        List<ForkJoinTask<List<ComparisonResult>>> motherTasks = createTasks(sonGenome, motherGenome);
+        List<ForkJoinTask<List<ComparisonResult>>> compareTasks = new ArrayList<>(fatherTasks);
+        compareTasks.addAll(motherTasks);
+        ForkJoinTask<List<ComparisonResult>> mendelianTask = null;
+        if (mendelian) {
+            mendelianTask = ForkJoinTask.adapt(() -> Collections.singletonList(new MendelianComparator(feature,
+                new RegionPileup(records[0], feature), new RegionPileup(records[1], feature), new RegionPileup(records[2], feature)).compare()));
+            compareTasks.add(mendelianTask);
+        }
+        ForkJoinTask.invokeAll(compareTasks);
+
+        // log the end of the processing
+        if (featureLogger.isInfoEnabled()) {
+            featureLogger.info("End of processing feature: {}", feature);
+        }
+
+        // return the results
+        List<List<ComparisonResult>> results = new ArrayList<>(3);
+        results.add(join(fatherTasks, sonGenome.size()));
+        results.add(join(motherTasks, sonGenome.size()));
+        if (mendelianTask != null) {
+            results.add(mendelianTask.join());
+        }
+        return results;
+    }
+
+    /**
+     * Creates the tasks, that compare the son's regions with the parent's ones.
+     *
+     * @param sonGenome    Son's regions.
+     * @param parentGenome Parent's regions.
+     * @return List of the tasks, empty, if the genomes were assembled with errors.
+     */
+    private List<ForkJoinTask<List<ComparisonResult>>> createTasks(List<GenomeRegion> sonGenome, List<GenomeRegion> parentGenome) {
+        List<ForkJoinTask<List<ComparisonResult>>> tasks = new ArrayList<>();
+        if (sonGenome.size() != parentGenome.size()) {
+            featureLogger.error("Error occurred while assembling: {}", feature);
+            return tasks;
+        }
+        for (int from = 0; from < sonGenome.size(); from += REGIONS_PER_TASK) {
+            int to = Math.min(from + REGIONS_PER_TASK, sonGenome.size());
+            tasks.add(ForkJoinTask.adapt(new RegionBatchCallable(feature, sonGenome, parentGenome, from, to, mode, additionalOutput)));
+        }
+        return tasks;
+    }
+
+    /**
+     * Collects the results of the completed tasks.
+     *
+     * @param tasks      Completed tasks.
+     * @param regionsNum Number of the compared regions.
+     * @return Results of the comparison.
+     */
+    private static List<ComparisonResult> join(List<ForkJoinTask<List<ComparisonResult>>> tasks, int regionsNum) {
+        List<ComparisonResult> results = Collections.synchronizedList(new ArrayList<>(regionsNum));
+        for (ForkJoinTask<List<ComparisonResult>> task : tasks) {
+            results.addAll(task.join());
+        }
+        return results;
+    }
+}
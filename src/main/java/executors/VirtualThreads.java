@@ -0,0 +1,78 @@
+/*
+ * MIT License
+ * <p>
+ * Copyright (c) 2019-present Polina Bevad, Sergey Hvatov, Vladislav Marchenko
+ * <p>
+ * Permission is hereby granted, free of charge, to any person obtaining a copy
+ * of this software and associated documentation files (the "Software"), to deal
+ * in the Software without restriction, including without limitation the rights
+ * to use, copy, modify, merge, publish, distribute, sublicense, and/or sell
+ * copies of the Software, and to permit persons to whom the Software is
+ * furnished to do so, subject to the following conditions:
+ * <p>
+ * The above copyright notice and this permission notice shall be included in all
+ * copies or substantial portions of the Software.
+ * <p>
+ * THE SOFTWARE IS PROVIDED "AS IS", WITHOUT WARRANTY OF ANY KIND, EXPRESS OR
+ * IMPLIED, INCLUDING BUT NOT LIMITED TO THE WARRANTIES OF MERCHANTABILITY,
+ * FITNESS FOR A PARTICULAR PURPOSE AND NONINFRINGEMENT. IN NO EVENT SHALL THE
+ * AUTHORS OR COPYRIGHT HOLDERS BE LIABLE FOR ANY CLAIM, DAMAGES OR OTHER
+ * LIABILITY, WHETHER IN AN ACTION OF CONTRACT, TORT OR OTHERWISE, ARISING FROM,
+ * OUT OF OR IN CONNECTION WITH THE SOFTWARE OR THE USE OR OTHER DEALINGS IN THE
+ * SOFTWARE.
+ */
+
+package executors;
+
+import java.lang.reflect.InvocationTargetException;
+import java.lang.reflect.Method;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+
+/**
+ * Creates the executors of the virtual threads, if they are supported by the JVM.
+ * The project is compiled for the JDK 8, so the factory method of the JDK 21+
+ * is looked up by reflection.
+ *
+ * @author Sergey Khvatov
+ */
+public final class VirtualThreads {
+
+    /**
+     * Name of the factory method of the {@link Executors} class.
+     */
+    private static final String FACTORY_METHOD = "newVirtualThreadPerTaskExecutor";
+
+    /**
+     * Utility class.
+     */
+    private VirtualThreads() {
+    }
+
+    /**
+     * Creates the executor, that starts a new virtual thread for each task.
+     *
+     * @return the executor, or null, if virtual threads are not supported.
+     */
+    public static ExecutorService newExecutor() {
+        try {
+            Method factory = Executors.class.getMethod(FACTORY_METHOD);
+            return (ExecutorService) factory.invoke(null);
+        } catch (NoSuchMethodException | IllegalAccessException | InvocationTargetException ex) {
+            // JDK is older than 21, or virtual threads are the preview feature, that is not enabled
+            return null;
+        }
+    }
+
+    /**
+     * @return true, if virtual threads are supported by the JVM.
+     */
+    public static boolean isSupported() {
+        ExecutorService executor = newExecutor();
+        if (executor == null) {
+            return false;
+        }
+        executor.shutdown();
+        return true;
+    }
+}
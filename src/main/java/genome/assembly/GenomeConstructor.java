@@ -59,7 +59,7 @@ public class GenomeConstructor  {
      * Maximum length of the nucleotide sequence to be stored
      * in the genome region.
      */
-    private static final int MAX_NUCLEOTIDE_SEQ_LEN = 256;
+    public static final int MAX_NUCLEOTIDE_SEQ_LEN = 256;
 
     /**
      * Method, which assembly genome from samrecords and exons
@@ -93,11 +93,33 @@ public class GenomeConstructor  {
      * @throws GenomeException if anything went wrong
      */
     public static List<GenomeRegion> assembly(SAMRecordList samRecords, BEDFeature exon) {
+        // check the input
+        if (samRecords.isEmpty()) {
+            //throw new GenomeException("GenomeConstructor", "assembly", "samRecords", "is empty");
+            return new ArrayList<>();
+        }
+        List<GenomeRegion> genomeRegions = assembly(samRecords, exon, exon.getStartPos(), exon.getEndPos());
+        checkUnknownNucleotides(genomeRegions);
+        return genomeRegions;
+    }
+
+    /**
+     * Assemblies the part of the exon without any checks, so that the parts of the long exon
+     * can be assembled in parallel. The part must start at the start of the exon plus a multiple of
+     * {@link #MAX_NUCLEOTIDE_SEQ_LEN}, then its regions are the same as the regions of the whole exon;
+     * the regions of all the parts are checked by {@link #checkUnknownNucleotides(List)} together.
+     *
+     * @param samRecords input SAMRecordList, it must not be empty
+     * @param exon       input exon
+     * @param from       start position of the part
+     * @param to         end position of the part (exclusive)
+     * @return regions of the part
+     * @throws GenomeException if anything went wrong
+     */
+    public static List<GenomeRegion> assembly(SAMRecordList samRecords, BEDFeature exon, int from, int to) {
         try {
-            // check the input
-            if (samRecords.isEmpty()) {
-                //throw new GenomeException("GenomeConstructor", "assembly", "samRecords", "is empty");
-                return new ArrayList<>();
+            if ((from - exon.getStartPos()) % MAX_NUCLEOTIDE_SEQ_LEN != 0) {
+                throw new IllegalArgumentException("part of the exon starts at " + from + ", not at the start of the region");
             }
 
             // list of regions
@@ -107,16 +129,10 @@ public class GenomeConstructor  {
             // String of nucleotides from the current region
             StringBuilder nucleotides = new StringBuilder();
             // start position for each new smaller genome region
-            int currentStartPos = exon.getStartPos();
+            int currentStartPos = from;
 
-            // temp variables used
-            // to calculate the percentage of the
-            // unknown nucleotides in the sequence.
-            int nucleotideSeqLen = 0;
-            int unknownNucleotidesNum = 0;
-
-            // we pass from start position to end position of current region
-            for (int j = exon.getStartPos(); j < exon.getEndPos(); j++) {
+            // we pass from start position to end position of current part
+            for (int j = from; j < to; j++) {
                 // HashMap in which there are nucleotides(with their qualities; see description of the method)
                 // from current position
                 Map<Character, List<Byte>> currentNucleotides = getNucleotideDistribution(samRecords.getSAMRecordList(j), j);
@@ -147,36 +163,24 @@ public class GenomeConstructor  {
                     }
                 }
 
-                if (nucleotides.length() < MAX_NUCLEOTIDE_SEQ_LEN) {
-                    // add the best nucleotide into the nucleotide sequence from the current region
-                    nucleotides.append(bestNucleotide);
-                    // add the quality of this nucleotide
-                    qualities[j - currentStartPos] = bestQuality;
-                } else {
-                    // add region to the output
-                    genomeRegions.add(new GenomeRegion(exon.getChromosomeName(), currentStartPos, nucleotides.toString().toUpperCase(), qualities, exon.getGene()));
+                if (nucleotides.length() == MAX_NUCLEOTIDE_SEQ_LEN) {
+                    // add region to the output, regions of the exon follow each other without gaps
+                    genomeRegions.add(new GenomeRegion(exon.getChromosomeName(), currentStartPos, nucleotides.toString().toUpperCase(), qualities.clone(), exon.getGene()));
                     // reset temporary values
                     nucleotides.setLength(0);
                     Arrays.fill(qualities, (byte) 0);
-                    currentStartPos = j + 1;
-                    // add number of the nucleotides and number of the unknown nucleotides
-                    nucleotideSeqLen += MAX_NUCLEOTIDE_SEQ_LEN;
-                    unknownNucleotidesNum += StringUtils.countMatches(nucleotides, UNKNOWN_NUCLEOTIDE);
+                    currentStartPos = j;
                 }
+                // add the best nucleotide into the nucleotide sequence from the current region
+                nucleotides.append(bestNucleotide);
+                // add the quality of this nucleotide
+                qualities[j - currentStartPos] = bestQuality;
             }
 
-            // add last processed region to the output
-            genomeRegions.add(new GenomeRegion(exon.getChromosomeName(), currentStartPos, nucleotides.toString().toUpperCase(), Arrays.copyOf(qualities, nucleotides.length()), exon.getGene()));
-            // add number of the nucleotides and number of the unknown nucleotides
-            nucleotideSeqLen += nucleotides.length();
-            unknownNucleotidesNum += StringUtils.countMatches(nucleotides, UNKNOWN_NUCLEOTIDE);
-
-            // check the percentage of the *
-            // in nucleotide sequence
-            if ((double)unknownNucleotidesNum / nucleotideSeqLen > UNKNOWN_NUCL_PERCENTAGE) {
-                throw new GenomeException("GenomeConstructor", "assembly", ">= 20% of the nucleotides are unknown");
+            // add last processed region to the output, the empty one only if the whole exon is empty
+            if (nucleotides.length() != 0 || exon.getStartPos() == exon.getEndPos()) {
+                genomeRegions.add(new GenomeRegion(exon.getChromosomeName(), currentStartPos, nucleotides.toString().toUpperCase(), Arrays.copyOf(qualities, nucleotides.length()), exon.getGene()));
             }
-
             return genomeRegions;
         } catch (NullPointerException | IllegalArgumentException ex) {
             // if catch an exception then create our InvalidGenomeAssemblyException exception,
@@ -186,6 +190,28 @@ public class GenomeConstructor  {
         }
     }
 
+    /**
+     * Checks the percentage of the unknown nucleotides in the regions of the whole exon.
+     *
+     * @param genomeRegions regions of the exon
+     * @throws GenomeException if there are too many unknown nucleotides
+     */
+    public static void checkUnknownNucleotides(List<GenomeRegion> genomeRegions) {
+        // number of the nucleotides and number of the unknown nucleotides
+        int nucleotideSeqLen = 0;
+        int unknownNucleotidesNum = 0;
+        for (GenomeRegion region : genomeRegions) {
+            nucleotideSeqLen += region.getNucleotideLength();
+            unknownNucleotidesNum += StringUtils.countMatches(region.getNucleotideSequence(), UNKNOWN_NUCLEOTIDE);
+        }
+
+        // check the percentage of the *
+        // in nucleotide sequence
+        if ((double)unknownNucleotidesNum / nucleotideSeqLen > UNKNOWN_NUCL_PERCENTAGE) {
+            throw new GenomeException("GenomeConstructor", "assembly", ">= 20% of the nucleotides are unknown");
+        }
+    }
+
     /**
      * Generates a map with each nucleotide and it's quality for the further usage.
      *
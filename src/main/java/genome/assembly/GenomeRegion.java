@@ -155,6 +155,16 @@ public class GenomeRegion {
         return nucleotideSeq.length();
     }
 
+    /**
+     * Returns the qualities of the nucleotides. Array is not copied,
+     * so it must not be modified.
+     *
+     * @return array of qualities for each nucleotide in the sequence.
+     */
+    public byte[] getQualities() {
+        return nucleotideQuality;
+    }
+
     /**
      * @return nucleotide sequence from this region.
      */
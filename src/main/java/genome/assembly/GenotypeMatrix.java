@@ -0,0 +1,198 @@
+/*
+ * MIT License
+ * <p>
+ * Copyright (c) 2019-present Polina Bevad, Sergey Hvatov, Vladislav Marchenko
+ * <p>
+ * Permission is hereby granted, free of charge, to any person obtaining a copy
+ * of this software and associated documentation files (the "Software"), to deal
+ * in the Software without restriction, including without limitation the rights
+ * to use, copy, modify, merge, publish, distribute, sublicense, and/or sell
+ * copies of the Software, and to permit persons to whom the Software is
+ * furnished to do so, subject to the following conditions:
+ * <p>
+ * The above copyright notice and this permission notice shall be included in all
+ * copies or substantial portions of the Software.
+ * <p>
+ * THE SOFTWARE IS PROVIDED "AS IS", WITHOUT WARRANTY OF ANY KIND, EXPRESS OR
+ * IMPLIED, INCLUDING BUT NOT LIMITED TO THE WARRANTIES OF MERCHANTABILITY,
+ * FITNESS FOR A PARTICULAR PURPOSE AND NONINFRINGEMENT. IN NO EVENT SHALL THE
+ * AUTHORS OR COPYRIGHT HOLDERS BE LIABLE FOR ANY CLAIM, DAMAGES OR OTHER
+ * LIABILITY, WHETHER IN AN ACTION OF CONTRACT, TORT OR OTHERWISE, ARISING FROM,
+ * OUT OF OR IN CONNECTION WITH THE SOFTWARE OR THE USE OR OTHER DEALINGS IN THE
+ * SOFTWARE.
+ */
+
+package genome.assembly;
+
+import exception.GenomeException;
+
+/**
+ * Genotypes of the cohort in the same list of biallelic sites.
+ * As in the {@link GenotypeVector}, genotypes are stored in the bit planes of called,
+ * heterozygous and homozygous alternative sites, the planes of all the samples are packed
+ * into the arrays one after another, so the pair of samples is compared with bitwise
+ * operations and popcounts, 64 sites at a time.
+ *
+ * @author Sergey Khvatov
+ */
+public class GenotypeMatrix {
+
+    /**
+     * Index of the number of the sites, where both samples are heterozygous.
+     */
+    public static final int HET_HET = 0;
+
+    /**
+     * Index of the number of the sites, where the samples are opposite homozygotes (IBS0).
+     */
+    public static final int IBS0 = 1;
+
+    /**
+     * Index of the number of the heterozygous sites of the first sample, that are called in both samples.
+     */
+    public static final int FIRST_HET = 2;
+
+    /**
+     * Index of the number of the heterozygous sites of the second sample, that are called in both samples.
+     */
+    public static final int SECOND_HET = 3;
+
+    /**
+     * Index of the number of the sites, that are called in both samples.
+     */
+    public static final int BOTH_CALLED = 4;
+
+    /**
+     * Number of the counts of the pair of samples.
+     */
+    public static final int COUNTS_NUM = 5;
+
+    /**
+     * Number of the samples.
+     */
+    private int samples;
+
+    /**
+     * Number of the sites.
+     */
+    private int sites;
+
+    /**
+     * Number of the words of one sample.
+     */
+    private int words;
+
+    /**
+     * Bits of the called sites.
+     */
+    private long[] called;
+
+    /**
+     * Bits of the heterozygous sites.
+     */
+    private long[] het;
+
+    /**
+     * Bits of the homozygous alternative sites.
+     */
+    private long[] homAlt;
+
+    /**
+     * Creates a matrix, where all the sites of all the samples are missing.
+     *
+     * @param samples Number of the samples.
+     * @param sites   Number of the sites.
+     */
+    public GenotypeMatrix(int samples, int sites) {
+        this.samples = samples;
+        this.sites = sites;
+        this.words = (sites + Long.SIZE - 1) / Long.SIZE;
+        this.called = new long[samples * words];
+        this.het = new long[samples * words];
+        this.homAlt = new long[samples * words];
+    }
+
+    /**
+     * Copies the genotypes of the sample from the vector.
+     *
+     * @param sample   Index of the sample.
+     * @param offset   Index of the first site of the vector in the matrix.
+     * @param genotype Genotypes of the sample in the sites [offset, offset + genotype.size()).
+     * @throws GenomeException if vector does not fit into the matrix.
+     */
+    public void set(int sample, int offset, GenotypeVector genotype) {
+        if (sample < 0 || sample >= samples || offset < 0 || offset + genotype.size() > sites) {
+            throw new GenomeException(this.getClass().getName(), "set", "sample, offset", "incorrect value");
+        }
+        for (int i = 0; i < genotype.size(); i++) {
+            int value = genotype.get(i);
+            if (value == GenotypeVector.MISSING) {
+                continue;
+            }
+            int word = sample * words + ((offset + i) >>> 6);
+            long bit = 1L << (offset + i);
+            called[word] |= bit;
+            if (value == GenotypeVector.HET) {
+                het[word] |= bit;
+            } else if (value == GenotypeVector.HOM_ALT) {
+                homAlt[word] |= bit;
+            }
+        }
+    }
+
+    /**
+     * Adds the counts of the pair of samples in the range of the words to the array:
+     * {@link #HET_HET}, {@link #IBS0}, {@link #FIRST_HET}, {@link #SECOND_HET} and {@link #BOTH_CALLED}.
+     * Only the sites, called in both samples, are counted.
+     *
+     * @param first    Index of the first sample.
+     * @param second   Index of the second sample.
+     * @param fromWord Index of the first word.
+     * @param toWord   Index of the word after the last one.
+     * @param counts   Array of the counts.
+     */
+    public void count(int first, int second, int fromWord, int toWord, long[] counts) {
+        int hetHet = 0, ibs0 = 0, firstHet = 0, secondHet = 0, bothCalled = 0;
+        int f = first * words, s = second * words;
+        for (int i = fromWord; i < toWord; i++) {
+            long both = called[f + i] & called[s + i];
+            long het1 = het[f + i] & both;
+            long het2 = het[s + i] & both;
+            long alt1 = homAlt[f + i];
+            long alt2 = homAlt[s + i];
+            long ref1 = both & ~het1 & ~alt1;
+            long ref2 = both & ~het2 & ~alt2;
+            hetHet += Long.bitCount(het1 & het2);
+            ibs0 += Long.bitCount((ref1 & alt2) | (alt1 & ref2));
+            firstHet += Long.bitCount(het1);
+            secondHet += Long.bitCount(het2);
+            bothCalled += Long.bitCount(both);
+        }
+        counts[HET_HET] += hetHet;
+        counts[IBS0] += ibs0;
+        counts[FIRST_HET] += firstHet;
+        counts[SECOND_HET] += secondHet;
+        counts[BOTH_CALLED] += bothCalled;
+    }
+
+    /**
+     * @return number of the samples.
+     */
+    public int getSamplesNum() {
+        return samples;
+    }
+
+    /**
+     * @return number of the sites.
+     */
+    public int getSitesNum() {
+        return sites;
+    }
+
+    /**
+     * @return number of the words of one sample.
+     */
+    public int getWordsNum() {
+        return words;
+    }
+}
@@ -0,0 +1,195 @@
+/*
+ * MIT License
+ * <p>
+ * Copyright (c) 2019-present Polina Bevad, Sergey Hvatov, Vladislav Marchenko
+ * <p>
+ * Permission is hereby granted, free of charge, to any person obtaining a copy
+ * of this software and associated documentation files (the "Software"), to deal
+ * in the Software without restriction, including without limitation the rights
+ * to use, copy, modify, merge, publish, distribute, sublicense, and/or sell
+ * copies of the Software, and to permit persons to whom the Software is
+ * furnished to do so, subject to the following conditions:
+ * <p>
+ * The above copyright notice and this permission notice shall be included in all
+ * copies or substantial portions of the Software.
+ * <p>
+ * THE SOFTWARE IS PROVIDED "AS IS", WITHOUT WARRANTY OF ANY KIND, EXPRESS OR
+ * IMPLIED, INCLUDING BUT NOT LIMITED TO THE WARRANTIES OF MERCHANTABILITY,
+ * FITNESS FOR A PARTICULAR PURPOSE AND NONINFRINGEMENT. IN NO EVENT SHALL THE
+ * AUTHORS OR COPYRIGHT HOLDERS BE LIABLE FOR ANY CLAIM, DAMAGES OR OTHER
+ * LIABILITY, WHETHER IN AN ACTION OF CONTRACT, TORT OR OTHERWISE, ARISING FROM,
+ * OUT OF OR IN CONNECTION WITH THE SOFTWARE OR THE USE OR OTHER DEALINGS IN THE
+ * SOFTWARE.
+ */
+
+package genome.assembly;
+
+import exception.GenomeException;
+
+/**
+ * Genotypes of one person in the list of biallelic sites.
+ * Genotypes are stored in three bit planes, so that two vectors
+ * can be compared with bitwise operations, 64 sites at a time:
+ * called sites, heterozygous sites and homozygous alternative sites.
+ *
+ * @author Sergey Khvatov
+ */
+public class GenotypeVector {
+
+    /**
+     * Genotype of the site, that was not called.
+     */
+    public static final int MISSING = -1;
+
+    /**
+     * Homozygous reference genotype.
+     */
+    public static final int HOM_REF = 0;
+
+    /**
+     * Heterozygous genotype.
+     */
+    public static final int HET = 1;
+
+    /**
+     * Homozygous alternative genotype.
+     */
+    public static final int HOM_ALT = 2;
+
+    /**
+     * Name of the chromosome.
+     */
+    private String chrom;
+
+    /**
+     * Number of the sites.
+     */
+    private int size;
+
+    /**
+     * Bits of the called sites.
+     */
+    private long[] called;
+
+    /**
+     * Bits of the heterozygous sites.
+     */
+    private long[] het;
+
+    /**
+     * Bits of the homozygous alternative sites.
+     */
+    private long[] homAlt;
+
+    /**
+     * Creates a vector, where all the sites are missing.
+     *
+     * @param chrom Name of the chromosome.
+     * @param size  Number of the sites.
+     */
+    public GenotypeVector(String chrom, int size) {
+        this.chrom = chrom;
+        this.size = size;
+        int words = (size + Long.SIZE - 1) / Long.SIZE;
+        this.called = new long[words];
+        this.het = new long[words];
+        this.homAlt = new long[words];
+    }
+
+    /**
+     * Sets the genotype of the site.
+     *
+     * @param index    Index of the site.
+     * @param genotype One of {@link #MISSING}, {@link #HOM_REF}, {@link #HET}, {@link #HOM_ALT}.
+     * @throws GenomeException if genotype or index is incorrect.
+     */
+    public void set(int index, int genotype) {
+        if (index < 0 || index >= size || genotype < MISSING || genotype > HOM_ALT) {
+            throw new GenomeException(this.getClass().getName(), "set", "index, genotype", "incorrect value");
+        }
+        int word = index >>> 6;
+        long bit = 1L << index;
+        called[word] &= ~bit;
+        het[word] &= ~bit;
+        homAlt[word] &= ~bit;
+        if (genotype != MISSING) {
+            called[word] |= bit;
+        }
+        if (genotype == HET) {
+            het[word] |= bit;
+        } else if (genotype == HOM_ALT) {
+            homAlt[word] |= bit;
+        }
+    }
+
+    /**
+     * Returns the genotype of the site.
+     *
+     * @param index Index of the site.
+     * @return One of {@link #MISSING}, {@link #HOM_REF}, {@link #HET}, {@link #HOM_ALT}.
+     */
+    public int get(int index) {
+        int word = index >>> 6;
+        long bit = 1L << index;
+        if ((called[word] & bit) == 0) {
+            return MISSING;
+        }
+        return (het[word] & bit) != 0 ? HET : (homAlt[word] & bit) != 0 ? HOM_ALT : HOM_REF;
+    }
+
+    /**
+     * @return name of the chromosome.
+     */
+    public String getChromName() {
+        return chrom;
+    }
+
+    /**
+     * @return number of the sites.
+     */
+    public int size() {
+        return size;
+    }
+
+    /**
+     * @return number of the called sites.
+     */
+    public int getCalledCount() {
+        int count = 0;
+        for (long word : called) {
+            count += Long.bitCount(word);
+        }
+        return count;
+    }
+
+    /**
+     * Counts the sites, where both persons share 0, 1 or 2 alleles identical by state.
+     * Only the sites, called in both vectors, are counted.
+     *
+     * @param other Genotypes of the other person in the same sites.
+     * @return Array of three counts: IBS0, IBS1, IBS2.
+     * @throws GenomeException if vectors have different sizes.
+     */
+    public int[] countIBS(GenotypeVector other) {
+        if (other.size != size) {
+            throw new GenomeException(this.getClass().getName(), "countIBS", "other", "has different size");
+        }
+        int ibs0 = 0, ibs1 = 0, ibs2 = 0;
+        for (int i = 0; i < called.length; i++) {
+            long both = called[i] & other.called[i];
+            long homRef1 = both & ~het[i] & ~homAlt[i];
+            long homRef2 = both & ~other.het[i] & ~other.homAlt[i];
+            // opposite homozygotes do not share any allele
+            long opposite = (homRef1 & other.homAlt[i]) | (homAlt[i] & homRef2);
+            // the same genotypes share both alleles
+            long same = both & ~(het[i] ^ other.het[i]) & ~(homAlt[i] ^ other.homAlt[i]);
+            int bothCount = Long.bitCount(both);
+            int oppositeCount = Long.bitCount(opposite);
+            int sameCount = Long.bitCount(same);
+            ibs0 += oppositeCount;
+            ibs2 += sameCount;
+            ibs1 += bothCount - oppositeCount - sameCount;
+        }
+        return new int[]{ibs0, ibs1, ibs2};
+    }
+}
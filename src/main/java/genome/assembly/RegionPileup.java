@@ -0,0 +1,171 @@
+/*
+ * MIT License
+ * <p>
+ * Copyright (c) 2019-present Polina Bevad, Sergey Hvatov, Vladislav Marchenko
+ * <p>
+ * Permission is hereby granted, free of charge, to any person obtaining a copy
+ * of this software and associated documentation files (the "Software"), to deal
+ * in the Software without restriction, including without limitation the rights
+ * to use, copy, modify, merge, publish, distribute, sublicense, and/or sell
+ * copies of the Software, and to permit persons to whom the Software is
+ * furnished to do so, subject to the following conditions:
+ * <p>
+ * The above copyright notice and this permission notice shall be included in all
+ * copies or substantial portions of the Software.
+ * <p>
+ * THE SOFTWARE IS PROVIDED "AS IS", WITHOUT WARRANTY OF ANY KIND, EXPRESS OR
+ * IMPLIED, INCLUDING BUT NOT LIMITED TO THE WARRANTIES OF MERCHANTABILITY,
+ * FITNESS FOR A PARTICULAR PURPOSE AND NONINFRINGEMENT. IN NO EVENT SHALL THE
+ * AUTHORS OR COPYRIGHT HOLDERS BE LIABLE FOR ANY CLAIM, DAMAGES OR OTHER
+ * LIABILITY, WHETHER IN AN ACTION OF CONTRACT, TORT OR OTHERWISE, ARISING FROM,
+ * OUT OF OR IN CONNECTION WITH THE SOFTWARE OR THE USE OR OTHER DEALINGS IN THE
+ * SOFTWARE.
+ */
+
+package genome.assembly;
+
+import bam.regular.BEDFeature;
+import htsjdk.samtools.AlignmentBlock;
+import htsjdk.samtools.SAMRecord;
+
+/**
+ * Counts the nucleotides in each position of the region of one person
+ * and calls the alleles, that are present in the position.
+ * Bases are taken from the aligned blocks of the reads, so every read is
+ * processed once and the counts are stored in one primitive array.
+ * Object is not thread safe and must be filled by one thread.
+ *
+ * @author Sergey Khvatov
+ */
+public class RegionPileup {
+
+    /**
+     * Allele mask of the position, where the alleles were not called.
+     */
+    public static final int NO_CALL = 0;
+
+    /**
+     * Number of the different nucleotides.
+     */
+    private static final int NUCLEOTIDES_NUM = 4;
+
+    /**
+     * Start position of the region.
+     */
+    private int start;
+
+    /**
+     * Length of the region.
+     */
+    private int length;
+
+    /**
+     * Counts of the A, C, G and T nucleotides in each position of the region.
+     */
+    private int[] counts;
+
+    /**
+     * Creates the empty pileup of the region of the feature.
+     *
+     * @param feature BED file feature.
+     */
+    public RegionPileup(BEDFeature feature) {
+        this.start = feature.getStartPos();
+        this.length = Math.max(feature.getEndPos() - feature.getStartPos(), 0);
+        this.counts = new int[length * NUCLEOTIDES_NUM];
+    }
+
+    /**
+     * Creates the pileup of the region of the feature from its records.
+     *
+     * @param samRecords Records of the region.
+     * @param feature    BED file feature.
+     */
+    public RegionPileup(SAMRecordList samRecords, BEDFeature feature) {
+        this(feature);
+        for (SAMRecord read : samRecords) {
+            add(read);
+        }
+    }
+
+    /**
+     * Adds the bases of the read, that cover the region.
+     *
+     * @param read Aligned read.
+     */
+    public void add(SAMRecord read) {
+        if (read.getReadUnmappedFlag() || read.getDuplicateReadFlag() || read.isSecondaryOrSupplementary()) {
+            return;
+        }
+        byte[] bases = read.getReadBases();
+        byte[] qualities = read.getBaseQualities();
+        for (AlignmentBlock block : read.getAlignmentBlocks()) {
+            int from = Math.max(block.getReferenceStart(), start);
+            int to = Math.min(block.getReferenceStart() + block.getLength(), start + length);
+            for (int pos = from; pos < to; pos++) {
+                // 0-based position in the read
+                int readPos = block.getReadStart() - 1 + pos - block.getReferenceStart();
+                if (readPos >= bases.length || (qualities.length != 0 && qualities[readPos] < SitePileup.MIN_BASE_QUALITY)) {
+                    continue;
+                }
+                int nucleotide = indexOf(bases[readPos]);
+                if (nucleotide >= 0) {
+                    counts[(pos - start) * NUCLEOTIDES_NUM + nucleotide]++;
+                }
+            }
+        }
+    }
+
+    /**
+     * Calls the alleles in the position of the region: the nucleotide is the allele,
+     * if its fraction is not lesser than the fraction of the heterozygous allele.
+     *
+     * @param index Index of the position in the region.
+     * @return Mask of the alleles: bits 0-3 are set for the A, C, G and T alleles,
+     * or {@link #NO_CALL}, if the depth of the position is too low.
+     */
+    public int getAlleles(int index) {
+        int offset = index * NUCLEOTIDES_NUM;
+        int depth = counts[offset] + counts[offset + 1] + counts[offset + 2] + counts[offset + 3];
+        if (depth < SitePileup.MIN_DEPTH) {
+            return NO_CALL;
+        }
+        int alleles = 0;
+        for (int i = 0; i < NUCLEOTIDES_NUM; i++) {
+            if (counts[offset + i] >= SitePileup.MIN_HET_FRACTION * depth) {
+                alleles |= 1 << i;
+            }
+        }
+        return alleles;
+    }
+
+    /**
+     * @return length of the region.
+     */
+    public int length() {
+        return length;
+    }
+
+    /**
+     * @param base Nucleotide.
+     * @return index of the nucleotide, or -1, if it is unknown.
+     */
+    private static int indexOf(byte base) {
+        switch (base) {
+            case 'A':
+            case 'a':
+                return 0;
+            case 'C':
+            case 'c':
+                return 1;
+            case 'G':
+            case 'g':
+                return 2;
+            case 'T':
+            case 't':
+                return 3;
+            default:
+                return -1;
+        }
+    }
+}
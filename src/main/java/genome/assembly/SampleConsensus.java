@@ -0,0 +1,341 @@
+/*
+ * MIT License
+ * <p>
+ * Copyright (c) 2019-present Polina Bevad, Sergey Hvatov, Vladislav Marchenko
+ * <p>
+ * Permission is hereby granted, free of charge, to any person obtaining a copy
+ * of this software and associated documentation files (the "Software"), to deal
+ * in the Software without restriction, including without limitation the rights
+ * to use, copy, modify, merge, publish, distribute, sublicense, and/or sell
+ * copies of the Software, and to permit persons to whom the Software is
+ * furnished to do so, subject to the following conditions:
+ * <p>
+ * The above copyright notice and this permission notice shall be included in all
+ * copies or substantial portions of the Software.
+ * <p>
+ * THE SOFTWARE IS PROVIDED "AS IS", WITHOUT WARRANTY OF ANY KIND, EXPRESS OR
+ * IMPLIED, INCLUDING BUT NOT LIMITED TO THE WARRANTIES OF MERCHANTABILITY,
+ * FITNESS FOR A PARTICULAR PURPOSE AND NONINFRINGEMENT. IN NO EVENT SHALL THE
+ * AUTHORS OR COPYRIGHT HOLDERS BE LIABLE FOR ANY CLAIM, DAMAGES OR OTHER
+ * LIABILITY, WHETHER IN AN ACTION OF CONTRACT, TORT OR OTHERWISE, ARISING FROM,
+ * OUT OF OR IN CONNECTION WITH THE SOFTWARE OR THE USE OR OTHER DEALINGS IN THE
+ * SOFTWARE.
+ */
+
+package genome.assembly;
+
+import bam.regular.BEDFeature;
+import exception.GenomeFileException;
+
+import java.io.*;
+import java.nio.ByteBuffer;
+import java.nio.channels.FileChannel;
+import java.nio.charset.StandardCharsets;
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.List;
+
+/**
+ * Assembled regions of all the features of one sample. Consensus can be saved
+ * to the file and loaded later, so that each sample is assembled only once
+ * for the same BAM file and the same list of features, however many samples it is compared with.
+ * The loaded consensus is not read into the heap: the file is memory-mapped and the regions
+ * of the feature are decoded, when they are requested, so the consensus of many samples
+ * can be compared at once.
+ *
+ * @author Sergey Khvatov
+ */
+public class SampleConsensus {
+
+    /**
+     * Extension of the file with the saved consensus.
+     */
+    public static final String EXTENSION = ".consensus";
+
+    /**
+     * Magic number of the file with the saved consensus.
+     */
+    private static final int MAGIC = 0x434F4E53;
+
+    /**
+     * Version of the file format.
+     */
+    private static final int VERSION = 2;
+
+    /**
+     * Size of the header of the file: magic, version, fingerprint, source and number of the features.
+     */
+    private static final int HEADER_SIZE = 4 + 4 + 8 + 8 + 4;
+
+    /**
+     * Maximum size of one mapped segment of the file, the segments contain the whole features.
+     */
+    private static final long MAX_SEGMENT_SIZE = 1L << 30;
+
+    /**
+     * Regions of each feature, in the order of the features, or null, if the consensus is mapped.
+     */
+    private final List<List<GenomeRegion>> regions;
+
+    /**
+     * Mapped segments of the file, or null, if the consensus is in the heap.
+     */
+    private final ByteBuffer[] segments;
+
+    /**
+     * Index of the segment of each feature.
+     */
+    private final int[] segmentOfFeature;
+
+    /**
+     * Offset of each feature in its segment.
+     */
+    private final int[] offsetOfFeature;
+
+    /**
+     * Fingerprint of the features, that were assembled.
+     */
+    private final long fingerprint;
+
+    /**
+     * Stamp of the BAM file, that was assembled.
+     */
+    private final long source;
+
+    /**
+     * Creates the consensus from the assembled regions.
+     *
+     * @param regions     Regions of each feature, in the order of the features.
+     * @param fingerprint Fingerprint of the features (see {@link #fingerprint(List)}).
+     * @param source      Stamp of the BAM file, that is assembled (see {@link util.SampleCache#stamp(File)}).
+     */
+    public SampleConsensus(List<List<GenomeRegion>> regions, long fingerprint, long source) {
+        this.regions = regions;
+        this.segments = null;
+        this.segmentOfFeature = null;
+        this.offsetOfFeature = null;
+        this.fingerprint = fingerprint;
+        this.source = source;
+    }
+
+    /**
+     * Creates the consensus from the mapped file.
+     *
+     * @param segments         Mapped segments of the file.
+     * @param segmentOfFeature Index of the segment of each feature.
+     * @param offsetOfFeature  Offset of each feature in its segment.
+     * @param fingerprint      Fingerprint of the features.
+     * @param source           Stamp of the BAM file.
+     */
+    private SampleConsensus(ByteBuffer[] segments, int[] segmentOfFeature, int[] offsetOfFeature, long fingerprint, long source) {
+        this.regions = null;
+        this.segments = segments;
+        this.segmentOfFeature = segmentOfFeature;
+        this.offsetOfFeature = offsetOfFeature;
+        this.fingerprint = fingerprint;
+        this.source = source;
+    }
+
+    /**
+     * Returns the regions of the feature. The regions of the mapped consensus are
+     * decoded on each call, so the caller should keep them, while they are used.
+     * Method is thread safe.
+     *
+     * @param index Index of the feature.
+     * @return Regions of the feature, empty, if there are no records in the feature.
+     */
+    public List<GenomeRegion> get(int index) {
+        if (regions != null) {
+            return Collections.unmodifiableList(regions.get(index));
+        }
+        // each call reads its own view of the segment
+        ByteBuffer in = segments[segmentOfFeature[index]].duplicate();
+        in.position(offsetOfFeature[index]);
+        int regionsNum = in.getInt();
+        List<GenomeRegion> feature = new ArrayList<>(regionsNum);
+        for (int j = 0; j < regionsNum; j++) {
+            String chrom = readString(in);
+            int start = in.getInt();
+            String gene = readString(in);
+            byte[] sequence = new byte[in.getInt()];
+            byte[] qualities = new byte[sequence.length];
+            in.get(sequence);
+            in.get(qualities);
+            feature.add(new GenomeRegion(chrom, start, new String(sequence, StandardCharsets.US_ASCII), qualities, gene));
+        }
+        return Collections.unmodifiableList(feature);
+    }
+
+    /**
+     * @return number of the features.
+     */
+    public int size() {
+        return regions != null ? regions.size() : segmentOfFeature.length;
+    }
+
+    /**
+     * @return fingerprint of the features, that were assembled.
+     */
+    public long getFingerprint() {
+        return fingerprint;
+    }
+
+    /**
+     * @return stamp of the BAM file, that was assembled.
+     */
+    public long getSource() {
+        return source;
+    }
+
+    /**
+     * Saves the consensus to the file. After the header the file contains the sizes
+     * of the features, so that the features can be found without reading the regions.
+     *
+     * @param file Output file.
+     * @throws GenomeFileException if error occurs while writing.
+     */
+    public void save(File file) {
+        try (DataOutputStream out = new DataOutputStream(new BufferedOutputStream(new FileOutputStream(file)))) {
+            out.writeInt(MAGIC);
+            out.writeInt(VERSION);
+            out.writeLong(fingerprint);
+            out.writeLong(source);
+            out.writeInt(size());
+            for (int i = 0; i < size(); i++) {
+                long size = sizeOf(get(i));
+                if (size > MAX_SEGMENT_SIZE) {
+                    throw new GenomeFileException(SampleConsensus.class.getName(), "save", file.getPath(), "feature " + i + " is too long");
+                }
+                out.writeInt((int) size);
+            }
+            for (int i = 0; i < size(); i++) {
+                List<GenomeRegion> feature = get(i);
+                out.writeInt(feature.size());
+                for (GenomeRegion region : feature) {
+                    writeString(out, region.getChromName());
+                    out.writeInt(region.getStart());
+                    writeString(out, region.getGene());
+                    out.writeInt(region.getNucleotideLength());
+                    out.write(region.getNucleotideSequence().getBytes(StandardCharsets.US_ASCII));
+                    out.write(region.getQualities());
+                }
+            }
+        } catch (IOException ioex) {
+            GenomeFileException gfex = new GenomeFileException(SampleConsensus.class.getName(), "save", file.getPath(), ioex.getMessage());
+            gfex.initCause(ioex);
+            throw gfex;
+        }
+    }
+
+    /**
+     * Maps the consensus file into the memory. The mapping stays valid after the file is deleted.
+     *
+     * @param file Input file.
+     * @return Loaded consensus.
+     * @throws GenomeFileException if file is not a consensus file or error occurs while reading.
+     */
+    public static SampleConsensus load(File file) {
+        try (RandomAccessFile raf = new RandomAccessFile(file, "r"); FileChannel channel = raf.getChannel()) {
+            long length = channel.size();
+            if (length < HEADER_SIZE) {
+                throw new GenomeFileException(SampleConsensus.class.getName(), "load", file.getPath(), "not a consensus file");
+            }
+            ByteBuffer header = channel.map(FileChannel.MapMode.READ_ONLY, 0, HEADER_SIZE);
+            if (header.getInt() != MAGIC || header.getInt() != VERSION) {
+                throw new GenomeFileException(SampleConsensus.class.getName(), "load", file.getPath(), "not a consensus file");
+            }
+            long fingerprint = header.getLong();
+            long source = header.getLong();
+            int featuresNum = header.getInt();
+            if (featuresNum < 0 || HEADER_SIZE + 4L * featuresNum > length) {
+                throw new GenomeFileException(SampleConsensus.class.getName(), "load", file.getPath(), "incorrect number of the features");
+            }
+            ByteBuffer sizes = channel.map(FileChannel.MapMode.READ_ONLY, HEADER_SIZE, 4L * featuresNum);
+
+            // features are grouped into the segments, that can be mapped
+            List<ByteBuffer> segments = new ArrayList<>();
+            int[] segmentOfFeature = new int[featuresNum];
+            int[] offsetOfFeature = new int[featuresNum];
+            long segmentStart = HEADER_SIZE + 4L * featuresNum, position = segmentStart;
+            for (int i = 0; i < featuresNum; i++) {
+                int size = sizes.getInt();
+                if (size < 4 || size > MAX_SEGMENT_SIZE) {
+                    throw new GenomeFileException(SampleConsensus.class.getName(), "load", file.getPath(), "incorrect size of the feature");
+                }
+                if (position + size - segmentStart > MAX_SEGMENT_SIZE) {
+                    segments.add(channel.map(FileChannel.MapMode.READ_ONLY, segmentStart, position - segmentStart));
+                    segmentStart = position;
+                }
+                segmentOfFeature[i] = segments.size();
+                offsetOfFeature[i] = (int) (position - segmentStart);
+                position += size;
+            }
+            if (position != length) {
+                throw new GenomeFileException(SampleConsensus.class.getName(), "load", file.getPath(), "incorrect length of the file");
+            }
+            segments.add(channel.map(FileChannel.MapMode.READ_ONLY, segmentStart, position - segmentStart));
+            return new SampleConsensus(segments.toArray(new ByteBuffer[0]), segmentOfFeature, offsetOfFeature, fingerprint, source);
+        } catch (IOException ioex) {
+            GenomeFileException gfex = new GenomeFileException(SampleConsensus.class.getName(), "load", file.getPath(), ioex.getMessage());
+            gfex.initCause(ioex);
+            throw gfex;
+        }
+    }
+
+    /**
+     * Calculates the fingerprint of the features, that are assembled.
+     * Unlike the fingerprint of the sketches it depends on the order of the features,
+     * because the regions are found by the index of the feature.
+     *
+     * @param features Features of the BED file.
+     * @return fingerprint value.
+     */
+    public static long fingerprint(List<BEDFeature> features) {
+        long result = features.size();
+        for (BEDFeature feature : features) {
+            result = result * 31 + feature.getChromosomeName().hashCode();
+            result = result * 31 + feature.getStartPos();
+            result = result * 31 + feature.getEndPos();
+            result = result * 31 + feature.getGene().hashCode();
+        }
+        return result * 0x9E3779B97F4A7C15L ^ (result >>> 29);
+    }
+
+    /**
+     * Calculates the size of the saved feature.
+     *
+     * @param feature Regions of the feature.
+     * @return size in bytes.
+     */
+    private static long sizeOf(List<GenomeRegion> feature) {
+        long size = 4;
+        for (GenomeRegion region : feature) {
+            size += 2 + region.getChromName().length() + 4 + 2 + region.getGene().length() + 4 + 2L * region.getNucleotideLength();
+        }
+        return size;
+    }
+
+    /**
+     * Writes the ASCII string (names of the chromosomes and genes) with its length.
+     *
+     * @param out Output stream.
+     * @param str String.
+     * @throws IOException if error occurs while writing.
+     */
+    private static void writeString(DataOutputStream out, String str) throws IOException {
+        out.writeShort(str.length());
+        out.write(str.getBytes(StandardCharsets.US_ASCII));
+    }
+
+    /**
+     * Reads the string, that was written by {@link #writeString(DataOutputStream, String)}.
+     *
+     * @param in Input buffer.
+     * @return String.
+     */
+    private static String readString(ByteBuffer in) {
+        byte[] bytes = new byte[in.getShort() & 0xFFFF];
+        in.get(bytes);
+        return new String(bytes, StandardCharsets.US_ASCII);
+    }
+}
@@ -0,0 +1,179 @@
+/*
+ * MIT License
+ * <p>
+ * Copyright (c) 2019-present Polina Bevad, Sergey Hvatov, Vladislav Marchenko
+ * <p>
+ * Permission is hereby granted, free of charge, to any person obtaining a copy
+ * of this software and associated documentation files (the "Software"), to deal
+ * in the Software without restriction, including without limitation the rights
+ * to use, copy, modify, merge, publish, distribute, sublicense, and/or sell
+ * copies of the Software, and to permit persons to whom the Software is
+ * furnished to do so, subject to the following conditions:
+ * <p>
+ * The above copyright notice and this permission notice shall be included in all
+ * copies or substantial portions of the Software.
+ * <p>
+ * THE SOFTWARE IS PROVIDED "AS IS", WITHOUT WARRANTY OF ANY KIND, EXPRESS OR
+ * IMPLIED, INCLUDING BUT NOT LIMITED TO THE WARRANTIES OF MERCHANTABILITY,
+ * FITNESS FOR A PARTICULAR PURPOSE AND NONINFRINGEMENT. IN NO EVENT SHALL THE
+ * AUTHORS OR COPYRIGHT HOLDERS BE LIABLE FOR ANY CLAIM, DAMAGES OR OTHER
+ * LIABILITY, WHETHER IN AN ACTION OF CONTRACT, TORT OR OTHERWISE, ARISING FROM,
+ * OUT OF OR IN CONNECTION WITH THE SOFTWARE OR THE USE OR OTHER DEALINGS IN THE
+ * SOFTWARE.
+ */
+
+package genome.assembly;
+
+import bam.site.Site;
+import htsjdk.samtools.SAMRecord;
+
+import java.util.List;
+
+/**
+ * Counts the reference and alternative alleles in the list of sites
+ * of one chromosome and calls the genotypes. Only the bases in the
+ * sites are processed, other positions of the reads are skipped.
+ * Object is not thread safe and must be filled by one thread.
+ *
+ * @author Sergey Khvatov
+ */
+public class SitePileup {
+
+    /**
+     * Minimum quality of the base to be counted.
+     */
+    static final int MIN_BASE_QUALITY = 20;
+
+    /**
+     * Minimum number of the counted bases to call the genotype.
+     */
+    static final int MIN_DEPTH = 3;
+
+    /**
+     * Minimum fraction of the alternative alleles in the heterozygous site.
+     */
+    static final double MIN_HET_FRACTION = 0.2d;
+
+    /**
+     * Name of the chromosome.
+     */
+    private String chrom;
+
+    /**
+     * Sorted 1-based positions of the sites.
+     */
+    private int[] positions;
+
+    /**
+     * Reference alleles.
+     */
+    private byte[] ref;
+
+    /**
+     * Alternative alleles.
+     */
+    private byte[] alt;
+
+    /**
+     * Number of the reference alleles in each site.
+     */
+    private int[] refCount;
+
+    /**
+     * Number of the alternative alleles in each site.
+     */
+    private int[] altCount;
+
+    /**
+     * Creates the pileup of the sites.
+     *
+     * @param chrom Name of the chromosome.
+     * @param sites Sites of the chromosome, sorted by their positions.
+     */
+    public SitePileup(String chrom, List<Site> sites) {
+        this.chrom = chrom;
+        this.positions = new int[sites.size()];
+        this.ref = new byte[sites.size()];
+        this.alt = new byte[sites.size()];
+        for (int i = 0; i < sites.size(); i++) {
+            positions[i] = sites.get(i).getPosition();
+            ref[i] = (byte) sites.get(i).getRef();
+            alt[i] = (byte) sites.get(i).getAlt();
+        }
+        this.refCount = new int[sites.size()];
+        this.altCount = new int[sites.size()];
+    }
+
+    /**
+     * Adds the bases of the read, that cover the sites.
+     *
+     * @param read Aligned read.
+     */
+    public void add(SAMRecord read) {
+        if (read.getReadUnmappedFlag() || read.getDuplicateReadFlag() || read.isSecondaryOrSupplementary()) {
+            return;
+        }
+        byte[] bases = read.getReadBases();
+        byte[] qualities = read.getBaseQualities();
+        int end = read.getAlignmentEnd();
+        for (int i = lowerBound(read.getAlignmentStart()); i < positions.length && positions[i] <= end; i++) {
+            // 1-based position in the read, 0 if the site is deleted in the read
+            int readPos = read.getReadPositionAtReferencePosition(positions[i]);
+            if (readPos == 0 || readPos > bases.length) {
+                continue;
+            }
+            if (qualities.length != 0 && qualities[readPos - 1] < MIN_BASE_QUALITY) {
+                continue;
+            }
+            byte base = (byte) Character.toUpperCase(bases[readPos - 1]);
+            if (base == ref[i]) {
+                refCount[i]++;
+            } else if (base == alt[i]) {
+                altCount[i]++;
+            }
+        }
+    }
+
+    /**
+     * Calls the genotypes of all the sites.
+     *
+     * @return Vector with the genotypes.
+     */
+    public GenotypeVector call() {
+        GenotypeVector genotypes = new GenotypeVector(chrom, positions.length);
+        for (int i = 0; i < positions.length; i++) {
+            int depth = refCount[i] + altCount[i];
+            if (depth < MIN_DEPTH) {
+                continue;
+            }
+            double altFraction = (double) altCount[i] / depth;
+            if (altFraction < MIN_HET_FRACTION) {
+                genotypes.set(i, GenotypeVector.HOM_REF);
+            } else if (altFraction > 1d - MIN_HET_FRACTION) {
+                genotypes.set(i, GenotypeVector.HOM_ALT);
+            } else {
+                genotypes.set(i, GenotypeVector.HET);
+            }
+        }
+        return genotypes;
+    }
+
+    /**
+     * Finds the index of the first site with the position not lesser than the given one.
+     *
+     * @param position Position in the chromosome.
+     * @return Index of the site.
+     */
+    private int lowerBound(int position) {
+        int low = 0, high = positions.length;
+        while (low < high) {
+            int mid = (low + high) >>> 1;
+            if (positions[mid] < position) {
+                low = mid + 1;
+            } else {
+                high = mid;
+            }
+        }
+        return low;
+    }
+}
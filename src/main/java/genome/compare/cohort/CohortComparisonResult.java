@@ -0,0 +1,116 @@
+/*
+ * MIT License
+ * <p>
+ * Copyright (c) 2019-present Polina Bevad, Sergey Hvatov, Vladislav Marchenko
+ * <p>
+ * Permission is hereby granted, free of charge, to any person obtaining a copy
+ * of this software and associated documentation files (the "Software"), to deal
+ * in the Software without restriction, including without limitation the rights
+ * to use, copy, modify, merge, publish, distribute, sublicense, and/or sell
+ * copies of the Software, and to permit persons to whom the Software is
+ * furnished to do so, subject to the following conditions:
+ * <p>
+ * The above copyright notice and this permission notice shall be included in all
+ * copies or substantial portions of the Software.
+ * <p>
+ * THE SOFTWARE IS PROVIDED "AS IS", WITHOUT WARRANTY OF ANY KIND, EXPRESS OR
+ * IMPLIED, INCLUDING BUT NOT LIMITED TO THE WARRANTIES OF MERCHANTABILITY,
+ * FITNESS FOR A PARTICULAR PURPOSE AND NONINFRINGEMENT. IN NO EVENT SHALL THE
+ * AUTHORS OR COPYRIGHT HOLDERS BE LIABLE FOR ANY CLAIM, DAMAGES OR OTHER
+ * LIABILITY, WHETHER IN AN ACTION OF CONTRACT, TORT OR OTHERWISE, ARISING FROM,
+ * OUT OF OR IN CONNECTION WITH THE SOFTWARE OR THE USE OR OTHER DEALINGS IN THE
+ * SOFTWARE.
+ */
+
+package genome.compare.cohort;
+
+import genome.compare.common.ComparisonResult;
+
+/**
+ * Contains the total Levenshtein differences and compared lengths
+ * of all the regions of two samples of the cohort.
+ *
+ * @author Sergey Khvatov
+ */
+public class CohortComparisonResult implements ComparisonResult {
+
+    /**
+     * Index of the first sample.
+     */
+    private int first;
+
+    /**
+     * Index of the second sample.
+     */
+    private int second;
+
+    /**
+     * Total difference of the regions.
+     */
+    private long difference;
+
+    /**
+     * Total length of the compared regions.
+     */
+    private long sequenceLen;
+
+    /**
+     * Default class constructor.
+     *
+     * @param first       Index of the first sample.
+     * @param second      Index of the second sample.
+     * @param difference  Total difference of the regions.
+     * @param sequenceLen Total length of the compared regions.
+     */
+    public CohortComparisonResult(int first, int second, long difference, long sequenceLen) {
+        this.first = first;
+        this.second = second;
+        this.difference = difference;
+        this.sequenceLen = sequenceLen;
+    }
+
+    /**
+     * @return index of the first sample.
+     */
+    public int getFirst() {
+        return first;
+    }
+
+    /**
+     * @return index of the second sample.
+     */
+    public int getSecond() {
+        return second;
+    }
+
+    /**
+     * @return total difference of the regions.
+     */
+    public long getDifference() {
+        return difference;
+    }
+
+    /**
+     * @return total length of the compared regions.
+     */
+    public long getSequenceLen() {
+        return sequenceLen;
+    }
+
+    /**
+     * @return similarity percentage of the samples, or 0, if nothing was compared.
+     */
+    public double getSimilarity() {
+        return sequenceLen == 0 ? 0d : 100d - ((double) difference / (double) sequenceLen) * 100d;
+    }
+
+    /**
+     * Returns string representation of the results of the comparison.
+     *
+     * @return string representation of the results of the comparison.
+     */
+    @Override
+    public String getResults() {
+        return "Comparison result of samples " + first + " and " + second + ": similarity percentage - " + getSimilarity() + "%";
+    }
+}
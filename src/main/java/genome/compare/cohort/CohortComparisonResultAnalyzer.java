@@ -0,0 +1,150 @@
+/*
+ * MIT License
+ * <p>
+ * Copyright (c) 2019-present Polina Bevad, Sergey Hvatov, Vladislav Marchenko
+ * <p>
+ * Permission is hereby granted, free of charge, to any person obtaining a copy
+ * of this software and associated documentation files (the "Software"), to deal
+ * in the Software without restriction, including without limitation the rights
+ * to use, copy, modify, merge, publish, distribute, sublicense, and/or sell
+ * copies of the Software, and to permit persons to whom the Software is
+ * furnished to do so, subject to the following conditions:
+ * <p>
+ * The above copyright notice and this permission notice shall be included in all
+ * copies or substantial portions of the Software.
+ * <p>
+ * THE SOFTWARE IS PROVIDED "AS IS", WITHOUT WARRANTY OF ANY KIND, EXPRESS OR
+ * IMPLIED, INCLUDING BUT NOT LIMITED TO THE WARRANTIES OF MERCHANTABILITY,
+ * FITNESS FOR A PARTICULAR PURPOSE AND NONINFRINGEMENT. IN NO EVENT SHALL THE
+ * AUTHORS OR COPYRIGHT HOLDERS BE LIABLE FOR ANY CLAIM, DAMAGES OR OTHER
+ * LIABILITY, WHETHER IN AN ACTION OF CONTRACT, TORT OR OTHERWISE, ARISING FROM,
+ * OUT OF OR IN CONNECTION WITH THE SOFTWARE OR THE USE OR OTHER DEALINGS IN THE
+ * SOFTWARE.
+ */
+
+package genome.compare.cohort;
+
+import exception.GenomeException;
+import genome.compare.common.ComparisonResult;
+import genome.compare.common.ComparisonResultAnalyzer;
+
+import java.util.Arrays;
+import java.util.List;
+import java.util.Locale;
+
+/**
+ * This class collects the similarities of all the pairs of the samples of the cohort
+ * into the symmetric matrix and finds the pairs of the samples, that may be relatives.
+ *
+ * @author Sergey Khvatov
+ */
+public class CohortComparisonResultAnalyzer implements ComparisonResultAnalyzer {
+
+    /**
+     * High percentage of similarity for the relatives.
+     */
+    private static final double HIGH_PERCENTAGE = 99.7;
+
+    /**
+     * Names of the samples.
+     */
+    private List<String> samples;
+
+    /**
+     * Similarities of the samples, only the upper triangle is filled,
+     * NaN for the pairs, that were not compared.
+     */
+    private double[][] similarities;
+
+    /**
+     * Creates the analyzer of the cohort.
+     *
+     * @param samples Names of the samples.
+     */
+    public CohortComparisonResultAnalyzer(List<String> samples) {
+        this.samples = samples;
+        this.similarities = new double[samples.size()][samples.size()];
+        for (double[] row : similarities) {
+            Arrays.fill(row, Double.NaN);
+        }
+    }
+
+    /**
+     * Adds the result of the comparison of two samples.
+     *
+     * @param comparisonResult Result of the comparison.
+     * @throws GenomeException if comparisonResult is not an instance of {@link CohortComparisonResult}.
+     */
+    @Override
+    public synchronized void add(ComparisonResult comparisonResult) {
+        if (!(comparisonResult instanceof CohortComparisonResult)) {
+            throw new GenomeException(this.getClass().getName(), "add", "comparison result variable has incorrect type: " + comparisonResult.getClass());
+        }
+        CohortComparisonResult result = (CohortComparisonResult) comparisonResult;
+        similarities[Math.min(result.getFirst(), result.getSecond())][Math.max(result.getFirst(), result.getSecond())] = result.getSimilarity();
+    }
+
+    /**
+     * Returns the similarity of two samples.
+     *
+     * @param first  Index of the first sample.
+     * @param second Index of the second sample.
+     * @return similarity percentage, 100 for the same sample, NaN, if the samples were not compared.
+     */
+    public synchronized double getSimilarity(int first, int second) {
+        return first == second ? 100d : similarities[Math.min(first, second)][Math.max(first, second)];
+    }
+
+    /**
+     * Analyzes the results of the comparison.
+     *
+     * @return String with the similarity matrix and the pairs of the relatives.
+     */
+    @Override
+    public synchronized String analyze() {
+        StringBuilder result = new StringBuilder("Similarity matrix:\n");
+        result.append("sample");
+        for (String sample : samples) {
+            result.append('\t');
+            result.append(sample);
+        }
+        result.append('\n');
+        for (int i = 0; i < samples.size(); i++) {
+            result.append(samples.get(i));
+            for (int j = 0; j < samples.size(); j++) {
+                result.append('\t');
+                double similarity = getSimilarity(i, j);
+                result.append(Double.isNaN(similarity) ? "-" : String.format(Locale.ROOT, "%.4f", similarity));
+            }
+            result.append('\n');
+        }
+
+        result.append("Pairs of samples with 99.7+% similarity:\n");
+        int relatives = 0, skipped = 0;
+        for (int i = 0; i < samples.size(); i++) {
+            for (int j = i + 1; j < samples.size(); j++) {
+                if (Double.isNaN(similarities[i][j])) {
+                    skipped++;
+                } else if (similarities[i][j] >= HIGH_PERCENTAGE) {
+                    result.append('\t');
+                    result.append(samples.get(i));
+                    result.append(" - ");
+                    result.append(samples.get(j));
+                    result.append(". Similarity percentage: ");
+                    result.append(similarities[i][j]);
+                    result.append("%\n");
+                    relatives++;
+                }
+            }
+        }
+        result.append("Count of pairs of samples with 99.7+% similarity: ");
+        result.append(relatives);
+        result.append("\n");
+        if (skipped > 0) {
+            result.append("Count of pairs of samples, that did not pass the pre-screen and were not compared: ");
+            result.append(skipped);
+            result.append("\n");
+        }
+        return result.toString();
+    }
+}
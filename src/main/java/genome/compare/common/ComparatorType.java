@@ -31,5 +31,20 @@ package genome.compare.common;
  * @author Sergey Khvatov
  */
 public enum ComparatorType {
-    XY_STR, LEVENSHTEIN
+    XY_STR, XY_STR_READS, LEVENSHTEIN, WEIGHTED_LEVENSHTEIN, MINHASH, IBS;
+
+    /**
+     * @return True, if comparator calculates Levenshtein distance
+     * between the regions, false otherwise.
+     */
+    public boolean isLevenshtein() {
+        return this == LEVENSHTEIN || this == WEIGHTED_LEVENSHTEIN;
+    }
+
+    /**
+     * @return True, if comparator compares the STR markers, false otherwise.
+     */
+    public boolean isSTR() {
+        return this == XY_STR || this == XY_STR_READS;
+    }
 }
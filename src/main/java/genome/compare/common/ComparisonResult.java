@@ -24,6 +24,8 @@
 
 package genome.compare.common;
 
+import util.ResultRecord;
+
 /**
  * Interface, which defines the interface of all
  * the classes, that are designed to store the results
@@ -40,4 +42,14 @@ public interface ComparisonResult {
      * @return string representation of the results of the comparison.
      */
     String getResults();
+
+    /**
+     * Returns structured representation of the results of the comparison,
+     * that is written by the {@link util.ResultSink}.
+     *
+     * @return record with the results of the comparison.
+     */
+    default ResultRecord toRecord() {
+        return new ResultRecord("result").add("result", getResults());
+    }
 }
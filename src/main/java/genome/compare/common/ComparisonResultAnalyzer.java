@@ -23,7 +23,10 @@
  */
 package genome.compare.common;
 
+import exception.GenomeException;
+
 import java.util.Collection;
+import java.util.List;
 
 /**
  * Interface , which defines interface of all the classes, that
@@ -50,6 +53,37 @@ public interface ComparisonResultAnalyzer {
      */
     void add(ComparisonResult comparisonResult);
 
+    /**
+     * Method for adding all the results of other analyzer of the same type, so the results
+     * can be aggregated by several partial analyzers independently and combined at the end.
+     * Other analyzer is not changed.
+     *
+     * @param other Analyzer, which results are added.
+     * @throws GenomeException if analyzers can not be merged.
+     */
+    default void merge(ComparisonResultAnalyzer other) {
+        throw new GenomeException(this.getClass().getName(), "merge", "analyzer is not mergeable");
+    }
+
+    /**
+     * Merges the partial analyzers by the reduction tree: on each level the analyzers
+     * are merged in pairs, so each result is copied log(n) times at most.
+     * Merged partials are changed, the root of the tree is returned.
+     *
+     * @param partials Partial analyzers of the same type.
+     * @param <T>      Type of the analyzers.
+     * @return Analyzer with all the results, or null, if there are no partials.
+     * @throws GenomeException if analyzers can not be merged.
+     */
+    static <T extends ComparisonResultAnalyzer> T reduce(List<T> partials) {
+        for (int stride = 1; stride < partials.size(); stride *= 2) {
+            for (int i = 0; i + stride < partials.size(); i += 2 * stride) {
+                partials.get(i).merge(partials.get(i + stride));
+            }
+        }
+        return partials.isEmpty() ? null : partials.get(0);
+    }
+
     /**
      * Method for analyzing of comparison results.
      *
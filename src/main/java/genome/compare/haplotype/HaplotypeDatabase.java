@@ -0,0 +1,348 @@
+/*
+ * MIT License
+ * <p>
+ * Copyright (c) 2019-present Polina Bevad, Sergey Hvatov, Vladislav Marchenko
+ * <p>
+ * Permission is hereby granted, free of charge, to any person obtaining a copy
+ * of this software and associated documentation files (the "Software"), to deal
+ * in the Software without restriction, including without limitation the rights
+ * to use, copy, modify, merge, publish, distribute, sublicense, and/or sell
+ * copies of the Software, and to permit persons to whom the Software is
+ * furnished to do so, subject to the following conditions:
+ * <p>
+ * The above copyright notice and this permission notice shall be included in all
+ * copies or substantial portions of the Software.
+ * <p>
+ * THE SOFTWARE IS PROVIDED "AS IS", WITHOUT WARRANTY OF ANY KIND, EXPRESS OR
+ * IMPLIED, INCLUDING BUT NOT LIMITED TO THE WARRANTIES OF MERCHANTABILITY,
+ * FITNESS FOR A PARTICULAR PURPOSE AND NONINFRINGEMENT. IN NO EVENT SHALL THE
+ * AUTHORS OR COPYRIGHT HOLDERS BE LIABLE FOR ANY CLAIM, DAMAGES OR OTHER
+ * LIABILITY, WHETHER IN AN ACTION OF CONTRACT, TORT OR OTHERWISE, ARISING FROM,
+ * OUT OF OR IN CONNECTION WITH THE SOFTWARE OR THE USE OR OTHER DEALINGS IN THE
+ * SOFTWARE.
+ */
+
+package genome.compare.haplotype;
+
+import exception.GenomeException;
+import exception.GenomeFileException;
+
+import java.io.File;
+import java.io.IOException;
+import java.io.RandomAccessFile;
+import java.nio.ByteBuffer;
+import java.nio.channels.FileChannel;
+import java.nio.charset.StandardCharsets;
+import java.util.*;
+
+/**
+ * Read-only database of the Y-STR haplotypes, stored in the columnar binary file,
+ * that is built by the {@link HaplotypeDatabaseWriter}. The repeat numbers of each
+ * marker are stored in the separate column (one byte per haplotype), the columns
+ * are memory-mapped, so the database is not loaded into the heap and the search
+ * reads only the columns of the markers of the query. Each column is indexed by
+ * the minimum and maximum repeat numbers of each block of the haplotypes, so the
+ * blocks, that can not contain the nearest haplotypes, are not read at all.
+ * <p>
+ * Layout of the file: magic number, version, number of the markers, number of the
+ * haplotypes, names of the markers, columns of the repeat numbers, index of the
+ * columns, offsets of the identifiers and the identifiers themselves (UTF-8).
+ *
+ * @author Sergey Khvatov
+ */
+public class HaplotypeDatabase {
+
+    /**
+     * Magic number of the database file.
+     */
+    static final int MAGIC = 0x59484442;
+
+    /**
+     * Version of the file format.
+     */
+    static final int VERSION = 1;
+
+    /**
+     * Stored value of the missing repeat number.
+     */
+    static final int MISSING = 0;
+
+    /**
+     * Maximum repeat number, that can be stored.
+     */
+    static final int MAX_REPEATS = 255;
+
+    /**
+     * Distance, that is added for each marker of the query,
+     * that is missing in the haplotype of the database.
+     */
+    public static final int MISSING_DISTANCE = 1;
+
+    /**
+     * Number of the haplotypes in one block of the index.
+     */
+    static final int BLOCK_SIZE = 1024;
+
+    /**
+     * Names of the markers in the order of the columns.
+     */
+    private final List<String> markers;
+
+    /**
+     * Numbers of the columns: key - normalized name of the marker, value - number of the column.
+     */
+    private final Map<String, Integer> columnsByMarker = new HashMap<>();
+
+    /**
+     * Number of the haplotypes.
+     */
+    private final int size;
+
+    /**
+     * Mapped columns of the repeat numbers.
+     */
+    private final ByteBuffer[] columns;
+
+    /**
+     * Index of the columns: minimum and maximum repeat numbers
+     * of each block of each column, missing values are 0.
+     */
+    private final byte[] index;
+
+    /**
+     * Mapped offsets of the identifiers.
+     */
+    private final ByteBuffer idOffsets;
+
+    /**
+     * Mapped identifiers.
+     */
+    private final ByteBuffer ids;
+
+    /**
+     * Opens the database file and maps it into memory.
+     *
+     * @param file Database file.
+     * @throws GenomeFileException if file is not a database file or error occurs while reading.
+     */
+    public HaplotypeDatabase(File file) {
+        try (RandomAccessFile raf = new RandomAccessFile(file, "r")) {
+            if (raf.readInt() != MAGIC || raf.readInt() != VERSION) {
+                throw new GenomeFileException(this.getClass().getName(), "HaplotypeDatabase", file.getPath(), "not a haplotype database file");
+            }
+            int markersNum = raf.readInt();
+            size = raf.readInt();
+            markers = new ArrayList<>(markersNum);
+            for (int i = 0; i < markersNum; i++) {
+                String marker = raf.readUTF();
+                markers.add(marker);
+                columnsByMarker.put(normalize(marker), i);
+            }
+
+            // mappings stay valid after the file is closed
+            FileChannel channel = raf.getChannel();
+            long position = raf.getFilePointer();
+            columns = new ByteBuffer[markersNum];
+            for (int i = 0; i < markersNum; i++, position += size) {
+                columns[i] = channel.map(FileChannel.MapMode.READ_ONLY, position, size);
+            }
+            // index is small, so it is read into the heap
+            index = new byte[markersNum * blocksNum(size) * 2];
+            raf.seek(position);
+            raf.readFully(index);
+            position += index.length;
+            long offsetsLen = (size + 1L) * Integer.BYTES;
+            idOffsets = channel.map(FileChannel.MapMode.READ_ONLY, position, offsetsLen);
+            position += offsetsLen;
+            ids = channel.map(FileChannel.MapMode.READ_ONLY, position, idOffsets.getInt(size * Integer.BYTES));
+        } catch (IOException | IllegalArgumentException ex) {
+            GenomeFileException gfex = new GenomeFileException(this.getClass().getName(), "HaplotypeDatabase", file.getPath(), ex.getMessage());
+            gfex.initCause(ex);
+            throw gfex;
+        }
+    }
+
+    /**
+     * @return names of the markers of the database.
+     */
+    public List<String> getMarkers() {
+        return Collections.unmodifiableList(markers);
+    }
+
+    /**
+     * @return number of the haplotypes in the database.
+     */
+    public int size() {
+        return size;
+    }
+
+    /**
+     * Returns the identifier of the haplotype.
+     *
+     * @param row Number of the haplotype.
+     * @return identifier of the haplotype.
+     */
+    public String getId(int row) {
+        int start = idOffsets.getInt(row * Integer.BYTES);
+        int end = idOffsets.getInt((row + 1) * Integer.BYTES);
+        byte[] id = new byte[end - start];
+        ByteBuffer view = ids.duplicate();
+        view.position(start);
+        view.get(id);
+        return new String(id, StandardCharsets.UTF_8);
+    }
+
+    /**
+     * Returns the repeat number of the marker in the haplotype.
+     *
+     * @param row    Number of the haplotype.
+     * @param marker Name of the marker.
+     * @return repeat number, or 0, if it is missing.
+     * @throws GenomeException if there is no such marker in the database.
+     */
+    public int getRepeats(int row, String marker) {
+        Integer column = columnsByMarker.get(normalize(marker));
+        if (column == null) {
+            throw new GenomeException(this.getClass().getName(), "getRepeats", "marker", "is not in the database: " + marker);
+        }
+        return columns[column].get(row) & 0xFF;
+    }
+
+    /**
+     * Finds the haplotypes, that are the nearest to the query haplotype by the
+     * step-wise mutation distance: sum of the absolute differences of the repeat
+     * numbers of the markers. Only the markers of the query, that are in the
+     * database, are compared; each of them, that is missing in the haplotype of the
+     * database, adds {@link #MISSING_DISTANCE}.
+     * <p>
+     * The lower bound of the distance of each block is calculated from the index,
+     * the blocks are scanned from the least bound and the search stops as soon as the
+     * bound is greater than the distance of the k-th best haplotype. Block is scanned
+     * column by column and the rest of the columns is skipped in the same way.
+     *
+     * @param haplotype Query haplotype: key - name of the marker, value - repeat number.
+     * @param k         Maximum number of the haplotypes to return.
+     * @return nearest haplotypes sorted by the distance, ties are resolved by the order in the database;
+     * empty, if no marker of the query is in the database.
+     */
+    public List<HaplotypeMatch> nearest(Map<String, Integer> haplotype, int k) {
+        // costs of the stored values for each compared column
+        List<Integer> compared = new ArrayList<>();
+        List<Integer> queried = new ArrayList<>();
+        List<int[]> costs = new ArrayList<>();
+        for (Map.Entry<String, Integer> marker : haplotype.entrySet()) {
+            Integer column = columnsByMarker.get(normalize(marker.getKey()));
+            if (column == null || marker.getValue() == null || marker.getValue() <= MISSING) {
+                continue;
+            }
+            int[] cost = new int[MAX_REPEATS + 1];
+            for (int v = 0; v < cost.length; v++) {
+                cost[v] = v == MISSING ? MISSING_DISTANCE : Math.abs(v - marker.getValue());
+            }
+            compared.add(column);
+            queried.add(marker.getValue());
+            costs.add(cost);
+        }
+        if (compared.isEmpty() || k <= 0) {
+            return new ArrayList<>();
+        }
+
+        // lower bounds of the blocks: bound in the high bits, block in the low bits
+        int blocks = blocksNum(size);
+        long[] bounds = new long[blocks];
+        for (int block = 0; block < blocks; block++) {
+            long bound = 0;
+            for (int c = 0; c < compared.size(); c++) {
+                int pos = (compared.get(c) * blocks + block) * 2;
+                bound += lowerBound(queried.get(c), index[pos] & 0xFF, index[pos + 1] & 0xFF);
+            }
+            bounds[block] = bound << 32 | block;
+        }
+        Arrays.sort(bounds);
+
+        // max-heap of the best haplotypes: distance in the high bits, row in the low bits
+        PriorityQueue<Long> best = new PriorityQueue<>(k, Collections.reverseOrder());
+        ByteBuffer[] views = new ByteBuffer[compared.size()];
+        for (int c = 0; c < views.length; c++) {
+            views[c] = columns[compared.get(c)].duplicate();
+        }
+        byte[] values = new byte[BLOCK_SIZE];
+        int[] distances = new int[BLOCK_SIZE];
+        for (long blockBound : bounds) {
+            int base = (int) blockBound * BLOCK_SIZE;
+            if (best.size() == k && ((blockBound >>> 32) << 32 | base) > best.peek()) {
+                break;
+            }
+            int len = Math.min(BLOCK_SIZE, size - base);
+            Arrays.fill(distances, 0, len, 0);
+            boolean pruned = false;
+            for (int c = 0; c < views.length && !pruned; c++) {
+                views[c].position(base);
+                views[c].get(values, 0, len);
+                int[] cost = costs.get(c);
+                int min = Integer.MAX_VALUE;
+                for (int i = 0; i < len; i++) {
+                    distances[i] += cost[values[i] & 0xFF];
+                    min = Math.min(min, distances[i]);
+                }
+                pruned = best.size() == k && ((long) min << 32 | base) > best.peek();
+            }
+            if (pruned) {
+                continue;
+            }
+            for (int i = 0; i < len; i++) {
+                long key = ((long) distances[i] << 32) | (base + i);
+                if (best.size() < k) {
+                    best.add(key);
+                } else if (key < best.peek()) {
+                    best.poll();
+                    best.add(key);
+                }
+            }
+        }
+
+        List<Long> keys = new ArrayList<>(best);
+        Collections.sort(keys);
+        List<HaplotypeMatch> result = new ArrayList<>(keys.size());
+        for (long key : keys) {
+            result.add(new HaplotypeMatch(getId((int) key), (int) (key >>> 32)));
+        }
+        return result;
+    }
+
+    /**
+     * Calculates the least distance of the marker in the block.
+     *
+     * @param repeats Repeat number of the query.
+     * @param min     Minimum repeat number in the block, 0 if some values are missing.
+     * @param max     Maximum repeat number in the block.
+     * @return lower bound of the distance.
+     */
+    private static int lowerBound(int repeats, int min, int max) {
+        if (max == MISSING) {
+            return MISSING_DISTANCE;
+        }
+        int distance = repeats < min ? min - repeats : Math.max(repeats - max, 0);
+        return min == MISSING ? Math.min(distance, MISSING_DISTANCE) : distance;
+    }
+
+    /**
+     * Calculates the number of the blocks of the index.
+     *
+     * @param size Number of the haplotypes.
+     * @return number of the blocks.
+     */
+    static int blocksNum(int size) {
+        return (size + BLOCK_SIZE - 1) / BLOCK_SIZE;
+    }
+
+    /**
+     * Normalizes the name of the marker, so that the search does not depend on the case.
+     *
+     * @param marker Name of the marker.
+     * @return Normalized name.
+     */
+    static String normalize(String marker) {
+        return marker.trim().toUpperCase(Locale.ROOT);
+    }
+}
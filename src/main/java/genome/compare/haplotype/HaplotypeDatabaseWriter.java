@@ -0,0 +1,224 @@
+/*
+ * MIT License
+ * <p>
+ * Copyright (c) 2019-present Polina Bevad, Sergey Hvatov, Vladislav Marchenko
+ * <p>
+ * Permission is hereby granted, free of charge, to any person obtaining a copy
+ * of this software and associated documentation files (the "Software"), to deal
+ * in the Software without restriction, including without limitation the rights
+ * to use, copy, modify, merge, publish, distribute, sublicense, and/or sell
+ * copies of the Software, and to permit persons to whom the Software is
+ * furnished to do so, subject to the following conditions:
+ * <p>
+ * The above copyright notice and this permission notice shall be included in all
+ * copies or substantial portions of the Software.
+ * <p>
+ * THE SOFTWARE IS PROVIDED "AS IS", WITHOUT WARRANTY OF ANY KIND, EXPRESS OR
+ * IMPLIED, INCLUDING BUT NOT LIMITED TO THE WARRANTIES OF MERCHANTABILITY,
+ * FITNESS FOR A PARTICULAR PURPOSE AND NONINFRINGEMENT. IN NO EVENT SHALL THE
+ * AUTHORS OR COPYRIGHT HOLDERS BE LIABLE FOR ANY CLAIM, DAMAGES OR OTHER
+ * LIABILITY, WHETHER IN AN ACTION OF CONTRACT, TORT OR OTHERWISE, ARISING FROM,
+ * OUT OF OR IN CONNECTION WITH THE SOFTWARE OR THE USE OR OTHER DEALINGS IN THE
+ * SOFTWARE.
+ */
+
+package genome.compare.haplotype;
+
+import exception.GenomeException;
+import exception.GenomeFileException;
+
+import java.io.*;
+import java.nio.charset.StandardCharsets;
+import java.util.*;
+
+/**
+ * Builds the file of the {@link HaplotypeDatabase}. Haplotypes are
+ * collected in memory column by column and written at once.
+ *
+ * @author Sergey Khvatov
+ */
+public class HaplotypeDatabaseWriter {
+
+    /**
+     * Separator of the columns of the haplotype table.
+     */
+    private static final String TABLE_SEPARATOR = "\t";
+
+    /**
+     * Values of the haplotype table, that mean the missing repeat number.
+     */
+    private static final Set<String> TABLE_MISSING = new HashSet<>(Arrays.asList("", ".", "-", "NA"));
+
+    /**
+     * Initial capacity of the columns.
+     */
+    private static final int INITIAL_CAPACITY = 1024;
+
+    /**
+     * Names of the markers.
+     */
+    private final List<String> markers;
+
+    /**
+     * Repeat numbers: one column per marker, one byte per haplotype.
+     */
+    private byte[][] columns;
+
+    /**
+     * Identifiers of the haplotypes.
+     */
+    private final List<String> ids = new ArrayList<>();
+
+    /**
+     * Creates an empty database of the haplotypes of the markers.
+     *
+     * @param markers Names of the markers of the panel.
+     * @throws GenomeException if names of the markers are not unique.
+     */
+    public HaplotypeDatabaseWriter(List<String> markers) {
+        Set<String> unique = new HashSet<>();
+        for (String marker : markers) {
+            if (!unique.add(HaplotypeDatabase.normalize(marker))) {
+                throw new GenomeException(this.getClass().getName(), "HaplotypeDatabaseWriter", "markers", "contain duplicate " + marker);
+            }
+        }
+        this.markers = new ArrayList<>(markers);
+        this.columns = new byte[markers.size()][INITIAL_CAPACITY];
+    }
+
+    /**
+     * Adds the haplotype.
+     *
+     * @param id      Identifier of the haplotype.
+     * @param repeats Repeat numbers of the markers in the order of the panel,
+     *                non-positive values mean the missing repeat number.
+     * @throws GenomeException if number of the values does not match the panel
+     *                         or repeat number is out of range.
+     */
+    public void add(String id, int[] repeats) {
+        if (repeats.length != markers.size()) {
+            throw new GenomeException(this.getClass().getName(), "add", "repeats", "has incorrect length");
+        }
+        int row = ids.size();
+        if (row == columns[0].length) {
+            for (int i = 0; i < columns.length; i++) {
+                columns[i] = Arrays.copyOf(columns[i], row * 2);
+            }
+        }
+        for (int i = 0; i < repeats.length; i++) {
+            if (repeats[i] > HaplotypeDatabase.MAX_REPEATS) {
+                throw new GenomeException(this.getClass().getName(), "add", "repeat number of " + markers.get(i) + " is out of range: " + repeats[i]);
+            }
+            columns[i][row] = (byte) Math.max(repeats[i], HaplotypeDatabase.MISSING);
+        }
+        ids.add(id);
+    }
+
+    /**
+     * @return number of the added haplotypes.
+     */
+    public int size() {
+        return ids.size();
+    }
+
+    /**
+     * Writes the database to the file.
+     *
+     * @param file Output file.
+     * @throws GenomeFileException if error occurs while writing.
+     */
+    public void write(File file) {
+        try (DataOutputStream out = new DataOutputStream(new BufferedOutputStream(new FileOutputStream(file)))) {
+            out.writeInt(HaplotypeDatabase.MAGIC);
+            out.writeInt(HaplotypeDatabase.VERSION);
+            out.writeInt(markers.size());
+            out.writeInt(ids.size());
+            for (String marker : markers) {
+                out.writeUTF(marker);
+            }
+            for (byte[] column : columns) {
+                out.write(column, 0, ids.size());
+            }
+            // index: minimum and maximum repeat numbers of each block of each column
+            int blocks = HaplotypeDatabase.blocksNum(ids.size());
+            for (byte[] column : columns) {
+                for (int block = 0; block < blocks; block++) {
+                    int min = HaplotypeDatabase.MAX_REPEATS, max = HaplotypeDatabase.MISSING;
+                    int end = Math.min(ids.size(), (block + 1) * HaplotypeDatabase.BLOCK_SIZE);
+                    for (int row = block * HaplotypeDatabase.BLOCK_SIZE; row < end; row++) {
+                        min = Math.min(min, column[row] & 0xFF);
+                        max = Math.max(max, column[row] & 0xFF);
+                    }
+                    out.writeByte(min);
+                    out.writeByte(max);
+                }
+            }
+            // offsets of the identifiers in the block of the identifiers
+            byte[][] encoded = new byte[ids.size()][];
+            int offset = 0;
+            out.writeInt(offset);
+            for (int i = 0; i < encoded.length; i++) {
+                encoded[i] = ids.get(i).getBytes(StandardCharsets.UTF_8);
+                offset += encoded[i].length;
+                out.writeInt(offset);
+            }
+            for (byte[] id : encoded) {
+                out.write(id);
+            }
+        } catch (IOException ioex) {
+            GenomeFileException gfex = new GenomeFileException(this.getClass().getName(), "write", file.getPath(), ioex.getMessage());
+            gfex.initCause(ioex);
+            throw gfex;
+        }
+    }
+
+    /**
+     * Converts the tab-separated table of the haplotypes into the database.
+     * The header of the table is the identifier column followed by the names of
+     * the markers; each next line is the identifier followed by the repeat numbers.
+     * Empty values, ".", "-" and "NA" mean the missing repeat number.
+     *
+     * @param table    Input table.
+     * @param database Output database file.
+     * @return number of the haplotypes written.
+     * @throws GenomeFileException if table has incorrect format or error occurs while reading or writing.
+     */
+    public static int convert(File table, File database) {
+        try (BufferedReader reader = new BufferedReader(new InputStreamReader(new FileInputStream(table), StandardCharsets.UTF_8))) {
+            String header = reader.readLine();
+            if (header == null) {
+                throw new GenomeFileException(HaplotypeDatabaseWriter.class.getName(), "convert", table.getPath(), "table is empty");
+            }
+            String[] names = header.split(TABLE_SEPARATOR, -1);
+            HaplotypeDatabaseWriter writer = new HaplotypeDatabaseWriter(Arrays.asList(names).subList(1, names.length));
+            int[] repeats = new int[names.length - 1];
+            String line;
+            int lineNumber = 1;
+            while ((line = reader.readLine()) != null) {
+                lineNumber++;
+                if (line.isEmpty()) {
+                    continue;
+                }
+                String[] values = line.split(TABLE_SEPARATOR, -1);
+                if (values.length != names.length) {
+                    throw new GenomeFileException(HaplotypeDatabaseWriter.class.getName(), "convert", table.getPath(), "incorrect number of columns in line " + lineNumber);
+                }
+                for (int i = 1; i < values.length; i++) {
+                    String value = values[i].trim();
+                    repeats[i - 1] = TABLE_MISSING.contains(value) ? HaplotypeDatabase.MISSING : Integer.parseInt(value);
+                }
+                writer.add(values[0], repeats);
+            }
+            writer.write(database);
+            return writer.size();
+        } catch (NumberFormatException | GenomeException ex) {
+            GenomeFileException gfex = new GenomeFileException(HaplotypeDatabaseWriter.class.getName(), "convert", table.getPath(), ex.getMessage());
+            gfex.initCause(ex);
+            throw gfex;
+        } catch (IOException ioex) {
+            GenomeFileException gfex = new GenomeFileException(HaplotypeDatabaseWriter.class.getName(), "convert", table.getPath(), ioex.getMessage());
+            gfex.initCause(ioex);
+            throw gfex;
+        }
+    }
+}
@@ -0,0 +1,73 @@
+/*
+ * MIT License
+ * <p>
+ * Copyright (c) 2019-present Polina Bevad, Sergey Hvatov, Vladislav Marchenko
+ * <p>
+ * Permission is hereby granted, free of charge, to any person obtaining a copy
+ * of this software and associated documentation files (the "Software"), to deal
+ * in the Software without restriction, including without limitation the rights
+ * to use, copy, modify, merge, publish, distribute, sublicense, and/or sell
+ * copies of the Software, and to permit persons to whom the Software is
+ * furnished to do so, subject to the following conditions:
+ * <p>
+ * The above copyright notice and this permission notice shall be included in all
+ * copies or substantial portions of the Software.
+ * <p>
+ * THE SOFTWARE IS PROVIDED "AS IS", WITHOUT WARRANTY OF ANY KIND, EXPRESS OR
+ * IMPLIED, INCLUDING BUT NOT LIMITED TO THE WARRANTIES OF MERCHANTABILITY,
+ * FITNESS FOR A PARTICULAR PURPOSE AND NONINFRINGEMENT. IN NO EVENT SHALL THE
+ * AUTHORS OR COPYRIGHT HOLDERS BE LIABLE FOR ANY CLAIM, DAMAGES OR OTHER
+ * LIABILITY, WHETHER IN AN ACTION OF CONTRACT, TORT OR OTHERWISE, ARISING FROM,
+ * OUT OF OR IN CONNECTION WITH THE SOFTWARE OR THE USE OR OTHER DEALINGS IN THE
+ * SOFTWARE.
+ */
+
+package genome.compare.haplotype;
+
+/**
+ * One haplotype of the database, found by the nearest neighbour search.
+ *
+ * @author Sergey Khvatov
+ */
+public class HaplotypeMatch {
+
+    /**
+     * Identifier of the haplotype.
+     */
+    private final String id;
+
+    /**
+     * Step-wise mutation distance to the query haplotype.
+     */
+    private final int distance;
+
+    /**
+     * Default class constructor.
+     *
+     * @param id       Identifier of the haplotype.
+     * @param distance Step-wise mutation distance to the query haplotype.
+     */
+    public HaplotypeMatch(String id, int distance) {
+        this.id = id;
+        this.distance = distance;
+    }
+
+    /**
+     * @return identifier of the haplotype.
+     */
+    public String getId() {
+        return id;
+    }
+
+    /**
+     * @return step-wise mutation distance to the query haplotype.
+     */
+    public int getDistance() {
+        return distance;
+    }
+
+    @Override
+    public String toString() {
+        return id + " (distance " + distance + ")";
+    }
+}
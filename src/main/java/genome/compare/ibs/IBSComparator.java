@@ -0,0 +1,74 @@
+/*
+ * MIT License
+ * <p>
+ * Copyright (c) 2019-present Polina Bevad, Sergey Hvatov, Vladislav Marchenko
+ * <p>
+ * Permission is hereby granted, free of charge, to any person obtaining a copy
+ * of this software and associated documentation files (the "Software"), to deal
+ * in the Software without restriction, including without limitation the rights
+ * to use, copy, modify, merge, publish, distribute, sublicense, and/or sell
+ * copies of the Software, and to permit persons to whom the Software is
+ * furnished to do so, subject to the following conditions:
+ * <p>
+ * The above copyright notice and this permission notice shall be included in all
+ * copies or substantial portions of the Software.
+ * <p>
+ * THE SOFTWARE IS PROVIDED "AS IS", WITHOUT WARRANTY OF ANY KIND, EXPRESS OR
+ * IMPLIED, INCLUDING BUT NOT LIMITED TO THE WARRANTIES OF MERCHANTABILITY,
+ * FITNESS FOR A PARTICULAR PURPOSE AND NONINFRINGEMENT. IN NO EVENT SHALL THE
+ * AUTHORS OR COPYRIGHT HOLDERS BE LIABLE FOR ANY CLAIM, DAMAGES OR OTHER
+ * LIABILITY, WHETHER IN AN ACTION OF CONTRACT, TORT OR OTHERWISE, ARISING FROM,
+ * OUT OF OR IN CONNECTION WITH THE SOFTWARE OR THE USE OR OTHER DEALINGS IN THE
+ * SOFTWARE.
+ */
+
+package genome.compare.ibs;
+
+import exception.GenomeException;
+import genome.assembly.GenotypeVector;
+
+/**
+ * Compares the genotypes of two persons in the same list of sites
+ * and counts the sites, where they share 0, 1 or 2 alleles identical by state.
+ * Unlike the {@link genome.compare.common.GenomeComparator} implementations,
+ * it works with the genotype vectors instead of the assembled regions.
+ *
+ * @author Sergey Khvatov
+ */
+public class IBSComparator {
+
+    /**
+     * Genotypes of the first person.
+     */
+    private GenotypeVector first;
+
+    /**
+     * Genotypes of the second person.
+     */
+    private GenotypeVector second;
+
+    /**
+     * Default class constructor from genotypes of two people.
+     *
+     * @param first  Genotypes of the first person.
+     * @param second Genotypes of the second person.
+     * @throws GenomeException if vectors belong to the different chromosomes or have different sizes.
+     */
+    public IBSComparator(GenotypeVector first, GenotypeVector second) {
+        if (!first.getChromName().equals(second.getChromName()) || first.size() != second.size()) {
+            throw new GenomeException(this.getClass().getName(), "IBSComparator", "first, second", "failed the validation");
+        }
+        this.first = first;
+        this.second = second;
+    }
+
+    /**
+     * Compares the genotypes.
+     *
+     * @return Results of the comparison.
+     */
+    public IBSComparisonResult compare() {
+        int[] counts = first.countIBS(second);
+        return new IBSComparisonResult(first.getChromName(), counts[0], counts[1], counts[2]);
+    }
+}
@@ -0,0 +1,120 @@
+/*
+ * MIT License
+ * <p>
+ * Copyright (c) 2019-present Polina Bevad, Sergey Hvatov, Vladislav Marchenko
+ * <p>
+ * Permission is hereby granted, free of charge, to any person obtaining a copy
+ * of this software and associated documentation files (the "Software"), to deal
+ * in the Software without restriction, including without limitation the rights
+ * to use, copy, modify, merge, publish, distribute, sublicense, and/or sell
+ * copies of the Software, and to permit persons to whom the Software is
+ * furnished to do so, subject to the following conditions:
+ * <p>
+ * The above copyright notice and this permission notice shall be included in all
+ * copies or substantial portions of the Software.
+ * <p>
+ * THE SOFTWARE IS PROVIDED "AS IS", WITHOUT WARRANTY OF ANY KIND, EXPRESS OR
+ * IMPLIED, INCLUDING BUT NOT LIMITED TO THE WARRANTIES OF MERCHANTABILITY,
+ * FITNESS FOR A PARTICULAR PURPOSE AND NONINFRINGEMENT. IN NO EVENT SHALL THE
+ * AUTHORS OR COPYRIGHT HOLDERS BE LIABLE FOR ANY CLAIM, DAMAGES OR OTHER
+ * LIABILITY, WHETHER IN AN ACTION OF CONTRACT, TORT OR OTHERWISE, ARISING FROM,
+ * OUT OF OR IN CONNECTION WITH THE SOFTWARE OR THE USE OR OTHER DEALINGS IN THE
+ * SOFTWARE.
+ */
+
+package genome.compare.ibs;
+
+import genome.compare.common.ComparisonResult;
+import util.ResultRecord;
+
+/**
+ * Contains the numbers of the sites of one chromosome, where
+ * two persons share 0, 1 or 2 alleles identical by state.
+ *
+ * @author Sergey Khvatov
+ */
+public class IBSComparisonResult implements ComparisonResult {
+
+    /**
+     * Name of the chromosome.
+     */
+    private String chrom;
+
+    /**
+     * Number of the sites without shared alleles.
+     */
+    private int ibs0;
+
+    /**
+     * Number of the sites with one shared allele.
+     */
+    private int ibs1;
+
+    /**
+     * Number of the sites with both shared alleles.
+     */
+    private int ibs2;
+
+    /**
+     * Default class constructor.
+     *
+     * @param chrom Name of the chromosome.
+     * @param ibs0  Number of the sites without shared alleles.
+     * @param ibs1  Number of the sites with one shared allele.
+     * @param ibs2  Number of the sites with both shared alleles.
+     */
+    public IBSComparisonResult(String chrom, int ibs0, int ibs1, int ibs2) {
+        this.chrom = chrom;
+        this.ibs0 = ibs0;
+        this.ibs1 = ibs1;
+        this.ibs2 = ibs2;
+    }
+
+    /**
+     * @return name of the chromosome.
+     */
+    public String getChromName() {
+        return chrom;
+    }
+
+    /**
+     * @return number of the sites without shared alleles.
+     */
+    public int getIBS0() {
+        return ibs0;
+    }
+
+    /**
+     * @return number of the sites with one shared allele.
+     */
+    public int getIBS1() {
+        return ibs1;
+    }
+
+    /**
+     * @return number of the sites with both shared alleles.
+     */
+    public int getIBS2() {
+        return ibs2;
+    }
+
+    /**
+     * Returns string representation of the results of the comparison.
+     *
+     * @return string representation of the results of the comparison.
+     */
+    @Override
+    public String getResults() {
+        return "Comparison result of chromosome " + chrom + ": IBS0 - " + ibs0 + ", IBS1 - " + ibs1 + ", IBS2 - " + ibs2;
+    }
+
+    /**
+     * Returns the record of the chromosome.
+     *
+     * @return record with the results of the comparison.
+     */
+    @Override
+    public ResultRecord toRecord() {
+        return new ResultRecord("chromosome").add("chrom", chrom).add("ibs0", ibs0).add("ibs1", ibs1).add("ibs2", ibs2);
+    }
+}
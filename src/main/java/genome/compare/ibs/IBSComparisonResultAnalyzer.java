@@ -0,0 +1,132 @@
+/*
+ * MIT License
+ * <p>
+ * Copyright (c) 2019-present Polina Bevad, Sergey Hvatov, Vladislav Marchenko
+ * <p>
+ * Permission is hereby granted, free of charge, to any person obtaining a copy
+ * of this software and associated documentation files (the "Software"), to deal
+ * in the Software without restriction, including without limitation the rights
+ * to use, copy, modify, merge, publish, distribute, sublicense, and/or sell
+ * copies of the Software, and to permit persons to whom the Software is
+ * furnished to do so, subject to the following conditions:
+ * <p>
+ * The above copyright notice and this permission notice shall be included in all
+ * copies or substantial portions of the Software.
+ * <p>
+ * THE SOFTWARE IS PROVIDED "AS IS", WITHOUT WARRANTY OF ANY KIND, EXPRESS OR
+ * IMPLIED, INCLUDING BUT NOT LIMITED TO THE WARRANTIES OF MERCHANTABILITY,
+ * FITNESS FOR A PARTICULAR PURPOSE AND NONINFRINGEMENT. IN NO EVENT SHALL THE
+ * AUTHORS OR COPYRIGHT HOLDERS BE LIABLE FOR ANY CLAIM, DAMAGES OR OTHER
+ * LIABILITY, WHETHER IN AN ACTION OF CONTRACT, TORT OR OTHERWISE, ARISING FROM,
+ * OUT OF OR IN CONNECTION WITH THE SOFTWARE OR THE USE OR OTHER DEALINGS IN THE
+ * SOFTWARE.
+ */
+
+package genome.compare.ibs;
+
+import exception.GenomeException;
+import genome.compare.common.ComparisonResult;
+import genome.compare.common.ComparisonResultAnalyzer;
+
+import java.util.Map;
+import java.util.concurrent.ConcurrentSkipListMap;
+
+/**
+ * This class analyzes the IBS counts of two persons.
+ * Parent and child share at least one allele in every site,
+ * so the fraction of IBS0 sites is close to zero for them,
+ * while the relatives share more alleles than the unrelated persons.
+ *
+ * @author Sergey Khvatov
+ */
+public class IBSComparisonResultAnalyzer implements ComparisonResultAnalyzer {
+
+    /**
+     * Maximum fraction of the IBS0 sites for the parent and child,
+     * that allows for the genotyping errors.
+     */
+    private static final double PARENT_CHILD_IBS0 = 0.005d;
+
+    /**
+     * Minimum IBS similarity of the relatives.
+     */
+    private static final double RELATIVES_SIMILARITY = 0.85d;
+
+    /**
+     * Results of the comparison: key - chromosome name, value - IBS0, IBS1 and IBS2 counts.
+     */
+    private Map<String, int[]> results = new ConcurrentSkipListMap<>();
+
+    /**
+     * Adds the result of the comparison of the genotypes.
+     *
+     * @param comparisonResult Result of the comparison.
+     * @throws GenomeException if comparisonResult is not an instance of {@link IBSComparisonResult}.
+     */
+    @Override
+    public void add(ComparisonResult comparisonResult) {
+        if (!(comparisonResult instanceof IBSComparisonResult)) {
+            throw new GenomeException(this.getClass().getName(), "add", "comparison result variable has incorrect type: " + comparisonResult.getClass());
+        }
+        IBSComparisonResult result = (IBSComparisonResult) comparisonResult;
+        results.merge(result.getChromName(), new int[]{result.getIBS0(), result.getIBS1(), result.getIBS2()}, (a, b) -> new int[]{a[0] + b[0], a[1] + b[1], a[2] + b[2]});
+    }
+
+    /**
+     * Analyzes the results of the comparison.
+     *
+     * @return String with the results of the analysis.
+     */
+    @Override
+    public String analyze() {
+        StringBuilder result = new StringBuilder("IBS counts for each chromosome:\n");
+        int[] total = new int[3];
+        for (Map.Entry<String, int[]> entry : results.entrySet()) {
+            int[] counts = entry.getValue();
+            result.append("\tName of chromosome: ");
+            result.append(entry.getKey());
+            result.append(". IBS0: ");
+            result.append(counts[0]);
+            result.append(", IBS1: ");
+            result.append(counts[1]);
+            result.append(", IBS2: ");
+            result.append(counts[2]);
+            result.append(". Similarity: ");
+            result.append(getSimilarity(counts));
+            result.append("\n");
+            for (int i = 0; i < total.length; i++) {
+                total[i] += counts[i];
+            }
+        }
+
+        int sites = total[0] + total[1] + total[2];
+        result.append("Number of sites compared: ");
+        result.append(sites);
+        result.append("\nIBS0 fraction: ");
+        result.append(sites == 0 ? 0d : (double) total[0] / sites);
+        result.append("\nIBS similarity: ");
+        result.append(getSimilarity(total));
+        result.append("\n");
+        if (sites == 0) {
+            result.append("There are no sites, that were called in both genomes.\n");
+        } else if ((double) total[0] / sites <= PARENT_CHILD_IBS0) {
+            result.append("These persons may be parent and child.\n");
+        } else if (getSimilarity(total) >= RELATIVES_SIMILARITY) {
+            result.append("These persons may be relatives.\n");
+        } else {
+            result.append("These persons are not relatives.\n");
+        }
+        return result.toString();
+    }
+
+    /**
+     * Calculates the fraction of the shared alleles.
+     *
+     * @param counts IBS0, IBS1 and IBS2 counts.
+     * @return fraction of the shared alleles, or 0, if there are no sites.
+     */
+    private static double getSimilarity(int[] counts) {
+        int sites = counts[0] + counts[1] + counts[2];
+        return sites == 0 ? 0d : (counts[1] * 0.5d + counts[2]) / sites;
+    }
+}
@@ -0,0 +1,116 @@
+/*
+ * MIT License
+ * <p>
+ * Copyright (c) 2019-present Polina Bevad, Sergey Hvatov, Vladislav Marchenko
+ * <p>
+ * Permission is hereby granted, free of charge, to any person obtaining a copy
+ * of this software and associated documentation files (the "Software"), to deal
+ * in the Software without restriction, including without limitation the rights
+ * to use, copy, modify, merge, publish, distribute, sublicense, and/or sell
+ * copies of the Software, and to permit persons to whom the Software is
+ * furnished to do so, subject to the following conditions:
+ * <p>
+ * The above copyright notice and this permission notice shall be included in all
+ * copies or substantial portions of the Software.
+ * <p>
+ * THE SOFTWARE IS PROVIDED "AS IS", WITHOUT WARRANTY OF ANY KIND, EXPRESS OR
+ * IMPLIED, INCLUDING BUT NOT LIMITED TO THE WARRANTIES OF MERCHANTABILITY,
+ * FITNESS FOR A PARTICULAR PURPOSE AND NONINFRINGEMENT. IN NO EVENT SHALL THE
+ * AUTHORS OR COPYRIGHT HOLDERS BE LIABLE FOR ANY CLAIM, DAMAGES OR OTHER
+ * LIABILITY, WHETHER IN AN ACTION OF CONTRACT, TORT OR OTHERWISE, ARISING FROM,
+ * OUT OF OR IN CONNECTION WITH THE SOFTWARE OR THE USE OR OTHER DEALINGS IN THE
+ * SOFTWARE.
+ */
+
+package genome.compare.kinship;
+
+import genome.assembly.GenotypeMatrix;
+import genome.compare.common.ComparisonResult;
+
+/**
+ * Contains the counts of the sites of two samples of the cohort, that are used
+ * by the KING-robust kinship estimator.
+ *
+ * @author Sergey Khvatov
+ */
+public class KinshipComparisonResult implements ComparisonResult {
+
+    /**
+     * Index of the first sample.
+     */
+    private int first;
+
+    /**
+     * Index of the second sample.
+     */
+    private int second;
+
+    /**
+     * Counts of the sites in the order of the {@link GenotypeMatrix#count} method.
+     */
+    private long[] counts;
+
+    /**
+     * Default class constructor.
+     *
+     * @param first  Index of the first sample.
+     * @param second Index of the second sample.
+     * @param counts Counts of the sites in the order of the {@link GenotypeMatrix#count} method.
+     */
+    public KinshipComparisonResult(int first, int second, long[] counts) {
+        this.first = first;
+        this.second = second;
+        this.counts = counts;
+    }
+
+    /**
+     * @return index of the first sample.
+     */
+    public int getFirst() {
+        return first;
+    }
+
+    /**
+     * @return index of the second sample.
+     */
+    public int getSecond() {
+        return second;
+    }
+
+    /**
+     * @return number of the sites, where the samples are opposite homozygotes.
+     */
+    public long getIBS0() {
+        return counts[GenotypeMatrix.IBS0];
+    }
+
+    /**
+     * @return number of the sites, that are called in both samples.
+     */
+    public long getCalled() {
+        return counts[GenotypeMatrix.BOTH_CALLED];
+    }
+
+    /**
+     * Calculates the KING-robust kinship coefficient:
+     * (N(Aa, Aa) - 2 * N(AA, aa)) / (N(Aa) of the first + N(Aa) of the second),
+     * that is 0.5 for the same person, 0.25 for the first-degree relatives,
+     * 0.125 for the second-degree relatives and close to 0 for the unrelated persons.
+     *
+     * @return kinship coefficient, or 0, if there are no heterozygous sites.
+     */
+    public double getKinship() {
+        long hets = counts[GenotypeMatrix.FIRST_HET] + counts[GenotypeMatrix.SECOND_HET];
+        return hets == 0 ? 0d : (counts[GenotypeMatrix.HET_HET] - 2d * counts[GenotypeMatrix.IBS0]) / hets;
+    }
+
+    /**
+     * Returns string representation of the results of the comparison.
+     *
+     * @return string representation of the results of the comparison.
+     */
+    @Override
+    public String getResults() {
+        return "Comparison result of samples " + first + " and " + second + ": kinship - " + getKinship() + ", IBS0 - " + getIBS0() + " of " + getCalled() + " sites";
+    }
+}
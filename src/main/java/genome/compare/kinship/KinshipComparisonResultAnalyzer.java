@@ -0,0 +1,164 @@
+/*
+ * MIT License
+ * <p>
+ * Copyright (c) 2019-present Polina Bevad, Sergey Hvatov, Vladislav Marchenko
+ * <p>
+ * Permission is hereby granted, free of charge, to any person obtaining a copy
+ * of this software and associated documentation files (the "Software"), to deal
+ * in the Software without restriction, including without limitation the rights
+ * to use, copy, modify, merge, publish, distribute, sublicense, and/or sell
+ * copies of the Software, and to permit persons to whom the Software is
+ * furnished to do so, subject to the following conditions:
+ * <p>
+ * The above copyright notice and this permission notice shall be included in all
+ * copies or substantial portions of the Software.
+ * <p>
+ * THE SOFTWARE IS PROVIDED "AS IS", WITHOUT WARRANTY OF ANY KIND, EXPRESS OR
+ * IMPLIED, INCLUDING BUT NOT LIMITED TO THE WARRANTIES OF MERCHANTABILITY,
+ * FITNESS FOR A PARTICULAR PURPOSE AND NONINFRINGEMENT. IN NO EVENT SHALL THE
+ * AUTHORS OR COPYRIGHT HOLDERS BE LIABLE FOR ANY CLAIM, DAMAGES OR OTHER
+ * LIABILITY, WHETHER IN AN ACTION OF CONTRACT, TORT OR OTHERWISE, ARISING FROM,
+ * OUT OF OR IN CONNECTION WITH THE SOFTWARE OR THE USE OR OTHER DEALINGS IN THE
+ * SOFTWARE.
+ */
+
+package genome.compare.kinship;
+
+import exception.GenomeException;
+import genome.compare.common.ComparisonResult;
+import genome.compare.common.ComparisonResultAnalyzer;
+
+import java.util.ArrayList;
+import java.util.Comparator;
+import java.util.List;
+
+/**
+ * This class collects the kinship coefficients of all the pairs of the samples of the cohort
+ * into the {@link KinshipMatrix} and infers the degree of the relationship of the related pairs
+ * by the thresholds of the KING paper (Manichaikul et al., 2010).
+ *
+ * @author Sergey Khvatov
+ */
+public class KinshipComparisonResultAnalyzer implements ComparisonResultAnalyzer {
+
+    /**
+     * Minimum kinship coefficient of the duplicates or monozygotic twins.
+     */
+    private static final double DUPLICATE_KINSHIP = 0.354d;
+
+    /**
+     * Minimum kinship coefficient of the first-degree relatives.
+     */
+    private static final double FIRST_DEGREE_KINSHIP = 0.177d;
+
+    /**
+     * Minimum kinship coefficient of the second-degree relatives.
+     */
+    private static final double SECOND_DEGREE_KINSHIP = 0.0884d;
+
+    /**
+     * Minimum kinship coefficient of the third-degree relatives.
+     */
+    private static final double THIRD_DEGREE_KINSHIP = 0.0442d;
+
+    /**
+     * Maximum fraction of the IBS0 sites for the parent and child,
+     * that allows for the genotyping errors.
+     */
+    private static final double PARENT_CHILD_IBS0 = 0.005d;
+
+    /**
+     * Matrix of the kinship coefficients.
+     */
+    private KinshipMatrix matrix;
+
+    /**
+     * Results of the comparison of the related pairs.
+     */
+    private List<KinshipComparisonResult> relatives = new ArrayList<>();
+
+    /**
+     * Creates the analyzer of the cohort.
+     *
+     * @param samples Names of the samples.
+     */
+    public KinshipComparisonResultAnalyzer(List<String> samples) {
+        this.matrix = new KinshipMatrix(samples);
+    }
+
+    /**
+     * Adds the result of the comparison of two samples.
+     *
+     * @param comparisonResult Result of the comparison.
+     * @throws GenomeException if comparisonResult is not an instance of {@link KinshipComparisonResult}.
+     */
+    @Override
+    public synchronized void add(ComparisonResult comparisonResult) {
+        if (!(comparisonResult instanceof KinshipComparisonResult)) {
+            throw new GenomeException(this.getClass().getName(), "add", "comparison result variable has incorrect type: " + comparisonResult.getClass());
+        }
+        KinshipComparisonResult result = (KinshipComparisonResult) comparisonResult;
+        matrix.set(result.getFirst(), result.getSecond(), (float) result.getKinship(), (int) result.getIBS0());
+        if (getRelationship(result) != null) {
+            relatives.add(result);
+        }
+    }
+
+    /**
+     * @return matrix of the kinship coefficients.
+     */
+    public KinshipMatrix getMatrix() {
+        return matrix;
+    }
+
+    /**
+     * Analyzes the results of the comparison.
+     *
+     * @return String with the related pairs of the samples.
+     */
+    @Override
+    public synchronized String analyze() {
+        relatives.sort(Comparator.comparingInt(KinshipComparisonResult::getFirst).thenComparingInt(KinshipComparisonResult::getSecond));
+        StringBuilder result = new StringBuilder("Related pairs of samples:\n");
+        for (KinshipComparisonResult relative : relatives) {
+            result.append('\t');
+            result.append(matrix.getNames().get(relative.getFirst()));
+            result.append(" - ");
+            result.append(matrix.getNames().get(relative.getSecond()));
+            result.append(". Kinship: ");
+            result.append(relative.getKinship());
+            result.append(", IBS0: ");
+            result.append(relative.getIBS0());
+            result.append(" of ");
+            result.append(relative.getCalled());
+            result.append(" sites. ");
+            result.append(getRelationship(relative));
+            result.append('\n');
+        }
+        result.append("Count of related pairs of samples: ");
+        result.append(relatives.size());
+        result.append("\n");
+        return result.toString();
+    }
+
+    /**
+     * Infers the degree of the relationship of the pair of samples.
+     *
+     * @param result Result of the comparison.
+     * @return Relationship, or null, if the samples are unrelated.
+     */
+    private static String getRelationship(KinshipComparisonResult result) {
+        double kinship = result.getKinship();
+        if (kinship >= DUPLICATE_KINSHIP) {
+            return "Duplicates or monozygotic twins.";
+        } else if (kinship >= FIRST_DEGREE_KINSHIP) {
+            // parent and child share one allele in every site, unlike the siblings
+            return result.getCalled() > 0 && (double) result.getIBS0() / result.getCalled() <= PARENT_CHILD_IBS0 ? "Parent and child." : "Full siblings.";
+        } else if (kinship >= SECOND_DEGREE_KINSHIP) {
+            return "Second-degree relatives.";
+        } else if (kinship >= THIRD_DEGREE_KINSHIP) {
+            return "Third-degree relatives.";
+        }
+        return null;
+    }
+}
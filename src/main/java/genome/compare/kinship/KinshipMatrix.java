@@ -0,0 +1,229 @@
+/*
+ * MIT License
+ * <p>
+ * Copyright (c) 2019-present Polina Bevad, Sergey Hvatov, Vladislav Marchenko
+ * <p>
+ * Permission is hereby granted, free of charge, to any person obtaining a copy
+ * of this software and associated documentation files (the "Software"), to deal
+ * in the Software without restriction, including without limitation the rights
+ * to use, copy, modify, merge, publish, distribute, sublicense, and/or sell
+ * copies of the Software, and to permit persons to whom the Software is
+ * furnished to do so, subject to the following conditions:
+ * <p>
+ * The above copyright notice and this permission notice shall be included in all
+ * copies or substantial portions of the Software.
+ * <p>
+ * THE SOFTWARE IS PROVIDED "AS IS", WITHOUT WARRANTY OF ANY KIND, EXPRESS OR
+ * IMPLIED, INCLUDING BUT NOT LIMITED TO THE WARRANTIES OF MERCHANTABILITY,
+ * FITNESS FOR A PARTICULAR PURPOSE AND NONINFRINGEMENT. IN NO EVENT SHALL THE
+ * AUTHORS OR COPYRIGHT HOLDERS BE LIABLE FOR ANY CLAIM, DAMAGES OR OTHER
+ * LIABILITY, WHETHER IN AN ACTION OF CONTRACT, TORT OR OTHERWISE, ARISING FROM,
+ * OUT OF OR IN CONNECTION WITH THE SOFTWARE OR THE USE OR OTHER DEALINGS IN THE
+ * SOFTWARE.
+ */
+
+package genome.compare.kinship;
+
+import exception.GenomeException;
+import exception.GenomeFileException;
+
+import java.io.*;
+import java.nio.ByteBuffer;
+import java.nio.channels.FileChannel;
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.List;
+
+/**
+ * Symmetric matrix of the kinship coefficients and the IBS0 counts of the cohort.
+ * The binary file of the matrix has the fixed layout, so it can be memory-mapped:
+ * header (magic, version, number of the samples N, reserved int), N x N float kinship
+ * coefficients and N x N int IBS0 counts in the row-major order (big-endian), followed by
+ * the names of the samples. The element (i, j) of the kinship matrix is at the offset
+ * {@code 16 + 4 * (i * N + j)}.
+ *
+ * @author Sergey Khvatov
+ */
+public class KinshipMatrix {
+
+    /**
+     * Extension of the file with the matrix.
+     */
+    public static final String EXTENSION = ".kin";
+
+    /**
+     * Magic number of the file with the matrix.
+     */
+    static final int MAGIC = 0x4B494E47;
+
+    /**
+     * Version of the file format.
+     */
+    static final int VERSION = 1;
+
+    /**
+     * Size of the header of the file in bytes.
+     */
+    static final int HEADER_SIZE = 4 * Integer.BYTES;
+
+    /**
+     * Names of the samples.
+     */
+    private final List<String> names;
+
+    /**
+     * Kinship coefficients and IBS0 counts, in the layout of the file without the header.
+     */
+    private final ByteBuffer data;
+
+    /**
+     * Creates the matrix, where the kinship coefficients of the different samples are 0,
+     * and of the same sample are 0.5.
+     *
+     * @param names Names of the samples.
+     */
+    public KinshipMatrix(List<String> names) {
+        this(names, ByteBuffer.allocate(2 * 4 * names.size() * names.size()));
+        for (int i = 0; i < names.size(); i++) {
+            data.putFloat(kinshipOffset(i, i), 0.5f);
+        }
+    }
+
+    /**
+     * Creates the matrix from the data.
+     *
+     * @param names Names of the samples.
+     * @param data  Kinship coefficients and IBS0 counts.
+     */
+    private KinshipMatrix(List<String> names, ByteBuffer data) {
+        this.names = names;
+        this.data = data;
+    }
+
+    /**
+     * Sets the kinship coefficient and the IBS0 count of the pair of the samples.
+     *
+     * @param first   Index of the first sample.
+     * @param second  Index of the second sample.
+     * @param kinship Kinship coefficient.
+     * @param ibs0    Number of the IBS0 sites.
+     * @throws GenomeException if the matrix is read-only.
+     */
+    public void set(int first, int second, float kinship, int ibs0) {
+        if (data.isReadOnly()) {
+            throw new GenomeException(this.getClass().getName(), "set", "matrix is read-only");
+        }
+        data.putFloat(kinshipOffset(first, second), kinship);
+        data.putFloat(kinshipOffset(second, first), kinship);
+        data.putInt(ibs0Offset(first, second), ibs0);
+        data.putInt(ibs0Offset(second, first), ibs0);
+    }
+
+    /**
+     * @param first  Index of the first sample.
+     * @param second Index of the second sample.
+     * @return kinship coefficient of the samples.
+     */
+    public float getKinship(int first, int second) {
+        return data.getFloat(kinshipOffset(first, second));
+    }
+
+    /**
+     * @param first  Index of the first sample.
+     * @param second Index of the second sample.
+     * @return number of the IBS0 sites of the samples.
+     */
+    public int getIBS0(int first, int second) {
+        return data.getInt(ibs0Offset(first, second));
+    }
+
+    /**
+     * @return names of the samples.
+     */
+    public List<String> getNames() {
+        return Collections.unmodifiableList(names);
+    }
+
+    /**
+     * @return number of the samples.
+     */
+    public int size() {
+        return names.size();
+    }
+
+    /**
+     * Writes the matrix to the file.
+     *
+     * @param file Output file.
+     * @throws GenomeFileException if error occurs while writing.
+     */
+    public void write(File file) {
+        try (DataOutputStream out = new DataOutputStream(new BufferedOutputStream(new FileOutputStream(file)))) {
+            out.writeInt(MAGIC);
+            out.writeInt(VERSION);
+            out.writeInt(names.size());
+            out.writeInt(0);
+            ByteBuffer copy = data.duplicate();
+            copy.clear();
+            byte[] buffer = new byte[8192];
+            while (copy.hasRemaining()) {
+                int length = Math.min(buffer.length, copy.remaining());
+                copy.get(buffer, 0, length);
+                out.write(buffer, 0, length);
+            }
+            for (String name : names) {
+                out.writeUTF(name);
+            }
+        } catch (IOException ioex) {
+            GenomeFileException gfex = new GenomeFileException(KinshipMatrix.class.getName(), "write", file.getPath(), ioex.getMessage());
+            gfex.initCause(ioex);
+            throw gfex;
+        }
+    }
+
+    /**
+     * Maps the matrix from the file, the coefficients are read from the file, when they are requested.
+     *
+     * @param file Input file.
+     * @return Read-only matrix.
+     * @throws GenomeFileException if file is not a kinship matrix file or error occurs while reading.
+     */
+    public static KinshipMatrix map(File file) {
+        try (RandomAccessFile raf = new RandomAccessFile(file, "r")) {
+            if (raf.readInt() != MAGIC || raf.readInt() != VERSION) {
+                throw new GenomeFileException(KinshipMatrix.class.getName(), "map", file.getPath(), "not a kinship matrix file");
+            }
+            int size = raf.readInt();
+            long dataSize = 2L * 4 * size * size;
+            ByteBuffer data = raf.getChannel().map(FileChannel.MapMode.READ_ONLY, HEADER_SIZE, dataSize);
+            raf.seek(HEADER_SIZE + dataSize);
+            List<String> names = new ArrayList<>(size);
+            for (int i = 0; i < size; i++) {
+                names.add(raf.readUTF());
+            }
+            return new KinshipMatrix(names, data);
+        } catch (IOException | IllegalArgumentException ex) {
+            GenomeFileException gfex = new GenomeFileException(KinshipMatrix.class.getName(), "map", file.getPath(), ex.getMessage());
+            gfex.initCause(ex);
+            throw gfex;
+        }
+    }
+
+    /**
+     * @param first  Index of the first sample.
+     * @param second Index of the second sample.
+     * @return offset of the kinship coefficient in the data.
+     */
+    private int kinshipOffset(int first, int second) {
+        return 4 * (first * names.size() + second);
+    }
+
+    /**
+     * @param first  Index of the first sample.
+     * @param second Index of the second sample.
+     * @return offset of the IBS0 count in the data.
+     */
+    private int ibs0Offset(int first, int second) {
+        return 4 * (names.size() * names.size() + first * names.size() + second);
+    }
+}
@@ -0,0 +1,107 @@
+/*
+ * MIT License
+ * <p>
+ * Copyright (c) 2019-present Polina Bevad, Sergey Hvatov, Vladislav Marchenko
+ * <p>
+ * Permission is hereby granted, free of charge, to any person obtaining a copy
+ * of this software and associated documentation files (the "Software"), to deal
+ * in the Software without restriction, including without limitation the rights
+ * to use, copy, modify, merge, publish, distribute, sublicense, and/or sell
+ * copies of the Software, and to permit persons to whom the Software is
+ * furnished to do so, subject to the following conditions:
+ * <p>
+ * The above copyright notice and this permission notice shall be included in all
+ * copies or substantial portions of the Software.
+ * <p>
+ * THE SOFTWARE IS PROVIDED "AS IS", WITHOUT WARRANTY OF ANY KIND, EXPRESS OR
+ * IMPLIED, INCLUDING BUT NOT LIMITED TO THE WARRANTIES OF MERCHANTABILITY,
+ * FITNESS FOR A PARTICULAR PURPOSE AND NONINFRINGEMENT. IN NO EVENT SHALL THE
+ * AUTHORS OR COPYRIGHT HOLDERS BE LIABLE FOR ANY CLAIM, DAMAGES OR OTHER
+ * LIABILITY, WHETHER IN AN ACTION OF CONTRACT, TORT OR OTHERWISE, ARISING FROM,
+ * OUT OF OR IN CONNECTION WITH THE SOFTWARE OR THE USE OR OTHER DEALINGS IN THE
+ * SOFTWARE.
+ */
+
+package genome.compare.levenshtein;
+
+/**
+ * Wavefront implementation of the Levenshtein distance calculation.
+ * Cells of the dynamic programming table are computed along the
+ * anti-diagonals (i + j = const), so the cells of one diagonal do not
+ * depend on each other. The second sequence is stored in the reversed order,
+ * so all the memory accesses of one diagonal are sequential.
+ * This is a scalar reference for the vectorized engine, which uses exactly the
+ * same memory layout.
+ *
+ * @author Sergey Khvatov
+ */
+public class AntiDiagonalLevenshteinEngine implements LevenshteinEngine {
+
+    /**
+     * Name of the engine.
+     */
+    public static final String NAME = "diagonal";
+
+    /**
+     * Calculates the Levenshtein distance between two nucleotide sequences.
+     *
+     * @param first  First nucleotide sequence.
+     * @param second Second nucleotide sequence.
+     * @return The distance between two sequences.
+     */
+    @Override
+    public int distance(String first, String second) {
+        int n = first.length(), m = second.length();
+        if (n == 0 || m == 0) {
+            return Math.max(n, m);
+        }
+
+        int[] a = LevenshteinBuffers.get(0, n);
+        for (int i = 0; i < n; i++) {
+            a[i] = first.charAt(i);
+        }
+        // reversed second sequence
+        int[] rb = LevenshteinBuffers.get(1, m);
+        for (int j = 0; j < m; j++) {
+            rb[j] = second.charAt(m - 1 - j);
+        }
+
+        // diagonals d - 2, d - 1 and d, indexed by the row number
+        // arrays are reused by the thread, so stale values may be stored in them,
+        // but only the cells, that were written on the previous diagonals, are read
+        int[] prev2 = LevenshteinBuffers.get(2, n + 1);
+        int[] prev1 = LevenshteinBuffers.get(3, n + 1);
+        int[] cur = LevenshteinBuffers.get(4, n + 1);
+
+        for (int d = 0; d <= n + m; d++) {
+            // inner cells of the diagonal: i >= 1 and j = d - i >= 1
+            int lo = Math.max(1, d - m), hi = Math.min(n, d - 1);
+            for (int i = lo; i <= hi; i++) {
+                int sub = prev2[i - 1] + (a[i - 1] == rb[m - d + i] ? 0 : 1);
+                cur[i] = Math.min(Math.min(prev1[i - 1], prev1[i]) + 1, sub);
+            }
+            // borders of the table
+            if (d <= m) {
+                cur[0] = d;
+            }
+            if (d <= n) {
+                cur[d] = d;
+            }
+
+            int[] temp = prev2;
+            prev2 = prev1;
+            prev1 = cur;
+            cur = temp;
+        }
+        // the last diagonal was moved into prev1
+        return prev1[n];
+    }
+
+    /**
+     * @return name of the engine.
+     */
+    @Override
+    public String getName() {
+        return NAME;
+    }
+}
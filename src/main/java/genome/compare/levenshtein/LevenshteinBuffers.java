@@ -0,0 +1,65 @@
+/*
+ * MIT License
+ * <p>
+ * Copyright (c) 2019-present Polina Bevad, Sergey Hvatov, Vladislav Marchenko
+ * <p>
+ * Permission is hereby granted, free of charge, to any person obtaining a copy
+ * of this software and associated documentation files (the "Software"), to deal
+ * in the Software without restriction, including without limitation the rights
+ * to use, copy, modify, merge, publish, distribute, sublicense, and/or sell
+ * copies of the Software, and to permit persons to whom the Software is
+ * furnished to do so, subject to the following conditions:
+ * <p>
+ * The above copyright notice and this permission notice shall be included in all
+ * copies or substantial portions of the Software.
+ * <p>
+ * THE SOFTWARE IS PROVIDED "AS IS", WITHOUT WARRANTY OF ANY KIND, EXPRESS OR
+ * IMPLIED, INCLUDING BUT NOT LIMITED TO THE WARRANTIES OF MERCHANTABILITY,
+ * FITNESS FOR A PARTICULAR PURPOSE AND NONINFRINGEMENT. IN NO EVENT SHALL THE
+ * AUTHORS OR COPYRIGHT HOLDERS BE LIABLE FOR ANY CLAIM, DAMAGES OR OTHER
+ * LIABILITY, WHETHER IN AN ACTION OF CONTRACT, TORT OR OTHERWISE, ARISING FROM,
+ * OUT OF OR IN CONNECTION WITH THE SOFTWARE OR THE USE OR OTHER DEALINGS IN THE
+ * SOFTWARE.
+ */
+
+package genome.compare.levenshtein;
+
+/**
+ * Per-thread storage of the arrays used by the {@link LevenshteinEngine}
+ * implementations. Comparisons of the regions are executed by the same worker
+ * threads many times in a row, so the dynamic programming tables are allocated
+ * once per thread and only grow when a longer sequence appears.
+ *
+ * @author Sergey Khvatov
+ */
+final class LevenshteinBuffers {
+
+    /**
+     * Number of arrays, that can be requested by the engine.
+     */
+    static final int SLOTS = 5;
+
+    /**
+     * Buffers of the current thread.
+     */
+    private static final ThreadLocal<int[][]> BUFFERS = ThreadLocal.withInitial(() -> new int[SLOTS][0]);
+
+    private LevenshteinBuffers() {
+    }
+
+    /**
+     * Returns the array of the current thread with at least the
+     * requested size. Content of the array is not cleared.
+     *
+     * @param slot Index of the array in the range [0, SLOTS).
+     * @param size Minimal size of the array.
+     * @return array of the current thread.
+     */
+    static int[] get(int slot, int size) {
+        int[][] buffers = BUFFERS.get();
+        if (buffers[slot].length < size) {
+            buffers[slot] = new int[Math.max(size, buffers[slot].length * 2)];
+        }
+        return buffers[slot];
+    }
+}
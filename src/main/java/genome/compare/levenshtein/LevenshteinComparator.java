@@ -29,8 +29,6 @@ import genome.assembly.GenomeRegion;
 import genome.compare.common.GenomeComparator;
 import util.Pair;
 
-import java.util.Arrays;
-
 /**
  * Implements algorithm for Levenshtein distance calculation
  * to compare genomes.
@@ -44,14 +42,33 @@ public class LevenshteinComparator extends GenomeComparator {
      */
     private static final char UNKNOWN_NUCLEOTIDE = '*';
 
+    /**
+     * Engine, that calculates the distance.
+     */
+    private LevenshteinEngine engine;
+
     /**
      * Default class constructor from genomes of two people.
+     * Uses the engine returned by {@link LevenshteinEngines#getDefault()}.
      *
      * @param first  Genome of the first person.
      * @param second Genome of the second person.
      */
     public LevenshteinComparator(GenomeRegion first, GenomeRegion second) {
+        this(first, second, LevenshteinEngines.getDefault());
+    }
+
+    /**
+     * Creates the comparator from genomes of two people and
+     * the engine, that will calculate the distance.
+     *
+     * @param first  Genome of the first person.
+     * @param second Genome of the second person.
+     * @param engine Engine, that calculates the Levenshtein distance.
+     */
+    public LevenshteinComparator(GenomeRegion first, GenomeRegion second, LevenshteinEngine engine) {
         super(first, second);
+        this.engine = engine;
     }
 
     /**
@@ -69,24 +86,9 @@ public class LevenshteinComparator extends GenomeComparator {
         // save new genome sequences
         String f = temp.getKey(), s = temp.getValue();
 
-        // table for the further usage
-        int[] table = new int[s.length() + 1];
-        // fill the table
-        for (int l = 0; l < s.length() + 1; l++) {
-            table[l] = l;
-        }
+        // calculate the distance
+        int distance = engine.distance(f, s);
 
-        int[] current = new int[s.length() + 1];
-        for (int l = 1; l < f.length() + 1; l++) {
-            current[0] = l;
-            for (int k = 1; k < s.length() + 1; k++) {
-                // calculate the minimum between
-                // table[l][k-1] + 1, table[l-1][k] + 1
-                // and table[l - 1][k - 1] + (f.charAt(l) == s.charAt(k)
-                current[k] = Math.min(Math.min(current[k - 1] + 1, table[k] + 1), Math.min(table[k] + 1, table[k - 1] + ((f.charAt(l - 1) == s.charAt(k - 1)) ? 0 : 1)));
-            }
-            table = Arrays.copyOf(current, current.length);
-        }
         /*
          return difference between these two regions
          without considering unknown nucleotides.
@@ -94,7 +96,7 @@ public class LevenshteinComparator extends GenomeComparator {
         // also, after validation we consider that the
         // start positions and the names of chromosomes and genes in these two regions
         // are the same.
-        return new LevenshteinComparisonResult(first.getChromName(), first.getGene(), current[s.length()], Math.max(f.length(), s.length()));
+        return new LevenshteinComparisonResult(first.getChromName(), first.getGene(), distance, Math.max(f.length(), s.length()));
     }
 
     /**
@@ -26,6 +26,7 @@ package genome.compare.levenshtein;
 
 import exception.GenomeException;
 import genome.compare.common.ComparisonResult;
+import util.ResultRecord;
 
 /**
  * This class contains the results of the comparison of
@@ -62,6 +63,13 @@ public class LevenshteinComparisonResult implements ComparisonResult {
      */
     private String gene;
 
+    /**
+     * Scale of the difference and length values. Is greater than 1,
+     * if they were calculated in the weighted units
+     * (see {@link WeightedLevenshteinComparator}).
+     */
+    private int scale;
+
     /**
      * Default class constructor from name of the distance,
      * that was used to calculate the distance between two genomes,
@@ -74,6 +82,25 @@ public class LevenshteinComparisonResult implements ComparisonResult {
      * @throws GenomeException if input values are lesser than 0 or the chromosome name is invalid.
      */
     public LevenshteinComparisonResult(String chrom, String gene, int difference, int len) {
+        this(chrom, gene, difference, len, 1);
+    }
+
+    /**
+     * Creates the result, which difference and length are
+     * measured in units scaled by the scale value.
+     *
+     * @param chrom      Name of the chromosome.
+     * @param gene       Name of the gene.
+     * @param difference Scaled difference value.
+     * @param len        Scaled length of the nucl. seq.
+     * @param scale      Scale of the values.
+     * @throws GenomeException if input values are lesser than 0 or scale is lesser than 1.
+     */
+    public LevenshteinComparisonResult(String chrom, String gene, int difference, int len, int scale) {
+        if (scale < 1) {
+            throw new GenomeException(this.getClass().getName(), "LevenshteinComparisonResult", "scale", "is lesser than 1");
+        }
+        this.scale = scale;
         this.chrom = chrom;
         this.gene = gene;
 
@@ -104,6 +131,13 @@ public class LevenshteinComparisonResult implements ComparisonResult {
         return sequenceLen;
     }
 
+    /**
+     * @return Scale of the difference and length values.
+     */
+    public int getScale() {
+        return scale;
+    }
+
     /**
      * Get the name of the chromosome.
      *
@@ -127,7 +161,27 @@ public class LevenshteinComparisonResult implements ComparisonResult {
      */
     public String getResults() {
         if (sequenceLen != 0)
-            return "Comparison result of gene " + gene + " from chromosome " + chrom + ": seqLength - " + sequenceLen + ", differences - " + difference + ", similarity percentage - " + (100d - ((double) difference / (double) sequenceLen) * 100d) + "%";
+            return "Comparison result of gene " + gene + " from chromosome " + chrom + ": seqLength - " + unscale(sequenceLen) + ", differences - " + unscale(difference) + ", similarity percentage - " + (100d - ((double) difference / (double) sequenceLen) * 100d) + "%";
         return "Nucleotide sequence consists of only UNKNOWN_NUCLEOTIDES";
     }
+
+    /**
+     * Converts the scaled value into the string.
+     *
+     * @param value Scaled value.
+     * @return String representation of the value in the nucleotide units.
+     */
+    private String unscale(int value) {
+        return scale == 1 ? String.valueOf(value) : String.valueOf((double) value / scale);
+    }
+
+    /**
+     * Returns the record of the region with the scaled difference and length.
+     *
+     * @return record with the results of the comparison.
+     */
+    @Override
+    public ResultRecord toRecord() {
+        return new ResultRecord("region").add("chrom", chrom).add("gene", gene).add("difference", difference).add("length", sequenceLen).add("scale", scale);
+    }
 }
@@ -34,6 +34,8 @@ import java.util.Collections;
 import java.util.List;
 import java.util.Map;
 import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ConcurrentMap;
+import java.util.concurrent.atomic.LongAdder;
 
 /**
  * This class analyze results of gene comparison of two persons(for Levenshtein comparator type)
@@ -54,9 +56,25 @@ public class LevenshteinComparisonResultAnalyzer implements ComparisonResultAnal
     private List<Pair<String, Double>> averageSimilarityValues = Collections.synchronizedList(new ArrayList<>());
 
     /**
-     * Concurrent Map of geneComparisonResults : key - chromosome name; value: Map of genes: key - gene name , value - Pair of differences and sequence length
+     * Accumulated differences and sequence length of one gene. Adders keep the
+     * cells of the threads apart, so concurrent adds to the same gene do not contend.
      */
-    private Map<String, Map<String, Pair<Integer, Integer>>> geneComparisonResults = new ConcurrentHashMap<>();
+    private static final class GeneAccumulator {
+        /**
+         * Sum of the differences.
+         */
+        private final LongAdder difference = new LongAdder();
+
+        /**
+         * Sum of the sequence lengths.
+         */
+        private final LongAdder length = new LongAdder();
+    }
+
+    /**
+     * Concurrent Map of geneComparisonResults : key - chromosome name; value: Map of genes: key - gene name , value - accumulated differences and sequence length
+     */
+    private ConcurrentMap<String, ConcurrentMap<String, GeneAccumulator>> geneComparisonResults = new ConcurrentHashMap<>();
 
     /**
      * Count of chromosomes which have minimum 99.7% of similarity
@@ -68,6 +86,11 @@ public class LevenshteinComparisonResultAnalyzer implements ComparisonResultAnal
      */
     private int nonSimilarityChromosomeCount = 0;
 
+    /**
+     * Scale of the differences and sequence lengths of the added results.
+     */
+    private volatile int scale = 1;
+
     /**
      * Method which returns List of two person similarities for each chromosomes
      *
@@ -92,23 +115,56 @@ public class LevenshteinComparisonResultAnalyzer implements ComparisonResultAnal
 
         // add results
         LevenshteinComparisonResult levenshteinComparisonResult = (LevenshteinComparisonResult) comparisonResult;
-        String chrom = levenshteinComparisonResult.getChromName();
-        String gene = levenshteinComparisonResult.getGene();
-        Integer diff = levenshteinComparisonResult.getDifference();
-        Integer len = levenshteinComparisonResult.getSequenceLen();
-        if (geneComparisonResults.containsKey(chrom)) {
-            Map<String, Pair<Integer, Integer>> chromComparisonResult = geneComparisonResults.get(chrom);
-            if (chromComparisonResult.containsKey(gene)) {
-                chromComparisonResult.get(gene).setKey(chromComparisonResult.get(gene).getKey() + diff);
-                chromComparisonResult.get(gene).setValue(chromComparisonResult.get(gene).getValue() + len);
-            } else {
-                chromComparisonResult.put(gene, new Pair<>(diff, len));
+        GeneAccumulator accumulator = getAccumulator(levenshteinComparisonResult.getChromName(), levenshteinComparisonResult.getGene());
+        accumulator.difference.add(levenshteinComparisonResult.getDifference());
+        accumulator.length.add(levenshteinComparisonResult.getSequenceLen());
+        scale = levenshteinComparisonResult.getScale();
+    }
+
+    /**
+     * Method for adding all the results of other analyzer.
+     *
+     * @param other Analyzer, which results are added.
+     * @throws GenomeException if other is not an instance of {@link LevenshteinComparisonResultAnalyzer}.
+     */
+    @Override
+    public void merge(ComparisonResultAnalyzer other) {
+        // check the type
+        if (!(other instanceof LevenshteinComparisonResultAnalyzer)) {
+            throw new GenomeException(this.getClass().getName(), "merge", "analyzer variable has incorrect type: " + other.getClass());
+        }
+
+        LevenshteinComparisonResultAnalyzer levenshteinAnalyzer = (LevenshteinComparisonResultAnalyzer) other;
+        for (Map.Entry<String, ConcurrentMap<String, GeneAccumulator>> chrom : levenshteinAnalyzer.geneComparisonResults.entrySet()) {
+            for (Map.Entry<String, GeneAccumulator> gene : chrom.getValue().entrySet()) {
+                GeneAccumulator accumulator = getAccumulator(chrom.getKey(), gene.getKey());
+                accumulator.difference.add(gene.getValue().difference.sum());
+                accumulator.length.add(gene.getValue().length.sum());
             }
-        } else {
-            Map<String, Pair<Integer, Integer>> currentGene = new ConcurrentHashMap<>();
-            currentGene.put(gene, new Pair<>(diff, len));
-            geneComparisonResults.put(chrom, currentGene);
         }
+        if (!levenshteinAnalyzer.geneComparisonResults.isEmpty()) {
+            scale = levenshteinAnalyzer.scale;
+        }
+    }
+
+    /**
+     * Returns the accumulator of the gene, creating it atomically on the first add.
+     * Lookup goes first, because computeIfAbsent locks the bin even if the key is present.
+     *
+     * @param chrom Name of the chromosome.
+     * @param gene  Name of the gene.
+     * @return Accumulator of the gene.
+     */
+    private GeneAccumulator getAccumulator(String chrom, String gene) {
+        ConcurrentMap<String, GeneAccumulator> chromComparisonResult = geneComparisonResults.get(chrom);
+        if (chromComparisonResult == null) {
+            chromComparisonResult = geneComparisonResults.computeIfAbsent(chrom, c -> new ConcurrentHashMap<>());
+        }
+        GeneAccumulator accumulator = chromComparisonResult.get(gene);
+        if (accumulator == null) {
+            accumulator = chromComparisonResult.computeIfAbsent(gene, g -> new GeneAccumulator());
+        }
+        return accumulator;
     }
 
     /**
@@ -145,7 +201,8 @@ public class LevenshteinComparisonResultAnalyzer implements ComparisonResultAnal
             result.append(averageSimilarityValue.getValue());
             result.append("%\n");
             result.append("\tNumber of nucleotides compared: ");
-            result.append(getSumSeqLengthFromChrom(geneComparisonResults.get(averageSimilarityValue.getKey())));
+            long seqLength = getSumSeqLengthFromChrom(geneComparisonResults.get(averageSimilarityValue.getKey()));
+            result.append(scale == 1 ? String.valueOf(seqLength) : String.valueOf((double) seqLength / scale));
             result.append("\n");
             result.append(getGeneComparisonResultsString(averageSimilarityValue.getKey()));
         }
@@ -166,12 +223,12 @@ public class LevenshteinComparisonResultAnalyzer implements ComparisonResultAnal
      */
     private String getGeneComparisonResultsString(String chrName) {
         StringBuilder result = new StringBuilder("\tSimilarity percentage for each gene from this chromosome:\n");
-        Map<String, Pair<Integer, Integer>> currentGenes = geneComparisonResults.get(chrName);
-        for (String gene : currentGenes.keySet()) {
+        Map<String, GeneAccumulator> currentGenes = geneComparisonResults.get(chrName);
+        for (Map.Entry<String, GeneAccumulator> gene : currentGenes.entrySet()) {
             result.append("\t\tName of gene: ");
-            result.append(gene);
+            result.append(gene.getKey());
             result.append(". Similarity percentage: ");
-            result.append(getAverageSimilarity(currentGenes.get(gene).getKey(), currentGenes.get(gene).getValue()));
+            result.append(getAverageSimilarity(gene.getValue().difference.sum(), gene.getValue().length.sum()));
             result.append("%\n");
         }
         return result.toString();
@@ -180,14 +237,11 @@ public class LevenshteinComparisonResultAnalyzer implements ComparisonResultAnal
     /**
      * Method which find an average value of similarities
      *
-     * @param chrom - all genes from chromosome- Map : key - name of gene ; value - Pair of differences and sequence length;
+     * @param chrom - all genes from chromosome- Map : key - name of gene ; value - accumulated differences and sequence length;
      * @return average value of similarities
      */
-    private Double getAverageSimilarity(Map<String, Pair<Integer, Integer>> chrom) {
-        if (getSumSeqLengthFromChrom(chrom) != 0) {
-            return 100d - ((double) getSumDiffFromChrom(chrom) / (double) getSumSeqLengthFromChrom(chrom)) * 100d;
-        }
-        return 0d;
+    private Double getAverageSimilarity(Map<String, GeneAccumulator> chrom) {
+        return getAverageSimilarity(getSumDiffFromChrom(chrom), getSumSeqLengthFromChrom(chrom));
     }
 
     /**
@@ -197,7 +251,7 @@ public class LevenshteinComparisonResultAnalyzer implements ComparisonResultAnal
      * @param seqLen length of gene
      * @return average value of similarities
      */
-    private Double getAverageSimilarity(int diff, int seqLen) {
+    private Double getAverageSimilarity(long diff, long seqLen) {
         if (seqLen != 0) {
             return 100d - ((double) diff / (double) seqLen) * 100d;
         }
@@ -210,8 +264,8 @@ public class LevenshteinComparisonResultAnalyzer implements ComparisonResultAnal
      * @param chrom Map of genes from the chromosome
      * @return total sequence length of chromosome
      */
-    private Integer getSumSeqLengthFromChrom(Map<String, Pair<Integer, Integer>> chrom) {
-        return chrom.keySet().stream().mapToInt(gene -> chrom.get(gene).getValue()).sum();
+    private long getSumSeqLengthFromChrom(Map<String, GeneAccumulator> chrom) {
+        return chrom.values().stream().mapToLong(gene -> gene.length.sum()).sum();
     }
 
     /**
@@ -220,8 +274,8 @@ public class LevenshteinComparisonResultAnalyzer implements ComparisonResultAnal
      * @param chrom Map of genes from the chromosome
      * @return total difference count of chromosome
      */
-    private Integer getSumDiffFromChrom(Map<String, Pair<Integer, Integer>> chrom) {
-        return chrom.keySet().stream().mapToInt(gene -> chrom.get(gene).getKey()).sum();
+    private long getSumDiffFromChrom(Map<String, GeneAccumulator> chrom) {
+        return chrom.values().stream().mapToLong(gene -> gene.difference.sum()).sum();
     }
 }
 
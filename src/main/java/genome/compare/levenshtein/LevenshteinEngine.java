@@ -0,0 +1,51 @@
+/*
+ * MIT License
+ * <p>
+ * Copyright (c) 2019-present Polina Bevad, Sergey Hvatov, Vladislav Marchenko
+ * <p>
+ * Permission is hereby granted, free of charge, to any person obtaining a copy
+ * of this software and associated documentation files (the "Software"), to deal
+ * in the Software without restriction, including without limitation the rights
+ * to use, copy, modify, merge, publish, distribute, sublicense, and/or sell
+ * copies of the Software, and to permit persons to whom the Software is
+ * furnished to do so, subject to the following conditions:
+ * <p>
+ * The above copyright notice and this permission notice shall be included in all
+ * copies or substantial portions of the Software.
+ * <p>
+ * THE SOFTWARE IS PROVIDED "AS IS", WITHOUT WARRANTY OF ANY KIND, EXPRESS OR
+ * IMPLIED, INCLUDING BUT NOT LIMITED TO THE WARRANTIES OF MERCHANTABILITY,
+ * FITNESS FOR A PARTICULAR PURPOSE AND NONINFRINGEMENT. IN NO EVENT SHALL THE
+ * AUTHORS OR COPYRIGHT HOLDERS BE LIABLE FOR ANY CLAIM, DAMAGES OR OTHER
+ * LIABILITY, WHETHER IN AN ACTION OF CONTRACT, TORT OR OTHERWISE, ARISING FROM,
+ * OUT OF OR IN CONNECTION WITH THE SOFTWARE OR THE USE OR OTHER DEALINGS IN THE
+ * SOFTWARE.
+ */
+
+package genome.compare.levenshtein;
+
+/**
+ * Interface of all the algorithms that are used to calculate
+ * the Levenshtein distance between two nucleotide sequences.
+ * Implementations must be stateless or thread-safe, because one
+ * engine object is shared by all the comparators.
+ *
+ * @author Sergey Khvatov
+ */
+public interface LevenshteinEngine {
+
+    /**
+     * Calculates the Levenshtein distance between two nucleotide sequences.
+     *
+     * @param first  First nucleotide sequence.
+     * @param second Second nucleotide sequence.
+     * @return Minimal number of insertions, deletions and substitutions
+     * required to transform the first sequence into the second one.
+     */
+    int distance(String first, String second);
+
+    /**
+     * @return name of the engine, that can be used to select it.
+     */
+    String getName();
+}
@@ -0,0 +1,151 @@
+/*
+ * MIT License
+ * <p>
+ * Copyright (c) 2019-present Polina Bevad, Sergey Hvatov, Vladislav Marchenko
+ * <p>
+ * Permission is hereby granted, free of charge, to any person obtaining a copy
+ * of this software and associated documentation files (the "Software"), to deal
+ * in the Software without restriction, including without limitation the rights
+ * to use, copy, modify, merge, publish, distribute, sublicense, and/or sell
+ * copies of the Software, and to permit persons to whom the Software is
+ * furnished to do so, subject to the following conditions:
+ * <p>
+ * The above copyright notice and this permission notice shall be included in all
+ * copies or substantial portions of the Software.
+ * <p>
+ * THE SOFTWARE IS PROVIDED "AS IS", WITHOUT WARRANTY OF ANY KIND, EXPRESS OR
+ * IMPLIED, INCLUDING BUT NOT LIMITED TO THE WARRANTIES OF MERCHANTABILITY,
+ * FITNESS FOR A PARTICULAR PURPOSE AND NONINFRINGEMENT. IN NO EVENT SHALL THE
+ * AUTHORS OR COPYRIGHT HOLDERS BE LIABLE FOR ANY CLAIM, DAMAGES OR OTHER
+ * LIABILITY, WHETHER IN AN ACTION OF CONTRACT, TORT OR OTHERWISE, ARISING FROM,
+ * OUT OF OR IN CONNECTION WITH THE SOFTWARE OR THE USE OR OTHER DEALINGS IN THE
+ * SOFTWARE.
+ */
+
+package genome.compare.levenshtein;
+
+import exception.GenomeException;
+import org.apache.logging.log4j.LogManager;
+import org.apache.logging.log4j.Logger;
+
+/**
+ * Selects the {@link LevenshteinEngine}, that is used by the {@link LevenshteinComparator}.
+ * The engine can be chosen using the {@link #ENGINE_PROPERTY} system property:
+ * "scalar", "diagonal", "vector" or "auto" (default). The vectorized engine is built
+ * from a separate source set and requires a JDK with the jdk.incubator.vector module,
+ * so if it can not be loaded the scalar engine is used instead.
+ *
+ * @author Sergey Khvatov
+ */
+public final class LevenshteinEngines {
+
+    /**
+     * Name of the system property, that defines the engine.
+     */
+    public static final String ENGINE_PROPERTY = "bio_relatives.levenshtein.engine";
+
+    /**
+     * Name of the engine that is selected automatically.
+     */
+    public static final String AUTO = "auto";
+
+    /**
+     * Name of the vectorized engine.
+     */
+    public static final String VECTOR = "vector";
+
+    /**
+     * Name of the class of the vectorized engine.
+     */
+    private static final String VECTOR_ENGINE_CLASS = "genome.compare.levenshtein.VectorLevenshteinEngine";
+
+    /**
+     * Logger that is used to write down the information about selected engine.
+     */
+    private static final Logger engineLogger = LogManager.getLogger(LevenshteinEngines.class);
+
+    /**
+     * Holder of the engine, that is used by default: it is selected, when it is used for the first time.
+     */
+    private static final class DefaultEngine {
+
+        private static final LevenshteinEngine ENGINE = selectDefault();
+    }
+
+    private LevenshteinEngines() {
+    }
+
+    /**
+     * @return engine, that was selected using the {@link #ENGINE_PROPERTY} property.
+     */
+    public static LevenshteinEngine getDefault() {
+        return DefaultEngine.ENGINE;
+    }
+
+    /**
+     * Selects the engine by the {@link #ENGINE_PROPERTY} property. Unknown name of the engine
+     * is reported and the engine is selected automatically, so the error of the initialization
+     * of the class does not hide it.
+     *
+     * @return engine object.
+     */
+    private static LevenshteinEngine selectDefault() {
+        String name = System.getProperty(ENGINE_PROPERTY, AUTO);
+        try {
+            return forName(name);
+        } catch (GenomeException gex) {
+            engineLogger.warn("Unknown Levenshtein engine is set by the " + ENGINE_PROPERTY + " property: " + name + ", it is selected automatically");
+            return forName(AUTO);
+        }
+    }
+
+    /**
+     * Creates the engine by its name.
+     *
+     * @param name Name of the engine.
+     * @return engine object. If vectorized engine was requested, but it is not
+     * supported by the current JDK, the scalar one is returned.
+     * @throws GenomeException if unknown name was passed.
+     */
+    public static LevenshteinEngine forName(String name) {
+        switch (name.toLowerCase()) {
+            case ScalarLevenshteinEngine.NAME:
+                return new ScalarLevenshteinEngine();
+            case AntiDiagonalLevenshteinEngine.NAME:
+                return new AntiDiagonalLevenshteinEngine();
+            case VECTOR:
+            case AUTO:
+                LevenshteinEngine engine = loadVectorEngine();
+                return engine != null ? engine : new ScalarLevenshteinEngine();
+            default:
+                throw new GenomeException(LevenshteinEngines.class.getName(), "forName", "name", "unknown Levenshtein engine: " + name);
+        }
+    }
+
+    /**
+     * Checks whether vectorized engine can be used.
+     *
+     * @return True, if the vectorized engine is on the classpath and
+     * the jdk.incubator.vector module is available, false otherwise.
+     */
+    public static boolean isVectorEngineAvailable() {
+        return loadVectorEngine() != null;
+    }
+
+    /**
+     * Loads the vectorized engine.
+     *
+     * @return engine object or null if it can not be loaded.
+     */
+    private static LevenshteinEngine loadVectorEngine() {
+        try {
+            LevenshteinEngine engine = (LevenshteinEngine) Class.forName(VECTOR_ENGINE_CLASS).newInstance();
+            // check that the vector API really works
+            engine.distance("A", "C");
+            return engine;
+        } catch (ReflectiveOperationException | LinkageError ex) {
+            engineLogger.debug("Vectorized Levenshtein engine is not available, using scalar one: " + ex);
+            return null;
+        }
+    }
+}
@@ -0,0 +1,83 @@
+/*
+ * MIT License
+ * <p>
+ * Copyright (c) 2019-present Polina Bevad, Sergey Hvatov, Vladislav Marchenko
+ * <p>
+ * Permission is hereby granted, free of charge, to any person obtaining a copy
+ * of this software and associated documentation files (the "Software"), to deal
+ * in the Software without restriction, including without limitation the rights
+ * to use, copy, modify, merge, publish, distribute, sublicense, and/or sell
+ * copies of the Software, and to permit persons to whom the Software is
+ * furnished to do so, subject to the following conditions:
+ * <p>
+ * The above copyright notice and this permission notice shall be included in all
+ * copies or substantial portions of the Software.
+ * <p>
+ * THE SOFTWARE IS PROVIDED "AS IS", WITHOUT WARRANTY OF ANY KIND, EXPRESS OR
+ * IMPLIED, INCLUDING BUT NOT LIMITED TO THE WARRANTIES OF MERCHANTABILITY,
+ * FITNESS FOR A PARTICULAR PURPOSE AND NONINFRINGEMENT. IN NO EVENT SHALL THE
+ * AUTHORS OR COPYRIGHT HOLDERS BE LIABLE FOR ANY CLAIM, DAMAGES OR OTHER
+ * LIABILITY, WHETHER IN AN ACTION OF CONTRACT, TORT OR OTHERWISE, ARISING FROM,
+ * OUT OF OR IN CONNECTION WITH THE SOFTWARE OR THE USE OR OTHER DEALINGS IN THE
+ * SOFTWARE.
+ */
+
+package genome.compare.levenshtein;
+
+/**
+ * Classic row-by-row implementation of the Levenshtein distance
+ * calculation. Keeps only two rows of the dynamic programming table.
+ * Works on every JDK and is used as a fallback engine.
+ *
+ * @author Sergey Khvatov
+ */
+public class ScalarLevenshteinEngine implements LevenshteinEngine {
+
+    /**
+     * Name of the engine.
+     */
+    public static final String NAME = "scalar";
+
+    /**
+     * Calculates the Levenshtein distance between two nucleotide sequences.
+     *
+     * @param first  First nucleotide sequence.
+     * @param second Second nucleotide sequence.
+     * @return The distance between two sequences.
+     */
+    @Override
+    public int distance(String first, String second) {
+        // previous row of the table
+        int[] table = LevenshteinBuffers.get(0, second.length() + 1);
+        // fill the first row
+        for (int l = 0; l < second.length() + 1; l++) {
+            table[l] = l;
+        }
+
+        // current row of the table
+        int[] current = LevenshteinBuffers.get(1, second.length() + 1);
+        for (int l = 1; l < first.length() + 1; l++) {
+            current[0] = l;
+            char f = first.charAt(l - 1);
+            for (int k = 1; k < second.length() + 1; k++) {
+                // calculate the minimum between the insertion (current[k - 1] + 1),
+                // the deletion (table[k] + 1) and the substitution or the match
+                // (table[k - 1] + 1 or + 0), where table is the previous row
+                current[k] = Math.min(Math.min(current[k - 1] + 1, table[k] + 1), table[k - 1] + ((f == second.charAt(k - 1)) ? 0 : 1));
+            }
+            // swap the rows instead of copying them
+            int[] temp = table;
+            table = current;
+            current = temp;
+        }
+        return table[second.length()];
+    }
+
+    /**
+     * @return name of the engine.
+     */
+    @Override
+    public String getName() {
+        return NAME;
+    }
+}
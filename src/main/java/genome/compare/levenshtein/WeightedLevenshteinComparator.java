@@ -0,0 +1,133 @@
+/*
+ * MIT License
+ * <p>
+ * Copyright (c) 2019-present Polina Bevad, Sergey Hvatov, Vladislav Marchenko
+ * <p>
+ * Permission is hereby granted, free of charge, to any person obtaining a copy
+ * of this software and associated documentation files (the "Software"), to deal
+ * in the Software without restriction, including without limitation the rights
+ * to use, copy, modify, merge, publish, distribute, sublicense, and/or sell
+ * copies of the Software, and to permit persons to whom the Software is
+ * furnished to do so, subject to the following conditions:
+ * <p>
+ * The above copyright notice and this permission notice shall be included in all
+ * copies or substantial portions of the Software.
+ * <p>
+ * THE SOFTWARE IS PROVIDED "AS IS", WITHOUT WARRANTY OF ANY KIND, EXPRESS OR
+ * IMPLIED, INCLUDING BUT NOT LIMITED TO THE WARRANTIES OF MERCHANTABILITY,
+ * FITNESS FOR A PARTICULAR PURPOSE AND NONINFRINGEMENT. IN NO EVENT SHALL THE
+ * AUTHORS OR COPYRIGHT HOLDERS BE LIABLE FOR ANY CLAIM, DAMAGES OR OTHER
+ * LIABILITY, WHETHER IN AN ACTION OF CONTRACT, TORT OR OTHERWISE, ARISING FROM,
+ * OUT OF OR IN CONNECTION WITH THE SOFTWARE OR THE USE OR OTHER DEALINGS IN THE
+ * SOFTWARE.
+ */
+
+package genome.compare.levenshtein;
+
+import exception.GenomeException;
+import genome.assembly.GenomeRegion;
+import genome.compare.common.GenomeComparator;
+
+/**
+ * Implements the quality-weighted Levenshtein distance calculation.
+ * The cost of each operation depends on the qualities of the nucleotides:
+ * substitution costs the minimum of the weights of two nucleotides, insertion and deletion
+ * cost the weight of the inserted / deleted nucleotide. The weight of a nucleotide is its
+ * quality capped at {@link #MAX_QUALITY}, so a mismatch of two low quality nucleotides
+ * barely changes the result. Unknown nucleotides have zero quality, so they are free
+ * and don't have to be deleted from the sequences before the comparison.
+ * All the costs are integers scaled by {@link #MAX_QUALITY}.
+ *
+ * @author Sergey Khvatov
+ */
+public class WeightedLevenshteinComparator extends GenomeComparator {
+
+    /**
+     * Maximum quality, that is taken into account. Nucleotides with
+     * greater quality are considered to be reliable and cost 1.
+     */
+    public static final int MAX_QUALITY = 40;
+
+    /**
+     * Unknown nucleotide symbol.
+     */
+    private static final char UNKNOWN_NUCLEOTIDE = '*';
+
+    /**
+     * Default class constructor from genomes of two people.
+     *
+     * @param first  Genome of the first person.
+     * @param second Genome of the second person.
+     */
+    public WeightedLevenshteinComparator(GenomeRegion first, GenomeRegion second) {
+        super(first, second);
+    }
+
+    /**
+     * Calculates the quality-weighted Levenshtein distance.
+     *
+     * @return The result of the comparison. Difference and length of the
+     * sequence are scaled by {@link #MAX_QUALITY}.
+     * @throws GenomeException if exception is thrown in {@link LevenshteinComparisonResult}.
+     */
+    @Override
+    public LevenshteinComparisonResult compare() {
+        String f = first.getNucleotideSequence(), s = second.getNucleotideSequence();
+        byte[] fq = first.getQualities(), sq = second.getQualities();
+        int n = f.length(), m = s.length();
+
+        // weights of the nucleotides of the second sequence
+        int[] weights = LevenshteinBuffers.get(2, m);
+        for (int k = 0; k < m; k++) {
+            weights[k] = weight(s.charAt(k), sq[k]);
+        }
+
+        // first row of the table: insertion of the nucleotides
+        int[] table = LevenshteinBuffers.get(0, m + 1);
+        int[] current = LevenshteinBuffers.get(1, m + 1);
+        table[0] = 0;
+        for (int k = 1; k < m + 1; k++) {
+            table[k] = table[k - 1] + weights[k - 1];
+        }
+
+        // weighted length of the compared sequences
+        int length = 0;
+        for (int l = 1; l < n + 1; l++) {
+            char fn = f.charAt(l - 1);
+            int fw = weight(fn, fq[l - 1]);
+            current[0] = table[0] + fw;
+            for (int k = 1; k < m + 1; k++) {
+                int sw = weights[k - 1];
+                int sub = table[k - 1] + (fn == s.charAt(k - 1) ? 0 : Math.min(fw, sw));
+                current[k] = Math.min(Math.min(current[k - 1] + sw, table[k] + fw), sub);
+            }
+            length += l <= m ? Math.min(fw, weights[l - 1]) : fw;
+
+            int[] temp = table;
+            table = current;
+            current = temp;
+        }
+        // the rest of the longest sequence
+        for (int k = n; k < m; k++) {
+            length += weights[k];
+        }
+
+        // after validation we consider that the start positions and
+        // the names of chromosomes and genes in these two regions are the same.
+        return new LevenshteinComparisonResult(first.getChromName(), first.getGene(), table[m], length, MAX_QUALITY);
+    }
+
+    /**
+     * Calculates the weight of the nucleotide.
+     *
+     * @param nucleotide Nucleotide.
+     * @param quality    Quality of the nucleotide.
+     * @return Weight of the nucleotide in range [0, MAX_QUALITY].
+     */
+    private static int weight(char nucleotide, byte quality) {
+        if (nucleotide == UNKNOWN_NUCLEOTIDE || quality < 0) {
+            return 0;
+        }
+        return Math.min(quality, MAX_QUALITY);
+    }
+}
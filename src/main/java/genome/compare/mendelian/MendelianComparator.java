@@ -0,0 +1,105 @@
+/*
+ * MIT License
+ * <p>
+ * Copyright (c) 2019-present Polina Bevad, Sergey Hvatov, Vladislav Marchenko
+ * <p>
+ * Permission is hereby granted, free of charge, to any person obtaining a copy
+ * of this software and associated documentation files (the "Software"), to deal
+ * in the Software without restriction, including without limitation the rights
+ * to use, copy, modify, merge, publish, distribute, sublicense, and/or sell
+ * copies of the Software, and to permit persons to whom the Software is
+ * furnished to do so, subject to the following conditions:
+ * <p>
+ * The above copyright notice and this permission notice shall be included in all
+ * copies or substantial portions of the Software.
+ * <p>
+ * THE SOFTWARE IS PROVIDED "AS IS", WITHOUT WARRANTY OF ANY KIND, EXPRESS OR
+ * IMPLIED, INCLUDING BUT NOT LIMITED TO THE WARRANTIES OF MERCHANTABILITY,
+ * FITNESS FOR A PARTICULAR PURPOSE AND NONINFRINGEMENT. IN NO EVENT SHALL THE
+ * AUTHORS OR COPYRIGHT HOLDERS BE LIABLE FOR ANY CLAIM, DAMAGES OR OTHER
+ * LIABILITY, WHETHER IN AN ACTION OF CONTRACT, TORT OR OTHERWISE, ARISING FROM,
+ * OUT OF OR IN CONNECTION WITH THE SOFTWARE OR THE USE OR OTHER DEALINGS IN THE
+ * SOFTWARE.
+ */
+
+package genome.compare.mendelian;
+
+import bam.regular.BEDFeature;
+import exception.GenomeException;
+import genome.assembly.RegionPileup;
+
+/**
+ * Compares the alleles of the son with the alleles of the father and the mother
+ * in each position of the region in one pass through the three pileups and counts
+ * the Mendelian errors: the positions, where the son has the allele, that is present
+ * neither in the father, nor in the mother.
+ * Unlike the {@link genome.compare.common.GenomeComparator} implementations,
+ * it works with the pileups of three persons instead of two assembled regions.
+ *
+ * @author Sergey Khvatov
+ */
+public class MendelianComparator {
+
+    /**
+     * Corresponding BED file feature.
+     */
+    private BEDFeature feature;
+
+    /**
+     * Pileup of the son.
+     */
+    private RegionPileup son;
+
+    /**
+     * Pileup of the father.
+     */
+    private RegionPileup father;
+
+    /**
+     * Pileup of the mother.
+     */
+    private RegionPileup mother;
+
+    /**
+     * Default class constructor from the pileups of the region of three people.
+     *
+     * @param feature Corresponding BED file feature.
+     * @param son     Pileup of the son.
+     * @param father  Pileup of the father.
+     * @param mother  Pileup of the mother.
+     * @throws GenomeException if pileups have different lengths.
+     */
+    public MendelianComparator(BEDFeature feature, RegionPileup son, RegionPileup father, RegionPileup mother) {
+        if (son.length() != father.length() || son.length() != mother.length()) {
+            throw new GenomeException(this.getClass().getName(), "MendelianComparator", "son, father, mother", "failed the validation");
+        }
+        this.feature = feature;
+        this.son = son;
+        this.father = father;
+        this.mother = mother;
+    }
+
+    /**
+     * Counts the positions, where the alleles of all the persons were called,
+     * and the Mendelian errors among them.
+     *
+     * @return Results of the comparison.
+     */
+    public MendelianComparisonResult compare() {
+        int sites = 0;
+        int errors = 0;
+        for (int i = 0; i < son.length(); i++) {
+            int sonAlleles = son.getAlleles(i);
+            int fatherAlleles = father.getAlleles(i);
+            int motherAlleles = mother.getAlleles(i);
+            if (sonAlleles == RegionPileup.NO_CALL || fatherAlleles == RegionPileup.NO_CALL || motherAlleles == RegionPileup.NO_CALL) {
+                continue;
+            }
+            sites++;
+            if ((sonAlleles & ~(fatherAlleles | motherAlleles)) != 0) {
+                errors++;
+            }
+        }
+        return new MendelianComparisonResult(feature.getChromosomeName(), feature.getGene(), sites, errors);
+    }
+}
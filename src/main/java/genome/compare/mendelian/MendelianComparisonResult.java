@@ -0,0 +1,120 @@
+/*
+ * MIT License
+ * <p>
+ * Copyright (c) 2019-present Polina Bevad, Sergey Hvatov, Vladislav Marchenko
+ * <p>
+ * Permission is hereby granted, free of charge, to any person obtaining a copy
+ * of this software and associated documentation files (the "Software"), to deal
+ * in the Software without restriction, including without limitation the rights
+ * to use, copy, modify, merge, publish, distribute, sublicense, and/or sell
+ * copies of the Software, and to permit persons to whom the Software is
+ * furnished to do so, subject to the following conditions:
+ * <p>
+ * The above copyright notice and this permission notice shall be included in all
+ * copies or substantial portions of the Software.
+ * <p>
+ * THE SOFTWARE IS PROVIDED "AS IS", WITHOUT WARRANTY OF ANY KIND, EXPRESS OR
+ * IMPLIED, INCLUDING BUT NOT LIMITED TO THE WARRANTIES OF MERCHANTABILITY,
+ * FITNESS FOR A PARTICULAR PURPOSE AND NONINFRINGEMENT. IN NO EVENT SHALL THE
+ * AUTHORS OR COPYRIGHT HOLDERS BE LIABLE FOR ANY CLAIM, DAMAGES OR OTHER
+ * LIABILITY, WHETHER IN AN ACTION OF CONTRACT, TORT OR OTHERWISE, ARISING FROM,
+ * OUT OF OR IN CONNECTION WITH THE SOFTWARE OR THE USE OR OTHER DEALINGS IN THE
+ * SOFTWARE.
+ */
+
+package genome.compare.mendelian;
+
+import genome.compare.common.ComparisonResult;
+import util.ResultRecord;
+
+/**
+ * Contains the numbers of the positions of one region, where the alleles of
+ * the son, father and mother were called, and of the Mendelian errors among them.
+ *
+ * @author Sergey Khvatov
+ */
+public class MendelianComparisonResult implements ComparisonResult {
+
+    /**
+     * Name of the chromosome.
+     */
+    private String chrom;
+
+    /**
+     * Name of the gene.
+     */
+    private String gene;
+
+    /**
+     * Number of the positions, where the alleles of all the persons were called.
+     */
+    private int sites;
+
+    /**
+     * Number of the positions, where the son has the allele of neither parent.
+     */
+    private int errors;
+
+    /**
+     * Default class constructor.
+     *
+     * @param chrom  Name of the chromosome.
+     * @param gene   Name of the gene.
+     * @param sites  Number of the positions, where the alleles of all the persons were called.
+     * @param errors Number of the positions, where the son has the allele of neither parent.
+     */
+    public MendelianComparisonResult(String chrom, String gene, int sites, int errors) {
+        this.chrom = chrom;
+        this.gene = gene;
+        this.sites = sites;
+        this.errors = errors;
+    }
+
+    /**
+     * @return name of the chromosome.
+     */
+    public String getChromName() {
+        return chrom;
+    }
+
+    /**
+     * @return name of the gene.
+     */
+    public String getGene() {
+        return gene;
+    }
+
+    /**
+     * @return number of the positions, where the alleles of all the persons were called.
+     */
+    public int getSites() {
+        return sites;
+    }
+
+    /**
+     * @return number of the positions, where the son has the allele of neither parent.
+     */
+    public int getErrors() {
+        return errors;
+    }
+
+    /**
+     * Returns string representation of the results of the comparison.
+     *
+     * @return string representation of the results of the comparison.
+     */
+    @Override
+    public String getResults() {
+        return "Mendelian errors of gene " + gene + " of chromosome " + chrom + ": " + errors + " of " + sites + " sites";
+    }
+
+    /**
+     * Returns the record of the gene.
+     *
+     * @return record with the results of the comparison.
+     */
+    @Override
+    public ResultRecord toRecord() {
+        return new ResultRecord("mendelian").add("chrom", chrom).add("gene", gene).add("sites", sites).add("errors", errors);
+    }
+}
@@ -0,0 +1,119 @@
+/*
+ * MIT License
+ * <p>
+ * Copyright (c) 2019-present Polina Bevad, Sergey Hvatov, Vladislav Marchenko
+ * <p>
+ * Permission is hereby granted, free of charge, to any person obtaining a copy
+ * of this software and associated documentation files (the "Software"), to deal
+ * in the Software without restriction, including without limitation the rights
+ * to use, copy, modify, merge, publish, distribute, sublicense, and/or sell
+ * copies of the Software, and to permit persons to whom the Software is
+ * furnished to do so, subject to the following conditions:
+ * <p>
+ * The above copyright notice and this permission notice shall be included in all
+ * copies or substantial portions of the Software.
+ * <p>
+ * THE SOFTWARE IS PROVIDED "AS IS", WITHOUT WARRANTY OF ANY KIND, EXPRESS OR
+ * IMPLIED, INCLUDING BUT NOT LIMITED TO THE WARRANTIES OF MERCHANTABILITY,
+ * FITNESS FOR A PARTICULAR PURPOSE AND NONINFRINGEMENT. IN NO EVENT SHALL THE
+ * AUTHORS OR COPYRIGHT HOLDERS BE LIABLE FOR ANY CLAIM, DAMAGES OR OTHER
+ * LIABILITY, WHETHER IN AN ACTION OF CONTRACT, TORT OR OTHERWISE, ARISING FROM,
+ * OUT OF OR IN CONNECTION WITH THE SOFTWARE OR THE USE OR OTHER DEALINGS IN THE
+ * SOFTWARE.
+ */
+
+package genome.compare.mendelian;
+
+import exception.GenomeException;
+import genome.compare.common.ComparisonResult;
+import genome.compare.common.ComparisonResultAnalyzer;
+
+import java.util.Map;
+import java.util.concurrent.ConcurrentSkipListMap;
+
+/**
+ * This class analyzes the Mendelian errors of the trio.
+ * Every allele of the child is inherited from one of the parents,
+ * so the fraction of the Mendelian errors is close to zero for the real trio.
+ *
+ * @author Sergey Khvatov
+ */
+public class MendelianComparisonResultAnalyzer implements ComparisonResultAnalyzer {
+
+    /**
+     * Maximum fraction of the Mendelian errors in the real trio,
+     * that allows for the genotyping errors.
+     */
+    private static final double MAX_ERROR_RATE = 0.005d;
+
+    /**
+     * Results of the comparison: key - chromosome name, value - numbers of the sites and the errors.
+     */
+    private Map<String, long[]> results = new ConcurrentSkipListMap<>();
+
+    /**
+     * Adds the result of the comparison of the region.
+     *
+     * @param comparisonResult Result of the comparison.
+     * @throws GenomeException if comparisonResult is not an instance of {@link MendelianComparisonResult}.
+     */
+    @Override
+    public void add(ComparisonResult comparisonResult) {
+        if (!(comparisonResult instanceof MendelianComparisonResult)) {
+            throw new GenomeException(this.getClass().getName(), "add", "comparison result variable has incorrect type: " + comparisonResult.getClass());
+        }
+        MendelianComparisonResult result = (MendelianComparisonResult) comparisonResult;
+        results.merge(result.getChromName(), new long[]{result.getSites(), result.getErrors()}, (a, b) -> new long[]{a[0] + b[0], a[1] + b[1]});
+    }
+
+    /**
+     * Analyzes the results of the comparison.
+     *
+     * @return String with the results of the analysis.
+     */
+    @Override
+    public String analyze() {
+        StringBuilder result = new StringBuilder("Mendelian errors for each chromosome:\n");
+        long sites = 0;
+        long errors = 0;
+        for (Map.Entry<String, long[]> entry : results.entrySet()) {
+            long[] counts = entry.getValue();
+            result.append("\tName of chromosome: ");
+            result.append(entry.getKey());
+            result.append(". Sites: ");
+            result.append(counts[0]);
+            result.append(", Mendelian errors: ");
+            result.append(counts[1]);
+            result.append(". Error rate: ");
+            result.append(getErrorRate(counts[0], counts[1]));
+            result.append("\n");
+            sites += counts[0];
+            errors += counts[1];
+        }
+
+        result.append("Number of sites compared: ");
+        result.append(sites);
+        result.append("\nMendelian error rate: ");
+        result.append(getErrorRate(sites, errors));
+        result.append("\n");
+        if (sites == 0) {
+            result.append("There are no sites, that were called in all three genomes.\n");
+        } else if (getErrorRate(sites, errors) <= MAX_ERROR_RATE) {
+            result.append("The son may be the child of these father and mother.\n");
+        } else {
+            result.append("The son is not the child of both these father and mother.\n");
+        }
+        return result.toString();
+    }
+
+    /**
+     * Calculates the fraction of the Mendelian errors.
+     *
+     * @param sites  Number of the sites.
+     * @param errors Number of the errors.
+     * @return fraction of the errors, or 0, if there are no sites.
+     */
+    private static double getErrorRate(long sites, long errors) {
+        return sites == 0 ? 0d : (double) errors / sites;
+    }
+}
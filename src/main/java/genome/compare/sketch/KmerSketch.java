@@ -0,0 +1,317 @@
+/*
+ * MIT License
+ * <p>
+ * Copyright (c) 2019-present Polina Bevad, Sergey Hvatov, Vladislav Marchenko
+ * <p>
+ * Permission is hereby granted, free of charge, to any person obtaining a copy
+ * of this software and associated documentation files (the "Software"), to deal
+ * in the Software without restriction, including without limitation the rights
+ * to use, copy, modify, merge, publish, distribute, sublicense, and/or sell
+ * copies of the Software, and to permit persons to whom the Software is
+ * furnished to do so, subject to the following conditions:
+ * <p>
+ * The above copyright notice and this permission notice shall be included in all
+ * copies or substantial portions of the Software.
+ * <p>
+ * THE SOFTWARE IS PROVIDED "AS IS", WITHOUT WARRANTY OF ANY KIND, EXPRESS OR
+ * IMPLIED, INCLUDING BUT NOT LIMITED TO THE WARRANTIES OF MERCHANTABILITY,
+ * FITNESS FOR A PARTICULAR PURPOSE AND NONINFRINGEMENT. IN NO EVENT SHALL THE
+ * AUTHORS OR COPYRIGHT HOLDERS BE LIABLE FOR ANY CLAIM, DAMAGES OR OTHER
+ * LIABILITY, WHETHER IN AN ACTION OF CONTRACT, TORT OR OTHERWISE, ARISING FROM,
+ * OUT OF OR IN CONNECTION WITH THE SOFTWARE OR THE USE OR OTHER DEALINGS IN THE
+ * SOFTWARE.
+ */
+
+package genome.compare.sketch;
+
+import exception.GenomeException;
+
+import java.io.DataInput;
+import java.io.DataOutput;
+import java.io.IOException;
+import java.util.Arrays;
+
+/**
+ * Bottom-k MinHash sketch of the set of k-mers of the nucleotide sequences.
+ * Stores only the {@link #getSize()} smallest hash values of the canonical k-mers,
+ * which is enough to estimate the Jaccard similarity of two k-mer sets.
+ * All the values are kept in primitive arrays: new hashes are appended to a buffer,
+ * which is sorted and merged into the sketch when it is full.
+ *
+ * @author Sergey Khvatov
+ */
+public class KmerSketch {
+
+    /**
+     * Default length of the k-mer.
+     */
+    public static final int DEFAULT_K = 21;
+
+    /**
+     * Default number of hashes in the sketch.
+     */
+    public static final int DEFAULT_SIZE = 1024;
+
+    /**
+     * Maximum length of the k-mer, that fits into a long value.
+     */
+    private static final int MAX_K = 31;
+
+    /**
+     * Codes of the nucleotides, -1 for unknown ones.
+     */
+    private static final byte[] CODES = new byte[128];
+
+    static {
+        Arrays.fill(CODES, (byte) -1);
+        CODES['A'] = CODES['a'] = 0;
+        CODES['C'] = CODES['c'] = 1;
+        CODES['G'] = CODES['g'] = 2;
+        CODES['T'] = CODES['t'] = 3;
+    }
+
+    /**
+     * Length of the k-mer.
+     */
+    private final int k;
+
+    /**
+     * Number of hashes in the sketch.
+     */
+    private final int size;
+
+    /**
+     * Sorted unique hashes of the sketch.
+     */
+    private long[] hashes = new long[0];
+
+    /**
+     * Hashes, that were not merged into the sketch yet.
+     */
+    private long[] buffer;
+
+    /**
+     * Number of values in the buffer.
+     */
+    private int buffered = 0;
+
+    /**
+     * Hashes, that are greater or equal to this value, can not get into the sketch.
+     */
+    private long threshold = Long.MAX_VALUE;
+
+    /**
+     * Creates an empty sketch with default parameters.
+     */
+    public KmerSketch() {
+        this(DEFAULT_K, DEFAULT_SIZE);
+    }
+
+    /**
+     * Creates an empty sketch.
+     *
+     * @param k    Length of the k-mer.
+     * @param size Number of hashes in the sketch.
+     * @throws GenomeException if parameters are invalid.
+     */
+    public KmerSketch(int k, int size) {
+        if (k < 1 || k > MAX_K) {
+            throw new GenomeException(getClass().getName(), "KmerSketch", "k", "not in range [1, " + MAX_K + "]");
+        }
+        if (size < 1) {
+            throw new GenomeException(getClass().getName(), "KmerSketch", "size", "is lesser than 1");
+        }
+        this.k = k;
+        this.size = size;
+        this.buffer = new long[size * 4];
+    }
+
+    /**
+     * Adds all the k-mers of the nucleotide sequence to the sketch.
+     * K-mers that contain unknown nucleotides are skipped.
+     *
+     * @param sequence Nucleotide sequence.
+     */
+    public void update(CharSequence sequence) {
+        long mask = (1L << (2 * k)) - 1;
+        int shift = 2 * (k - 1);
+        long forward = 0, reverse = 0;
+        int len = 0;
+        for (int i = 0; i < sequence.length(); i++) {
+            char c = sequence.charAt(i);
+            int code = c < CODES.length ? CODES[c] : -1;
+            if (code < 0) {
+                len = 0;
+                continue;
+            }
+            forward = ((forward << 2) | code) & mask;
+            reverse = (reverse >>> 2) | ((long) (3 - code) << shift);
+            if (++len >= k) {
+                add(hash(Math.min(forward, reverse)));
+            }
+        }
+    }
+
+    /**
+     * Adds all the hashes of the other sketch to this one.
+     *
+     * @param other Other sketch.
+     * @throws GenomeException if sketches have different parameters.
+     */
+    public void merge(KmerSketch other) {
+        checkCompatible(other);
+        for (long hash : other.getHashes()) {
+            add(hash);
+        }
+    }
+
+    /**
+     * Estimates the Jaccard similarity of the k-mer sets of two sketches.
+     *
+     * @param other Other sketch.
+     * @return Estimated Jaccard similarity in range [0, 1]. If both sketches
+     * are empty, returns 0.
+     * @throws GenomeException if sketches have different parameters.
+     */
+    public double jaccard(KmerSketch other) {
+        checkCompatible(other);
+        long[] a = getHashes(), b = other.getHashes();
+        // walk through the smallest hashes of the union
+        int i = 0, j = 0, union = 0, shared = 0;
+        while (union < size && (i < a.length || j < b.length)) {
+            if (j == b.length || (i < a.length && a[i] < b[j])) {
+                i++;
+            } else if (i == a.length || b[j] < a[i]) {
+                j++;
+            } else {
+                shared++;
+                i++;
+                j++;
+            }
+            union++;
+        }
+        return union == 0 ? 0d : (double) shared / union;
+    }
+
+    /**
+     * @return sorted hashes of the sketch.
+     */
+    public long[] getHashes() {
+        compact();
+        return hashes.clone();
+    }
+
+    /**
+     * @return length of the k-mer.
+     */
+    public int getK() {
+        return k;
+    }
+
+    /**
+     * @return maximum number of hashes in the sketch.
+     */
+    public int getSize() {
+        return size;
+    }
+
+    /**
+     * Writes the sketch to the output.
+     *
+     * @param out Data output.
+     * @throws IOException if error occurs while writing.
+     */
+    public void write(DataOutput out) throws IOException {
+        compact();
+        out.writeInt(k);
+        out.writeInt(size);
+        out.writeInt(hashes.length);
+        for (long hash : hashes) {
+            out.writeLong(hash);
+        }
+    }
+
+    /**
+     * Reads the sketch from the input.
+     *
+     * @param in Data input.
+     * @return sketch object.
+     * @throws IOException if error occurs while reading.
+     */
+    public static KmerSketch read(DataInput in) throws IOException {
+        KmerSketch sketch = new KmerSketch(in.readInt(), in.readInt());
+        int count = in.readInt();
+        for (int i = 0; i < count; i++) {
+            sketch.add(in.readLong());
+        }
+        return sketch;
+    }
+
+    /**
+     * Adds hash value to the buffer if it may get into the sketch.
+     *
+     * @param hash Hash value.
+     */
+    private void add(long hash) {
+        if (hash >= threshold) {
+            return;
+        }
+        buffer[buffered++] = hash;
+        if (buffered == buffer.length) {
+            compact();
+        }
+    }
+
+    /**
+     * Merges the buffer into the sketch and keeps only the smallest hashes.
+     */
+    private void compact() {
+        if (buffered == 0) {
+            return;
+        }
+        Arrays.sort(buffer, 0, buffered);
+        long[] merged = new long[Math.min(size, hashes.length + buffered)];
+        int i = 0, j = 0, n = 0;
+        while (n < merged.length && (i < hashes.length || j < buffered)) {
+            long next;
+            if (j == buffered || (i < hashes.length && hashes[i] <= buffer[j])) {
+                next = hashes[i++];
+            } else {
+                next = buffer[j++];
+            }
+            if (n == 0 || merged[n - 1] != next) {
+                merged[n++] = next;
+            }
+        }
+        hashes = n == merged.length ? merged : Arrays.copyOf(merged, n);
+        buffered = 0;
+        if (hashes.length == size) {
+            threshold = hashes[size - 1];
+        }
+    }
+
+    /**
+     * Checks that sketches can be compared.
+     *
+     * @param other Other sketch.
+     * @throws GenomeException if sketches have different parameters.
+     */
+    private void checkCompatible(KmerSketch other) {
+        if (other.k != k || other.size != size) {
+            throw new GenomeException(getClass().getName(), "checkCompatible", "other", "has different parameters");
+        }
+    }
+
+    /**
+     * Mixes the bits of the k-mer (finalizer of the SplitMix64 generator).
+     *
+     * @param kmer Encoded k-mer.
+     * @return Non-negative hash value.
+     */
+    private static long hash(long kmer) {
+        long z = kmer + 0x9E3779B97F4A7C15L;
+        z = (z ^ (z >>> 30)) * 0xBF58476D1CE4E5B9L;
+        z = (z ^ (z >>> 27)) * 0x94D049BB133111EBL;
+        return (z ^ (z >>> 31)) >>> 1;
+    }
+}
@@ -0,0 +1,238 @@
+/*
+ * MIT License
+ * <p>
+ * Copyright (c) 2019-present Polina Bevad, Sergey Hvatov, Vladislav Marchenko
+ * <p>
+ * Permission is hereby granted, free of charge, to any person obtaining a copy
+ * of this software and associated documentation files (the "Software"), to deal
+ * in the Software without restriction, including without limitation the rights
+ * to use, copy, modify, merge, publish, distribute, sublicense, and/or sell
+ * copies of the Software, and to permit persons to whom the Software is
+ * furnished to do so, subject to the following conditions:
+ * <p>
+ * The above copyright notice and this permission notice shall be included in all
+ * copies or substantial portions of the Software.
+ * <p>
+ * THE SOFTWARE IS PROVIDED "AS IS", WITHOUT WARRANTY OF ANY KIND, EXPRESS OR
+ * IMPLIED, INCLUDING BUT NOT LIMITED TO THE WARRANTIES OF MERCHANTABILITY,
+ * FITNESS FOR A PARTICULAR PURPOSE AND NONINFRINGEMENT. IN NO EVENT SHALL THE
+ * AUTHORS OR COPYRIGHT HOLDERS BE LIABLE FOR ANY CLAIM, DAMAGES OR OTHER
+ * LIABILITY, WHETHER IN AN ACTION OF CONTRACT, TORT OR OTHERWISE, ARISING FROM,
+ * OUT OF OR IN CONNECTION WITH THE SOFTWARE OR THE USE OR OTHER DEALINGS IN THE
+ * SOFTWARE.
+ */
+
+package genome.compare.sketch;
+
+import bam.regular.BEDFeature;
+import exception.GenomeFileException;
+
+import java.io.*;
+import java.util.*;
+
+/**
+ * Set of the k-mer sketches of one sample, one sketch per chromosome.
+ * Sketches can be saved to the file and loaded later, so that each sample
+ * is sketched only once for the same BAM file and the same set of regions.
+ *
+ * @author Sergey Khvatov
+ */
+public class SampleSketch {
+
+    /**
+     * Extension of the file with the saved sketches.
+     */
+    public static final String EXTENSION = ".sketch";
+
+    /**
+     * Magic number of the file with the saved sketches.
+     */
+    private static final int MAGIC = 0x534B4348;
+
+    /**
+     * Version of the file format.
+     */
+    private static final int VERSION = 2;
+
+    /**
+     * Prefix of the chromosome names, that is ignored.
+     */
+    private static final String CHROM_PREFIX = "chr";
+
+    /**
+     * Sketches of the chromosomes: key - chromosome name, value - sketch.
+     */
+    private final Map<String, KmerSketch> sketches = new TreeMap<>();
+
+    /**
+     * Length of the k-mer.
+     */
+    private final int k;
+
+    /**
+     * Number of hashes in each sketch.
+     */
+    private final int size;
+
+    /**
+     * Fingerprint of the regions, that were sketched.
+     */
+    private final long fingerprint;
+
+    /**
+     * Stamp of the BAM file, that was sketched.
+     */
+    private final long source;
+
+    /**
+     * Creates an empty set of sketches.
+     *
+     * @param k           Length of the k-mer.
+     * @param size        Number of hashes in each sketch.
+     * @param fingerprint Fingerprint of the regions, that are sketched (see {@link #fingerprint(Map)}).
+     * @param source      Stamp of the BAM file, that is sketched (see {@link util.SampleCache#stamp(File)}).
+     */
+    public SampleSketch(int k, int size, long fingerprint, long source) {
+        this.k = k;
+        this.size = size;
+        this.fingerprint = fingerprint;
+        this.source = source;
+    }
+
+    /**
+     * Adds nucleotide sequence to the sketch of the chromosome.
+     *
+     * @param chrom    Name of the chromosome.
+     * @param sequence Nucleotide sequence.
+     */
+    public void update(String chrom, CharSequence sequence) {
+        sketches.computeIfAbsent(normalize(chrom), c -> new KmerSketch(k, size)).update(sequence);
+    }
+
+    /**
+     * Returns the sketch of the chromosome.
+     *
+     * @param chrom Name of the chromosome.
+     * @return Sketch of the chromosome, or empty sketch, if
+     * nothing was added for this chromosome.
+     */
+    public KmerSketch get(String chrom) {
+        KmerSketch sketch = sketches.get(normalize(chrom));
+        return sketch != null ? sketch : new KmerSketch(k, size);
+    }
+
+    /**
+     * @return sorted names of the sketched chromosomes.
+     */
+    public Set<String> getChromosomes() {
+        return Collections.unmodifiableSet(sketches.keySet());
+    }
+
+    /**
+     * @return fingerprint of the regions, that were sketched.
+     */
+    public long getFingerprint() {
+        return fingerprint;
+    }
+
+    /**
+     * Checks whether this set of sketches was built with the given parameters.
+     *
+     * @param k           Length of the k-mer.
+     * @param size        Number of hashes in each sketch.
+     * @param fingerprint Fingerprint of the regions.
+     * @param source      Stamp of the BAM file.
+     * @return true, if parameters are the same.
+     */
+    public boolean matches(int k, int size, long fingerprint, long source) {
+        return this.k == k && this.size == size && this.fingerprint == fingerprint && this.source == source;
+    }
+
+    /**
+     * Saves the sketches to the file.
+     *
+     * @param file Output file.
+     * @throws GenomeFileException if error occurs while writing.
+     */
+    public void save(File file) {
+        try (DataOutputStream out = new DataOutputStream(new BufferedOutputStream(new FileOutputStream(file)))) {
+            out.writeInt(MAGIC);
+            out.writeInt(VERSION);
+            out.writeInt(k);
+            out.writeInt(size);
+            out.writeLong(fingerprint);
+            out.writeLong(source);
+            out.writeInt(sketches.size());
+            for (Map.Entry<String, KmerSketch> entry : sketches.entrySet()) {
+                out.writeUTF(entry.getKey());
+                entry.getValue().write(out);
+            }
+        } catch (IOException ioex) {
+            GenomeFileException gfex = new GenomeFileException(SampleSketch.class.getName(), "save", file.getPath(), ioex.getMessage());
+            gfex.initCause(ioex);
+            throw gfex;
+        }
+    }
+
+    /**
+     * Loads the sketches from the file.
+     *
+     * @param file Input file.
+     * @return Loaded set of sketches.
+     * @throws GenomeFileException if file is not a sketch file or error occurs while reading.
+     */
+    public static SampleSketch load(File file) {
+        try (DataInputStream in = new DataInputStream(new BufferedInputStream(new FileInputStream(file)))) {
+            if (in.readInt() != MAGIC || in.readInt() != VERSION) {
+                throw new GenomeFileException(SampleSketch.class.getName(), "load", file.getPath(), "not a sketch file");
+            }
+            SampleSketch sketch = new SampleSketch(in.readInt(), in.readInt(), in.readLong(), in.readLong());
+            int count = in.readInt();
+            for (int i = 0; i < count; i++) {
+                String chrom = in.readUTF();
+                KmerSketch chromSketch = KmerSketch.read(in);
+                if (chromSketch.getK() != sketch.k || chromSketch.getSize() != sketch.size) {
+                    throw new GenomeFileException(SampleSketch.class.getName(), "load", file.getPath(), "inconsistent sketch parameters");
+                }
+                sketch.sketches.put(chrom, chromSketch);
+            }
+            return sketch;
+        } catch (IOException ioex) {
+            GenomeFileException gfex = new GenomeFileException(SampleSketch.class.getName(), "load", file.getPath(), ioex.getMessage());
+            gfex.initCause(ioex);
+            throw gfex;
+        }
+    }
+
+    /**
+     * Calculates the fingerprint of the regions, that are sketched.
+     * Fingerprint does not depend on the order of the regions
+     * and on the "chr" prefix of the chromosome names.
+     *
+     * @param regions Regions from the BED file: key - gene name, value - list of regions.
+     * @return fingerprint value.
+     */
+    public static long fingerprint(Map<String, List<BEDFeature>> regions) {
+        long result = 0;
+        for (List<BEDFeature> features : regions.values()) {
+            for (BEDFeature feature : features) {
+                long h = normalize(feature.getChromosomeName()).hashCode();
+                h = h * 31 + feature.getStartPos();
+                h = h * 31 + feature.getEndPos();
+                // commutative combination of mixed values
+                result += h * 0x9E3779B97F4A7C15L ^ (h >>> 29);
+            }
+        }
+        return result;
+    }
+
+    /**
+     * Removes the "chr" prefix from the chromosome name.
+     *
+     * @param chrom Name of the chromosome.
+     * @return Normalized name.
+     */
+    private static String normalize(String chrom) {
+        return chrom.regionMatches(true, 0, CHROM_PREFIX, 0, CHROM_PREFIX.length()) ? chrom.substring(CHROM_PREFIX.length()) : chrom;
+    }
+}
@@ -0,0 +1,92 @@
+/*
+ * MIT License
+ * <p>
+ * Copyright (c) 2019-present Polina Bevad, Sergey Hvatov, Vladislav Marchenko
+ * <p>
+ * Permission is hereby granted, free of charge, to any person obtaining a copy
+ * of this software and associated documentation files (the "Software"), to deal
+ * in the Software without restriction, including without limitation the rights
+ * to use, copy, modify, merge, publish, distribute, sublicense, and/or sell
+ * copies of the Software, and to permit persons to whom the Software is
+ * furnished to do so, subject to the following conditions:
+ * <p>
+ * The above copyright notice and this permission notice shall be included in all
+ * copies or substantial portions of the Software.
+ * <p>
+ * THE SOFTWARE IS PROVIDED "AS IS", WITHOUT WARRANTY OF ANY KIND, EXPRESS OR
+ * IMPLIED, INCLUDING BUT NOT LIMITED TO THE WARRANTIES OF MERCHANTABILITY,
+ * FITNESS FOR A PARTICULAR PURPOSE AND NONINFRINGEMENT. IN NO EVENT SHALL THE
+ * AUTHORS OR COPYRIGHT HOLDERS BE LIABLE FOR ANY CLAIM, DAMAGES OR OTHER
+ * LIABILITY, WHETHER IN AN ACTION OF CONTRACT, TORT OR OTHERWISE, ARISING FROM,
+ * OUT OF OR IN CONNECTION WITH THE SOFTWARE OR THE USE OR OTHER DEALINGS IN THE
+ * SOFTWARE.
+ */
+
+package genome.compare.sketch;
+
+import genome.compare.common.ComparisonResult;
+import util.ResultRecord;
+
+/**
+ * Contains the estimated Jaccard similarity of the k-mer sets
+ * of one chromosome of two persons.
+ *
+ * @author Sergey Khvatov
+ */
+public class SketchComparisonResult implements ComparisonResult {
+
+    /**
+     * Name of the chromosome.
+     */
+    private String chrom;
+
+    /**
+     * Estimated Jaccard similarity.
+     */
+    private double jaccard;
+
+    /**
+     * Creates the result of the comparison of two sketches.
+     *
+     * @param chrom   Name of the chromosome.
+     * @param jaccard Estimated Jaccard similarity.
+     */
+    public SketchComparisonResult(String chrom, double jaccard) {
+        this.chrom = chrom;
+        this.jaccard = jaccard;
+    }
+
+    /**
+     * @return name of the chromosome.
+     */
+    public String getChromName() {
+        return chrom;
+    }
+
+    /**
+     * @return estimated Jaccard similarity.
+     */
+    public double getJaccard() {
+        return jaccard;
+    }
+
+    /**
+     * Returns string representation of the results of the comparison.
+     *
+     * @return string representation of the results of the comparison.
+     */
+    @Override
+    public String getResults() {
+        return "Comparison result of chromosome " + chrom + ": estimated Jaccard similarity - " + jaccard;
+    }
+
+    /**
+     * Returns the record of the chromosome.
+     *
+     * @return record with the results of the comparison.
+     */
+    @Override
+    public ResultRecord toRecord() {
+        return new ResultRecord("chromosome").add("chrom", chrom).add("jaccard", jaccard);
+    }
+}
@@ -0,0 +1,106 @@
+/*
+ * MIT License
+ * <p>
+ * Copyright (c) 2019-present Polina Bevad, Sergey Hvatov, Vladislav Marchenko
+ * <p>
+ * Permission is hereby granted, free of charge, to any person obtaining a copy
+ * of this software and associated documentation files (the "Software"), to deal
+ * in the Software without restriction, including without limitation the rights
+ * to use, copy, modify, merge, publish, distribute, sublicense, and/or sell
+ * copies of the Software, and to permit persons to whom the Software is
+ * furnished to do so, subject to the following conditions:
+ * <p>
+ * The above copyright notice and this permission notice shall be included in all
+ * copies or substantial portions of the Software.
+ * <p>
+ * THE SOFTWARE IS PROVIDED "AS IS", WITHOUT WARRANTY OF ANY KIND, EXPRESS OR
+ * IMPLIED, INCLUDING BUT NOT LIMITED TO THE WARRANTIES OF MERCHANTABILITY,
+ * FITNESS FOR A PARTICULAR PURPOSE AND NONINFRINGEMENT. IN NO EVENT SHALL THE
+ * AUTHORS OR COPYRIGHT HOLDERS BE LIABLE FOR ANY CLAIM, DAMAGES OR OTHER
+ * LIABILITY, WHETHER IN AN ACTION OF CONTRACT, TORT OR OTHERWISE, ARISING FROM,
+ * OUT OF OR IN CONNECTION WITH THE SOFTWARE OR THE USE OR OTHER DEALINGS IN THE
+ * SOFTWARE.
+ */
+
+package genome.compare.sketch;
+
+import exception.GenomeException;
+import genome.compare.common.ComparisonResult;
+import genome.compare.common.ComparisonResultAnalyzer;
+
+import java.util.Map;
+import java.util.concurrent.ConcurrentSkipListMap;
+
+/**
+ * This class analyzes the estimated Jaccard similarities of the chromosomes
+ * of two persons. The similarity depends on the coverage of the regions
+ * (k-mers with unknown nucleotides are skipped) as much as on the relationship, so no verdict
+ * is made: the similarity is used only to select the pairs for the full comparison
+ * (see {@link #isPassed(double)}).
+ *
+ * @author Sergey Khvatov
+ */
+public class SketchComparisonResultAnalyzer implements ComparisonResultAnalyzer {
+
+    /**
+     * Similarities of the chromosomes: key - chromosome name, value - Jaccard similarity.
+     */
+    private Map<String, Double> similarities = new ConcurrentSkipListMap<>();
+
+    /**
+     * Adds the result of the comparison of two sketches.
+     *
+     * @param comparisonResult Result of the comparison.
+     * @throws GenomeException if comparisonResult is not an instance of {@link SketchComparisonResult}.
+     */
+    @Override
+    public void add(ComparisonResult comparisonResult) {
+        if (!(comparisonResult instanceof SketchComparisonResult)) {
+            throw new GenomeException(this.getClass().getName(), "add", "comparison result variable has incorrect type: " + comparisonResult.getClass());
+        }
+        SketchComparisonResult result = (SketchComparisonResult) comparisonResult;
+        similarities.put(result.getChromName(), result.getJaccard());
+    }
+
+    /**
+     * @return average Jaccard similarity of all the chromosomes, or 0 if there are no results.
+     */
+    public double getAverageSimilarity() {
+        double sum = 0;
+        for (double similarity : similarities.values()) {
+            sum += similarity;
+        }
+        return similarities.isEmpty() ? 0d : sum / similarities.size();
+    }
+
+    /**
+     * Checks, whether the pair passes the pre-screen.
+     *
+     * @param threshold Minimum average Jaccard similarity.
+     * @return true, if the full comparison of the pair should be run.
+     */
+    public boolean isPassed(double threshold) {
+        return !similarities.isEmpty() && getAverageSimilarity() >= threshold;
+    }
+
+    /**
+     * Analyzes the results of the comparison.
+     *
+     * @return String with the results of the analysis.
+     */
+    @Override
+    public String analyze() {
+        StringBuilder result = new StringBuilder("Estimated Jaccard similarity of k-mers for each chromosome:\n");
+        for (Map.Entry<String, Double> entry : similarities.entrySet()) {
+            result.append("\tName of chromosome: ");
+            result.append(entry.getKey());
+            result.append(". Jaccard similarity: ");
+            result.append(entry.getValue());
+            result.append("\n");
+        }
+        result.append("Average Jaccard similarity: ");
+        result.append(getAverageSimilarity());
+        result.append("\n");
+        return result.toString();
+    }
+}
@@ -0,0 +1,86 @@
+/*
+ * MIT License
+ * <p>
+ * Copyright (c) 2019-present Polina Bevad, Sergey Hvatov, Vladislav Marchenko
+ * <p>
+ * Permission is hereby granted, free of charge, to any person obtaining a copy
+ * of this software and associated documentation files (the "Software"), to deal
+ * in the Software without restriction, including without limitation the rights
+ * to use, copy, modify, merge, publish, distribute, sublicense, and/or sell
+ * copies of the Software, and to permit persons to whom the Software is
+ * furnished to do so, subject to the following conditions:
+ * <p>
+ * The above copyright notice and this permission notice shall be included in all
+ * copies or substantial portions of the Software.
+ * <p>
+ * THE SOFTWARE IS PROVIDED "AS IS", WITHOUT WARRANTY OF ANY KIND, EXPRESS OR
+ * IMPLIED, INCLUDING BUT NOT LIMITED TO THE WARRANTIES OF MERCHANTABILITY,
+ * FITNESS FOR A PARTICULAR PURPOSE AND NONINFRINGEMENT. IN NO EVENT SHALL THE
+ * AUTHORS OR COPYRIGHT HOLDERS BE LIABLE FOR ANY CLAIM, DAMAGES OR OTHER
+ * LIABILITY, WHETHER IN AN ACTION OF CONTRACT, TORT OR OTHERWISE, ARISING FROM,
+ * OUT OF OR IN CONNECTION WITH THE SOFTWARE OR THE USE OR OTHER DEALINGS IN THE
+ * SOFTWARE.
+ */
+
+package genome.compare.str;
+
+import exception.GenomeException;
+
+/**
+ * Compares the STR alleles of two persons, that were called from the reads.
+ * If any of the persons has two alleles of the marker, the closest pair
+ * of the alleles is compared.
+ *
+ * @author Sergey Khvatov
+ */
+public class STRAlleleComparator {
+
+    /**
+     * Alleles of the first person.
+     */
+    private STRAlleleHistogram first;
+
+    /**
+     * Alleles of the second person.
+     */
+    private STRAlleleHistogram second;
+
+    /**
+     * Default class constructor from the allele histograms of two people.
+     *
+     * @param first  Alleles of the first person.
+     * @param second Alleles of the second person.
+     * @throws GenomeException if histograms belong to the different markers.
+     */
+    public STRAlleleComparator(STRAlleleHistogram first, STRAlleleHistogram second) {
+        if (!first.getMarker().getMarkerName().equals(second.getMarker().getMarkerName())) {
+            throw new GenomeException(this.getClass().getName(), "STRAlleleComparator", "first, second", "failed the validation");
+        }
+        this.first = first;
+        this.second = second;
+    }
+
+    /**
+     * Compares the closest pair of the alleles.
+     *
+     * @return Results of the comparison, or null, if any of the persons
+     * has no alleles called.
+     */
+    public STRComparisonResult compare() {
+        int[] firstAlleles = first.getAlleles();
+        int[] secondAlleles = second.getAlleles();
+        if (firstAlleles.length == 0 || secondAlleles.length == 0) {
+            return null;
+        }
+        int bestFirst = firstAlleles[0], bestSecond = secondAlleles[0];
+        for (int a : firstAlleles) {
+            for (int b : secondAlleles) {
+                if (Math.abs(a - b) < Math.abs(bestFirst - bestSecond)) {
+                    bestFirst = a;
+                    bestSecond = b;
+                }
+            }
+        }
+        return new STRComparisonResult(first.getMarker(), bestFirst, bestSecond, first.getLongestRun(bestFirst), second.getLongestRun(bestSecond));
+    }
+}
@@ -0,0 +1,270 @@
+/*
+ * MIT License
+ * <p>
+ * Copyright (c) 2019-present Polina Bevad, Sergey Hvatov, Vladislav Marchenko
+ * <p>
+ * Permission is hereby granted, free of charge, to any person obtaining a copy
+ * of this software and associated documentation files (the "Software"), to deal
+ * in the Software without restriction, including without limitation the rights
+ * to use, copy, modify, merge, publish, distribute, sublicense, and/or sell
+ * copies of the Software, and to permit persons to whom the Software is
+ * furnished to do so, subject to the following conditions:
+ * <p>
+ * The above copyright notice and this permission notice shall be included in all
+ * copies or substantial portions of the Software.
+ * <p>
+ * THE SOFTWARE IS PROVIDED "AS IS", WITHOUT WARRANTY OF ANY KIND, EXPRESS OR
+ * IMPLIED, INCLUDING BUT NOT LIMITED TO THE WARRANTIES OF MERCHANTABILITY,
+ * FITNESS FOR A PARTICULAR PURPOSE AND NONINFRINGEMENT. IN NO EVENT SHALL THE
+ * AUTHORS OR COPYRIGHT HOLDERS BE LIABLE FOR ANY CLAIM, DAMAGES OR OTHER
+ * LIABILITY, WHETHER IN AN ACTION OF CONTRACT, TORT OR OTHERWISE, ARISING FROM,
+ * OUT OF OR IN CONNECTION WITH THE SOFTWARE OR THE USE OR OTHER DEALINGS IN THE
+ * SOFTWARE.
+ */
+
+package genome.compare.str;
+
+import bam.marker_region.MarkerRegionFeature;
+import bam.marker_region.MotifAutomaton;
+import htsjdk.samtools.SAMRecord;
+
+import java.util.ArrayList;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+
+/**
+ * Histogram of the STR allele lengths of one person, that is built
+ * directly from the reads. The marker is located in each read by its flanks:
+ * the sequences of {@link #FLANK_LENGTH} nucleotides before and after the marker region,
+ * that are taken from the reads aligned to them without the gaps (the most frequent ones).
+ * The flanks are searched in the whole sequence of the read, including the soft-clipped bases,
+ * so the expanded alleles, that are clipped or have an insertion at the border of the marker, are
+ * not truncated; the allele length of the read is the number of the occurrences of the motif between the flanks.
+ * The reads, that can not reach both flanks, are rejected by their unclipped coordinates before
+ * their bases are read. The reads are scanned, when the histogram is used for the first time.
+ * Object is not thread safe.
+ *
+ * @author Sergey Khvatov
+ */
+public class STRAlleleHistogram {
+
+    /**
+     * Length of the flanks of the marker region.
+     */
+    private static final int FLANK_LENGTH = 10;
+
+    /**
+     * Maximum allele length, that is counted.
+     */
+    private static final int MAX_ALLELE = 255;
+
+    /**
+     * Minimum number of the reads, that support the allele.
+     */
+    private static final int MIN_SUPPORT = 2;
+
+    /**
+     * Minimum support of the second allele relative to the first one,
+     * that is required to call it.
+     */
+    private static final double MIN_SECOND_ALLELE_FRACTION = 0.3d;
+
+    /**
+     * Marker region.
+     */
+    private MarkerRegionFeature marker;
+
+    /**
+     * Sequences of the reads, that are not scanned yet.
+     */
+    private List<String> pending = new ArrayList<>();
+
+    /**
+     * Number of the reads with each sequence of the left flank.
+     */
+    private Map<String, Integer> leftFlanks = new HashMap<>();
+
+    /**
+     * Number of the reads with each sequence of the right flank.
+     */
+    private Map<String, Integer> rightFlanks = new HashMap<>();
+
+    /**
+     * Number of the reads with each allele length.
+     */
+    private int[] reads = new int[MAX_ALLELE + 1];
+
+    /**
+     * The longest run of the repeats among the reads with each allele length.
+     */
+    private int[] longestRuns = new int[MAX_ALLELE + 1];
+
+    /**
+     * Number of the reads, that span the marker.
+     */
+    private int spanningReads = 0;
+
+    /**
+     * Creates an empty histogram.
+     *
+     * @param marker Marker region.
+     */
+    public STRAlleleHistogram(MarkerRegionFeature marker) {
+        this.marker = marker;
+    }
+
+    /**
+     * Adds the read to the histogram, if it can span the marker region with its flanks.
+     *
+     * @param read Aligned read.
+     */
+    public void add(SAMRecord read) {
+        // reject the reads, that can not reach both flanks, by their coordinates
+        if (read.getUnclippedStart() > marker.getStartPos() - FLANK_LENGTH || read.getUnclippedEnd() < marker.getEndPos() + FLANK_LENGTH) {
+            return;
+        }
+        if (read.getReadUnmappedFlag() || read.getDuplicateReadFlag() || read.isSecondaryOrSupplementary()) {
+            return;
+        }
+
+        String seq = read.getReadString();
+        String left = getAlignedFlank(read, seq, marker.getStartPos() - FLANK_LENGTH);
+        if (left != null) {
+            leftFlanks.merge(left, 1, Integer::sum);
+        }
+        String right = getAlignedFlank(read, seq, marker.getEndPos() + 1);
+        if (right != null) {
+            rightFlanks.merge(right, 1, Integer::sum);
+        }
+        pending.add(seq);
+    }
+
+    /**
+     * Calls the alleles: the most supported allele and the second one,
+     * if it has enough support.
+     *
+     * @return Array with 0, 1 or 2 allele lengths.
+     */
+    public int[] getAlleles() {
+        scan();
+        int first = -1, second = -1;
+        for (int allele = 0; allele <= MAX_ALLELE; allele++) {
+            if (first < 0 || reads[allele] > reads[first]) {
+                second = first;
+                first = allele;
+            } else if (second < 0 || reads[allele] > reads[second]) {
+                second = allele;
+            }
+        }
+        if (reads[first] < MIN_SUPPORT) {
+            return new int[0];
+        }
+        if (reads[second] >= MIN_SUPPORT && reads[second] >= reads[first] * MIN_SECOND_ALLELE_FRACTION) {
+            return new int[]{first, second};
+        }
+        return new int[]{first};
+    }
+
+    /**
+     * @param allele Allele length.
+     * @return the longest run of the repeats among the reads with this allele length.
+     */
+    public int getLongestRun(int allele) {
+        scan();
+        return longestRuns[allele];
+    }
+
+    /**
+     * @return number of the reads, that span the marker.
+     */
+    public int getSpanningReads() {
+        scan();
+        return spanningReads;
+    }
+
+    /**
+     * @return marker region.
+     */
+    public MarkerRegionFeature getMarker() {
+        return marker;
+    }
+
+    /**
+     * Returns the flank, if the read is aligned to it without the gaps.
+     *
+     * @param read  Aligned read.
+     * @param seq   Sequence of the read.
+     * @param start Position of the first nucleotide of the flank in the reference.
+     * @return Sequence of the flank or null.
+     */
+    private static String getAlignedFlank(SAMRecord read, String seq, int start) {
+        // 1-based positions of the flank borders in the read
+        int from = read.getReadPositionAtReferencePosition(start);
+        int to = read.getReadPositionAtReferencePosition(start + FLANK_LENGTH - 1);
+        if (from == 0 || to - from != FLANK_LENGTH - 1) {
+            return null;
+        }
+        return seq.substring(from - 1, to);
+    }
+
+    /**
+     * Locates the marker in the pending reads by the most frequent flanks and adds their alleles to the histogram.
+     */
+    private void scan() {
+        if (pending.isEmpty()) {
+            return;
+        }
+        String left = getMostFrequent(leftFlanks), right = getMostFrequent(rightFlanks);
+        if (left != null && right != null) {
+            for (String seq : pending) {
+                int from = seq.indexOf(left);
+                int to = from < 0 ? -1 : seq.indexOf(right, from + FLANK_LENGTH);
+                if (to >= 0) {
+                    addAllele(seq.substring(from + FLANK_LENGTH, to));
+                }
+            }
+        }
+        pending.clear();
+    }
+
+    /**
+     * Counts the repeats of the motif in the sequence between the flanks and adds them to the histogram.
+     *
+     * @param seq Sequence between the flanks.
+     */
+    private void addAllele(String seq) {
+        int count, run;
+        MotifAutomaton automaton = marker.getMotifAutomaton();
+        if (automaton != null) {
+            STRCounter counter = new STRCounter(automaton);
+            counter.add(0, seq);
+            count = counter.getCount();
+            run = counter.getLongestRun();
+        } else {
+            int[] result = STRCounter.countWithRegex(marker.getRepeatMotif(), seq);
+            count = result[0];
+            run = result[1];
+        }
+        if (count > MAX_ALLELE) {
+            return;
+        }
+        reads[count]++;
+        longestRuns[count] = Math.max(longestRuns[count], run);
+        spanningReads++;
+    }
+
+    /**
+     * @param flanks Number of the reads with each sequence of the flank.
+     * @return the most frequent sequence of the flank, or null, if there are no flanks.
+     */
+    private static String getMostFrequent(Map<String, Integer> flanks) {
+        String best = null;
+        for (Map.Entry<String, Integer> flank : flanks.entrySet()) {
+            if (best == null || flank.getValue() > flanks.get(best) || (flank.getValue().equals(flanks.get(best)) && flank.getKey().compareTo(best) < 0)) {
+                best = flank.getKey();
+            }
+        }
+        return best;
+    }
+}
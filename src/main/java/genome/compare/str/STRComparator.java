@@ -25,16 +25,20 @@
 package genome.compare.str;
 
 import bam.marker_region.MarkerRegionFeature;
+import bam.marker_region.MotifAutomaton;
 import bam.regular.BEDFeature;
 import exception.GenomeException;
 import genome.assembly.GenomeRegion;
 import genome.compare.common.GenomeComparator;
 
-import java.util.regex.Matcher;
+import java.util.Collections;
+import java.util.List;
 
 /**
  * Implements Y_STR algorithm used to compare father and son
  * genomes according to marker regions from their Y chromosomes.
+ * All the regions of the marker are processed as one sequence,
+ * so the repeats, that span the borders of the regions, are not lost.
  *
  * @author Sergey Khvatov
  */
@@ -45,6 +49,15 @@ public class STRComparator extends GenomeComparator {
      */
     private MarkerRegionFeature feature;
 
+    /**
+     * All the regions of the marker of the first person, sorted by their positions.
+     */
+    private List<GenomeRegion> firstRegions;
+
+    /**
+     * All the regions of the marker of the second person, sorted by their positions.
+     */
+    private List<GenomeRegion> secondRegions;
 
     /**
      * Creates an instance of this comparator from two genome regions
@@ -56,11 +69,34 @@ public class STRComparator extends GenomeComparator {
      * @throws GenomeException if regions fail validation or if marker is not an instance of {@link MarkerRegionFeature}.
      */
     public STRComparator(BEDFeature marker, GenomeRegion first, GenomeRegion second) {
-        super(first, second);
+        this(marker, Collections.singletonList(first), Collections.singletonList(second));
+    }
+
+    /**
+     * Creates an instance of this comparator from all the regions
+     * of the marker of two people.
+     *
+     * @param marker Marker region feature.
+     * @param first  Regions of the first person, sorted by their positions.
+     * @param second Regions of the second person, sorted by their positions.
+     * @throws GenomeException if regions fail validation or if marker is not an instance of {@link MarkerRegionFeature}.
+     */
+    public STRComparator(BEDFeature marker, List<GenomeRegion> first, List<GenomeRegion> second) {
+        super(first.get(0), second.get(0));
         if (!(marker instanceof MarkerRegionFeature)) {
             throw new GenomeException(getClass().getName(), getClass().getName(), "expected marker region feature.");
         }
+        if (first.size() != second.size()) {
+            throw new GenomeException(this.getClass().getName(), "STRComparator", "first, second", "failed the validation");
+        }
+        for (int i = 0; i < first.size(); i++) {
+            if (!first.get(i).equals(second.get(i))) {
+                throw new GenomeException(this.getClass().getName(), "STRComparator", "first, second", "failed the validation");
+            }
+        }
         this.feature = (MarkerRegionFeature) marker;
+        this.firstRegions = first;
+        this.secondRegions = second;
     }
 
     /**
@@ -72,18 +108,37 @@ public class STRComparator extends GenomeComparator {
      */
     @Override
     public STRComparisonResult compare() {
-        Matcher firstMatcher = feature.getRepeatMotif().matcher(first.getNucleotideSequence());
-        int firstNum = 0;
-        while (firstMatcher.find()) {
-            firstNum++;
+        MotifAutomaton automaton = feature.getMotifAutomaton();
+        if (automaton != null) {
+            STRCounter firstCounter = new STRCounter(automaton);
+            for (GenomeRegion region : firstRegions) {
+                firstCounter.add(region);
+            }
+            STRCounter secondCounter = new STRCounter(automaton);
+            for (GenomeRegion region : secondRegions) {
+                secondCounter.add(region);
+            }
+            return new STRComparisonResult(feature, firstCounter.getCount(), secondCounter.getCount(), firstCounter.getLongestRun(), secondCounter.getLongestRun());
         }
 
-        Matcher secondMatcher = feature.getRepeatMotif().matcher(second.getNucleotideSequence());
-        int secondNum = 0;
-        while (secondMatcher.find()) {
-            secondNum++;
-        }
+        // the motif is a regular expression
+        int[] firstResult = countWithRegex(firstRegions);
+        int[] secondResult = countWithRegex(secondRegions);
+        return new STRComparisonResult(feature, firstResult[0], secondResult[0], firstResult[1], secondResult[1]);
+    }
 
-        return new STRComparisonResult(feature, firstNum, secondNum);
+    /**
+     * Counts the occurrences of the motif, that is a regular expression.
+     * The regions are joined, so they must follow each other without gaps.
+     *
+     * @param regions Regions of the marker.
+     * @return Array with the number of the occurrences and the length of the longest run.
+     */
+    private int[] countWithRegex(List<GenomeRegion> regions) {
+        StringBuilder seq = new StringBuilder();
+        for (GenomeRegion region : regions) {
+            seq.append(region.getNucleotideSequence());
+        }
+        return STRCounter.countWithRegex(feature.getRepeatMotif(), seq);
     }
 }
@@ -26,7 +26,8 @@ package genome.compare.str;
 
 import bam.marker_region.MarkerRegionFeature;
 import genome.compare.common.ComparisonResult;
-import util.Pair;
+import util.IntIntPair;
+import util.ResultRecord;
 
 /**
  * Represents the results of the comparison of the genomes
@@ -45,7 +46,13 @@ public class STRComparisonResult implements ComparisonResult {
      * Number of times it has occurred in the
      * first genome and in the second genome.
      */
-    private Pair<Integer, Integer> result;
+    private IntIntPair result;
+
+    /**
+     * Number of the repeats in the longest uninterrupted
+     * run in the first genome and in the second genome.
+     */
+    private IntIntPair longestRuns;
 
     /**
      * Creates an instance of the class from the name of the marker
@@ -59,8 +66,26 @@ public class STRComparisonResult implements ComparisonResult {
      *                  the second genome region.
      */
     public STRComparisonResult(MarkerRegionFeature marker, int firstNum, int secondNum) {
+        this(marker, firstNum, secondNum, 0, 0);
+    }
+
+    /**
+     * Creates an instance of the class from the name of the marker,
+     * number of times marker motif has appeared in first and second genomes
+     * and the lengths of the longest runs of the repeats.
+     *
+     * @param marker    Name of the marker.
+     * @param firstNum  Number of times marker motif has appeared in
+     *                  the first genome region.
+     * @param secondNum Number of times marker motif has appeared in
+     *                  the second genome region.
+     * @param firstRun  Number of the repeats in the longest run in the first genome.
+     * @param secondRun Number of the repeats in the longest run in the second genome.
+     */
+    public STRComparisonResult(MarkerRegionFeature marker, int firstNum, int secondNum, int firstRun, int secondRun) {
         this.marker = marker;
-        result = new Pair<>(firstNum, secondNum);
+        result = new IntIntPair(firstNum, secondNum);
+        longestRuns = new IntIntPair(firstRun, secondRun);
     }
 
     /**
@@ -77,10 +102,19 @@ public class STRComparisonResult implements ComparisonResult {
      *
      * @return the result of the comparison.
      */
-    public Pair<Integer, Integer> getResult() {
+    public IntIntPair getResult() {
         return result;
     }
 
+    /**
+     * Returns the lengths of the longest runs of the repeats.
+     *
+     * @return the lengths of the longest runs in the first and in the second genome.
+     */
+    public IntIntPair getLongestRuns() {
+        return longestRuns;
+    }
+
     /**
      * Returns string representation of the results of the comparison
      * of two genome regions.
@@ -89,6 +123,19 @@ public class STRComparisonResult implements ComparisonResult {
      */
     @Override
     public String getResults() {
-        return "Result of the comparison: region [" + marker.getStartPos() + "; " + marker.getEndPos() + "]; Marker: " + marker.getMarkerName() + "; Number of appearance: " + result;
+        return "Result of the comparison: region [" + marker.getStartPos() + "; " + marker.getEndPos() + "]; Marker: " + marker.getMarkerName() + "; Number of appearance: " + result + "; Longest repeat runs: " + longestRuns;
+    }
+
+    /**
+     * Returns the record of the marker.
+     *
+     * @return record with the results of the comparison.
+     */
+    @Override
+    public ResultRecord toRecord() {
+        return new ResultRecord("marker").add("chrom", marker.getChromosomeName()).add("marker", marker.getMarkerName())
+            .add("start", marker.getStartPos()).add("end", marker.getEndPos())
+            .add("first", result.getKey()).add("second", result.getValue())
+            .add("firstRun", longestRuns.getKey()).add("secondRun", longestRuns.getValue());
     }
 }
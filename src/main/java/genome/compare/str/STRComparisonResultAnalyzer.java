@@ -30,11 +30,12 @@ import bam.regular.BEDFeature;
 import exception.GenomeException;
 import genome.compare.common.ComparisonResult;
 import genome.compare.common.ComparisonResultAnalyzer;
-import util.Pair;
+import util.IntIntPair;
 import util.STRResultGraph;
 
 import java.util.List;
 import java.util.Map;
+import java.util.TreeMap;
 import java.util.concurrent.ConcurrentHashMap;
 
 /**
@@ -55,12 +56,20 @@ public class STRComparisonResultAnalyzer implements ComparisonResultAnalyzer {
      * key of Pair - number of times marker motif has appeared in the first genome region,
      * value of Pair - number of times marker motif has appeared in the second genome region.
      */
-    private Map<String, Pair<Integer, Integer>> markerComparisonResults = new ConcurrentHashMap<>();
+    private Map<String, IntIntPair> markerComparisonResults = new ConcurrentHashMap<>();
+
+    /**
+     * The longest runs of the repeats of the marker motif as follows:
+     * key of Map - name of marker region, value of Map - Pair
+     * key of Pair - longest run in the first genome region,
+     * value of Pair - longest run in the second genome region.
+     */
+    private Map<String, IntIntPair> markerRunResults = new ConcurrentHashMap<>();
 
     /**
      * Map with position of each marker in the genome.
      */
-    private Map<String, Pair<Integer, Integer>> markerPositions = new ConcurrentHashMap<>();
+    private Map<String, IntIntPair> markerPositions = new ConcurrentHashMap<>();
 
     /**
      * Count of markers, which repeats different times in each genome
@@ -84,7 +93,7 @@ public class STRComparisonResultAnalyzer implements ComparisonResultAnalyzer {
             if (!(marker instanceof MarkerRegionFeature)) {
                 throw new GenomeException(getClass().getName(), "STRComparisonResultAnalyzer", "incorrect feature type was used");
             }
-            markerPositions.put(((MarkerRegionFeature) marker).getMarkerName(), new Pair<>(marker.getStartPos(), marker.getEndPos()));
+            markerPositions.put(((MarkerRegionFeature) marker).getMarkerName(), new IntIntPair(marker.getStartPos(), marker.getEndPos()));
         }
     }
 
@@ -104,14 +113,54 @@ public class STRComparisonResultAnalyzer implements ComparisonResultAnalyzer {
         // add results
         STRComparisonResult STRComparisonResult = (STRComparisonResult) comparisonResult;
         String markerName = STRComparisonResult.getMarker().getMarkerName();
-        Pair<Integer, Integer> result = STRComparisonResult.getResult();
-        if (markerComparisonResults.containsKey(markerName)) {
-            Pair<Integer, Integer> markerComparisonResult = markerComparisonResults.get(markerName);
-            markerComparisonResult.setKey(markerComparisonResult.getKey() + result.getKey());
-            markerComparisonResult.setValue(markerComparisonResult.getValue() + result.getValue());
-        } else {
-            markerComparisonResults.put(markerName, result);
+        // pairs are immutable, so the results are combined atomically by the map
+        markerComparisonResults.merge(markerName, STRComparisonResult.getResult(), IntIntPair::sum);
+        markerRunResults.merge(markerName, STRComparisonResult.getLongestRuns(), IntIntPair::max);
+    }
+
+    /**
+     * Method for adding all the results of other analyzer.
+     *
+     * @param other Analyzer, which results are added.
+     * @throws GenomeException if other is not an instance of {@link STRComparisonResultAnalyzer}.
+     */
+    @Override
+    public void merge(ComparisonResultAnalyzer other) {
+        // check the type
+        if (!(other instanceof STRComparisonResultAnalyzer)) {
+            throw new GenomeException(this.getClass().getName(), "merge", "analyzer variable has incorrect type: " + other.getClass());
         }
+
+        STRComparisonResultAnalyzer strAnalyzer = (STRComparisonResultAnalyzer) other;
+        strAnalyzer.markerComparisonResults.forEach((marker, result) -> markerComparisonResults.merge(marker, result, IntIntPair::sum));
+        strAnalyzer.markerRunResults.forEach((marker, runs) -> markerRunResults.merge(marker, runs, IntIntPair::max));
+        strAnalyzer.markerPositions.forEach(markerPositions::putIfAbsent);
+    }
+
+    /**
+     * Returns the alleles of the first person, that can be searched in the haplotype tables:
+     * the allele of the marker is the longest run of the repeats of its motif, not the number
+     * of the occurrences of the motif in the whole marker region.
+     *
+     * @return repeat numbers of the compared markers of the first person:
+     * key - name of marker region, value - number of repeats in the longest run.
+     */
+    public Map<String, Integer> getFirstHaplotype() {
+        Map<String, Integer> haplotype = new TreeMap<>();
+        markerRunResults.forEach((marker, runs) -> haplotype.put(marker, runs.getKey()));
+        return haplotype;
+    }
+
+    /**
+     * Returns the alleles of the second person, see {@link #getFirstHaplotype()}.
+     *
+     * @return repeat numbers of the compared markers of the second person:
+     * key - name of marker region, value - number of repeats in the longest run.
+     */
+    public Map<String, Integer> getSecondHaplotype() {
+        Map<String, Integer> haplotype = new TreeMap<>();
+        markerRunResults.forEach((marker, runs) -> haplotype.put(marker, runs.getValue()));
+        return haplotype;
     }
 
     /**
@@ -148,14 +197,25 @@ public class STRComparisonResultAnalyzer implements ComparisonResultAnalyzer {
             result.append(markerComparisonResults.get(markerName).getKey());
             result.append(" and ");
             result.append(markerComparisonResults.get(markerName).getValue());
-            result.append(" times;\n");
+            result.append(" times, longest runs of repeats: ");
+            result.append(markerRunResults.get(markerName).getKey());
+            result.append(" and ");
+            result.append(markerRunResults.get(markerName).getValue());
+            result.append(";\n");
+        }
+        if (markerComparisonResults.size() < markerPositions.size()) {
+            result.append("Number of markers, that were not compared - ");
+            result.append(markerPositions.size() - markerComparisonResults.size());
+            result.append(";\n");
         }
         result.append("Total number of markers with different repeating number(more, than EPS = ");
         result.append(EPS);
         result.append(") in each genome - ");
         result.append(countOfDiffMarkers);
         result.append(";\n");
-        if (countOfDiffMarkers == 0) {
+        if (markerComparisonResults.isEmpty()) {
+            result.append("There are no compared markers.");
+        } else if (countOfDiffMarkers == 0) {
             result.append("These persons are relatives.");
         } else {
             result.append("These persons are not relatives.");
@@ -169,7 +229,7 @@ public class STRComparisonResultAnalyzer implements ComparisonResultAnalyzer {
     private void createGraph() {
         STRResultGraph graph = new STRResultGraph();
         for (String markerName : markerComparisonResults.keySet()) {
-            Pair<Integer, Integer> result = markerComparisonResults.get(markerName);
+            IntIntPair result = markerComparisonResults.get(markerName);
             // throw exception if we are trying to process unknown marker
             if (!markerPositions.containsKey(markerName)) {
                 throw new GenomeException(getClass().getName(), "createGraph", "unknown marker appeared");
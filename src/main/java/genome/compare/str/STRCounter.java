@@ -0,0 +1,157 @@
+/*
+ * MIT License
+ * <p>
+ * Copyright (c) 2019-present Polina Bevad, Sergey Hvatov, Vladislav Marchenko
+ * <p>
+ * Permission is hereby granted, free of charge, to any person obtaining a copy
+ * of this software and associated documentation files (the "Software"), to deal
+ * in the Software without restriction, including without limitation the rights
+ * to use, copy, modify, merge, publish, distribute, sublicense, and/or sell
+ * copies of the Software, and to permit persons to whom the Software is
+ * furnished to do so, subject to the following conditions:
+ * <p>
+ * The above copyright notice and this permission notice shall be included in all
+ * copies or substantial portions of the Software.
+ * <p>
+ * THE SOFTWARE IS PROVIDED "AS IS", WITHOUT WARRANTY OF ANY KIND, EXPRESS OR
+ * IMPLIED, INCLUDING BUT NOT LIMITED TO THE WARRANTIES OF MERCHANTABILITY,
+ * FITNESS FOR A PARTICULAR PURPOSE AND NONINFRINGEMENT. IN NO EVENT SHALL THE
+ * AUTHORS OR COPYRIGHT HOLDERS BE LIABLE FOR ANY CLAIM, DAMAGES OR OTHER
+ * LIABILITY, WHETHER IN AN ACTION OF CONTRACT, TORT OR OTHERWISE, ARISING FROM,
+ * OUT OF OR IN CONNECTION WITH THE SOFTWARE OR THE USE OR OTHER DEALINGS IN THE
+ * SOFTWARE.
+ */
+
+package genome.compare.str;
+
+import bam.marker_region.MotifAutomaton;
+import genome.assembly.GenomeRegion;
+
+import java.util.regex.Matcher;
+import java.util.regex.Pattern;
+
+/**
+ * Counts the occurrences of the STR motif in the sequence of regions,
+ * that are passed in the order of their positions. The state of the automaton
+ * is kept between the regions, so the motifs, that span the border of two
+ * adjacent regions, are counted as well. Also finds the longest uninterrupted
+ * run of the motif repeats.
+ *
+ * @author Sergey Khvatov
+ */
+public class STRCounter {
+
+    /**
+     * Automaton of the motif.
+     */
+    private MotifAutomaton automaton;
+
+    /**
+     * Current state of the automaton.
+     */
+    private int state = 0;
+
+    /**
+     * Position, that is expected to be the start of the next region.
+     */
+    private int nextPosition = -1;
+
+    /**
+     * Position right after the last occurrence of the motif.
+     */
+    private int lastMatchEnd = -1;
+
+    /**
+     * Number of the occurrences.
+     */
+    private int count = 0;
+
+    /**
+     * Length of the current run of the repeats.
+     */
+    private int run = 0;
+
+    /**
+     * Length of the longest run of the repeats.
+     */
+    private int longestRun = 0;
+
+    /**
+     * Creates the counter.
+     *
+     * @param automaton Automaton of the motif.
+     */
+    public STRCounter(MotifAutomaton automaton) {
+        this.automaton = automaton;
+    }
+
+    /**
+     * Processes the next region. If it does not start right after
+     * the previous one, the search is restarted.
+     *
+     * @param region Next region.
+     */
+    public void add(GenomeRegion region) {
+        add(region.getStart(), region.getNucleotideSequence());
+    }
+
+    /**
+     * Processes the next sequence. If it does not start right after
+     * the previous one, the search is restarted.
+     *
+     * @param start Position of the first nucleotide of the sequence.
+     * @param seq   Nucleotide sequence.
+     */
+    public void add(int start, CharSequence seq) {
+        if (start != nextPosition) {
+            state = 0;
+        }
+        int motifLength = automaton.getMotif().length();
+        for (int i = 0; i < seq.length(); i++) {
+            state = automaton.next(state, seq.charAt(i));
+            if (automaton.isAccepting(state)) {
+                count++;
+                int end = start + i + 1;
+                // repeats of the run follow each other without gaps
+                run = end - lastMatchEnd == motifLength ? run + 1 : 1;
+                lastMatchEnd = end;
+                longestRun = Math.max(longestRun, run);
+            }
+        }
+        nextPosition = start + seq.length();
+    }
+
+    /**
+     * Counts the occurrences of the motif, that is a regular expression,
+     * and finds the longest uninterrupted run of the repeats.
+     *
+     * @param motif Compiled motif.
+     * @param seq   Nucleotide sequence.
+     * @return Array with the number of the occurrences and the length of the longest run.
+     */
+    public static int[] countWithRegex(Pattern motif, CharSequence seq) {
+        Matcher matcher = motif.matcher(seq);
+        int count = 0, run = 0, longestRun = 0, lastMatchEnd = -1;
+        while (matcher.find()) {
+            count++;
+            run = matcher.start() == lastMatchEnd ? run + 1 : 1;
+            lastMatchEnd = matcher.end();
+            longestRun = Math.max(longestRun, run);
+        }
+        return new int[]{count, longestRun};
+    }
+
+    /**
+     * @return number of the occurrences of the motif.
+     */
+    public int getCount() {
+        return count;
+    }
+
+    /**
+     * @return number of the repeats in the longest uninterrupted run.
+     */
+    public int getLongestRun() {
+        return longestRun;
+    }
+}
@@ -0,0 +1,255 @@
+/*
+ * MIT License
+ * <p>
+ * Copyright (c) 2019-present Polina Bevad, Sergey Hvatov, Vladislav Marchenko
+ * <p>
+ * Permission is hereby granted, free of charge, to any person obtaining a copy
+ * of this software and associated documentation files (the "Software"), to deal
+ * in the Software without restriction, including without limitation the rights
+ * to use, copy, modify, merge, publish, distribute, sublicense, and/or sell
+ * copies of the Software, and to permit persons to whom the Software is
+ * furnished to do so, subject to the following conditions:
+ * <p>
+ * The above copyright notice and this permission notice shall be included in all
+ * copies or substantial portions of the Software.
+ * <p>
+ * THE SOFTWARE IS PROVIDED "AS IS", WITHOUT WARRANTY OF ANY KIND, EXPRESS OR
+ * IMPLIED, INCLUDING BUT NOT LIMITED TO THE WARRANTIES OF MERCHANTABILITY,
+ * FITNESS FOR A PARTICULAR PURPOSE AND NONINFRINGEMENT. IN NO EVENT SHALL THE
+ * AUTHORS OR COPYRIGHT HOLDERS BE LIABLE FOR ANY CLAIM, DAMAGES OR OTHER
+ * LIABILITY, WHETHER IN AN ACTION OF CONTRACT, TORT OR OTHERWISE, ARISING FROM,
+ * OUT OF OR IN CONNECTION WITH THE SOFTWARE OR THE USE OR OTHER DEALINGS IN THE
+ * SOFTWARE.
+ */
+
+package util;
+
+import org.apache.logging.log4j.LogManager;
+import org.apache.logging.log4j.Logger;
+
+import java.io.IOException;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.BlockingQueue;
+import java.util.concurrent.CountDownLatch;
+
+/**
+ * Single writer thread of the asynchronous outputs ({@link IntermediateOutput}, {@link ResultSink}).
+ * The producers put the items into the queue, the writer takes them in batches and writes them
+ * in the order of the queue. The rules are the same for all the outputs:
+ * <ul>
+ * <li>the output is flushed each time the queue becomes empty and before the flush marker (see {@link #await()}) is released;</li>
+ * <li>after the first error the rest of the items are dropped, so the producers are not blocked by the full queue;</li>
+ * <li>{@link #close()} waits, until all the items, that were put before, are written.</li>
+ * </ul>
+ * The writer thread is started on the first item.
+ *
+ * @param <T> Type of the items.
+ * @author Sergey Khvatov
+ */
+abstract class AsyncWriter<T> {
+
+    /**
+     * Maximum number of the items, that are taken from the queue at once.
+     */
+    static final int BATCH_SIZE = 256;
+
+    /**
+     * Item, that stops the writer thread.
+     */
+    private static final Object END = new Object();
+
+    /**
+     * Logger that is used to write down the information about the errors of the writer.
+     */
+    private static final Logger writerLogger = LogManager.getLogger(AsyncWriter.class);
+
+    /**
+     * Items, flush markers ({@link CountDownLatch}) and the {@link #END}, that are not written yet.
+     */
+    private final BlockingQueue<Object> queue;
+
+    /**
+     * Name of the writer thread.
+     */
+    private final String name;
+
+    /**
+     * If true, then the writer thread does not prevent the JVM from exiting.
+     */
+    private final boolean daemon;
+
+    /**
+     * Writer thread.
+     */
+    private volatile Thread thread;
+
+    /**
+     * First error, that occurred while writing.
+     */
+    private volatile Exception failure;
+
+    /**
+     * Creates the writer.
+     *
+     * @param name   Name of the writer thread.
+     * @param queue  Queue of the items: unbounded, if the producers should never wait,
+     *               or bounded, if they should wait for the output.
+     * @param daemon if true, then the writer thread does not prevent the JVM from exiting.
+     */
+    AsyncWriter(String name, BlockingQueue<Object> queue, boolean daemon) {
+        this.name = name;
+        this.queue = queue;
+        this.daemon = daemon;
+    }
+
+    /**
+     * Writes the item. It is called by the writer thread only.
+     *
+     * @param item Item.
+     * @throws IOException if error occurs while writing.
+     */
+    protected abstract void write(T item) throws IOException;
+
+    /**
+     * Flushes the output. It is called by the writer thread only.
+     *
+     * @throws IOException if error occurs while writing.
+     */
+    protected abstract void flush() throws IOException;
+
+    /**
+     * Puts the item into the queue without waiting.
+     *
+     * @param item Item.
+     * @return false, if the queue is full.
+     */
+    boolean offer(T item) {
+        start();
+        return queue.offer(item);
+    }
+
+    /**
+     * Puts the item into the queue, waiting if it is full.
+     *
+     * @param item Item.
+     * @throws InterruptedException if thread was interrupted while waiting.
+     */
+    void put(T item) throws InterruptedException {
+        start();
+        queue.put(item);
+    }
+
+    /**
+     * Waits, until all the items, that were put before, are written and the output is flushed.
+     */
+    void await() {
+        if (thread == null) {
+            return;
+        }
+        CountDownLatch marker = new CountDownLatch(1);
+        try {
+            queue.put(marker);
+            marker.await();
+        } catch (InterruptedException iex) {
+            Thread.currentThread().interrupt();
+        }
+    }
+
+    /**
+     * Waits, until all the items, that were put before, are written, and stops the writer thread.
+     */
+    void close() {
+        if (thread == null) {
+            return;
+        }
+        try {
+            queue.put(END);
+            thread.join();
+        } catch (InterruptedException iex) {
+            Thread.currentThread().interrupt();
+        }
+    }
+
+    /**
+     * @return First error, that occurred while writing, or null.
+     */
+    Exception getFailure() {
+        return failure;
+    }
+
+    /**
+     * Starts the writer thread, if it is not started yet.
+     */
+    private void start() {
+        if (thread == null) {
+            synchronized (this) {
+                if (thread == null) {
+                    Thread writer = new Thread(this::writeAll, name);
+                    writer.setDaemon(daemon);
+                    writer.start();
+                    thread = writer;
+                }
+            }
+        }
+    }
+
+    /**
+     * Body of the writer thread: writes the items until the {@link #END} one.
+     */
+    @SuppressWarnings("unchecked")
+    private void writeAll() {
+        List<Object> batch = new ArrayList<>(BATCH_SIZE);
+        try {
+            while (true) {
+                batch.add(queue.take());
+                queue.drainTo(batch, BATCH_SIZE - 1);
+                for (Object item : batch) {
+                    if (item == END) {
+                        return;
+                    }
+                    if (item instanceof CountDownLatch) {
+                        // everything before the marker is written before it is released
+                        flushSafely();
+                        ((CountDownLatch) item).countDown();
+                    } else if (failure == null) {
+                        try {
+                            write((T) item);
+                        } catch (IOException | RuntimeException ex) {
+                            fail(ex);
+                        }
+                    }
+                }
+                batch.clear();
+                if (queue.isEmpty()) {
+                    flushSafely();
+                }
+            }
+        } catch (InterruptedException iex) {
+            Thread.currentThread().interrupt();
+        }
+    }
+
+    /**
+     * Flushes the output, if there were no errors.
+     */
+    private void flushSafely() {
+        if (failure == null) {
+            try {
+                flush();
+            } catch (IOException | RuntimeException ex) {
+                fail(ex);
+            }
+        }
+    }
+
+    /**
+     * Remembers the first error, the next items are dropped.
+     *
+     * @param ex Error.
+     */
+    private void fail(Exception ex) {
+        failure = ex;
+        writerLogger.error("Error occurred in the writer thread [" + name + "]: " + ex.getMessage());
+    }
+}
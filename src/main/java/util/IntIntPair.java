@@ -0,0 +1,116 @@
+/*
+ * MIT License
+ * <p>
+ * Copyright (c) 2019-present Polina Bevad, Sergey Hvatov, Vladislav Marchenko
+ * <p>
+ * Permission is hereby granted, free of charge, to any person obtaining a copy
+ * of this software and associated documentation files (the "Software"), to deal
+ * in the Software without restriction, including without limitation the rights
+ * to use, copy, modify, merge, publish, distribute, sublicense, and/or sell
+ * copies of the Software, and to permit persons to whom the Software is
+ * furnished to do so, subject to the following conditions:
+ * <p>
+ * The above copyright notice and this permission notice shall be included in all
+ * copies or substantial portions of the Software.
+ * <p>
+ * THE SOFTWARE IS PROVIDED "AS IS", WITHOUT WARRANTY OF ANY KIND, EXPRESS OR
+ * IMPLIED, INCLUDING BUT NOT LIMITED TO THE WARRANTIES OF MERCHANTABILITY,
+ * FITNESS FOR A PARTICULAR PURPOSE AND NONINFRINGEMENT. IN NO EVENT SHALL THE
+ * AUTHORS OR COPYRIGHT HOLDERS BE LIABLE FOR ANY CLAIM, DAMAGES OR OTHER
+ * LIABILITY, WHETHER IN AN ACTION OF CONTRACT, TORT OR OTHERWISE, ARISING FROM,
+ * OUT OF OR IN CONNECTION WITH THE SOFTWARE OR THE USE OR OTHER DEALINGS IN THE
+ * SOFTWARE.
+ */
+
+package util;
+
+/**
+ * Immutable pair of two primitive ints, that is used instead of the
+ * {@link Pair} of the boxed integers in the comparison results.
+ *
+ * @author Sergey Khvatov
+ */
+public final class IntIntPair {
+    /**
+     * Key of this pair.
+     */
+    private final int key;
+
+    /**
+     * Value of this pair.
+     */
+    private final int value;
+
+    /**
+     * Creates a new pair.
+     *
+     * @param key   The key for this pair
+     * @param value The value to use for this pair
+     */
+    public IntIntPair(int key, int value) {
+        this.key = key;
+        this.value = value;
+    }
+
+    /**
+     * Gets the key for this pair.
+     *
+     * @return key for this pair
+     */
+    public int getKey() {
+        return key;
+    }
+
+    /**
+     * Gets the value for this pair.
+     *
+     * @return value for this pair
+     */
+    public int getValue() {
+        return value;
+    }
+
+    /**
+     * Sums the keys and the values of two pairs.
+     *
+     * @param first  First pair.
+     * @param second Second pair.
+     * @return Pair of the sums.
+     */
+    public static IntIntPair sum(IntIntPair first, IntIntPair second) {
+        return new IntIntPair(first.key + second.key, first.value + second.value);
+    }
+
+    /**
+     * Takes the maximum keys and values of two pairs.
+     *
+     * @param first  First pair.
+     * @param second Second pair.
+     * @return Pair of the maximums.
+     */
+    public static IntIntPair max(IntIntPair first, IntIntPair second) {
+        return new IntIntPair(Math.max(first.key, second.key), Math.max(first.value, second.value));
+    }
+
+    @Override
+    public boolean equals(Object o) {
+        if (this == o) {
+            return true;
+        }
+        if (!(o instanceof IntIntPair)) {
+            return false;
+        }
+        IntIntPair other = (IntIntPair) o;
+        return key == other.key && value == other.value;
+    }
+
+    @Override
+    public int hashCode() {
+        return 31 * key + value;
+    }
+
+    @Override
+    public String toString() {
+        return "[" + "first=" + key + ", second=" + value + "]";
+    }
+}
@@ -0,0 +1,215 @@
+/*
+ * MIT License
+ * <p>
+ * Copyright (c) 2019-present Polina Bevad, Sergey Hvatov, Vladislav Marchenko
+ * <p>
+ * Permission is hereby granted, free of charge, to any person obtaining a copy
+ * of this software and associated documentation files (the "Software"), to deal
+ * in the Software without restriction, including without limitation the rights
+ * to use, copy, modify, merge, publish, distribute, sublicense, and/or sell
+ * copies of the Software, and to permit persons to whom the Software is
+ * furnished to do so, subject to the following conditions:
+ * <p>
+ * The above copyright notice and this permission notice shall be included in all
+ * copies or substantial portions of the Software.
+ * <p>
+ * THE SOFTWARE IS PROVIDED "AS IS", WITHOUT WARRANTY OF ANY KIND, EXPRESS OR
+ * IMPLIED, INCLUDING BUT NOT LIMITED TO THE WARRANTIES OF MERCHANTABILITY,
+ * FITNESS FOR A PARTICULAR PURPOSE AND NONINFRINGEMENT. IN NO EVENT SHALL THE
+ * AUTHORS OR COPYRIGHT HOLDERS BE LIABLE FOR ANY CLAIM, DAMAGES OR OTHER
+ * LIABILITY, WHETHER IN AN ACTION OF CONTRACT, TORT OR OTHERWISE, ARISING FROM,
+ * OUT OF OR IN CONNECTION WITH THE SOFTWARE OR THE USE OR OTHER DEALINGS IN THE
+ * SOFTWARE.
+ */
+
+package util;
+
+import java.io.PrintStream;
+import java.util.concurrent.LinkedTransferQueue;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Channel of the intermediate output (-io). The threads, that compare the genomes, put the lines
+ * into the lock-free queue and do not wait for the console; the lines are written by the single
+ * writer thread (see {@link AsyncWriter}) in batches. The number of the lines per second can be limited with the
+ * {@link #RATE_PROPERTY} system property, the lines over the limit are skipped and counted.
+ *
+ * @author Sergey Khvatov
+ */
+public final class IntermediateOutput {
+
+    /**
+     * Name of the system property, that defines the maximum number of the lines
+     * written per second (0 or absent - unlimited).
+     */
+    public static final String RATE_PROPERTY = "bio_relatives.io.rate";
+
+    /**
+     * Default channel, that writes to the standard output (or to the standard error, see {@link #useStandardError()}).
+     */
+    private static volatile IntermediateOutput console = new IntermediateOutput(System.out, Integer.getInteger(RATE_PROPERTY, 0));
+
+    /**
+     * Writer of the lines, its queue is unbounded, so the threads never wait for it.
+     */
+    private final AsyncWriter<String> writer = new AsyncWriter<String>("intermediate-output", new LinkedTransferQueue<>(), true) {
+        @Override
+        protected void write(String line) {
+            writeLine(line);
+        }
+
+        @Override
+        protected void flush() {
+            writeBatch();
+        }
+    };
+
+    /**
+     * Lines, that are not printed yet.
+     */
+    private final StringBuilder batch = new StringBuilder();
+
+    /**
+     * Output of the lines.
+     */
+    private final PrintStream out;
+
+    /**
+     * Maximum number of the lines per second, or 0, if it is not limited.
+     */
+    private final int rate;
+
+    /**
+     * Number of the lines in the batch.
+     */
+    private int batchLines;
+
+    /**
+     * Start of the current second of the rate limit, in nanoseconds.
+     */
+    private long windowStart;
+
+    /**
+     * Number of the lines written in the current second.
+     */
+    private int windowLines;
+
+    /**
+     * Number of the lines skipped since the last message about them.
+     */
+    private long skipped;
+
+    /**
+     * Creates the channel.
+     *
+     * @param out  Output of the lines.
+     * @param rate Maximum number of the lines per second, or 0, if it is not limited.
+     */
+    IntermediateOutput(PrintStream out, int rate) {
+        this.out = out;
+        this.rate = Math.max(rate, 0);
+    }
+
+    /**
+     * Writes the line to the standard output asynchronously.
+     *
+     * @param line Line.
+     */
+    public static void println(String line) {
+        console.add(line);
+    }
+
+    /**
+     * Waits, until all the lines, that were put before, are written to the standard output.
+     */
+    public static void flush() {
+        console.await();
+    }
+
+    /**
+     * Writes the next lines to the standard error instead of the standard output,
+     * when the standard output is used by the results (see {@link ResultSink#STDOUT}).
+     * Lines, that were put before, are written to the standard output.
+     */
+    public static synchronized void useStandardError() {
+        IntermediateOutput previous = console;
+        console = new IntermediateOutput(System.err, previous.rate);
+        previous.await();
+    }
+
+    /**
+     * Puts the line into the queue.
+     *
+     * @param line Line.
+     */
+    void add(String line) {
+        writer.offer(line);
+    }
+
+    /**
+     * Waits, until all the lines, that were put before, are written.
+     */
+    void await() {
+        writer.await();
+    }
+
+    /**
+     * Adds the line to the batch, if it is not over the rate limit, prints the full batch.
+     *
+     * @param line Line.
+     */
+    private void writeLine(String line) {
+        if (!accept()) {
+            return;
+        }
+        batch.append(line).append(System.lineSeparator());
+        if (++batchLines == AsyncWriter.BATCH_SIZE) {
+            print();
+        }
+    }
+
+    /**
+     * Prints the batch and the number of the skipped lines, if there are any.
+     */
+    private void writeBatch() {
+        if (skipped != 0) {
+            batch.append("... ").append(skipped).append(" lines of the intermediate output are skipped").append(System.lineSeparator());
+            skipped = 0;
+        }
+        print();
+    }
+
+    /**
+     * Prints the batch, it is cleared.
+     */
+    private void print() {
+        if (batch.length() != 0) {
+            out.print(batch);
+            out.flush();
+            batch.setLength(0);
+        }
+        batchLines = 0;
+    }
+
+    /**
+     * Checks the rate limit for the next line.
+     *
+     * @return true, if the line should be written.
+     */
+    private boolean accept() {
+        if (rate == 0) {
+            return true;
+        }
+        long now = System.nanoTime();
+        if (now - windowStart >= TimeUnit.SECONDS.toNanos(1)) {
+            windowStart = now;
+            windowLines = 0;
+        }
+        if (windowLines < rate) {
+            windowLines++;
+            return true;
+        }
+        skipped++;
+        return false;
+    }
+}
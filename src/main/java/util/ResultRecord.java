@@ -0,0 +1,96 @@
+/*
+ * MIT License
+ * <p>
+ * Copyright (c) 2019-present Polina Bevad, Sergey Hvatov, Vladislav Marchenko
+ * <p>
+ * Permission is hereby granted, free of charge, to any person obtaining a copy
+ * of this software and associated documentation files (the "Software"), to deal
+ * in the Software without restriction, including without limitation the rights
+ * to use, copy, modify, merge, publish, distribute, sublicense, and/or sell
+ * copies of the Software, and to permit persons to whom the Software is
+ * furnished to do so, subject to the following conditions:
+ * <p>
+ * The above copyright notice and this permission notice shall be included in all
+ * copies or substantial portions of the Software.
+ * <p>
+ * THE SOFTWARE IS PROVIDED "AS IS", WITHOUT WARRANTY OF ANY KIND, EXPRESS OR
+ * IMPLIED, INCLUDING BUT NOT LIMITED TO THE WARRANTIES OF MERCHANTABILITY,
+ * FITNESS FOR A PARTICULAR PURPOSE AND NONINFRINGEMENT. IN NO EVENT SHALL THE
+ * AUTHORS OR COPYRIGHT HOLDERS BE LIABLE FOR ANY CLAIM, DAMAGES OR OTHER
+ * LIABILITY, WHETHER IN AN ACTION OF CONTRACT, TORT OR OTHERWISE, ARISING FROM,
+ * OUT OF OR IN CONNECTION WITH THE SOFTWARE OR THE USE OR OTHER DEALINGS IN THE
+ * SOFTWARE.
+ */
+
+package util;
+
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.List;
+
+/**
+ * Structured record of the results, that is written by the {@link ResultSink}:
+ * type of the record and the ordered named values (strings or numbers).
+ *
+ * @author Sergey Khvatov
+ */
+public class ResultRecord {
+
+    /**
+     * Type of the record (region, feature, marker ...).
+     */
+    private final String type;
+
+    /**
+     * Names of the values.
+     */
+    private final List<String> names = new ArrayList<>();
+
+    /**
+     * Values in the order of the names.
+     */
+    private final List<Object> values = new ArrayList<>();
+
+    /**
+     * Creates an empty record.
+     *
+     * @param type Type of the record.
+     */
+    public ResultRecord(String type) {
+        this.type = type;
+    }
+
+    /**
+     * Adds the named value to the record.
+     *
+     * @param name  Name of the value.
+     * @param value String, number or null.
+     * @return this record.
+     */
+    public ResultRecord add(String name, Object value) {
+        names.add(name);
+        values.add(value);
+        return this;
+    }
+
+    /**
+     * @return type of the record.
+     */
+    public String getType() {
+        return type;
+    }
+
+    /**
+     * @return names of the values.
+     */
+    public List<String> getNames() {
+        return Collections.unmodifiableList(names);
+    }
+
+    /**
+     * @return values in the order of the names.
+     */
+    public List<Object> getValues() {
+        return Collections.unmodifiableList(values);
+    }
+}
@@ -0,0 +1,369 @@
+/*
+ * MIT License
+ * <p>
+ * Copyright (c) 2019-present Polina Bevad, Sergey Hvatov, Vladislav Marchenko
+ * <p>
+ * Permission is hereby granted, free of charge, to any person obtaining a copy
+ * of this software and associated documentation files (the "Software"), to deal
+ * in the Software without restriction, including without limitation the rights
+ * to use, copy, modify, merge, publish, distribute, sublicense, and/or sell
+ * copies of the Software, and to permit persons to whom the Software is
+ * furnished to do so, subject to the following conditions:
+ * <p>
+ * The above copyright notice and this permission notice shall be included in all
+ * copies or substantial portions of the Software.
+ * <p>
+ * THE SOFTWARE IS PROVIDED "AS IS", WITHOUT WARRANTY OF ANY KIND, EXPRESS OR
+ * IMPLIED, INCLUDING BUT NOT LIMITED TO THE WARRANTIES OF MERCHANTABILITY,
+ * FITNESS FOR A PARTICULAR PURPOSE AND NONINFRINGEMENT. IN NO EVENT SHALL THE
+ * AUTHORS OR COPYRIGHT HOLDERS BE LIABLE FOR ANY CLAIM, DAMAGES OR OTHER
+ * LIABILITY, WHETHER IN AN ACTION OF CONTRACT, TORT OR OTHERWISE, ARISING FROM,
+ * OUT OF OR IN CONNECTION WITH THE SOFTWARE OR THE USE OR OTHER DEALINGS IN THE
+ * SOFTWARE.
+ */
+
+package util;
+
+import bam.regular.BEDFeature;
+import exception.GenomeException;
+import exception.GenomeFileException;
+import genome.compare.common.ComparisonResult;
+import genome.compare.levenshtein.LevenshteinComparisonResult;
+
+import java.io.BufferedWriter;
+import java.io.FileOutputStream;
+import java.io.IOException;
+import java.io.OutputStreamWriter;
+import java.io.Writer;
+import java.nio.charset.StandardCharsets;
+import java.util.Collections;
+import java.util.HashSet;
+import java.util.List;
+import java.util.Set;
+import java.util.concurrent.ArrayBlockingQueue;
+
+/**
+ * Writes the results of the regions, features and markers as soon as they are produced,
+ * one record per line, as NDJSON or TSV. The producers only put the results into the queue,
+ * the records are built, formatted and written by the single writer thread (see {@link AsyncWriter}),
+ * that flushes the output each time the queue becomes empty, so the results can be read during the run.
+ * The queue is bounded, so if the output is slower than the comparison, the producers wait
+ * for the writer instead of keeping all the results of the run in the heap.
+ *
+ * @author Sergey Khvatov
+ */
+public class ResultSink implements AutoCloseable {
+
+    /**
+     * Path, that means the standard output.
+     */
+    public static final String STDOUT = "-";
+
+    /**
+     * Extension of the TSV files.
+     */
+    private static final String TSV_EXTENSION = ".tsv";
+
+    /**
+     * Maximum number of the entries in the queue.
+     */
+    static final int QUEUE_CAPACITY = 1024;
+
+    /**
+     * Format of the records.
+     */
+    public enum Format {
+        /**
+         * One JSON object per line.
+         */
+        NDJSON,
+        /**
+         * Tab-separated values, the header of each type of the records
+         * is written before the first record of this type and starts with #.
+         */
+        TSV
+    }
+
+    /**
+     * Results, that are put into the queue by the producers.
+     */
+    private static final class Entry {
+
+        private final String pair;
+
+        private final BEDFeature feature;
+
+        private final List<? extends ComparisonResult> results;
+
+        private final ResultRecord record;
+
+        private Entry(String pair, BEDFeature feature, List<? extends ComparisonResult> results, ResultRecord record) {
+            this.pair = pair;
+            this.feature = feature;
+            this.results = results;
+            this.record = record;
+        }
+    }
+
+    /**
+     * Writer of the entries, its queue is bounded. The producers are the threads, that collect
+     * the results of the features, not the workers, that compare them, so they can wait for the writer.
+     */
+    private final AsyncWriter<Entry> entryWriter = new AsyncWriter<Entry>("result-sink", new ArrayBlockingQueue<>(QUEUE_CAPACITY), false) {
+        @Override
+        protected void write(Entry entry) throws IOException {
+            writeEntry(entry);
+        }
+
+        @Override
+        protected void flush() throws IOException {
+            writer.flush();
+        }
+    };
+
+    /**
+     * Output of the records.
+     */
+    private final Writer writer;
+
+    /**
+     * Format of the records.
+     */
+    private final Format format;
+
+    /**
+     * If true, then the output is closed with the sink (it is false for the standard output).
+     */
+    private final boolean closeWriter;
+
+    /**
+     * Types of the records, which TSV headers are written.
+     */
+    private final Set<String> headers = new HashSet<>();
+
+    /**
+     * If true, then no more results are accepted.
+     */
+    private volatile boolean closed;
+
+    /**
+     * Creates the sink.
+     *
+     * @param writer      Output of the records.
+     * @param format      Format of the records.
+     * @param closeWriter if true, then the output is closed with the sink.
+     */
+    public ResultSink(Writer writer, Format format, boolean closeWriter) {
+        this.writer = writer;
+        this.format = format;
+        this.closeWriter = closeWriter;
+    }
+
+    /**
+     * Opens the sink, that writes to the file (TSV, if its name ends with .tsv,
+     * otherwise NDJSON) or to the standard output (NDJSON), if the path is {@link #STDOUT}.
+     *
+     * @param path Path to the file or {@link #STDOUT}.
+     * @return New sink.
+     * @throws GenomeFileException if file can not be created.
+     */
+    public static ResultSink open(String path) {
+        if (STDOUT.equals(path)) {
+            return new ResultSink(new BufferedWriter(new OutputStreamWriter(System.out, StandardCharsets.UTF_8)), Format.NDJSON, false);
+        }
+        try {
+            Format format = path.endsWith(TSV_EXTENSION) ? Format.TSV : Format.NDJSON;
+            return new ResultSink(new BufferedWriter(new OutputStreamWriter(new FileOutputStream(path), StandardCharsets.UTF_8)), format, true);
+        } catch (IOException ex) {
+            throw new GenomeFileException(ResultSink.class.getName(), "open", path, ex.getMessage());
+        }
+    }
+
+    /**
+     * Writes the record.
+     *
+     * @param pair   Name of the compared pair of the persons, or null.
+     * @param record Record.
+     * @throws GenomeException if sink is closed.
+     */
+    public void write(String pair, ResultRecord record) {
+        put(new Entry(pair, null, Collections.emptyList(), record));
+    }
+
+    /**
+     * Writes the records of the results (see {@link ComparisonResult#toRecord()}).
+     *
+     * @param pair    Name of the compared pair of the persons, or null.
+     * @param results Results of the comparison.
+     * @throws GenomeException if sink is closed.
+     */
+    public void write(String pair, List<? extends ComparisonResult> results) {
+        put(new Entry(pair, null, results, null));
+    }
+
+    /**
+     * Writes the records of the regions of the feature and the record of the feature
+     * with the total difference and length of its regions.
+     *
+     * @param pair    Name of the compared pair of the persons, or null.
+     * @param feature Feature of the BED file.
+     * @param results Results of the comparison of the regions of the feature.
+     * @throws GenomeException if sink is closed.
+     */
+    public void writeFeature(String pair, BEDFeature feature, List<? extends ComparisonResult> results) {
+        put(new Entry(pair, feature, results, null));
+    }
+
+    /**
+     * Waits, until all the records are written, and closes the output.
+     *
+     * @throws GenomeFileException if error occurred while writing.
+     */
+    @Override
+    public void close() {
+        if (closed) {
+            return;
+        }
+        closed = true;
+        entryWriter.close();
+        Exception failure = entryWriter.getFailure();
+        try {
+            if (closeWriter) {
+                writer.close();
+            } else {
+                writer.flush();
+            }
+        } catch (IOException ex) {
+            if (failure == null) {
+                failure = ex;
+            }
+        }
+        if (failure != null) {
+            throw new GenomeFileException(getClass().getName(), "close", "results", failure.getMessage());
+        }
+    }
+
+    /**
+     * Puts the entry into the queue, waiting if it is full.
+     *
+     * @param entry Entry.
+     * @throws GenomeException if sink is closed or thread was interrupted.
+     */
+    private void put(Entry entry) {
+        if (closed) {
+            throw new GenomeException(getClass().getName(), "write", "sink is closed");
+        }
+        try {
+            entryWriter.put(entry);
+        } catch (InterruptedException iex) {
+            Thread.currentThread().interrupt();
+            throw new GenomeException(getClass().getName(), "write", "interrupted");
+        }
+    }
+
+    /**
+     * Writes the records of the entry.
+     *
+     * @param entry Entry.
+     * @throws IOException if error occurs while writing.
+     */
+    private void writeEntry(Entry entry) throws IOException {
+        if (entry.record != null) {
+            writeRecord(entry.pair, entry.record);
+        }
+        long difference = 0, length = 0;
+        for (ComparisonResult result : entry.results) {
+            writeRecord(entry.pair, result.toRecord());
+            if (result instanceof LevenshteinComparisonResult) {
+                difference += ((LevenshteinComparisonResult) result).getDifference();
+                length += ((LevenshteinComparisonResult) result).getSequenceLen();
+            }
+        }
+        if (entry.feature != null) {
+            writeRecord(entry.pair, new ResultRecord("feature")
+                .add("chrom", entry.feature.getChromosomeName())
+                .add("gene", entry.feature.getGene())
+                .add("start", entry.feature.getStartPos())
+                .add("end", entry.feature.getEndPos())
+                .add("regions", entry.results.size())
+                .add("difference", difference)
+                .add("length", length));
+        }
+    }
+
+    /**
+     * Formats and writes one record.
+     *
+     * @param pair   Name of the compared pair of the persons, or null.
+     * @param record Record.
+     * @throws IOException if error occurs while writing.
+     */
+    private void writeRecord(String pair, ResultRecord record) throws IOException {
+        StringBuilder line = new StringBuilder();
+        if (format == Format.TSV) {
+            if (headers.add(record.getType())) {
+                line.append("#record\tpair");
+                for (String name : record.getNames()) {
+                    line.append('\t').append(name);
+                }
+                line.append('\n');
+            }
+            line.append(record.getType()).append('\t').append(pair != null ? pair : "");
+            for (Object value : record.getValues()) {
+                line.append('\t');
+                if (value != null) {
+                    line.append(value.toString().replace('\t', ' ').replace('\n', ' '));
+                }
+            }
+        } else {
+            line.append("{\"record\":");
+            appendJson(line, record.getType());
+            if (pair != null) {
+                line.append(",\"pair\":");
+                appendJson(line, pair);
+            }
+            for (int i = 0; i < record.getNames().size(); i++) {
+                line.append(',');
+                appendJson(line, record.getNames().get(i));
+                line.append(':');
+                appendJson(line, record.getValues().get(i));
+            }
+            line.append('}');
+        }
+        line.append('\n');
+        writer.write(line.toString());
+    }
+
+    /**
+     * Appends the JSON representation of the value.
+     *
+     * @param line  Line.
+     * @param value String, number or null.
+     */
+    private static void appendJson(StringBuilder line, Object value) {
+        boolean floating = value instanceof Double || value instanceof Float;
+        if (value == null || (floating && (Double.isNaN(((Number) value).doubleValue()) || Double.isInfinite(((Number) value).doubleValue())))) {
+            line.append("null");
+        } else if (value instanceof Number || value instanceof Boolean) {
+            line.append(value);
+        } else {
+            String str = value.toString();
+            line.append('"');
+            for (int i = 0; i < str.length(); i++) {
+                char c = str.charAt(i);
+                if (c == '"' || c == '\\') {
+                    line.append('\\').append(c);
+                } else if (c == '\n') {
+                    line.append("\\n");
+                } else if (c == '\t') {
+                    line.append("\\t");
+                } else if (c < 0x20) {
+                    line.append(String.format("\\u%04x", (int) c));
+                } else {
+                    line.append(c);
+                }
+            }
+            line.append('"');
+        }
+    }
+}
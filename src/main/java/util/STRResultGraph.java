@@ -68,14 +68,14 @@ public class STRResultGraph {
         /**
          * Position of the marker in the chromosome.
          */
-        Pair<Integer, Integer> markerPosition;
+        IntIntPair markerPosition;
 
         /**
          * Result of the comparisons.
          */
-        Pair<Integer, Integer> comparisonResult;
+        IntIntPair comparisonResult;
 
-        public GraphValue(String firstPersonId, String secondPersonId, String marker, Pair<Integer, Integer> pos, Pair<Integer, Integer> comparisonResult) {
+        public GraphValue(String firstPersonId, String secondPersonId, String marker, IntIntPair pos, IntIntPair comparisonResult) {
             this.firstPersonId = firstPersonId;
             this.secondPersonId = secondPersonId;
             this.marker = marker;
@@ -88,8 +88,8 @@ public class STRResultGraph {
      * Comparator that is used to sort the values according to their position in the genome.
      */
     private static final Comparator<GraphValue> GRAPH_VALUE_COMPARATOR = (o1, o2) -> {
-        int keyCmp = o1.markerPosition.getKey().compareTo(o2.markerPosition.getKey());
-        if (keyCmp == 0) return o1.markerPosition.getValue().compareTo(o2.markerPosition.getValue());
+        int keyCmp = Integer.compare(o1.markerPosition.getKey(), o2.markerPosition.getKey());
+        if (keyCmp == 0) return Integer.compare(o1.markerPosition.getValue(), o2.markerPosition.getValue());
         return keyCmp;
     };
 
@@ -127,7 +127,7 @@ public class STRResultGraph {
      * @param pos    Position of the marker in the genome.
      * @param res    Result of teh comparison.
      */
-    public void add(String marker, String fId, String sId, Pair<Integer, Integer> pos, Pair<Integer, Integer> res) {
+    public void add(String marker, String fId, String sId, IntIntPair pos, IntIntPair res) {
         points.add(new GraphValue(fId, sId, marker, pos, res));
     }
 
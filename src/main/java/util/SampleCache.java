@@ -0,0 +1,84 @@
+/*
+ * MIT License
+ * <p>
+ * Copyright (c) 2019-present Polina Bevad, Sergey Hvatov, Vladislav Marchenko
+ * <p>
+ * Permission is hereby granted, free of charge, to any person obtaining a copy
+ * of this software and associated documentation files (the "Software"), to deal
+ * in the Software without restriction, including without limitation the rights
+ * to use, copy, modify, merge, publish, distribute, sublicense, and/or sell
+ * copies of the Software, and to permit persons to whom the Software is
+ * furnished to do so, subject to the following conditions:
+ * <p>
+ * The above copyright notice and this permission notice shall be included in all
+ * copies or substantial portions of the Software.
+ * <p>
+ * THE SOFTWARE IS PROVIDED "AS IS", WITHOUT WARRANTY OF ANY KIND, EXPRESS OR
+ * IMPLIED, INCLUDING BUT NOT LIMITED TO THE WARRANTIES OF MERCHANTABILITY,
+ * FITNESS FOR A PARTICULAR PURPOSE AND NONINFRINGEMENT. IN NO EVENT SHALL THE
+ * AUTHORS OR COPYRIGHT HOLDERS BE LIABLE FOR ANY CLAIM, DAMAGES OR OTHER
+ * LIABILITY, WHETHER IN AN ACTION OF CONTRACT, TORT OR OTHERWISE, ARISING FROM,
+ * OUT OF OR IN CONNECTION WITH THE SOFTWARE OR THE USE OR OTHER DEALINGS IN THE
+ * SOFTWARE.
+ */
+
+package util;
+
+import java.io.File;
+
+/**
+ * Location and validation of the files, where the data built from the BAM files
+ * (sketches, consensus) are cached. The files are not written next to the input
+ * data: caching is enabled only if the directory is set with the {@link #DIR_PROPERTY}
+ * system property. Cached file is valid only for the same BAM file, that is checked
+ * by its stamp (see {@link #stamp(File)}).
+ *
+ * @author Sergey Khvatov
+ */
+public final class SampleCache {
+
+    /**
+     * Name of the system property, that defines the directory of the cached files.
+     */
+    public static final String DIR_PROPERTY = "bio_relatives.cache.dir";
+
+    private SampleCache() {
+    }
+
+    /**
+     * Returns the directory of the cached files.
+     *
+     * @return Directory, or null, if caching is disabled.
+     */
+    public static File getDirectory() {
+        String dir = System.getProperty(DIR_PROPERTY);
+        return dir != null && !dir.isEmpty() ? new File(dir) : null;
+    }
+
+    /**
+     * Returns the cached file of the BAM file in the directory. The name of the file contains
+     * the hash of the absolute path of the BAM file, so that the BAM files with the same
+     * names from the different directories have different cached files.
+     *
+     * @param directory Directory of the cached files.
+     * @param bam       BAM file.
+     * @param extension Extension of the cached file.
+     * @return Cached file.
+     */
+    public static File getFile(File directory, File bam, String extension) {
+        String path = bam.getAbsolutePath();
+        return new File(directory, bam.getName() + "-" + Integer.toHexString(path.hashCode()) + extension);
+    }
+
+    /**
+     * Calculates the stamp of the BAM file from its length and the time of its last modification,
+     * so that the cached file is not used, if the BAM file is regenerated or replaced.
+     *
+     * @param bam BAM file.
+     * @return stamp value.
+     */
+    public static long stamp(File bam) {
+        long result = bam.length() * 31 + bam.lastModified();
+        return result * 0x9E3779B97F4A7C15L ^ (result >>> 29);
+    }
+}
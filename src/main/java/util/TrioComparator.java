@@ -26,12 +26,23 @@ package util;
 
 import exception.GenomeException;
 import exception.GenomeFileException;
+import executors.CohortComparatorExecutor;
 import executors.GenomeComparatorExecutor;
+import executors.KinshipComparatorExecutor;
+import executors.TrioComparatorExecutor;
+import executors.TrioFeatureCallable;
 import genome.compare.common.ComparatorType;
 import genome.compare.common.ComparisonResultAnalyzer;
+import genome.compare.haplotype.HaplotypeDatabase;
+import genome.compare.haplotype.HaplotypeMatch;
+import genome.compare.kinship.KinshipComparisonResultAnalyzer;
+import genome.compare.kinship.KinshipMatrix;
 import genome.compare.levenshtein.LevenshteinComparisonResultAnalyzer;
+import genome.compare.str.STRComparisonResultAnalyzer;
 
+import java.io.File;
 import java.util.List;
+import java.util.Map;
 
 /**
  * Class for running of genome comparing of two or three persons
@@ -39,6 +50,11 @@ import java.util.List;
  * @author Vladislav Marchenko
  */
 public class TrioComparator {
+    /**
+     * Number of the nearest haplotypes, that are found in the haplotype database.
+     */
+    private static final int NEAREST_HAPLOTYPES_NUM = 10;
+
     /**
      * Static method, which run a comparing of genomes of two persons.
      *
@@ -49,14 +65,28 @@ public class TrioComparator {
      * @param intermediateOutput if this flag is true , then interim genome comparison results will be displayed,
      *                           else - only the main chromosome results will be obtained
      * @param threadsNum         Number of threads that will be used to process exons.
+     * @param maxInFlight        Maximum number of the features, that are processed at once (0 - default).
+     * @param pipelineWorkers    Numbers of the workers of the stages of the pipeline, or null, if the pipeline is not used.
+     * @param virtualThreads     if this flag is true, then BAM files are read by the virtual threads (JDK 21+)
+     * @param haplotypeDatabase  path to the haplotype database, where the nearest haplotypes
+     *                           of both persons are searched (only for STR comparison), or null
+     * @param sink               sink, the records of the results are written to as soon as they are produced, or null
      * @return String with results of comparing of two genomes
      * @throws GenomeFileException if some errors of input files occurred
      * @throws GenomeException     if some errors occurred through the work of code
      */
-    public static String compareTwoGenomes(String BAMFileName1, String BAMFileName2, String BEDFileName, ComparatorType type, int threadsNum, boolean intermediateOutput, String path) {
+    public static String compareTwoGenomes(String BAMFileName1, String BAMFileName2, String BEDFileName, ComparatorType type, int threadsNum, int maxInFlight, int[] pipelineWorkers, boolean virtualThreads, boolean intermediateOutput, String path, String haplotypeDatabase, ResultSink sink) {
         GenomeComparatorExecutor comparator = new GenomeComparatorExecutor(BAMFileName1, BAMFileName2, BEDFileName, type);
-        ComparisonResultAnalyzer geneComparisonResultAnalyzer = comparator.compareGenomes(threadsNum, intermediateOutput, path);
-        return geneComparisonResultAnalyzer.analyze();
+        comparator.setResultSink(sink, "first-second");
+        ComparisonResultAnalyzer geneComparisonResultAnalyzer = comparator.compareGenomes(threadsNum, intermediateOutput, path, virtualThreads, maxInFlight, pipelineWorkers);
+        String result = geneComparisonResultAnalyzer.analyze();
+        if (haplotypeDatabase != null && geneComparisonResultAnalyzer instanceof STRComparisonResultAnalyzer) {
+            STRComparisonResultAnalyzer analyzer = (STRComparisonResultAnalyzer) geneComparisonResultAnalyzer;
+            HaplotypeDatabase database = new HaplotypeDatabase(new File(haplotypeDatabase));
+            result += getNearestHaplotypesInfo("first person", analyzer.getFirstHaplotype(), database);
+            result += getNearestHaplotypesInfo("second person", analyzer.getSecondHaplotype(), database);
+        }
+        return result;
     }
 
     /**
@@ -68,32 +98,144 @@ public class TrioComparator {
      * @param BEDFileName        name of the BED file
      * @param type               Type of the comparator, that will be used to compare genomes.
      * @param threadsNum         Number of threads that will be used to process exons.
+     * @param maxInFlight        Maximum number of the features, that are processed at once (0 - default).
+     * @param pipelineWorkers    Numbers of the workers of the stages of the pipeline, or null, if the pipeline is not used.
+     * @param virtualThreads     if this flag is true, then BAM files are read by the virtual threads (JDK 21+)
      * @param intermediateOutput if this flag is true , then interim genome comparison results will be displayed,
      *                           else - only the main chromosome results will be obtained
+     * @param haplotypeDatabase  path to the haplotype database, where the nearest haplotypes
+     *                           of father and son are searched (only for STR comparison), or null
+     * @param mendelian          if this flag is true, then the Mendelian errors of the trio are counted
+     *                           (only for Levenshtein comparison without the pipeline)
+     * @param sink               sink, the records of the results are written to as soon as they are produced, or null
      * @return String with results of genomes comparing of three persons: son with father and son with mother
      * @throws GenomeException if some errors occurred through the work of code
      */
-    public static String compareThreeGenomes(String fatherBAMFileName, String motherBAMFileName, String sonBAMFileName, String BEDFileName, ComparatorType type, int threadsNum, boolean intermediateOutput, String path) {
-        GenomeComparatorExecutor comparator1 = new GenomeComparatorExecutor(sonBAMFileName, fatherBAMFileName, BEDFileName, type);
-        ComparisonResultAnalyzer geneComparisonResultAnalyzer1 = comparator1.compareGenomes(threadsNum, intermediateOutput, path);
+    public static String compareThreeGenomes(String fatherBAMFileName, String motherBAMFileName, String sonBAMFileName, String BEDFileName, ComparatorType type, int threadsNum, int maxInFlight, int[] pipelineWorkers, boolean virtualThreads, boolean intermediateOutput, String path, String haplotypeDatabase, boolean mendelian, ResultSink sink) {
+        ComparisonResultAnalyzer geneComparisonResultAnalyzer1;
+        ComparisonResultAnalyzer geneComparisonResultAnalyzer2;
+        ComparisonResultAnalyzer mendelianAnalyzer = null;
+        if (type.isLevenshtein() && pipelineWorkers == null) {
+            // son's genome is read and assembled once and compared with both parents at the same time
+            TrioComparatorExecutor comparator = new TrioComparatorExecutor(fatherBAMFileName, motherBAMFileName, sonBAMFileName, BEDFileName, type);
+            comparator.setResultSink(sink);
+            List<ComparisonResultAnalyzer> analyzers = comparator.compareGenomes(threadsNum, intermediateOutput, virtualThreads, maxInFlight, mendelian);
+            geneComparisonResultAnalyzer1 = analyzers.get(TrioFeatureCallable.FATHER);
+            geneComparisonResultAnalyzer2 = analyzers.get(TrioFeatureCallable.MOTHER);
+            if (mendelian) {
+                mendelianAnalyzer = analyzers.get(TrioFeatureCallable.MENDELIAN);
+            }
+        } else {
+            GenomeComparatorExecutor comparator1 = new GenomeComparatorExecutor(sonBAMFileName, fatherBAMFileName, BEDFileName, type);
+            comparator1.setResultSink(sink, "father-son");
+            geneComparisonResultAnalyzer1 = comparator1.compareGenomes(threadsNum, intermediateOutput, path, virtualThreads, maxInFlight, pipelineWorkers);
+            GenomeComparatorExecutor comparator2 = new GenomeComparatorExecutor(sonBAMFileName, motherBAMFileName, BEDFileName, type);
+            comparator2.setResultSink(sink, "mother-son");
+            geneComparisonResultAnalyzer2 = comparator2.compareGenomes(threadsNum, intermediateOutput, path, virtualThreads, maxInFlight, pipelineWorkers);
+        }
         StringBuilder result = new StringBuilder("Comparison of father and son genomes:\n");
         result.append(geneComparisonResultAnalyzer1.analyze());
-
-        GenomeComparatorExecutor comparator2 = new GenomeComparatorExecutor(sonBAMFileName, motherBAMFileName, BEDFileName, type);
-        ComparisonResultAnalyzer geneComparisonResultAnalyzer2 = comparator2.compareGenomes(threadsNum, intermediateOutput, path);
         result.append("\nComparison of mother and son genomes:\n");
         result.append(geneComparisonResultAnalyzer2.analyze());
 
         // if levenshtein was requested
-        if (type == ComparatorType.LEVENSHTEIN) {
+        if (type.isLevenshtein()) {
             LevenshteinComparisonResultAnalyzer analyzer1 = (LevenshteinComparisonResultAnalyzer) geneComparisonResultAnalyzer1;
             LevenshteinComparisonResultAnalyzer analyzer2 = (LevenshteinComparisonResultAnalyzer) geneComparisonResultAnalyzer2;
             result.append(getChromosomeFromParentsInfo(analyzer1.getResults(), analyzer2.getResults()));
         }
 
+        if (mendelianAnalyzer != null) {
+            result.append("\n");
+            result.append(mendelianAnalyzer.analyze());
+        }
+
+        // Y-STR haplotypes are inherited from father, so only father and son are searched
+        if (haplotypeDatabase != null && geneComparisonResultAnalyzer1 instanceof STRComparisonResultAnalyzer) {
+            STRComparisonResultAnalyzer analyzer = (STRComparisonResultAnalyzer) geneComparisonResultAnalyzer1;
+            HaplotypeDatabase database = new HaplotypeDatabase(new File(haplotypeDatabase));
+            result.append("\n");
+            result.append(getNearestHaplotypesInfo("father", analyzer.getSecondHaplotype(), database));
+            result.append(getNearestHaplotypesInfo("son", analyzer.getFirstHaplotype(), database));
+        }
+
         return result.toString();
     }
 
+    /**
+     * Static method, which run a comparing of genomes of all the pairs of the persons of the cohort.
+     *
+     * @param sampleSheetName    name of the sample sheet with the BAM files of the persons
+     * @param BEDFileName        name of the BED file
+     * @param type               Type of the comparator, that will be used to compare genomes.
+     * @param threadsNum         Number of threads that will be used to assemble and compare the genomes.
+     * @param intermediateOutput if this flag is true , then results for each pair of the persons will be displayed
+     * @param preScreenThreshold minimum average Jaccard similarity of the k-mer sketches of the compared pairs, or 0, if all the pairs are compared
+     * @param sink               sink, the records of the pairs are written to as soon as they are produced, or null
+     * @return String with the similarity matrix of the persons
+     * @throws GenomeFileException if some errors of input files occurred
+     * @throws GenomeException     if some errors occurred through the work of code
+     */
+    public static String compareCohort(String sampleSheetName, String BEDFileName, ComparatorType type, int threadsNum, boolean intermediateOutput, double preScreenThreshold, ResultSink sink) {
+        CohortComparatorExecutor comparator = new CohortComparatorExecutor(sampleSheetName, BEDFileName, type);
+        comparator.setResultSink(sink);
+        comparator.setPreScreenThreshold(preScreenThreshold);
+        return comparator.compareGenomes(threadsNum, intermediateOutput).analyze();
+    }
+
+    /**
+     * Static method, which run an estimation of the kinship of all the pairs of the persons of the cohort.
+     * The kinship matrix is written next to the sample sheet (see {@link KinshipMatrix}).
+     *
+     * @param sampleSheetName    name of the sample sheet with the BAM files of the persons
+     * @param sitesFileName      name of the VCF / BED file with the SNP sites
+     * @param threadsNum         Number of threads that will be used to call the genotypes and to count the sites.
+     * @param intermediateOutput if this flag is true , then results for each pair of the persons will be displayed
+     * @param sink               sink, the records of the pairs are written to as soon as they are produced, or null
+     * @return String with the related pairs of the persons
+     * @throws GenomeFileException if some errors of input files occurred
+     * @throws GenomeException     if some errors occurred through the work of code
+     */
+    public static String estimateKinship(String sampleSheetName, String sitesFileName, int threadsNum, boolean intermediateOutput, ResultSink sink) {
+        KinshipComparatorExecutor comparator = new KinshipComparatorExecutor(sampleSheetName, sitesFileName);
+        comparator.setResultSink(sink);
+        KinshipComparisonResultAnalyzer analyzer = comparator.compareGenomes(threadsNum, intermediateOutput);
+        File matrix = new File(sampleSheetName + KinshipMatrix.EXTENSION);
+        analyzer.getMatrix().write(matrix);
+        return analyzer.analyze() + "Kinship matrix is written to: " + matrix.getPath() + "\n";
+    }
+
+    /**
+     * Utils method, used to get the info about the nearest haplotypes of the person.
+     *
+     * @param person    Name of the person.
+     * @param haplotype Repeat numbers of the markers of the person.
+     * @param database  Haplotype database.
+     * @return String representation of the nearest haplotypes.
+     */
+    private static String getNearestHaplotypesInfo(String person, Map<String, Integer> haplotype, HaplotypeDatabase database) {
+        StringBuilder res = new StringBuilder("\nNearest haplotypes of the ");
+        res.append(person);
+        res.append(" in the database:\n");
+        if (haplotype.isEmpty()) {
+            res.append("\tThere are no compared markers.\n");
+            return res.toString();
+        }
+        List<HaplotypeMatch> matches = database.nearest(haplotype, NEAREST_HAPLOTYPES_NUM);
+        if (matches.isEmpty()) {
+            res.append("\tThere are no common markers with the database.\n");
+            return res.toString();
+        }
+        for (HaplotypeMatch match : matches) {
+            res.append("\tHaplotype - ");
+            res.append(match.getId());
+            res.append(", step-wise mutation distance - ");
+            res.append(match.getDistance());
+            res.append(";\n");
+        }
+        return res.toString();
+    }
+
     /**
      * Utils method, used to get the info about the results of the comparison.
      *
@@ -0,0 +1,140 @@
+/*
+ * MIT License
+ * <p>
+ * Copyright (c) 2019-present Polina Bevad, Sergey Hvatov, Vladislav Marchenko
+ * <p>
+ * Permission is hereby granted, free of charge, to any person obtaining a copy
+ * of this software and associated documentation files (the "Software"), to deal
+ * in the Software without restriction, including without limitation the rights
+ * to use, copy, modify, merge, publish, distribute, sublicense, and/or sell
+ * copies of the Software, and to permit persons to whom the Software is
+ * furnished to do so, subject to the following conditions:
+ * <p>
+ * The above copyright notice and this permission notice shall be included in all
+ * copies or substantial portions of the Software.
+ * <p>
+ * THE SOFTWARE IS PROVIDED "AS IS", WITHOUT WARRANTY OF ANY KIND, EXPRESS OR
+ * IMPLIED, INCLUDING BUT NOT LIMITED TO THE WARRANTIES OF MERCHANTABILITY,
+ * FITNESS FOR A PARTICULAR PURPOSE AND NONINFRINGEMENT. IN NO EVENT SHALL THE
+ * AUTHORS OR COPYRIGHT HOLDERS BE LIABLE FOR ANY CLAIM, DAMAGES OR OTHER
+ * LIABILITY, WHETHER IN AN ACTION OF CONTRACT, TORT OR OTHERWISE, ARISING FROM,
+ * OUT OF OR IN CONNECTION WITH THE SOFTWARE OR THE USE OR OTHER DEALINGS IN THE
+ * SOFTWARE.
+ */
+
+package bam;
+
+import bam.marker_region.MarkerRegionFeature;
+import bam.marker_region.MarkerRegionFileParser;
+import bam.marker_region.MotifAutomaton;
+import bam.regular.BAMParser;
+import bam.regular.BEDFeature;
+import exception.GenomeFileException;
+import genome.assembly.GenomeConstructor;
+import genome.assembly.GenomeRegion;
+import org.junit.Test;
+
+import java.util.List;
+import java.util.Map;
+import java.util.Random;
+import java.util.regex.Matcher;
+import java.util.regex.Pattern;
+
+import static org.junit.Assert.*;
+
+/**
+ * Tests the {@link MotifAutomaton} class methods.
+ *
+ * @author Sergey Khvatov
+ */
+public class MotifAutomatonTest {
+
+    /**
+     * Path to the directory with the STR test data.
+     */
+    private static final String pathToData = "src/test/resources/genome/compare/";
+
+    /**
+     * Motifs with the self overlaps.
+     */
+    private static final String[] motifs = {"A", "AA", "ATA", "AAAG", "AGAGAT", "TCTA", "GATAGATA"};
+
+    @Test
+    public void RandomSequences() {
+        Random random = new Random(42);
+        for (String motif : motifs) {
+            MotifAutomaton automaton = MotifAutomaton.compile(motif);
+            for (int i = 0; i < 100; i++) {
+                StringBuilder seq = new StringBuilder();
+                for (int j = 0; j < 300; j++) {
+                    // small alphabet to get many occurrences, '*' stands for unknown nucleotides
+                    seq.append("AAGT*".charAt(random.nextInt(5)));
+                }
+                assertEquals(countWithRegex(Pattern.compile(motif), seq.toString()), automaton.count(seq));
+            }
+        }
+    }
+
+    @Test
+    public void YMarkers() {
+        checkMarkers("Ymarker.bed", "Ytest1.bam");
+    }
+
+    @Test
+    public void XMarkers() {
+        checkMarkers("Xmarker.bed", "Xtest1.bam");
+    }
+
+    @Test
+    public void UnsupportedMotif() {
+        assertFalse(MotifAutomaton.isSupported("GA[AT]A"));
+        assertFalse(MotifAutomaton.isSupported("gaaa"));
+        assertTrue(MotifAutomaton.isSupported("GAAA"));
+    }
+
+    @Test(expected = GenomeFileException.class)
+    public void CompileUnsupportedMotif() {
+        MotifAutomaton.compile("");
+    }
+
+    /**
+     * Checks that counts of the automaton are the same as the regex counts
+     * in the assembled marker regions.
+     *
+     * @param markerFile Name of the marker region file.
+     * @param bamFile    Name of the BAM file.
+     */
+    private static void checkMarkers(String markerFile, String bamFile) {
+        Map<String, List<BEDFeature>> markers = new MarkerRegionFileParser(pathToData + markerFile).parse();
+        BAMParser parser = new BAMParser(pathToData + bamFile);
+        int regions = 0;
+        for (List<BEDFeature> features : markers.values()) {
+            for (BEDFeature feature : features) {
+                MarkerRegionFeature marker = (MarkerRegionFeature) feature;
+                assertNotNull(marker.getMotifAutomaton());
+                for (GenomeRegion region : GenomeConstructor.assembly(parser.parse(feature), feature)) {
+                    String seq = region.getNucleotideSequence();
+                    assertEquals(marker.getMarkerName(), countWithRegex(marker.getRepeatMotif(), seq), marker.getMotifAutomaton().count(seq));
+                    regions++;
+                }
+            }
+        }
+        assertTrue(regions > 0);
+    }
+
+    /**
+     * Counts the occurrences of the motif with the regular expression.
+     *
+     * @param motif Compiled motif.
+     * @param seq   Nucleotide sequence.
+     * @return number of the occurrences.
+     */
+    private static int countWithRegex(Pattern motif, String seq) {
+        Matcher matcher = motif.matcher(seq);
+        int count = 0;
+        while (matcher.find()) {
+            count++;
+        }
+        return count;
+    }
+}
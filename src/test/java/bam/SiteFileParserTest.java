@@ -0,0 +1,103 @@
+/*
+ * MIT License
+ * <p>
+ * Copyright (c) 2019-present Polina Bevad, Sergey Hvatov, Vladislav Marchenko
+ * <p>
+ * Permission is hereby granted, free of charge, to any person obtaining a copy
+ * of this software and associated documentation files (the "Software"), to deal
+ * in the Software without restriction, including without limitation the rights
+ * to use, copy, modify, merge, publish, distribute, sublicense, and/or sell
+ * copies of the Software, and to permit persons to whom the Software is
+ * furnished to do so, subject to the following conditions:
+ * <p>
+ * The above copyright notice and this permission notice shall be included in all
+ * copies or substantial portions of the Software.
+ * <p>
+ * THE SOFTWARE IS PROVIDED "AS IS", WITHOUT WARRANTY OF ANY KIND, EXPRESS OR
+ * IMPLIED, INCLUDING BUT NOT LIMITED TO THE WARRANTIES OF MERCHANTABILITY,
+ * FITNESS FOR A PARTICULAR PURPOSE AND NONINFRINGEMENT. IN NO EVENT SHALL THE
+ * AUTHORS OR COPYRIGHT HOLDERS BE LIABLE FOR ANY CLAIM, DAMAGES OR OTHER
+ * LIABILITY, WHETHER IN AN ACTION OF CONTRACT, TORT OR OTHERWISE, ARISING FROM,
+ * OUT OF OR IN CONNECTION WITH THE SOFTWARE OR THE USE OR OTHER DEALINGS IN THE
+ * SOFTWARE.
+ */
+
+package bam;
+
+import bam.site.Site;
+import bam.site.SiteFileParser;
+import exception.GenomeFileException;
+import org.junit.Test;
+
+import java.util.List;
+import java.util.Map;
+
+import static org.junit.Assert.assertEquals;
+
+/**
+ * Tests the {@link SiteFileParser} class methods.
+ *
+ * @author Sergey Khvatov
+ */
+public class SiteFileParserTest {
+
+    /**
+     * Path to the VCF file with the sites.
+     */
+    private static final String pathToVCFFile = "src/test/resources/bam/SiteFileParser/sites.vcf";
+
+    /**
+     * Path to the BED file with the sites.
+     */
+    private static final String pathToBEDFile = "src/test/resources/bam/SiteFileParser/sites.bed";
+
+    /**
+     * Path to the BED file without alleles.
+     */
+    private static final String pathToIncorrectFile = "src/test/resources/bam/SiteFileParser/incorrect.bed";
+
+    /**
+     * Path to the file with wrong extension.
+     */
+    private static final String pathToFileWithWrongExt = "src/test/resources/bam/BEDParser/file.txt";
+
+    @Test
+    public void ParseVCFFile() {
+        checkSites(new SiteFileParser(pathToVCFFile).parse());
+    }
+
+    @Test
+    public void ParseBEDFile() {
+        checkSites(new SiteFileParser(pathToBEDFile).parse());
+    }
+
+    @Test(expected = GenomeFileException.class)
+    public void IncorrectFile() {
+        new SiteFileParser(pathToIncorrectFile).parse();
+    }
+
+    @Test(expected = GenomeFileException.class)
+    public void WrongExtension() {
+        new SiteFileParser(pathToFileWithWrongExt);
+    }
+
+    /**
+     * Checks that only biallelic SNPs are parsed, they are sorted
+     * and the duplicated positions are removed.
+     *
+     * @param sites Parsed sites.
+     */
+    private static void checkSites(Map<String, List<Site>> sites) {
+        assertEquals(2, sites.size());
+        List<Site> mt = sites.get("MT");
+        assertEquals(2, mt.size());
+        assertEquals(750, mt.get(0).getPosition());
+        assertEquals('A', mt.get(0).getRef());
+        assertEquals('G', mt.get(0).getAlt());
+        assertEquals(2706, mt.get(1).getPosition());
+        Site x = sites.get("X").get(0);
+        assertEquals(5000, x.getPosition());
+        assertEquals('G', x.getRef());
+        assertEquals('C', x.getAlt());
+    }
+}
@@ -0,0 +1,54 @@
+/*
+ * MIT License
+ * <p>
+ * Copyright (c) 2019-present Polina Bevad, Sergey Hvatov, Vladislav Marchenko
+ * <p>
+ * Permission is hereby granted, free of charge, to any person obtaining a copy
+ * of this software and associated documentation files (the "Software"), to deal
+ * in the Software without restriction, including without limitation the rights
+ * to use, copy, modify, merge, publish, distribute, sublicense, and/or sell
+ * copies of the Software, and to permit persons to whom the Software is
+ * furnished to do so, subject to the following conditions:
+ * <p>
+ * The above copyright notice and this permission notice shall be included in all
+ * copies or substantial portions of the Software.
+ * <p>
+ * THE SOFTWARE IS PROVIDED "AS IS", WITHOUT WARRANTY OF ANY KIND, EXPRESS OR
+ * IMPLIED, INCLUDING BUT NOT LIMITED TO THE WARRANTIES OF MERCHANTABILITY,
+ * FITNESS FOR A PARTICULAR PURPOSE AND NONINFRINGEMENT. IN NO EVENT SHALL THE
+ * AUTHORS OR COPYRIGHT HOLDERS BE LIABLE FOR ANY CLAIM, DAMAGES OR OTHER
+ * LIABILITY, WHETHER IN AN ACTION OF CONTRACT, TORT OR OTHERWISE, ARISING FROM,
+ * OUT OF OR IN CONNECTION WITH THE SOFTWARE OR THE USE OR OTHER DEALINGS IN THE
+ * SOFTWARE.
+ */
+
+package executors;
+
+import bam.regular.BEDFeature;
+import org.junit.Test;
+
+import java.util.Arrays;
+import java.util.List;
+
+import static org.junit.Assert.assertEquals;
+
+/**
+ * Tests for the {@link FeatureScheduler} class.
+ *
+ * @author Sergey Khvatov
+ */
+public class FeatureSchedulerTest {
+
+    @Test
+    public void LongestFirst() {
+        BEDFeature small = new BEDFeature("chr1", 0, 100, "SMALL");
+        BEDFeature medium = new BEDFeature("chr1", 1000, 1300, "MEDIUM");
+        BEDFeature other = new BEDFeature("chr1", 2000, 2300, "OTHER");
+        BEDFeature large = new BEDFeature("chr1", 10000, 30000, "LARGE");
+        List<BEDFeature> features = Arrays.asList(small, medium, large, other);
+        double[] costs = {100, 300, 20000, 300};
+
+        // features are not split, the ones with the same cost keep their order
+        assertEquals(Arrays.asList(large, medium, other, small), FeatureScheduler.order(features, costs));
+    }
+}
@@ -0,0 +1,121 @@
+/*
+ * MIT License
+ * <p>
+ * Copyright (c) 2019-present Polina Bevad, Sergey Hvatov, Vladislav Marchenko
+ * <p>
+ * Permission is hereby granted, free of charge, to any person obtaining a copy
+ * of this software and associated documentation files (the "Software"), to deal
+ * in the Software without restriction, including without limitation the rights
+ * to use, copy, modify, merge, publish, distribute, sublicense, and/or sell
+ * copies of the Software, and to permit persons to whom the Software is
+ * furnished to do so, subject to the following conditions:
+ * <p>
+ * The above copyright notice and this permission notice shall be included in all
+ * copies or substantial portions of the Software.
+ * <p>
+ * THE SOFTWARE IS PROVIDED "AS IS", WITHOUT WARRANTY OF ANY KIND, EXPRESS OR
+ * IMPLIED, INCLUDING BUT NOT LIMITED TO THE WARRANTIES OF MERCHANTABILITY,
+ * FITNESS FOR A PARTICULAR PURPOSE AND NONINFRINGEMENT. IN NO EVENT SHALL THE
+ * AUTHORS OR COPYRIGHT HOLDERS BE LIABLE FOR ANY CLAIM, DAMAGES OR OTHER
+ * LIABILITY, WHETHER IN AN ACTION OF CONTRACT, TORT OR OTHERWISE, ARISING FROM,
+ * OUT OF OR IN CONNECTION WITH THE SOFTWARE OR THE USE OR OTHER DEALINGS IN THE
+ * SOFTWARE.
+ */
+
+package executors;
+
+import org.junit.Test;
+
+import java.util.concurrent.atomic.AtomicLong;
+import java.util.concurrent.atomic.AtomicReference;
+
+import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertNull;
+import static org.junit.Assert.assertTrue;
+
+/**
+ * Tests for the {@link PipelineStage} class.
+ *
+ * @author Sergey Khvatov
+ */
+public class PipelineStageTest {
+
+    /**
+     * Number of the items passed through the pipeline.
+     */
+    private static final int ITEMS_NUMBER = 1000;
+
+    @Test
+    public void AllItemsProcessed() throws InterruptedException {
+        AtomicReference<Throwable> failure = new AtomicReference<>();
+        AtomicLong sum = new AtomicLong();
+        PipelineStage<Integer, Void> last = new PipelineStage<>("sum", 1, 2, item -> {
+            sum.addAndGet(item);
+            return null;
+        }, null, failure);
+        // odd items are dropped by the first stage
+        PipelineStage<Integer, Integer> first = new PipelineStage<>("square", 4, 8, item -> item % 2 == 0 ? item * item : null, last, failure);
+
+        first.start();
+        last.start();
+        long expected = 0;
+        for (int i = 0; i < ITEMS_NUMBER; i++) {
+            first.put(i);
+            expected += i % 2 == 0 ? (long) i * i : 0;
+        }
+        first.finish();
+        last.finish();
+
+        assertNull(failure.get());
+        assertEquals(expected, sum.get());
+        assertEquals(ITEMS_NUMBER, first.getProcessed());
+        assertEquals(ITEMS_NUMBER / 2, last.getProcessed());
+        assertEquals(0, first.getQueueDepth());
+        assertTrue(first.getMaxQueueDepth() <= 8);
+        assertTrue(first.getUtilization() >= 0d && first.getUtilization() <= 1d);
+    }
+
+    @Test
+    public void FailureStopsProcessing() throws InterruptedException {
+        AtomicReference<Throwable> failure = new AtomicReference<>();
+        PipelineStage<Integer, Integer> stage = new PipelineStage<>("fail", 2, 4, item -> {
+            if (item == 10) {
+                throw new IllegalStateException("item " + item);
+            }
+            return item;
+        }, null, failure);
+
+        stage.start();
+        for (int i = 0; i < ITEMS_NUMBER; i++) {
+            stage.put(i);
+        }
+        stage.finish();
+
+        assertTrue(failure.get() instanceof IllegalStateException);
+        assertTrue(stage.getProcessed() < ITEMS_NUMBER);
+    }
+
+    @Test(timeout = 10000)
+    public void ErrorDoesNotBlockPreviousStages() throws InterruptedException {
+        AtomicReference<Throwable> failure = new AtomicReference<>();
+        PipelineStage<Integer, Void> last = new PipelineStage<>("error", 1, 2, item -> {
+            if (item == 10) {
+                throw new AssertionError("item " + item);
+            }
+            return null;
+        }, null, failure);
+        PipelineStage<Integer, Integer> first = new PipelineStage<>("copy", 2, 2, item -> item, last, failure);
+
+        first.start();
+        last.start();
+        // the queues are much smaller, than the number of the items, so the error stage has to keep draining
+        for (int i = 0; i < ITEMS_NUMBER; i++) {
+            first.put(i);
+        }
+        first.finish();
+        last.finish();
+
+        assertTrue(failure.get() instanceof AssertionError);
+        assertTrue(last.getProcessed() < ITEMS_NUMBER);
+    }
+}
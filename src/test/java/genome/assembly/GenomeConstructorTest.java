@@ -74,6 +74,11 @@ public class GenomeConstructorTest {
      */
     private static final String PATH_TO_CORRECT_BAM = "src/test/resources/genome/assembly/correct.bam";
 
+    /**
+     * Path to the BAM file with the reads of the MT chromosome
+     */
+    private static final String PATH_TO_MT_BAM = "src/test/resources/genome/compare/testSonMT.bam";
+
     /**
      * Path to incorrect BAM file
      */
@@ -162,4 +167,16 @@ public class GenomeConstructorTest {
                 new BEDParser(PATH_TO_BED_FILE_2).parse().get(geneName1)
         );
     }
+
+    @Test
+    public void AssemblyInPartsIsSameAsWhole() {
+        BEDFeature feature = new BEDFeature("MT", 1500, 2500, "GENE");
+        SAMRecordList samRecords = new BAMParser(PATH_TO_MT_BAM).parse(feature);
+        List<GenomeRegion> parts = new ArrayList<>();
+        for (int from = feature.getStartPos(); from < feature.getEndPos(); from += 2 * GenomeConstructor.MAX_NUCLEOTIDE_SEQ_LEN) {
+            parts.addAll(GenomeConstructor.assembly(samRecords, feature, from, Math.min(from + 2 * GenomeConstructor.MAX_NUCLEOTIDE_SEQ_LEN, feature.getEndPos())));
+        }
+        GenomeConstructor.checkUnknownNucleotides(parts);
+        assertEquals(GenomeConstructor.assembly(samRecords, feature), parts);
+    }
 }
@@ -0,0 +1,99 @@
+/*
+ * MIT License
+ * <p>
+ * Copyright (c) 2019-present Polina Bevad, Sergey Hvatov, Vladislav Marchenko
+ * <p>
+ * Permission is hereby granted, free of charge, to any person obtaining a copy
+ * of this software and associated documentation files (the "Software"), to deal
+ * in the Software without restriction, including without limitation the rights
+ * to use, copy, modify, merge, publish, distribute, sublicense, and/or sell
+ * copies of the Software, and to permit persons to whom the Software is
+ * furnished to do so, subject to the following conditions:
+ * <p>
+ * The above copyright notice and this permission notice shall be included in all
+ * copies or substantial portions of the Software.
+ * <p>
+ * THE SOFTWARE IS PROVIDED "AS IS", WITHOUT WARRANTY OF ANY KIND, EXPRESS OR
+ * IMPLIED, INCLUDING BUT NOT LIMITED TO THE WARRANTIES OF MERCHANTABILITY,
+ * FITNESS FOR A PARTICULAR PURPOSE AND NONINFRINGEMENT. IN NO EVENT SHALL THE
+ * AUTHORS OR COPYRIGHT HOLDERS BE LIABLE FOR ANY CLAIM, DAMAGES OR OTHER
+ * LIABILITY, WHETHER IN AN ACTION OF CONTRACT, TORT OR OTHERWISE, ARISING FROM,
+ * OUT OF OR IN CONNECTION WITH THE SOFTWARE OR THE USE OR OTHER DEALINGS IN THE
+ * SOFTWARE.
+ */
+
+package genome.assembly;
+
+import bam.regular.BEDFeature;
+import exception.GenomeFileException;
+import org.junit.Rule;
+import org.junit.Test;
+import org.junit.rules.TemporaryFolder;
+
+import java.io.File;
+import java.io.RandomAccessFile;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.Collections;
+import java.util.List;
+
+import static org.junit.Assert.assertArrayEquals;
+import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertNotEquals;
+
+/**
+ * Tests for the {@link SampleConsensus} class.
+ *
+ * @author Sergey Khvatov
+ */
+public class SampleConsensusTest {
+
+    @Rule
+    public TemporaryFolder folder = new TemporaryFolder();
+
+    @Test
+    public void SaveAndLoad() throws Exception {
+        List<List<GenomeRegion>> regions = new ArrayList<>();
+        regions.add(Arrays.asList(
+            new GenomeRegion("MT", 100, "ACGT*", new byte[]{30, 31, 32, 33, 0}, "GENE"),
+            new GenomeRegion("MT", 105, "TTGA", new byte[]{20, 21, 22, 23}, "GENE")));
+        regions.add(Collections.emptyList());
+        SampleConsensus consensus = new SampleConsensus(regions, 42L, 7L);
+
+        File file = folder.newFile("sample.bam" + SampleConsensus.EXTENSION);
+        consensus.save(file);
+        SampleConsensus loaded = SampleConsensus.load(file);
+
+        assertEquals(42L, loaded.getFingerprint());
+        assertEquals(7L, loaded.getSource());
+        assertEquals(2, loaded.size());
+        assertEquals(0, loaded.get(1).size());
+        for (int i = 0; i < regions.get(0).size(); i++) {
+            GenomeRegion expected = regions.get(0).get(i);
+            GenomeRegion actual = loaded.get(0).get(i);
+            assertEquals(expected, actual);
+            assertEquals(expected.getNucleotideSequence(), actual.getNucleotideSequence());
+            assertArrayEquals(expected.getQualities(), actual.getQualities());
+        }
+    }
+
+    @Test(expected = GenomeFileException.class)
+    public void TruncatedFile() throws Exception {
+        List<List<GenomeRegion>> regions = new ArrayList<>();
+        regions.add(Collections.singletonList(new GenomeRegion("MT", 100, "ACGT", new byte[]{30, 31, 32, 33}, "GENE")));
+        File file = folder.newFile("sample.bam" + SampleConsensus.EXTENSION);
+        new SampleConsensus(regions, 42L, 7L).save(file);
+        try (RandomAccessFile raf = new RandomAccessFile(file, "rw")) {
+            raf.setLength(raf.length() - 1);
+        }
+        SampleConsensus.load(file);
+    }
+
+    @Test
+    public void FingerprintDependsOnOrder() {
+        BEDFeature first = new BEDFeature("MT", 0, 100, "GENE");
+        BEDFeature second = new BEDFeature("MT", 100, 200, "GENE");
+        assertEquals(SampleConsensus.fingerprint(Arrays.asList(first, second)), SampleConsensus.fingerprint(Arrays.asList(first, second)));
+        assertNotEquals(SampleConsensus.fingerprint(Arrays.asList(first, second)), SampleConsensus.fingerprint(Arrays.asList(second, first)));
+    }
+}
@@ -0,0 +1,70 @@
+/*
+ * MIT License
+ * <p>
+ * Copyright (c) 2019-present Polina Bevad, Sergey Hvatov, Vladislav Marchenko
+ * <p>
+ * Permission is hereby granted, free of charge, to any person obtaining a copy
+ * of this software and associated documentation files (the "Software"), to deal
+ * in the Software without restriction, including without limitation the rights
+ * to use, copy, modify, merge, publish, distribute, sublicense, and/or sell
+ * copies of the Software, and to permit persons to whom the Software is
+ * furnished to do so, subject to the following conditions:
+ * <p>
+ * The above copyright notice and this permission notice shall be included in all
+ * copies or substantial portions of the Software.
+ * <p>
+ * THE SOFTWARE IS PROVIDED "AS IS", WITHOUT WARRANTY OF ANY KIND, EXPRESS OR
+ * IMPLIED, INCLUDING BUT NOT LIMITED TO THE WARRANTIES OF MERCHANTABILITY,
+ * FITNESS FOR A PARTICULAR PURPOSE AND NONINFRINGEMENT. IN NO EVENT SHALL THE
+ * AUTHORS OR COPYRIGHT HOLDERS BE LIABLE FOR ANY CLAIM, DAMAGES OR OTHER
+ * LIABILITY, WHETHER IN AN ACTION OF CONTRACT, TORT OR OTHERWISE, ARISING FROM,
+ * OUT OF OR IN CONNECTION WITH THE SOFTWARE OR THE USE OR OTHER DEALINGS IN THE
+ * SOFTWARE.
+ */
+
+package genome.compare;
+
+import executors.CohortComparatorExecutor;
+import genome.compare.cohort.CohortComparisonResultAnalyzer;
+import genome.compare.common.ComparatorType;
+import org.junit.Test;
+
+import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertTrue;
+
+/**
+ * Tests for the {@link CohortComparatorExecutor} class.
+ *
+ * @author Sergey Khvatov
+ */
+public class CohortComparatorTest {
+
+    /**
+     * Sample sheet with the father, the mother and the son.
+     */
+    private static final String PATH_TO_SAMPLE_SHEET = "src/test/resources/genome/compare/mt_samples.tsv";
+
+    /**
+     * BED file with the regions of the mitochondrial chromosome.
+     */
+    private static final String PATH_TO_MT_BED = "src/test/resources/genome/compare/bash/correct2.bed";
+
+    /**
+     * Threshold, that separates mother and son (the same mitochondrial DNA) from the other pairs.
+     */
+    private static final double PRE_SCREEN_THRESHOLD = 0.95;
+
+    @Test
+    public void PreScreenSkipsDissimilarPairs() {
+        CohortComparisonResultAnalyzer all = new CohortComparatorExecutor(PATH_TO_SAMPLE_SHEET, PATH_TO_MT_BED, ComparatorType.LEVENSHTEIN).compareGenomes(2, false);
+        CohortComparatorExecutor executor = new CohortComparatorExecutor(PATH_TO_SAMPLE_SHEET, PATH_TO_MT_BED, ComparatorType.LEVENSHTEIN);
+        executor.setPreScreenThreshold(PRE_SCREEN_THRESHOLD);
+        CohortComparisonResultAnalyzer screened = executor.compareGenomes(2, false);
+
+        // only mother and son pass the pre-screen, their similarity does not change
+        assertTrue(Double.isNaN(screened.getSimilarity(0, 1)));
+        assertTrue(Double.isNaN(screened.getSimilarity(0, 2)));
+        assertEquals(all.getSimilarity(1, 2), screened.getSimilarity(1, 2), 0d);
+        assertTrue(screened.analyze().contains("Count of pairs of samples, that did not pass the pre-screen and were not compared: 2"));
+    }
+}
@@ -24,11 +24,22 @@
 
 package genome.compare;
 
+import exception.GenomeException;
 import executors.GenomeComparatorExecutor;
+import executors.TrioComparatorExecutor;
+import executors.TrioFeatureCallable;
 import genome.compare.common.ComparatorType;
 import genome.compare.common.ComparisonResultAnalyzer;
 import genome.compare.common.GenomeComparator;
 import org.junit.Test;
+import util.ResultSink;
+
+import java.io.StringWriter;
+import java.util.List;
+
+import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertTrue;
+import static org.junit.Assert.fail;
 
 /**
  * Tests for the {@link GenomeComparator} class.
@@ -86,6 +97,11 @@ public class GenomeComparatorTest {
      */
     private final static  String PATH_TO_BED = "src/test/resources/genome/compare/correct.bed";
 
+    /**
+     * Path to the BED file with the regions of the MT chromosome
+     */
+    private final static  String PATH_TO_MT_BED = "src/test/resources/genome/compare/bash/correct2.bed";
+
     /**
      * Path to the bed file with marker regions
      */
@@ -117,4 +133,33 @@ public class GenomeComparatorTest {
         System.out.println(res.analyze());
     }
 
+    @Test
+    public void TrioComparisonIsSameAsPairwise() {
+        List<ComparisonResultAnalyzer> trio = new TrioComparatorExecutor(PATH_TO_DAD_BAM_2, PATH_TO_MOM_BAM_2, PATH_TO_SON_BAM_2, PATH_TO_MT_BED, ComparatorType.LEVENSHTEIN).compareGenomes(2, false, false, 0, false);
+        ComparisonResultAnalyzer father = new GenomeComparatorExecutor(PATH_TO_SON_BAM_2, PATH_TO_DAD_BAM_2, PATH_TO_MT_BED, ComparatorType.LEVENSHTEIN).compareGenomes(2, false);
+        ComparisonResultAnalyzer mother = new GenomeComparatorExecutor(PATH_TO_SON_BAM_2, PATH_TO_MOM_BAM_2, PATH_TO_MT_BED, ComparatorType.LEVENSHTEIN).compareGenomes(2, false);
+        assertEquals(father.analyze(), trio.get(TrioFeatureCallable.FATHER).analyze());
+        assertEquals(mother.analyze(), trio.get(TrioFeatureCallable.MOTHER).analyze());
+    }
+
+    @Test
+    public void ResultsDoNotDependOnThreadsNumber() {
+        ComparisonResultAnalyzer single = new GenomeComparatorExecutor(PATH_TO_SON_BAM_2, PATH_TO_DAD_BAM_2, PATH_TO_MT_BED, ComparatorType.LEVENSHTEIN).compareGenomes(1, false);
+        ComparisonResultAnalyzer many = new GenomeComparatorExecutor(PATH_TO_SON_BAM_2, PATH_TO_DAD_BAM_2, PATH_TO_MT_BED, ComparatorType.LEVENSHTEIN).compareGenomes(8, false);
+        assertEquals(single.analyze(), many.analyze());
+    }
+
+    @Test
+    public void ErrorWithoutCauseIsReported() {
+        GenomeComparatorExecutor comparator = new GenomeComparatorExecutor(PATH_TO_SON_BAM_2, PATH_TO_DAD_BAM_2, PATH_TO_MT_BED, ComparatorType.LEVENSHTEIN);
+        ResultSink sink = new ResultSink(new StringWriter(), ResultSink.Format.NDJSON, true);
+        sink.close();
+        comparator.setResultSink(sink, "son-dad");
+        try {
+            comparator.compareGenomes(2, false);
+            fail();
+        } catch (GenomeException ex) {
+            assertTrue(ex.getMessage().contains("sink is closed"));
+        }
+    }
 }
@@ -0,0 +1,160 @@
+/*
+ * MIT License
+ * <p>
+ * Copyright (c) 2019-present Polina Bevad, Sergey Hvatov, Vladislav Marchenko
+ * <p>
+ * Permission is hereby granted, free of charge, to any person obtaining a copy
+ * of this software and associated documentation files (the "Software"), to deal
+ * in the Software without restriction, including without limitation the rights
+ * to use, copy, modify, merge, publish, distribute, sublicense, and/or sell
+ * copies of the Software, and to permit persons to whom the Software is
+ * furnished to do so, subject to the following conditions:
+ * <p>
+ * The above copyright notice and this permission notice shall be included in all
+ * copies or substantial portions of the Software.
+ * <p>
+ * THE SOFTWARE IS PROVIDED "AS IS", WITHOUT WARRANTY OF ANY KIND, EXPRESS OR
+ * IMPLIED, INCLUDING BUT NOT LIMITED TO THE WARRANTIES OF MERCHANTABILITY,
+ * FITNESS FOR A PARTICULAR PURPOSE AND NONINFRINGEMENT. IN NO EVENT SHALL THE
+ * AUTHORS OR COPYRIGHT HOLDERS BE LIABLE FOR ANY CLAIM, DAMAGES OR OTHER
+ * LIABILITY, WHETHER IN AN ACTION OF CONTRACT, TORT OR OTHERWISE, ARISING FROM,
+ * OUT OF OR IN CONNECTION WITH THE SOFTWARE OR THE USE OR OTHER DEALINGS IN THE
+ * SOFTWARE.
+ */
+
+package genome.compare;
+
+import exception.GenomeFileException;
+import genome.compare.haplotype.HaplotypeDatabase;
+import genome.compare.haplotype.HaplotypeDatabaseWriter;
+import genome.compare.haplotype.HaplotypeMatch;
+import org.junit.Rule;
+import org.junit.Test;
+import org.junit.rules.TemporaryFolder;
+
+import java.io.File;
+import java.io.IOException;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.util.*;
+
+import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertTrue;
+
+/**
+ * Tests for the {@link HaplotypeDatabase} class.
+ *
+ * @author Sergey Khvatov
+ */
+public class HaplotypeDatabaseTest {
+
+    /**
+     * Markers of the test panel.
+     */
+    private static final List<String> MARKERS = Arrays.asList("DYS19", "DYS389I", "DYS390", "DYS391", "DYS392", "DYS393");
+
+    /**
+     * Number of the random haplotypes, more than one block of the search.
+     */
+    private static final int RANDOM_SIZE = 10000;
+
+    @Rule
+    public TemporaryFolder folder = new TemporaryFolder();
+
+    @Test
+    public void NearestHaplotypes() throws IOException {
+        File table = folder.newFile("haplotypes.tsv");
+        Files.write(table.toPath(), Arrays.asList(
+            "id\tDYS19\tDYS389I\tDYS390",
+            "far\t10\t20\t30",
+            "exact\t14\t13\t24",
+            "near\t15\t13\t23",
+            "missing\t14\t.\t24"
+        ), StandardCharsets.UTF_8);
+        File file = folder.newFile("haplotypes.db");
+        assertEquals(4, HaplotypeDatabaseWriter.convert(table, file));
+
+        HaplotypeDatabase database = new HaplotypeDatabase(file);
+        assertEquals(4, database.size());
+        assertEquals(Arrays.asList("DYS19", "DYS389I", "DYS390"), database.getMarkers());
+        assertEquals(0, database.getRepeats(3, "dys389i"));
+
+        Map<String, Integer> query = new HashMap<>();
+        query.put("dys19", 14);
+        query.put("DYS389I", 13);
+        query.put("DYS390", 24);
+        query.put("DYS439", 12);
+        List<HaplotypeMatch> matches = database.nearest(query, 3);
+        assertEquals(3, matches.size());
+        assertEquals("exact", matches.get(0).getId());
+        assertEquals(0, matches.get(0).getDistance());
+        assertEquals("missing", matches.get(1).getId());
+        assertEquals(HaplotypeDatabase.MISSING_DISTANCE, matches.get(1).getDistance());
+        assertEquals("near", matches.get(2).getId());
+        assertEquals(2, matches.get(2).getDistance());
+    }
+
+    @Test
+    public void SameAsFullScan() {
+        Random random = new Random(35);
+        HaplotypeDatabaseWriter writer = new HaplotypeDatabaseWriter(MARKERS);
+        int[][] haplotypes = new int[RANDOM_SIZE][MARKERS.size()];
+        for (int i = 0; i < RANDOM_SIZE; i++) {
+            for (int j = 0; j < MARKERS.size(); j++) {
+                haplotypes[i][j] = random.nextInt(20) == 0 ? 0 : 10 + random.nextInt(8);
+            }
+            writer.add("h" + i, haplotypes[i]);
+        }
+        File file = new File(folder.getRoot(), "random.db");
+        writer.write(file);
+        HaplotypeDatabase database = new HaplotypeDatabase(file);
+
+        for (int q = 0; q < 10; q++) {
+            Map<String, Integer> query = new HashMap<>();
+            int[] values = haplotypes[random.nextInt(RANDOM_SIZE)].clone();
+            for (int j = 0; j < MARKERS.size(); j++) {
+                values[j] = Math.max(values[j], 10) + random.nextInt(3) - 1;
+                query.put(MARKERS.get(j), values[j]);
+            }
+            // distances of the full scan
+            long[] keys = new long[RANDOM_SIZE];
+            for (int i = 0; i < RANDOM_SIZE; i++) {
+                int distance = 0;
+                for (int j = 0; j < MARKERS.size(); j++) {
+                    distance += haplotypes[i][j] == 0 ? HaplotypeDatabase.MISSING_DISTANCE : Math.abs(haplotypes[i][j] - values[j]);
+                }
+                keys[i] = ((long) distance << 32) | i;
+            }
+            Arrays.sort(keys);
+
+            List<HaplotypeMatch> matches = database.nearest(query, 20);
+            assertEquals(20, matches.size());
+            for (int i = 0; i < matches.size(); i++) {
+                assertEquals("h" + (int) keys[i], matches.get(i).getId());
+                assertEquals(keys[i] >>> 32, matches.get(i).getDistance());
+            }
+        }
+    }
+
+    @Test
+    public void NoCommonMarkers() throws IOException {
+        File table = folder.newFile("haplotypes.tsv");
+        Files.write(table.toPath(), Arrays.asList(
+            "id\tDYS19\tDYS390",
+            "first\t14\t24"
+        ), StandardCharsets.UTF_8);
+        File file = folder.newFile("haplotypes.db");
+        HaplotypeDatabaseWriter.convert(table, file);
+
+        Map<String, Integer> query = new HashMap<>();
+        query.put("DYS439", 12);
+        assertTrue(new HaplotypeDatabase(file).nearest(query, 3).isEmpty());
+    }
+
+    @Test(expected = GenomeFileException.class)
+    public void NotADatabase() throws IOException {
+        File file = folder.newFile("empty.db");
+        Files.write(file.toPath(), new byte[16]);
+        new HaplotypeDatabase(file);
+    }
+}
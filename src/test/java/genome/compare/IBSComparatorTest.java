@@ -0,0 +1,80 @@
+/*
+ * MIT License
+ * <p>
+ * Copyright (c) 2019-present Polina Bevad, Sergey Hvatov, Vladislav Marchenko
+ * <p>
+ * Permission is hereby granted, free of charge, to any person obtaining a copy
+ * of this software and associated documentation files (the "Software"), to deal
+ * in the Software without restriction, including without limitation the rights
+ * to use, copy, modify, merge, publish, distribute, sublicense, and/or sell
+ * copies of the Software, and to permit persons to whom the Software is
+ * furnished to do so, subject to the following conditions:
+ * <p>
+ * The above copyright notice and this permission notice shall be included in all
+ * copies or substantial portions of the Software.
+ * <p>
+ * THE SOFTWARE IS PROVIDED "AS IS", WITHOUT WARRANTY OF ANY KIND, EXPRESS OR
+ * IMPLIED, INCLUDING BUT NOT LIMITED TO THE WARRANTIES OF MERCHANTABILITY,
+ * FITNESS FOR A PARTICULAR PURPOSE AND NONINFRINGEMENT. IN NO EVENT SHALL THE
+ * AUTHORS OR COPYRIGHT HOLDERS BE LIABLE FOR ANY CLAIM, DAMAGES OR OTHER
+ * LIABILITY, WHETHER IN AN ACTION OF CONTRACT, TORT OR OTHERWISE, ARISING FROM,
+ * OUT OF OR IN CONNECTION WITH THE SOFTWARE OR THE USE OR OTHER DEALINGS IN THE
+ * SOFTWARE.
+ */
+
+package genome.compare;
+
+import genome.assembly.GenotypeVector;
+import genome.compare.ibs.IBSComparator;
+import genome.compare.ibs.IBSComparisonResult;
+import org.junit.Test;
+
+import java.util.Random;
+
+import static org.junit.Assert.assertEquals;
+
+/**
+ * Tests for the {@link GenotypeVector} and {@link IBSComparator} classes.
+ *
+ * @author Sergey Khvatov
+ */
+public class IBSComparatorTest {
+
+    /**
+     * Number of the sites in the random vectors, that is not a multiple of 64.
+     */
+    private static final int SITES = 1000;
+
+    @Test
+    public void SetAndGet() {
+        GenotypeVector vector = new GenotypeVector("MT", 3);
+        vector.set(0, GenotypeVector.HOM_ALT);
+        vector.set(1, GenotypeVector.HET);
+        vector.set(0, GenotypeVector.HOM_REF);
+        assertEquals(GenotypeVector.HOM_REF, vector.get(0));
+        assertEquals(GenotypeVector.HET, vector.get(1));
+        assertEquals(GenotypeVector.MISSING, vector.get(2));
+        assertEquals(2, vector.getCalledCount());
+    }
+
+    @Test
+    public void RandomGenotypes() {
+        Random random = new Random(42);
+        GenotypeVector first = new GenotypeVector("1", SITES);
+        GenotypeVector second = new GenotypeVector("1", SITES);
+        int[] expected = new int[3];
+        for (int i = 0; i < SITES; i++) {
+            // genotypes in range [MISSING, HOM_ALT]
+            int a = random.nextInt(4) - 1, b = random.nextInt(4) - 1;
+            first.set(i, a);
+            second.set(i, b);
+            if (a != GenotypeVector.MISSING && b != GenotypeVector.MISSING) {
+                expected[2 - Math.abs(a - b)]++;
+            }
+        }
+        IBSComparisonResult result = new IBSComparator(first, second).compare();
+        assertEquals(expected[0], result.getIBS0());
+        assertEquals(expected[1], result.getIBS1());
+        assertEquals(expected[2], result.getIBS2());
+    }
+}
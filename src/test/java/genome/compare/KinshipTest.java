@@ -0,0 +1,142 @@
+/*
+ * MIT License
+ * <p>
+ * Copyright (c) 2019-present Polina Bevad, Sergey Hvatov, Vladislav Marchenko
+ * <p>
+ * Permission is hereby granted, free of charge, to any person obtaining a copy
+ * of this software and associated documentation files (the "Software"), to deal
+ * in the Software without restriction, including without limitation the rights
+ * to use, copy, modify, merge, publish, distribute, sublicense, and/or sell
+ * copies of the Software, and to permit persons to whom the Software is
+ * furnished to do so, subject to the following conditions:
+ * <p>
+ * The above copyright notice and this permission notice shall be included in all
+ * copies or substantial portions of the Software.
+ * <p>
+ * THE SOFTWARE IS PROVIDED "AS IS", WITHOUT WARRANTY OF ANY KIND, EXPRESS OR
+ * IMPLIED, INCLUDING BUT NOT LIMITED TO THE WARRANTIES OF MERCHANTABILITY,
+ * FITNESS FOR A PARTICULAR PURPOSE AND NONINFRINGEMENT. IN NO EVENT SHALL THE
+ * AUTHORS OR COPYRIGHT HOLDERS BE LIABLE FOR ANY CLAIM, DAMAGES OR OTHER
+ * LIABILITY, WHETHER IN AN ACTION OF CONTRACT, TORT OR OTHERWISE, ARISING FROM,
+ * OUT OF OR IN CONNECTION WITH THE SOFTWARE OR THE USE OR OTHER DEALINGS IN THE
+ * SOFTWARE.
+ */
+
+package genome.compare;
+
+import executors.KinshipBlockCallable;
+import genome.assembly.GenotypeMatrix;
+import genome.assembly.GenotypeVector;
+import genome.compare.kinship.KinshipComparisonResult;
+import genome.compare.kinship.KinshipMatrix;
+import org.junit.Rule;
+import org.junit.Test;
+import org.junit.rules.TemporaryFolder;
+
+import java.io.File;
+import java.util.Arrays;
+import java.util.List;
+import java.util.Random;
+
+import static org.junit.Assert.assertEquals;
+
+/**
+ * Tests for the {@link GenotypeMatrix}, {@link KinshipComparisonResult} and {@link KinshipMatrix} classes.
+ *
+ * @author Sergey Khvatov
+ */
+public class KinshipTest {
+
+    /**
+     * Number of the sites, that do not fill the last word.
+     */
+    private static final int SITES_NUM = 1000;
+
+    @Rule
+    public TemporaryFolder folder = new TemporaryFolder();
+
+    @Test
+    public void CountsAreSameAsVectorIBS() {
+        Random random = new Random(44);
+        GenotypeVector first = randomVector(random);
+        GenotypeVector second = randomVector(random);
+        GenotypeMatrix matrix = new GenotypeMatrix(2, SITES_NUM);
+        matrix.set(0, 0, first);
+        matrix.set(1, 0, second);
+
+        long[] counts = new long[GenotypeMatrix.COUNTS_NUM];
+        matrix.count(0, 1, 0, matrix.getWordsNum(), counts);
+        int[] ibs = first.countIBS(second);
+        assertEquals(ibs[0], counts[GenotypeMatrix.IBS0]);
+        assertEquals(ibs[0] + ibs[1] + ibs[2], counts[GenotypeMatrix.BOTH_CALLED]);
+
+        long hetHet = 0, firstHet = 0, secondHet = 0;
+        for (int i = 0; i < SITES_NUM; i++) {
+            if (first.get(i) == GenotypeVector.MISSING || second.get(i) == GenotypeVector.MISSING) {
+                continue;
+            }
+            hetHet += first.get(i) == GenotypeVector.HET && second.get(i) == GenotypeVector.HET ? 1 : 0;
+            firstHet += first.get(i) == GenotypeVector.HET ? 1 : 0;
+            secondHet += second.get(i) == GenotypeVector.HET ? 1 : 0;
+        }
+        assertEquals(hetHet, counts[GenotypeMatrix.HET_HET]);
+        assertEquals(firstHet, counts[GenotypeMatrix.FIRST_HET]);
+        assertEquals(secondHet, counts[GenotypeMatrix.SECOND_HET]);
+    }
+
+    @Test
+    public void KinshipOfDuplicates() {
+        GenotypeVector vector = randomVector(new Random(7));
+        GenotypeMatrix matrix = new GenotypeMatrix(3, SITES_NUM * 2);
+        matrix.set(0, 0, vector);
+        matrix.set(0, SITES_NUM, vector);
+        matrix.set(1, 0, vector);
+        matrix.set(1, SITES_NUM, vector);
+        matrix.set(2, 0, vector);
+
+        List<KinshipComparisonResult> results = new KinshipBlockCallable(matrix, 0, 3, 0, 3).call();
+        assertEquals(3, results.size());
+        assertEquals(0, results.get(0).getFirst());
+        assertEquals(1, results.get(0).getSecond());
+        assertEquals(0.5d, results.get(0).getKinship(), 1e-9);
+        assertEquals(0, results.get(0).getIBS0());
+        // the second half of the sites is missing in the third sample
+        assertEquals(0.5d, results.get(1).getKinship(), 1e-9);
+        assertEquals(SITES_NUM - countMissing(vector), results.get(1).getCalled());
+    }
+
+    @Test
+    public void MatrixIsMapped() {
+        KinshipMatrix matrix = new KinshipMatrix(Arrays.asList("first", "second", "third"));
+        matrix.set(0, 2, 0.25f, 3);
+        matrix.set(1, 2, -0.125f, 100);
+        File file = new File(folder.getRoot(), "cohort" + KinshipMatrix.EXTENSION);
+        matrix.write(file);
+
+        KinshipMatrix mapped = KinshipMatrix.map(file);
+        assertEquals(3, mapped.size());
+        assertEquals(Arrays.asList("first", "second", "third"), mapped.getNames());
+        assertEquals(0.5f, mapped.getKinship(1, 1), 0f);
+        assertEquals(0.25f, mapped.getKinship(2, 0), 0f);
+        assertEquals(-0.125f, mapped.getKinship(1, 2), 0f);
+        assertEquals(3, mapped.getIBS0(0, 2));
+        assertEquals(100, mapped.getIBS0(2, 1));
+        assertEquals(0, mapped.getIBS0(0, 1));
+    }
+
+    private static GenotypeVector randomVector(Random random) {
+        GenotypeVector vector = new GenotypeVector("chr1", SITES_NUM);
+        for (int i = 0; i < SITES_NUM; i++) {
+            vector.set(i, random.nextInt(4) - 1);
+        }
+        return vector;
+    }
+
+    private static long countMissing(GenotypeVector vector) {
+        long missing = 0;
+        for (int i = 0; i < vector.size(); i++) {
+            missing += vector.get(i) == GenotypeVector.MISSING ? 1 : 0;
+        }
+        return missing;
+    }
+}
@@ -0,0 +1,134 @@
+/*
+ * MIT License
+ * <p>
+ * Copyright (c) 2019-present Polina Bevad, Sergey Hvatov, Vladislav Marchenko
+ * <p>
+ * Permission is hereby granted, free of charge, to any person obtaining a copy
+ * of this software and associated documentation files (the "Software"), to deal
+ * in the Software without restriction, including without limitation the rights
+ * to use, copy, modify, merge, publish, distribute, sublicense, and/or sell
+ * copies of the Software, and to permit persons to whom the Software is
+ * furnished to do so, subject to the following conditions:
+ * <p>
+ * The above copyright notice and this permission notice shall be included in all
+ * copies or substantial portions of the Software.
+ * <p>
+ * THE SOFTWARE IS PROVIDED "AS IS", WITHOUT WARRANTY OF ANY KIND, EXPRESS OR
+ * IMPLIED, INCLUDING BUT NOT LIMITED TO THE WARRANTIES OF MERCHANTABILITY,
+ * FITNESS FOR A PARTICULAR PURPOSE AND NONINFRINGEMENT. IN NO EVENT SHALL THE
+ * AUTHORS OR COPYRIGHT HOLDERS BE LIABLE FOR ANY CLAIM, DAMAGES OR OTHER
+ * LIABILITY, WHETHER IN AN ACTION OF CONTRACT, TORT OR OTHERWISE, ARISING FROM,
+ * OUT OF OR IN CONNECTION WITH THE SOFTWARE OR THE USE OR OTHER DEALINGS IN THE
+ * SOFTWARE.
+ */
+
+package genome.compare;
+
+import genome.compare.sketch.KmerSketch;
+import genome.compare.sketch.SampleSketch;
+import org.junit.Rule;
+import org.junit.Test;
+import org.junit.rules.TemporaryFolder;
+
+import java.io.File;
+import java.util.Random;
+
+import static org.junit.Assert.assertArrayEquals;
+import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertFalse;
+import static org.junit.Assert.assertTrue;
+
+/**
+ * Tests for the {@link KmerSketch} and {@link SampleSketch} classes.
+ *
+ * @author Sergey Khvatov
+ */
+public class KmerSketchTest {
+
+    /**
+     * Length of the generated sequences.
+     */
+    private static final int LENGTH = 20000;
+
+    /**
+     * Allowed error of the Jaccard similarity estimation.
+     */
+    private static final double DELTA = 0.1;
+
+    @Rule
+    public TemporaryFolder folder = new TemporaryFolder();
+
+    @Test
+    public void SameSequences() {
+        String seq = randomSequence(new Random(1), LENGTH);
+        assertEquals(1d, sketch(seq).jaccard(sketch(seq)), 0d);
+    }
+
+    @Test
+    public void ReverseComplement() {
+        String seq = randomSequence(new Random(2), LENGTH);
+        StringBuilder reverse = new StringBuilder();
+        for (int i = seq.length() - 1; i >= 0; i--) {
+            reverse.append("TGCA".charAt("ACGT".indexOf(seq.charAt(i))));
+        }
+        assertEquals(1d, sketch(seq).jaccard(sketch(reverse.toString())), 0d);
+    }
+
+    @Test
+    public void DifferentSequences() {
+        Random random = new Random(3);
+        assertEquals(0d, sketch(randomSequence(random, LENGTH)).jaccard(sketch(randomSequence(random, LENGTH))), DELTA);
+    }
+
+    @Test
+    public void HalfSharedSequences() {
+        Random random = new Random(4);
+        String shared = randomSequence(random, LENGTH);
+        KmerSketch first = sketch(shared);
+        first.update(randomSequence(random, LENGTH));
+        KmerSketch second = sketch(shared);
+        second.update(randomSequence(random, LENGTH));
+        // two thirds of the k-mers of the union are unique
+        assertEquals(1d / 3d, first.jaccard(second), DELTA);
+    }
+
+    @Test
+    public void SaveAndLoad() throws Exception {
+        SampleSketch sketch = new SampleSketch(KmerSketch.DEFAULT_K, KmerSketch.DEFAULT_SIZE, 42L, 7L);
+        sketch.update("chrX", randomSequence(new Random(5), LENGTH));
+        File file = folder.newFile("sample" + SampleSketch.EXTENSION);
+        sketch.save(file);
+
+        SampleSketch loaded = SampleSketch.load(file);
+        assertTrue(loaded.matches(KmerSketch.DEFAULT_K, KmerSketch.DEFAULT_SIZE, 42L, 7L));
+        assertFalse(loaded.matches(KmerSketch.DEFAULT_K, KmerSketch.DEFAULT_SIZE, 42L, 8L));
+        assertArrayEquals(sketch.get("X").getHashes(), loaded.get("chrX").getHashes());
+    }
+
+    /**
+     * Creates the sketch of the sequence.
+     *
+     * @param seq Nucleotide sequence.
+     * @return sketch of the sequence.
+     */
+    private static KmerSketch sketch(String seq) {
+        KmerSketch sketch = new KmerSketch();
+        sketch.update(seq);
+        return sketch;
+    }
+
+    /**
+     * Generates a random nucleotide sequence.
+     *
+     * @param random Random generator.
+     * @param length Length of the sequence.
+     * @return generated sequence.
+     */
+    private static String randomSequence(Random random, int length) {
+        StringBuilder seq = new StringBuilder(length);
+        for (int i = 0; i < length; i++) {
+            seq.append("ACGT".charAt(random.nextInt(4)));
+        }
+        return seq.toString();
+    }
+}
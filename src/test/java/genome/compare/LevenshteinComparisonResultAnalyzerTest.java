@@ -0,0 +1,144 @@
+/*
+ * MIT License
+ * <p>
+ * Copyright (c) 2019-present Polina Bevad, Sergey Hvatov, Vladislav Marchenko
+ * <p>
+ * Permission is hereby granted, free of charge, to any person obtaining a copy
+ * of this software and associated documentation files (the "Software"), to deal
+ * in the Software without restriction, including without limitation the rights
+ * to use, copy, modify, merge, publish, distribute, sublicense, and/or sell
+ * copies of the Software, and to permit persons to whom the Software is
+ * furnished to do so, subject to the following conditions:
+ * <p>
+ * The above copyright notice and this permission notice shall be included in all
+ * copies or substantial portions of the Software.
+ * <p>
+ * THE SOFTWARE IS PROVIDED "AS IS", WITHOUT WARRANTY OF ANY KIND, EXPRESS OR
+ * IMPLIED, INCLUDING BUT NOT LIMITED TO THE WARRANTIES OF MERCHANTABILITY,
+ * FITNESS FOR A PARTICULAR PURPOSE AND NONINFRINGEMENT. IN NO EVENT SHALL THE
+ * AUTHORS OR COPYRIGHT HOLDERS BE LIABLE FOR ANY CLAIM, DAMAGES OR OTHER
+ * LIABILITY, WHETHER IN AN ACTION OF CONTRACT, TORT OR OTHERWISE, ARISING FROM,
+ * OUT OF OR IN CONNECTION WITH THE SOFTWARE OR THE USE OR OTHER DEALINGS IN THE
+ * SOFTWARE.
+ */
+
+package genome.compare;
+
+import exception.GenomeException;
+import genome.compare.common.ComparisonResultAnalyzer;
+import genome.compare.ibs.IBSComparisonResultAnalyzer;
+import genome.compare.levenshtein.LevenshteinComparisonResult;
+import genome.compare.levenshtein.LevenshteinComparisonResultAnalyzer;
+import org.junit.Test;
+import util.Pair;
+
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.List;
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Future;
+import java.util.concurrent.TimeUnit;
+
+import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertTrue;
+
+/**
+ * Tests for the {@link LevenshteinComparisonResultAnalyzer} class.
+ *
+ * @author Sergey Khvatov
+ */
+public class LevenshteinComparisonResultAnalyzerTest {
+
+    /**
+     * Number of the threads, that add the results at once.
+     */
+    private static final int THREADS_NUM = 8;
+
+    /**
+     * Number of the results added by each thread.
+     */
+    private static final int ADDS_PER_THREAD = 30000;
+
+    /**
+     * Names of the chromosomes.
+     */
+    private static final String[] CHROMS = {"chr1", "chr2", "chrX"};
+
+    /**
+     * Number of the genes of each chromosome.
+     */
+    private static final int GENES_NUM = 5;
+
+    @Test
+    public void ConcurrentAddsAreNotLost() throws Exception {
+        LevenshteinComparisonResultAnalyzer analyzer = new LevenshteinComparisonResultAnalyzer();
+        ExecutorService pool = Executors.newFixedThreadPool(THREADS_NUM);
+        CountDownLatch start = new CountDownLatch(1);
+        List<Future<?>> futures = new ArrayList<>();
+        for (int t = 0; t < THREADS_NUM; t++) {
+            futures.add(pool.submit(() -> {
+                start.await();
+                for (int i = 0; i < ADDS_PER_THREAD; i++) {
+                    // all the threads start with the same new genes to race on their creation
+                    analyzer.add(new LevenshteinComparisonResult(CHROMS[i % CHROMS.length], "gene" + (i / CHROMS.length) % GENES_NUM, 1, 4));
+                }
+                return null;
+            }));
+        }
+        start.countDown();
+        for (Future<?> future : futures) {
+            future.get();
+        }
+        pool.shutdown();
+        assertTrue(pool.awaitTermination(1, TimeUnit.MINUTES));
+
+        String result = analyzer.analyze();
+        assertEquals(CHROMS.length, analyzer.getResults().size());
+        for (Pair<String, Double> similarity : analyzer.getResults()) {
+            assertEquals(75d, similarity.getValue(), 1e-9);
+        }
+        // each chromosome gets the same share of the adds
+        long len = 4L * THREADS_NUM * ADDS_PER_THREAD / CHROMS.length;
+        assertEquals(CHROMS.length, countMatches(result, "Number of nucleotides compared: " + len + "\n"));
+        assertEquals(CHROMS.length * GENES_NUM, countMatches(result, "Similarity percentage: 75.0%\n") - CHROMS.length);
+    }
+
+    @Test
+    public void MergedPartialsAreSameAsOneAnalyzer() {
+        LevenshteinComparisonResultAnalyzer whole = new LevenshteinComparisonResultAnalyzer();
+        // odd number of the partials, so the last one is merged on the upper level of the tree
+        List<LevenshteinComparisonResultAnalyzer> partials = new ArrayList<>();
+        for (int i = 0; i < 5; i++) {
+            partials.add(new LevenshteinComparisonResultAnalyzer());
+        }
+        for (int i = 0; i < 1000; i++) {
+            LevenshteinComparisonResult result = new LevenshteinComparisonResult(CHROMS[i % CHROMS.length], "gene" + i % 7, i % 3, 10);
+            whole.add(result);
+            partials.get(i % 4).add(result);
+        }
+
+        LevenshteinComparisonResultAnalyzer merged = ComparisonResultAnalyzer.reduce(partials);
+        assertEquals(sortedLines(whole.analyze()), sortedLines(merged.analyze()));
+    }
+
+    @Test(expected = GenomeException.class)
+    public void MergeOfOtherTypeFails() {
+        new LevenshteinComparisonResultAnalyzer().merge(new IBSComparisonResultAnalyzer());
+    }
+
+    private static List<String> sortedLines(String text) {
+        List<String> lines = Arrays.asList(text.split("\n"));
+        lines.sort(null);
+        return lines;
+    }
+
+    private static int countMatches(String text, String pattern) {
+        int count = 0;
+        for (int i = text.indexOf(pattern); i != -1; i = text.indexOf(pattern, i + 1)) {
+            count++;
+        }
+        return count;
+    }
+}
@@ -0,0 +1,129 @@
+/*
+ * MIT License
+ * <p>
+ * Copyright (c) 2019-present Polina Bevad, Sergey Hvatov, Vladislav Marchenko
+ * <p>
+ * Permission is hereby granted, free of charge, to any person obtaining a copy
+ * of this software and associated documentation files (the "Software"), to deal
+ * in the Software without restriction, including without limitation the rights
+ * to use, copy, modify, merge, publish, distribute, sublicense, and/or sell
+ * copies of the Software, and to permit persons to whom the Software is
+ * furnished to do so, subject to the following conditions:
+ * <p>
+ * The above copyright notice and this permission notice shall be included in all
+ * copies or substantial portions of the Software.
+ * <p>
+ * THE SOFTWARE IS PROVIDED "AS IS", WITHOUT WARRANTY OF ANY KIND, EXPRESS OR
+ * IMPLIED, INCLUDING BUT NOT LIMITED TO THE WARRANTIES OF MERCHANTABILITY,
+ * FITNESS FOR A PARTICULAR PURPOSE AND NONINFRINGEMENT. IN NO EVENT SHALL THE
+ * AUTHORS OR COPYRIGHT HOLDERS BE LIABLE FOR ANY CLAIM, DAMAGES OR OTHER
+ * LIABILITY, WHETHER IN AN ACTION OF CONTRACT, TORT OR OTHERWISE, ARISING FROM,
+ * OUT OF OR IN CONNECTION WITH THE SOFTWARE OR THE USE OR OTHER DEALINGS IN THE
+ * SOFTWARE.
+ */
+
+package genome.compare;
+
+import exception.GenomeException;
+import genome.compare.levenshtein.AntiDiagonalLevenshteinEngine;
+import genome.compare.levenshtein.LevenshteinEngine;
+import genome.compare.levenshtein.LevenshteinEngines;
+import genome.compare.levenshtein.ScalarLevenshteinEngine;
+import org.junit.Test;
+
+import java.util.Random;
+
+import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertTrue;
+
+/**
+ * Tests for the {@link LevenshteinEngine} implementations.
+ *
+ * @author Sergey Khvatov
+ */
+public class LevenshteinEngineTest {
+
+    /**
+     * Test sequence of nucleotides with
+     * len = 75.
+     */
+    private static final String FSEQ = "ATGACTATTCCACAACGTTAATACTCCGCGCTCTTGTGATCCAGGGCAGTTCGCAACTTAGAGGTTTCTTTATAG";
+
+    /**
+     * Test sequence of nucleotides with
+     * len = 75.
+     */
+    private static final String SSEQ = "CTTGTAAGTATGCAGGGTCACGCGGGCAGATCGGGAGACATTAGATTGGACAAGCTTTAAACCGACGCGCACCCG";
+
+    /**
+     * Nucleotides used to generate random sequences.
+     */
+    private static final String NUCLEOTIDES = "ACGT*";
+
+    /**
+     * Name of the system property, that is set by the build,
+     * when the vectorized engine is on the classpath of the tests.
+     */
+    private static final String VECTOR_TEST_PROPERTY = "bio_relatives.test.vector";
+
+    /**
+     * Engines to test.
+     */
+    private static final LevenshteinEngine[] ENGINES = {
+        new ScalarLevenshteinEngine(),
+        new AntiDiagonalLevenshteinEngine(),
+        LevenshteinEngines.forName(LevenshteinEngines.VECTOR)
+    };
+
+    @Test
+    public void KnownDistance() {
+        for (LevenshteinEngine engine : ENGINES) {
+            assertEquals(engine.getName(), 46, engine.distance(FSEQ, SSEQ));
+            assertEquals(engine.getName(), 0, engine.distance(FSEQ, FSEQ));
+            assertEquals(engine.getName(), 3, engine.distance("ACGT", "A"));
+            assertEquals(engine.getName(), 4, engine.distance("", "ACGT"));
+        }
+    }
+
+    @Test
+    public void EnginesReturnTheSameDistance() {
+        Random random = new Random(7);
+        LevenshteinEngine reference = new ScalarLevenshteinEngine();
+        for (int test = 0; test < 200; test++) {
+            String first = randomSequence(random, 1 + random.nextInt(300));
+            String second = randomSequence(random, 1 + random.nextInt(300));
+            int expected = reference.distance(first, second);
+            for (LevenshteinEngine engine : ENGINES) {
+                assertEquals(engine.getName(), expected, engine.distance(first, second));
+            }
+        }
+    }
+
+    @Test
+    public void VectorEngineIsLoadedIfAvailable() {
+        LevenshteinEngine engine = ENGINES[ENGINES.length - 1];
+        if (Boolean.getBoolean(VECTOR_TEST_PROPERTY)) {
+            // otherwise the vector case silently tests the scalar engine
+            assertTrue(LevenshteinEngines.isVectorEngineAvailable());
+        }
+        if (LevenshteinEngines.isVectorEngineAvailable()) {
+            assertEquals(LevenshteinEngines.VECTOR, engine.getName());
+            assertEquals("genome.compare.levenshtein.VectorLevenshteinEngine", engine.getClass().getName());
+        } else {
+            assertEquals(ScalarLevenshteinEngine.class, engine.getClass());
+        }
+    }
+
+    @Test(expected = GenomeException.class)
+    public void UnknownEngine() {
+        LevenshteinEngines.forName("unknown");
+    }
+
+    private static String randomSequence(Random random, int len) {
+        StringBuilder sb = new StringBuilder();
+        for (int i = 0; i < len; i++) {
+            sb.append(NUCLEOTIDES.charAt(random.nextInt(NUCLEOTIDES.length())));
+        }
+        return sb.toString();
+    }
+}
@@ -0,0 +1,116 @@
+/*
+ * MIT License
+ * <p>
+ * Copyright (c) 2019-present Polina Bevad, Sergey Hvatov, Vladislav Marchenko
+ * <p>
+ * Permission is hereby granted, free of charge, to any person obtaining a copy
+ * of this software and associated documentation files (the "Software"), to deal
+ * in the Software without restriction, including without limitation the rights
+ * to use, copy, modify, merge, publish, distribute, sublicense, and/or sell
+ * copies of the Software, and to permit persons to whom the Software is
+ * furnished to do so, subject to the following conditions:
+ * <p>
+ * The above copyright notice and this permission notice shall be included in all
+ * copies or substantial portions of the Software.
+ * <p>
+ * THE SOFTWARE IS PROVIDED "AS IS", WITHOUT WARRANTY OF ANY KIND, EXPRESS OR
+ * IMPLIED, INCLUDING BUT NOT LIMITED TO THE WARRANTIES OF MERCHANTABILITY,
+ * FITNESS FOR A PARTICULAR PURPOSE AND NONINFRINGEMENT. IN NO EVENT SHALL THE
+ * AUTHORS OR COPYRIGHT HOLDERS BE LIABLE FOR ANY CLAIM, DAMAGES OR OTHER
+ * LIABILITY, WHETHER IN AN ACTION OF CONTRACT, TORT OR OTHERWISE, ARISING FROM,
+ * OUT OF OR IN CONNECTION WITH THE SOFTWARE OR THE USE OR OTHER DEALINGS IN THE
+ * SOFTWARE.
+ */
+
+package genome.compare;
+
+import bam.regular.BEDFeature;
+import genome.assembly.RegionPileup;
+import genome.compare.mendelian.MendelianComparator;
+import genome.compare.mendelian.MendelianComparisonResult;
+import htsjdk.samtools.SAMFileHeader;
+import htsjdk.samtools.SAMRecord;
+import htsjdk.samtools.SAMSequenceRecord;
+import org.junit.Test;
+
+import java.util.Arrays;
+
+import static org.junit.Assert.assertEquals;
+
+/**
+ * Tests for the {@link RegionPileup} and {@link MendelianComparator} classes.
+ *
+ * @author Sergey Khvatov
+ */
+public class MendelianComparatorTest {
+
+    /**
+     * Feature, that covers the reads.
+     */
+    private static final BEDFeature FEATURE = new BEDFeature("chr1", 100, 108, "GENE");
+
+    /**
+     * Number of the reads of each allele.
+     */
+    private static final int DEPTH = 5;
+
+    @Test
+    public void CallAlleles() {
+        RegionPileup pileup = pileup("ACGTACGT", "ACGTTCGT");
+        assertEquals(1, pileup.getAlleles(0));
+        assertEquals(1 | 1 << 3, pileup.getAlleles(4));
+
+        RegionPileup empty = new RegionPileup(FEATURE);
+        assertEquals(RegionPileup.NO_CALL, empty.getAlleles(0));
+    }
+
+    @Test
+    public void ChildAlleleFromParents() {
+        // child is heterozygous in the 4th position, one allele from each parent
+        MendelianComparisonResult result = new MendelianComparator(FEATURE, pileup("ACGTACGT", "ACGTTCGT"),
+            pileup("ACGTACGT"), pileup("ACGTTCGT")).compare();
+        assertEquals(FEATURE.getEndPos() - FEATURE.getStartPos(), result.getSites());
+        assertEquals(0, result.getErrors());
+    }
+
+    @Test
+    public void ChildAlleleAbsentInParents() {
+        MendelianComparisonResult result = new MendelianComparator(FEATURE, pileup("ACGTGCGA"),
+            pileup("ACGTACGT"), pileup("ACGTTCGT")).compare();
+        assertEquals(2, result.getErrors());
+    }
+
+    @Test
+    public void UncalledSitesAreSkipped() {
+        MendelianComparisonResult result = new MendelianComparator(FEATURE, pileup("ACGTGCGA"),
+            pileup("ACGTACGT"), new RegionPileup(FEATURE)).compare();
+        assertEquals(0, result.getSites());
+        assertEquals(0, result.getErrors());
+    }
+
+    /**
+     * Creates the pileup from {@link #DEPTH} reads of each sequence, that start at the feature start.
+     *
+     * @param sequences Sequences of the reads.
+     * @return pileup of the feature.
+     */
+    private static RegionPileup pileup(String... sequences) {
+        SAMFileHeader header = new SAMFileHeader();
+        header.addSequence(new SAMSequenceRecord(FEATURE.getChromosomeName(), 1000));
+        RegionPileup pileup = new RegionPileup(FEATURE);
+        for (String sequence : sequences) {
+            for (int i = 0; i < DEPTH; i++) {
+                SAMRecord read = new SAMRecord(header);
+                read.setReferenceName(FEATURE.getChromosomeName());
+                read.setAlignmentStart(FEATURE.getStartPos());
+                read.setCigarString(sequence.length() + "M");
+                read.setReadString(sequence);
+                byte[] qualities = new byte[sequence.length()];
+                Arrays.fill(qualities, (byte) 30);
+                read.setBaseQualities(qualities);
+                pileup.add(read);
+            }
+        }
+        return pileup;
+    }
+}
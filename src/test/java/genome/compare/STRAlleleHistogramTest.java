@@ -0,0 +1,188 @@
+/*
+ * MIT License
+ * <p>
+ * Copyright (c) 2019-present Polina Bevad, Sergey Hvatov, Vladislav Marchenko
+ * <p>
+ * Permission is hereby granted, free of charge, to any person obtaining a copy
+ * of this software and associated documentation files (the "Software"), to deal
+ * in the Software without restriction, including without limitation the rights
+ * to use, copy, modify, merge, publish, distribute, sublicense, and/or sell
+ * copies of the Software, and to permit persons to whom the Software is
+ * furnished to do so, subject to the following conditions:
+ * <p>
+ * The above copyright notice and this permission notice shall be included in all
+ * copies or substantial portions of the Software.
+ * <p>
+ * THE SOFTWARE IS PROVIDED "AS IS", WITHOUT WARRANTY OF ANY KIND, EXPRESS OR
+ * IMPLIED, INCLUDING BUT NOT LIMITED TO THE WARRANTIES OF MERCHANTABILITY,
+ * FITNESS FOR A PARTICULAR PURPOSE AND NONINFRINGEMENT. IN NO EVENT SHALL THE
+ * AUTHORS OR COPYRIGHT HOLDERS BE LIABLE FOR ANY CLAIM, DAMAGES OR OTHER
+ * LIABILITY, WHETHER IN AN ACTION OF CONTRACT, TORT OR OTHERWISE, ARISING FROM,
+ * OUT OF OR IN CONNECTION WITH THE SOFTWARE OR THE USE OR OTHER DEALINGS IN THE
+ * SOFTWARE.
+ */
+
+package genome.compare;
+
+import bam.marker_region.MarkerRegionFeature;
+import bam.marker_region.MotifAutomaton;
+import genome.compare.str.STRAlleleComparator;
+import genome.compare.str.STRAlleleHistogram;
+import genome.compare.str.STRComparisonResult;
+import htsjdk.samtools.SAMFileHeader;
+import htsjdk.samtools.SAMRecord;
+import htsjdk.samtools.SAMSequenceRecord;
+import org.junit.Test;
+
+import java.util.regex.Pattern;
+
+import static org.junit.Assert.assertArrayEquals;
+import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertNull;
+
+/**
+ * Tests for the {@link STRAlleleHistogram} and {@link STRAlleleComparator} classes.
+ *
+ * @author Sergey Khvatov
+ */
+public class STRAlleleHistogramTest {
+
+    /**
+     * Motif of the test marker.
+     */
+    private static final String MOTIF = "GATA";
+
+    /**
+     * Flank of the repeats in the reads.
+     */
+    private static final String FLANK = "CCCCCCCCCC";
+
+    /**
+     * Start position of the reads.
+     */
+    private static final int READ_START = 1000;
+
+    /**
+     * Marker region: from the first repeat to the end of the longest allele (7 repeats).
+     */
+    private static final MarkerRegionFeature MARKER = new MarkerRegionFeature("chrX", READ_START + FLANK.length(), READ_START + FLANK.length() + 7 * MOTIF.length() - 1, "DXS0", Pattern.compile(MOTIF), MotifAutomaton.compile(MOTIF));
+
+    /**
+     * Header of the test reads.
+     */
+    private static final SAMFileHeader HEADER = new SAMFileHeader();
+
+    static {
+        HEADER.addSequence(new SAMSequenceRecord("chrX", 100000));
+    }
+
+    @Test
+    public void HeterozygousMarker() {
+        STRAlleleHistogram histogram = new STRAlleleHistogram(MARKER);
+        for (int i = 0; i < 3; i++) {
+            histogram.add(read(5));
+        }
+        histogram.add(read(7));
+        histogram.add(read(7));
+        // reads, that do not span the marker
+        histogram.add(read(2));
+        histogram.add(read(2));
+        histogram.add(read(2));
+
+        assertEquals(5, histogram.getSpanningReads());
+        assertArrayEquals(new int[]{5, 7}, histogram.getAlleles());
+        assertEquals(7, histogram.getLongestRun(7));
+    }
+
+    @Test
+    public void ClosestAlleles() {
+        STRAlleleHistogram first = new STRAlleleHistogram(MARKER);
+        STRAlleleHistogram second = new STRAlleleHistogram(MARKER);
+        for (int i = 0; i < 3; i++) {
+            first.add(read(5));
+            first.add(read(7));
+            second.add(read(7));
+        }
+        STRComparisonResult result = new STRAlleleComparator(first, second).compare();
+        assertEquals(7, result.getResult().getKey());
+        assertEquals(7, result.getResult().getValue());
+    }
+
+    @Test
+    public void NotEnoughReads() {
+        STRAlleleHistogram first = new STRAlleleHistogram(MARKER);
+        STRAlleleHistogram second = new STRAlleleHistogram(MARKER);
+        first.add(read(5));
+        second.add(read(5));
+        assertNull(new STRAlleleComparator(first, second).compare());
+    }
+
+    @Test
+    public void ExpandedAlleleIsNotTruncated() {
+        STRAlleleHistogram histogram = new STRAlleleHistogram(MARKER);
+        // flanks are taken from the reads, that are aligned to them
+        histogram.add(read(5));
+        histogram.add(read(5));
+        histogram.add(read(5));
+        // the expanded allele is longer, than the marker region, the rest of the read is soft-clipped
+        for (int i = 0; i < 3; i++) {
+            histogram.add(clippedRead(12));
+        }
+
+        assertEquals(6, histogram.getSpanningReads());
+        assertArrayEquals(new int[]{5, 12}, histogram.getAlleles());
+        assertEquals(12, histogram.getLongestRun(12));
+    }
+
+    /**
+     * Creates the read with the repeats between two flanks, which
+     * alignment ends inside the repeats, the rest of the read is soft-clipped.
+     *
+     * @param repeats Number of the repeats.
+     * @return read.
+     */
+    private static SAMRecord clippedRead(int repeats) {
+        StringBuilder seq = new StringBuilder(FLANK);
+        for (int i = 0; i < repeats; i++) {
+            seq.append(MOTIF);
+        }
+        seq.append(FLANK);
+        int aligned = FLANK.length() + 5 * MOTIF.length();
+        SAMRecord read = new SAMRecord(HEADER);
+        read.setReadName("clipped" + repeats);
+        read.setReferenceName("chrX");
+        read.setAlignmentStart(READ_START);
+        read.setReadString(seq.toString());
+        read.setCigarString(aligned + "M" + (seq.length() - aligned) + "S");
+        read.setBaseQualityString(SAMRecord.NULL_QUALS_STRING);
+        return read;
+    }
+
+    /**
+     * Creates the read with the repeats between two flanks,
+     * that is aligned without the gaps. Reads with the short alleles
+     * end before the end of the marker region.
+     *
+     * @param repeats Number of the repeats.
+     * @return read.
+     */
+    private static SAMRecord read(int repeats) {
+        StringBuilder seq = new StringBuilder(FLANK);
+        for (int i = 0; i < repeats; i++) {
+            seq.append(MOTIF);
+        }
+        // the short alleles are padded with the other nucleotides
+        while (seq.length() < FLANK.length() + 7 * MOTIF.length()) {
+            seq.append('T');
+        }
+        seq.append(repeats > 2 ? FLANK : "");
+        SAMRecord read = new SAMRecord(HEADER);
+        read.setReadName("read" + repeats);
+        read.setReferenceName("chrX");
+        read.setAlignmentStart(READ_START);
+        read.setReadString(repeats > 2 ? seq.toString() : seq.substring(0, FLANK.length() + 2 * MOTIF.length()));
+        read.setCigarString(read.getReadLength() + "M");
+        read.setBaseQualityString(SAMRecord.NULL_QUALS_STRING);
+        return read;
+    }
+}
@@ -0,0 +1,95 @@
+/*
+ * MIT License
+ * <p>
+ * Copyright (c) 2019-present Polina Bevad, Sergey Hvatov, Vladislav Marchenko
+ * <p>
+ * Permission is hereby granted, free of charge, to any person obtaining a copy
+ * of this software and associated documentation files (the "Software"), to deal
+ * in the Software without restriction, including without limitation the rights
+ * to use, copy, modify, merge, publish, distribute, sublicense, and/or sell
+ * copies of the Software, and to permit persons to whom the Software is
+ * furnished to do so, subject to the following conditions:
+ * <p>
+ * The above copyright notice and this permission notice shall be included in all
+ * copies or substantial portions of the Software.
+ * <p>
+ * THE SOFTWARE IS PROVIDED "AS IS", WITHOUT WARRANTY OF ANY KIND, EXPRESS OR
+ * IMPLIED, INCLUDING BUT NOT LIMITED TO THE WARRANTIES OF MERCHANTABILITY,
+ * FITNESS FOR A PARTICULAR PURPOSE AND NONINFRINGEMENT. IN NO EVENT SHALL THE
+ * AUTHORS OR COPYRIGHT HOLDERS BE LIABLE FOR ANY CLAIM, DAMAGES OR OTHER
+ * LIABILITY, WHETHER IN AN ACTION OF CONTRACT, TORT OR OTHERWISE, ARISING FROM,
+ * OUT OF OR IN CONNECTION WITH THE SOFTWARE OR THE USE OR OTHER DEALINGS IN THE
+ * SOFTWARE.
+ */
+
+package genome.compare;
+
+import bam.marker_region.MarkerRegionFeature;
+import bam.regular.BEDFeature;
+import genome.compare.str.STRComparisonResult;
+import genome.compare.str.STRComparisonResultAnalyzer;
+import org.junit.Test;
+
+import java.util.Arrays;
+import java.util.List;
+import java.util.regex.Pattern;
+
+import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertTrue;
+
+/**
+ * Tests for the {@link STRComparisonResultAnalyzer} class.
+ *
+ * @author Sergey Khvatov
+ */
+public class STRComparisonResultAnalyzerTest {
+
+    /**
+     * First test marker.
+     */
+    private static final MarkerRegionFeature DYS19 = new MarkerRegionFeature("chrY", 100, 200, "DYS19", Pattern.compile("TAGA"));
+
+    /**
+     * Second test marker.
+     */
+    private static final MarkerRegionFeature DYS390 = new MarkerRegionFeature("chrY", 300, 400, "DYS390", Pattern.compile("TCTA"));
+
+    /**
+     * Markers of the test panel.
+     */
+    private static final List<BEDFeature> MARKERS = Arrays.asList(DYS19, DYS390);
+
+    @Test
+    public void HaplotypeIsLongestRun() {
+        STRComparisonResultAnalyzer analyzer = new STRComparisonResultAnalyzer(null, MARKERS);
+        analyzer.add(new STRComparisonResult(DYS19, 16, 15, 2, 13));
+        assertEquals(Integer.valueOf(2), analyzer.getFirstHaplotype().get("DYS19"));
+        assertEquals(Integer.valueOf(13), analyzer.getSecondHaplotype().get("DYS19"));
+    }
+
+    @Test
+    public void MergedPartialsAreSameAsSingleAnalyzer() {
+        STRComparisonResult[] results = {
+            new STRComparisonResult(DYS19, 16, 15, 2, 13),
+            new STRComparisonResult(DYS19, 14, 12, 13, 11)
+        };
+        STRComparisonResultAnalyzer single = new STRComparisonResultAnalyzer(null, MARKERS);
+        for (STRComparisonResult result : results) {
+            single.add(result);
+        }
+        // each partial knows only its own marker, the positions are merged
+        STRComparisonResultAnalyzer first = new STRComparisonResultAnalyzer(null, Arrays.asList(DYS19));
+        STRComparisonResultAnalyzer second = new STRComparisonResultAnalyzer(null, Arrays.asList(DYS390));
+        first.add(results[0]);
+        second.add(results[1]);
+        first.merge(second);
+
+        assertEquals(single.getFirstHaplotype(), first.getFirstHaplotype());
+        assertEquals(single.getSecondHaplotype(), first.getSecondHaplotype());
+        String analysis = first.analyze();
+        assertEquals(single.analyze(), analysis);
+        // counts are summed, runs are the longest ones
+        assertTrue(analysis.contains("DYS19, which has appeared in the both genomes, as: 30 and 27 times, longest runs of repeats: 13 and 13;"));
+        assertTrue(analysis.contains("Number of markers, that were not compared - 1;"));
+    }
+}
@@ -0,0 +1,74 @@
+/*
+ * MIT License
+ * <p>
+ * Copyright (c) 2019-present Polina Bevad, Sergey Hvatov, Vladislav Marchenko
+ * <p>
+ * Permission is hereby granted, free of charge, to any person obtaining a copy
+ * of this software and associated documentation files (the "Software"), to deal
+ * in the Software without restriction, including without limitation the rights
+ * to use, copy, modify, merge, publish, distribute, sublicense, and/or sell
+ * copies of the Software, and to permit persons to whom the Software is
+ * furnished to do so, subject to the following conditions:
+ * <p>
+ * The above copyright notice and this permission notice shall be included in all
+ * copies or substantial portions of the Software.
+ * <p>
+ * THE SOFTWARE IS PROVIDED "AS IS", WITHOUT WARRANTY OF ANY KIND, EXPRESS OR
+ * IMPLIED, INCLUDING BUT NOT LIMITED TO THE WARRANTIES OF MERCHANTABILITY,
+ * FITNESS FOR A PARTICULAR PURPOSE AND NONINFRINGEMENT. IN NO EVENT SHALL THE
+ * AUTHORS OR COPYRIGHT HOLDERS BE LIABLE FOR ANY CLAIM, DAMAGES OR OTHER
+ * LIABILITY, WHETHER IN AN ACTION OF CONTRACT, TORT OR OTHERWISE, ARISING FROM,
+ * OUT OF OR IN CONNECTION WITH THE SOFTWARE OR THE USE OR OTHER DEALINGS IN THE
+ * SOFTWARE.
+ */
+
+package genome.compare;
+
+import bam.marker_region.MotifAutomaton;
+import genome.assembly.GenomeRegion;
+import genome.compare.str.STRCounter;
+import org.junit.Test;
+
+import static org.junit.Assert.assertEquals;
+
+/**
+ * Tests for the {@link STRCounter} class.
+ *
+ * @author Sergey Khvatov
+ */
+public class STRCounterTest {
+
+    /**
+     * Automaton of the test motif.
+     */
+    private static final MotifAutomaton GATA = MotifAutomaton.compile("GATA");
+
+    @Test
+    public void RepeatsAcrossBorder() {
+        STRCounter counter = new STRCounter(GATA);
+        counter.add(region(100, "CCGATAGA"));
+        counter.add(region(108, "TAGATACCGATA"));
+        assertEquals(4, counter.getCount());
+        assertEquals(3, counter.getLongestRun());
+    }
+
+    @Test
+    public void GapBetweenRegions() {
+        STRCounter counter = new STRCounter(GATA);
+        counter.add(region(100, "CCGATAGA"));
+        counter.add(region(200, "TAGATA"));
+        assertEquals(2, counter.getCount());
+        assertEquals(1, counter.getLongestRun());
+    }
+
+    /**
+     * Creates the region with the sequence.
+     *
+     * @param start Start position.
+     * @param seq   Nucleotide sequence.
+     * @return genome region.
+     */
+    private static GenomeRegion region(int start, String seq) {
+        return new GenomeRegion("X", start, seq, new byte[seq.length()], "X_STR");
+    }
+}
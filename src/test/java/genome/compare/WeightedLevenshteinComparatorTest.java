@@ -0,0 +1,116 @@
+/*
+ * MIT License
+ * <p>
+ * Copyright (c) 2019-present Polina Bevad, Sergey Hvatov, Vladislav Marchenko
+ * <p>
+ * Permission is hereby granted, free of charge, to any person obtaining a copy
+ * of this software and associated documentation files (the "Software"), to deal
+ * in the Software without restriction, including without limitation the rights
+ * to use, copy, modify, merge, publish, distribute, sublicense, and/or sell
+ * copies of the Software, and to permit persons to whom the Software is
+ * furnished to do so, subject to the following conditions:
+ * <p>
+ * The above copyright notice and this permission notice shall be included in all
+ * copies or substantial portions of the Software.
+ * <p>
+ * THE SOFTWARE IS PROVIDED "AS IS", WITHOUT WARRANTY OF ANY KIND, EXPRESS OR
+ * IMPLIED, INCLUDING BUT NOT LIMITED TO THE WARRANTIES OF MERCHANTABILITY,
+ * FITNESS FOR A PARTICULAR PURPOSE AND NONINFRINGEMENT. IN NO EVENT SHALL THE
+ * AUTHORS OR COPYRIGHT HOLDERS BE LIABLE FOR ANY CLAIM, DAMAGES OR OTHER
+ * LIABILITY, WHETHER IN AN ACTION OF CONTRACT, TORT OR OTHERWISE, ARISING FROM,
+ * OUT OF OR IN CONNECTION WITH THE SOFTWARE OR THE USE OR OTHER DEALINGS IN THE
+ * SOFTWARE.
+ */
+
+package genome.compare;
+
+import genome.assembly.GenomeRegion;
+import genome.compare.levenshtein.LevenshteinComparisonResult;
+import genome.compare.levenshtein.WeightedLevenshteinComparator;
+import org.junit.Test;
+
+import java.util.Arrays;
+
+import static org.junit.Assert.assertEquals;
+
+/**
+ * Tests for the {@link WeightedLevenshteinComparator} class.
+ *
+ * @author Sergey Khvatov
+ */
+public class WeightedLevenshteinComparatorTest {
+
+    /**
+     * Test sequence of nucleotides.
+     */
+    private static final String SEQ = "ACGTACGTAC";
+
+    /**
+     * Test sequence of nucleotides with one substitution.
+     */
+    private static final String MUTATED_SEQ = "ACGTTCGTAC";
+
+    /**
+     * Test sequence of nucleotides with one unknown nucleotide.
+     */
+    private static final String UNKNOWN_SEQ = "ACGT*CGTAC";
+
+    /**
+     * Position of the substitution.
+     */
+    private static final int MUTATION_POS = 4;
+
+    /**
+     * Quality of the reliable nucleotides.
+     */
+    private static final byte HIGH_QUALITY = 60;
+
+    /**
+     * Quality of the unreliable nucleotide.
+     */
+    private static final byte LOW_QUALITY = 5;
+
+    @Test
+    public void EqualSequences() {
+        LevenshteinComparisonResult result = compare(SEQ, qualities(HIGH_QUALITY), SEQ, qualities(HIGH_QUALITY));
+        assertEquals(0, result.getDifference());
+        assertEquals(SEQ.length() * WeightedLevenshteinComparator.MAX_QUALITY, result.getSequenceLen());
+        assertEquals(WeightedLevenshteinComparator.MAX_QUALITY, result.getScale());
+    }
+
+    @Test
+    public void HighQualityMismatch() {
+        LevenshteinComparisonResult result = compare(SEQ, qualities(HIGH_QUALITY), MUTATED_SEQ, qualities(HIGH_QUALITY));
+        assertEquals(WeightedLevenshteinComparator.MAX_QUALITY, result.getDifference());
+    }
+
+    @Test
+    public void LowQualityMismatch() {
+        byte[] mutatedQualities = qualities(HIGH_QUALITY);
+        mutatedQualities[MUTATION_POS] = LOW_QUALITY;
+        LevenshteinComparisonResult result = compare(SEQ, qualities(HIGH_QUALITY), MUTATED_SEQ, mutatedQualities);
+        assertEquals(LOW_QUALITY, result.getDifference());
+        assertEquals((SEQ.length() - 1) * WeightedLevenshteinComparator.MAX_QUALITY + LOW_QUALITY, result.getSequenceLen());
+    }
+
+    @Test
+    public void UnknownNucleotideIsFree() {
+        byte[] unknownQualities = qualities(HIGH_QUALITY);
+        unknownQualities[MUTATION_POS] = 0;
+        LevenshteinComparisonResult result = compare(SEQ, qualities(HIGH_QUALITY), UNKNOWN_SEQ, unknownQualities);
+        assertEquals(0, result.getDifference());
+        assertEquals((SEQ.length() - 1) * WeightedLevenshteinComparator.MAX_QUALITY, result.getSequenceLen());
+    }
+
+    private static LevenshteinComparisonResult compare(String first, byte[] firstQualities, String second, byte[] secondQualities) {
+        GenomeRegion f = new GenomeRegion("chr1", 0, first, firstQualities, "00");
+        GenomeRegion s = new GenomeRegion("chr1", 0, second, secondQualities, "00");
+        return new WeightedLevenshteinComparator(f, s).compare();
+    }
+
+    private static byte[] qualities(byte quality) {
+        byte[] qualities = new byte[SEQ.length()];
+        Arrays.fill(qualities, quality);
+        return qualities;
+    }
+}
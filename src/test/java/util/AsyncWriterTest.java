@@ -0,0 +1,114 @@
+/*
+ * MIT License
+ * <p>
+ * Copyright (c) 2019-present Polina Bevad, Sergey Hvatov, Vladislav Marchenko
+ * <p>
+ * Permission is hereby granted, free of charge, to any person obtaining a copy
+ * of this software and associated documentation files (the "Software"), to deal
+ * in the Software without restriction, including without limitation the rights
+ * to use, copy, modify, merge, publish, distribute, sublicense, and/or sell
+ * copies of the Software, and to permit persons to whom the Software is
+ * furnished to do so, subject to the following conditions:
+ * <p>
+ * The above copyright notice and this permission notice shall be included in all
+ * copies or substantial portions of the Software.
+ * <p>
+ * THE SOFTWARE IS PROVIDED "AS IS", WITHOUT WARRANTY OF ANY KIND, EXPRESS OR
+ * IMPLIED, INCLUDING BUT NOT LIMITED TO THE WARRANTIES OF MERCHANTABILITY,
+ * FITNESS FOR A PARTICULAR PURPOSE AND NONINFRINGEMENT. IN NO EVENT SHALL THE
+ * AUTHORS OR COPYRIGHT HOLDERS BE LIABLE FOR ANY CLAIM, DAMAGES OR OTHER
+ * LIABILITY, WHETHER IN AN ACTION OF CONTRACT, TORT OR OTHERWISE, ARISING FROM,
+ * OUT OF OR IN CONNECTION WITH THE SOFTWARE OR THE USE OR OTHER DEALINGS IN THE
+ * SOFTWARE.
+ */
+
+package util;
+
+import org.junit.Test;
+
+import java.io.IOException;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.ArrayBlockingQueue;
+import java.util.concurrent.LinkedTransferQueue;
+
+import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertNull;
+import static org.junit.Assert.assertTrue;
+
+/**
+ * Tests for the {@link AsyncWriter} class.
+ *
+ * @author Sergey Khvatov
+ */
+public class AsyncWriterTest {
+
+    /**
+     * Writer, that remembers the written items and the flushes.
+     */
+    private static class ListWriter extends AsyncWriter<Integer> {
+
+        private final List<String> events = new ArrayList<>();
+
+        private final int failOn;
+
+        private ListWriter(int capacity, int failOn) {
+            super("test-writer", capacity > 0 ? new ArrayBlockingQueue<>(capacity) : new LinkedTransferQueue<>(), false);
+            this.failOn = failOn;
+        }
+
+        @Override
+        protected void write(Integer item) throws IOException {
+            if (item == failOn) {
+                throw new IOException("failed on " + item);
+            }
+            events.add(String.valueOf(item));
+        }
+
+        @Override
+        protected void flush() {
+            events.add("flush");
+        }
+    }
+
+    @Test
+    public void ItemsAreWrittenInOrderAndFlushedBeforeAwait() {
+        ListWriter writer = new ListWriter(0, -1);
+        for (int i = 0; i < 10 * AsyncWriter.BATCH_SIZE; i++) {
+            writer.offer(i);
+        }
+        writer.await();
+        writer.close();
+
+        List<String> events = new ArrayList<>(writer.events);
+        assertEquals("flush", events.get(events.size() - 1));
+        events.removeIf("flush"::equals);
+        assertEquals(10 * AsyncWriter.BATCH_SIZE, events.size());
+        for (int i = 0; i < events.size(); i++) {
+            assertEquals(String.valueOf(i), events.get(i));
+        }
+        assertNull(writer.getFailure());
+    }
+
+    @Test(timeout = 10000)
+    public void ItemsAfterErrorAreDropped() throws InterruptedException {
+        ListWriter writer = new ListWriter(2, 3);
+        for (int i = 0; i < 100; i++) {
+            writer.put(i);
+        }
+        writer.close();
+
+        assertTrue(writer.getFailure() instanceof IOException);
+        List<String> events = new ArrayList<>(writer.events);
+        events.removeIf("flush"::equals);
+        assertEquals(3, events.size());
+    }
+
+    @Test
+    public void AwaitAndCloseReturnBeforeFirstItem() {
+        ListWriter writer = new ListWriter(2, -1);
+        writer.await();
+        writer.close();
+        assertTrue(writer.events.isEmpty());
+    }
+}
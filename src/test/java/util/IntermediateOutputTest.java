@@ -0,0 +1,115 @@
+/*
+ * MIT License
+ * <p>
+ * Copyright (c) 2019-present Polina Bevad, Sergey Hvatov, Vladislav Marchenko
+ * <p>
+ * Permission is hereby granted, free of charge, to any person obtaining a copy
+ * of this software and associated documentation files (the "Software"), to deal
+ * in the Software without restriction, including without limitation the rights
+ * to use, copy, modify, merge, publish, distribute, sublicense, and/or sell
+ * copies of the Software, and to permit persons to whom the Software is
+ * furnished to do so, subject to the following conditions:
+ * <p>
+ * The above copyright notice and this permission notice shall be included in all
+ * copies or substantial portions of the Software.
+ * <p>
+ * THE SOFTWARE IS PROVIDED "AS IS", WITHOUT WARRANTY OF ANY KIND, EXPRESS OR
+ * IMPLIED, INCLUDING BUT NOT LIMITED TO THE WARRANTIES OF MERCHANTABILITY,
+ * FITNESS FOR A PARTICULAR PURPOSE AND NONINFRINGEMENT. IN NO EVENT SHALL THE
+ * AUTHORS OR COPYRIGHT HOLDERS BE LIABLE FOR ANY CLAIM, DAMAGES OR OTHER
+ * LIABILITY, WHETHER IN AN ACTION OF CONTRACT, TORT OR OTHERWISE, ARISING FROM,
+ * OUT OF OR IN CONNECTION WITH THE SOFTWARE OR THE USE OR OTHER DEALINGS IN THE
+ * SOFTWARE.
+ */
+
+package util;
+
+import org.junit.Test;
+
+import java.io.ByteArrayOutputStream;
+import java.io.PrintStream;
+import java.util.ArrayList;
+import java.util.HashSet;
+import java.util.List;
+import java.util.Set;
+
+import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertTrue;
+
+/**
+ * Tests for the {@link IntermediateOutput} class.
+ *
+ * @author Sergey Khvatov
+ */
+public class IntermediateOutputTest {
+
+    /**
+     * Number of the threads, that write the lines.
+     */
+    private static final int THREADS = 8;
+
+    /**
+     * Number of the lines of each thread.
+     */
+    private static final int LINES_PER_THREAD = 5000;
+
+    @Test
+    public void AllLinesAreWrittenBeforeFlush() throws InterruptedException {
+        ByteArrayOutputStream bytes = new ByteArrayOutputStream();
+        IntermediateOutput output = new IntermediateOutput(new PrintStream(bytes, true), 0);
+        List<Thread> threads = new ArrayList<>();
+        for (int t = 0; t < THREADS; t++) {
+            final int thread = t;
+            threads.add(new Thread(() -> {
+                for (int i = 0; i < LINES_PER_THREAD; i++) {
+                    output.add(thread + ":" + i);
+                }
+            }));
+        }
+        for (Thread thread : threads) {
+            thread.start();
+        }
+        for (Thread thread : threads) {
+            thread.join();
+        }
+        output.await();
+
+        String[] lines = bytes.toString().split(System.lineSeparator());
+        assertEquals(THREADS * LINES_PER_THREAD, lines.length);
+        Set<String> unique = new HashSet<>();
+        for (String line : lines) {
+            unique.add(line);
+        }
+        assertEquals(THREADS * LINES_PER_THREAD, unique.size());
+    }
+
+    @Test
+    public void LinesOverTheRateAreSkipped() {
+        ByteArrayOutputStream bytes = new ByteArrayOutputStream();
+        IntermediateOutput output = new IntermediateOutput(new PrintStream(bytes, true), 5);
+        for (int i = 0; i < 20; i++) {
+            output.add(String.valueOf(i));
+        }
+        output.await();
+
+        String[] lines = bytes.toString().split(System.lineSeparator());
+        assertTrue(lines.length <= 6);
+        assertEquals("0", lines[0]);
+        assertTrue(lines[lines.length - 1].matches("\\.\\.\\. \\d+ lines of the intermediate output are skipped"));
+    }
+
+    @Test
+    public void LinesAreWrittenToStandardErrorWithResultsInStandardOutput() {
+        ByteArrayOutputStream bytes = new ByteArrayOutputStream();
+        PrintStream err = System.err;
+        System.setErr(new PrintStream(bytes, true));
+        try {
+            IntermediateOutput.useStandardError();
+            IntermediateOutput.println("line");
+            IntermediateOutput.flush();
+        } finally {
+            System.setErr(err);
+        }
+        assertEquals("line" + System.lineSeparator(), bytes.toString());
+    }
+}
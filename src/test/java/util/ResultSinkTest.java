@@ -0,0 +1,142 @@
+/*
+ * MIT License
+ * <p>
+ * Copyright (c) 2019-present Polina Bevad, Sergey Hvatov, Vladislav Marchenko
+ * <p>
+ * Permission is hereby granted, free of charge, to any person obtaining a copy
+ * of this software and associated documentation files (the "Software"), to deal
+ * in the Software without restriction, including without limitation the rights
+ * to use, copy, modify, merge, publish, distribute, sublicense, and/or sell
+ * copies of the Software, and to permit persons to whom the Software is
+ * furnished to do so, subject to the following conditions:
+ * <p>
+ * The above copyright notice and this permission notice shall be included in all
+ * copies or substantial portions of the Software.
+ * <p>
+ * THE SOFTWARE IS PROVIDED "AS IS", WITHOUT WARRANTY OF ANY KIND, EXPRESS OR
+ * IMPLIED, INCLUDING BUT NOT LIMITED TO THE WARRANTIES OF MERCHANTABILITY,
+ * FITNESS FOR A PARTICULAR PURPOSE AND NONINFRINGEMENT. IN NO EVENT SHALL THE
+ * AUTHORS OR COPYRIGHT HOLDERS BE LIABLE FOR ANY CLAIM, DAMAGES OR OTHER
+ * LIABILITY, WHETHER IN AN ACTION OF CONTRACT, TORT OR OTHERWISE, ARISING FROM,
+ * OUT OF OR IN CONNECTION WITH THE SOFTWARE OR THE USE OR OTHER DEALINGS IN THE
+ * SOFTWARE.
+ */
+
+package util;
+
+import bam.regular.BEDFeature;
+import exception.GenomeException;
+import genome.compare.common.ComparisonResult;
+import genome.compare.levenshtein.LevenshteinComparisonResult;
+import org.junit.Test;
+
+import java.io.StringWriter;
+import java.io.Writer;
+import java.util.Arrays;
+import java.util.List;
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.atomic.AtomicInteger;
+
+import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertTrue;
+
+/**
+ * Tests for the {@link ResultSink} class.
+ *
+ * @author Sergey Khvatov
+ */
+public class ResultSinkTest {
+
+    /**
+     * Results of the regions of the feature.
+     */
+    private static final List<ComparisonResult> RESULTS = Arrays.asList(
+        new LevenshteinComparisonResult("chr1", "GENE", 2, 256),
+        new LevenshteinComparisonResult("chr1", "GENE", 1, 44));
+
+    @Test
+    public void FeatureIsWrittenAsNDJSON() {
+        StringWriter out = new StringWriter();
+        try (ResultSink sink = new ResultSink(out, ResultSink.Format.NDJSON, true)) {
+            sink.writeFeature("first-second", new BEDFeature("chr1", 100, 400, "GENE"), RESULTS);
+        }
+        assertEquals("{\"record\":\"region\",\"pair\":\"first-second\",\"chrom\":\"chr1\",\"gene\":\"GENE\",\"difference\":2,\"length\":256,\"scale\":1}\n"
+            + "{\"record\":\"region\",\"pair\":\"first-second\",\"chrom\":\"chr1\",\"gene\":\"GENE\",\"difference\":1,\"length\":44,\"scale\":1}\n"
+            + "{\"record\":\"feature\",\"pair\":\"first-second\",\"chrom\":\"chr1\",\"gene\":\"GENE\",\"start\":100,\"end\":400,\"regions\":2,\"difference\":3,\"length\":300}\n", out.toString());
+    }
+
+    @Test
+    public void HeaderOfEachTypeIsWrittenOnceInTSV() {
+        StringWriter out = new StringWriter();
+        try (ResultSink sink = new ResultSink(out, ResultSink.Format.TSV, true)) {
+            sink.write(null, RESULTS);
+            sink.write("a-b", new ResultRecord("pair").add("first", "a\tb").add("similarity", 99.5));
+        }
+        assertEquals("#record\tpair\tchrom\tgene\tdifference\tlength\tscale\n"
+            + "region\t\tchr1\tGENE\t2\t256\t1\n"
+            + "region\t\tchr1\tGENE\t1\t44\t1\n"
+            + "#record\tpair\tfirst\tsimilarity\n"
+            + "pair\ta-b\ta b\t99.5\n", out.toString());
+    }
+
+    @Test
+    public void StringsAreEscapedInNDJSON() {
+        StringWriter out = new StringWriter();
+        try (ResultSink sink = new ResultSink(out, ResultSink.Format.NDJSON, true)) {
+            sink.write(null, new ResultRecord("result").add("result", "\"a\"\\\n\u0001").add("jaccard", Double.NaN).add("missing", null));
+        }
+        assertEquals("{\"record\":\"result\",\"result\":\"\\\"a\\\"\\\\\\n\\u0001\",\"jaccard\":null,\"missing\":null}\n", out.toString());
+    }
+
+    @Test(expected = GenomeException.class)
+    public void WriteAfterCloseFails() {
+        ResultSink sink = new ResultSink(new StringWriter(), ResultSink.Format.NDJSON, true);
+        sink.close();
+        sink.write(null, RESULTS);
+    }
+
+    @Test(timeout = 10000)
+    public void ProducerWaitsForSlowOutput() throws InterruptedException {
+        CountDownLatch release = new CountDownLatch(1);
+        StringWriter out = new StringWriter();
+        // output, that does not accept anything, until it is released
+        Writer slow = new Writer() {
+            @Override
+            public void write(char[] buffer, int offset, int length) {
+                try {
+                    release.await();
+                } catch (InterruptedException iex) {
+                    Thread.currentThread().interrupt();
+                }
+                out.write(buffer, offset, length);
+            }
+
+            @Override
+            public void flush() {
+            }
+
+            @Override
+            public void close() {
+            }
+        };
+        int records = 3 * ResultSink.QUEUE_CAPACITY;
+        AtomicInteger written = new AtomicInteger();
+        ResultSink sink = new ResultSink(slow, ResultSink.Format.NDJSON, true);
+        Thread producer = new Thread(() -> {
+            for (int i = 0; i < records; i++) {
+                sink.write(null, new ResultRecord("result").add("index", i));
+                written.incrementAndGet();
+            }
+        });
+        producer.start();
+        producer.join(500);
+
+        // the queue and the batch of the writer are full, the rest of the records are not in the heap
+        assertTrue(producer.isAlive());
+        assertTrue(written.get() < records);
+        release.countDown();
+        producer.join();
+        sink.close();
+        assertEquals(records, out.toString().split("\n").length);
+    }
+}
@@ -0,0 +1,68 @@
+/*
+ * MIT License
+ * <p>
+ * Copyright (c) 2019-present Polina Bevad, Sergey Hvatov, Vladislav Marchenko
+ * <p>
+ * Permission is hereby granted, free of charge, to any person obtaining a copy
+ * of this software and associated documentation files (the "Software"), to deal
+ * in the Software without restriction, including without limitation the rights
+ * to use, copy, modify, merge, publish, distribute, sublicense, and/or sell
+ * copies of the Software, and to permit persons to whom the Software is
+ * furnished to do so, subject to the following conditions:
+ * <p>
+ * The above copyright notice and this permission notice shall be included in all
+ * copies or substantial portions of the Software.
+ * <p>
+ * THE SOFTWARE IS PROVIDED "AS IS", WITHOUT WARRANTY OF ANY KIND, EXPRESS OR
+ * IMPLIED, INCLUDING BUT NOT LIMITED TO THE WARRANTIES OF MERCHANTABILITY,
+ * FITNESS FOR A PARTICULAR PURPOSE AND NONINFRINGEMENT. IN NO EVENT SHALL THE
+ * AUTHORS OR COPYRIGHT HOLDERS BE LIABLE FOR ANY CLAIM, DAMAGES OR OTHER
+ * LIABILITY, WHETHER IN AN ACTION OF CONTRACT, TORT OR OTHERWISE, ARISING FROM,
+ * OUT OF OR IN CONNECTION WITH THE SOFTWARE OR THE USE OR OTHER DEALINGS IN THE
+ * SOFTWARE.
+ */
+
+package util;
+
+import org.junit.Rule;
+import org.junit.Test;
+import org.junit.rules.TemporaryFolder;
+
+import java.io.File;
+import java.nio.file.Files;
+
+import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertNotEquals;
+
+/**
+ * Tests for the {@link SampleCache} class.
+ *
+ * @author Sergey Khvatov
+ */
+public class SampleCacheTest {
+
+    @Rule
+    public TemporaryFolder folder = new TemporaryFolder();
+
+    @Test
+    public void StampChangesWithBAMFile() throws Exception {
+        File bam = folder.newFile("sample.bam");
+        Files.write(bam.toPath(), new byte[]{1, 2, 3});
+        long stamp = SampleCache.stamp(bam);
+        assertEquals(stamp, SampleCache.stamp(bam));
+
+        // regenerated file of the same length
+        Files.write(bam.toPath(), new byte[]{3, 2, 1});
+        bam.setLastModified(bam.lastModified() + 1000);
+        assertNotEquals(stamp, SampleCache.stamp(bam));
+    }
+
+    @Test
+    public void FilesOfSameNamesAreDifferent() throws Exception {
+        File directory = folder.newFolder("cache");
+        File first = new File(folder.newFolder("first"), "sample.bam");
+        File second = new File(folder.newFolder("second"), "sample.bam");
+        assertNotEquals(SampleCache.getFile(directory, first, ".sketch"), SampleCache.getFile(directory, second, ".sketch"));
+        assertEquals(directory, SampleCache.getFile(directory, first, ".sketch").getParentFile());
+    }
+}
@@ -42,7 +42,7 @@ public class UserInputParserTest {
 
     private final static String PATH_TO_BAM_3 = "src/test/resources/genome/compare/testSon4.bam";
 
-    private final static String CHECK_STR_0 = "## Usage\n" + "    java -jar bio_relatives.jar [-h | --help] [-io | --intermediateOutput] [-g | --graph <path to the file>] [-c2 | --compare2 <first> <second> <bed>] [-c3 | --compare3 <father> <mother> <son> <bed>] [-m | --mode <L | XY>] [-th | --threadsNumber <number>]\n" + "### Options\n" + "\n" + "`-h`, `--help` - show help message.\n" + "\n" + "`-io`, `--intermediateOutput` - key, which enables intermediate results output.\n" + "\n" + "`-c2`, `--compare2` - compare genomes of two persons.\n" + "\n" + "`-c3`, `--compare3` - compare genomes of three persons (father/mother/son).\n" + "\n" + "`-m`, `--mode` - defines which comparator will be used.\n" + "\n" + "`-g`, `--graph` - defines whether graph should be printed or not (used only in STR comparison).\n" + "\n" + "`-th`, `--threadsNumber` - defines number of threads that should be created to process the information analysis.\n";
+    private final static String CHECK_STR_0 = "## Usage\n" + "    java -jar bio_relatives.jar [-h | --help] [-io | --intermediateOutput] [-vt | --virtualThreads] [-g | --graph <path to the file>] [-c2 | --compare2 <first> <second> <bed>] [-c3 | --compare3 <father> <mother> <son> <bed>] [-co | --cohort <samples> <bed>] [-m | --mode <L | WL | MH | IBS | XY | XYR>] [-hdb | --haplotypeDatabase <database>] [-bhdb | --buildHaplotypeDatabase <table> <database>] [-th | --threadsNumber <number>] [-if | --inFlight <number>] [-pl | --pipeline <read:assemble:compare>] [-me | --mendelian] [-ps | --preScreen <threshold>] [-o | --output <file>]\n" + "### Options\n" + "\n" + "`-h`, `--help` - show help message.\n" + "\n" + "`-io`, `--intermediateOutput` - key, which enables intermediate results output.\n" + "\n" + "`-vt`, `--virtualThreads` - key, which enables reading of the BAM files by the virtual threads (JDK 21+).\n" + "\n" + "`-c2`, `--compare2` - compare genomes of two persons.\n" + "\n" + "`-c3`, `--compare3` - compare genomes of three persons (father/mother/son).\n" + "\n" + "`-co`, `--cohort` - compare genomes of all the pairs of the persons from the sample sheet (in the `IBS` mode - estimate the kinship of all the pairs).\n" + "\n" + "`-m`, `--mode` - defines which comparator will be used.\n" + "\n" + "`-g`, `--graph` - defines whether graph should be printed or not (used only in STR comparison).\n" + "\n" + "`-hdb`, `--haplotypeDatabase` - defines the haplotype database, where the nearest haplotypes of the persons are searched (used only in STR comparison).\n" + "\n" + "`-bhdb`, `--buildHaplotypeDatabase` - converts the table of the haplotypes into the haplotype database.\n" + "\n" + "`-th`, `--threadsNumber` - defines number of threads that should be created to process the information analysis.\n" + "\n" + "`-if`, `--inFlight` - defines maximum number of the features, that are processed at once (by default 4 per thread, or 64 with `-vt`).\n" + "\n" + "`-pl`, `--pipeline` - defines numbers of the workers of the reading, assembling and comparison stages of the pipeline (used only in Levenshtein comparison).\n" + "\n" + "`-me`, `--mendelian` - key, which enables counting of the Mendelian errors of the trio (used only in Levenshtein comparison of three persons).\n" + "\n" + "`-ps`, `--preScreen` - defines minimum average Jaccard similarity of the k-mer sketches of the pairs of the cohort, that are compared (used only in Levenshtein comparison of the cohort).\n" + "\n" + "`-o`, `--output` - defines the file, where the results of the regions, features and markers are written as soon as they are produced (NDJSON, or TSV if the name of the file ends with `.tsv`; `-` - standard output).\n";
     private final static String CHECK_STR_1 ="Similarity percentage for each chromosome:\n" +
             "\tName of chromosome: 4. Similarity percentage: 100.0%\n" +
             "\tNumber of nucleotides compared: 1768\n" +